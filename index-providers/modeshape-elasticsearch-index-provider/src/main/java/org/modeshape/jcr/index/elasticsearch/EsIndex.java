@@ -16,9 +16,14 @@
 package org.modeshape.jcr.index.elasticsearch;
 
 import java.io.IOException;
+import java.net.HttpURLConnection;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import javax.jcr.query.qom.Constraint;
+import org.modeshape.common.logging.Logger;
 import org.modeshape.common.util.CheckArg;
 import org.modeshape.jcr.ExecutionContext;
 import org.modeshape.jcr.api.index.IndexDefinition;
@@ -34,12 +39,32 @@ import org.modeshape.jcr.spi.index.provider.ProvidedIndex;
  */
 public class EsIndex implements ProvidedIndex {
 
+    /**
+     * The maximum number of changed documents which are buffered before they 
+     * are sent to the Elasticsearch engine, even if the index is not committed.
+     */
+    protected static final int MAX_PENDING_CHANGES = 1000;
+
+    /**
+     * The maximum number of times the changes of a node are sent to the Elasticsearch 
+     * engine when they keep failing with temporary errors.
+     */
+    protected static final int MAX_BULK_ATTEMPTS = 5;
+
+    private static final Logger LOGGER = Logger.getLogger(EsIndex.class);
+
     private final String name;
     private final String workspace;
     private final EsIndexColumns columns;
     private final Operations operations;
     private final EsClient client;
     
+    // changes made since the last commit, sent with a single bulk request
+    private final Map<String, EsRequest> pendingDocs = new HashMap<>();
+    private final Set<String> pendingDeletes = new HashSet<>();
+    // the number of failed attempts to send the buffered changes of a node
+    private final Map<String, Integer> failedAttempts = new HashMap<>();
+    
     /**
      * Creates new index.
      * 
@@ -106,9 +131,11 @@ public class EsIndex implements ProvidedIndex {
         assert column != null : "Unexpected column for the index " + name();
 
         try {
-            EsRequest doc = findOrCreateDoc(nodeKey);
-            putValue(doc, column, value);
-            client.storeDocument(name(), workspace, nodeKey, doc);
+            synchronized (pendingDocs) {
+                EsRequest doc = findOrCreateDoc(nodeKey);
+                putValue(doc, column, value);
+                store(nodeKey, doc);
+            }
         } catch (IOException e) {
             throw new EsIndexException(e);
         }
@@ -124,9 +151,11 @@ public class EsIndex implements ProvidedIndex {
         assert column != null : "Unexpected column for the index " + name();
 
         try {
-            EsRequest doc = findOrCreateDoc(nodeKey);
-            putValues(doc, column, values);
-            client.storeDocument(name(), workspace, nodeKey, doc);
+            synchronized (pendingDocs) {
+                EsRequest doc = findOrCreateDoc(nodeKey);
+                putValues(doc, column, values);
+                store(nodeKey, doc);
+            }
         } catch (IOException e) {
             throw new EsIndexException(e);
         }
@@ -136,7 +165,11 @@ public class EsIndex implements ProvidedIndex {
     public void remove(String nodeKey) {
         CheckArg.isNotNull(nodeKey, "nodeKey");
         try {
-            client.deleteDocument(name(), workspace, nodeKey);
+            synchronized (pendingDocs) {
+                pendingDocs.remove(nodeKey);
+                pendingDeletes.add(nodeKey);
+                flushIfNeeded();
+            }
         } catch (IOException e) {
             throw new EsIndexException(e);
         }
@@ -148,12 +181,14 @@ public class EsIndex implements ProvidedIndex {
         CheckArg.isNotNull(propertyName, "propertyName");
 
         try {
-            EsRequest doc = find(nodeKey);
-            if (doc == null) {
-                return;
+            synchronized (pendingDocs) {
+                EsRequest doc = find(nodeKey);
+                if (doc == null) {
+                    return;
+                }
+                doc.remove(propertyName);
+                store(nodeKey, doc);
             }
-            doc.remove(propertyName);            
-            client.storeDocument(name(), workspace, nodeKey, doc);
         } catch (IOException e) {
             throw new EsIndexException(e);
         }
@@ -165,9 +200,11 @@ public class EsIndex implements ProvidedIndex {
         CheckArg.isNotNull(propertyName, "propertyName");
 
         try {
-            EsRequest doc = find(nodeKey);
-            doc.remove(propertyName);
-            client.storeDocument(name(), workspace, nodeKey, doc);
+            synchronized (pendingDocs) {
+                EsRequest doc = find(nodeKey);
+                doc.remove(propertyName);
+                store(nodeKey, doc);
+            }
         } catch (Exception e) {
             throw new EsIndexException(e);
         }
@@ -181,9 +218,79 @@ public class EsIndex implements ProvidedIndex {
      * @throws IOException 
      */
     private EsRequest find(String nodeKey) throws IOException {
+        EsRequest doc = pendingDocs.get(nodeKey);
+        if (doc != null || pendingDeletes.contains(nodeKey)) {
+            return doc;
+        }
         return client.getDocument(name(), workspace, nodeKey);
     }
 
+    /**
+     * Buffers the new state of indexed node's properties until the next commit.
+     * 
+     * @param nodeKey node key being indexed.
+     * @param doc list of properties in json format
+     * @throws IOException 
+     */
+    private void store(String nodeKey, EsRequest doc) throws IOException {
+        pendingDeletes.remove(nodeKey);
+        pendingDocs.put(nodeKey, doc);
+        flushIfNeeded();
+    }
+
+    private void flushIfNeeded() throws IOException {
+        if (pendingDocs.size() + pendingDeletes.size() >= MAX_PENDING_CHANGES) {
+            flush();
+        }
+    }
+
+    /**
+     * Sends all buffered changes with a single bulk request. Changes which Elasticsearch rejected as invalid are logged and
+     * dropped. Changes which failed with a temporary error (status 429 or 5xx) are kept and sent again by the next flush, until
+     * they have been attempted {@link #MAX_BULK_ATTEMPTS} times.
+     * 
+     * @throws IOException 
+     */
+    private void flush() throws IOException {
+        Map<String, Integer> failures = client.bulk(name(), workspace, pendingDocs, pendingDeletes);
+        Map<String, EsRequest> retryDocs = new HashMap<>();
+        Set<String> retryDeletes = new HashSet<>();
+        Map<String, Integer> attempts = new HashMap<>();
+        for (Map.Entry<String, Integer> failure : failures.entrySet()) {
+            String nodeKey = failure.getKey();
+            int status = failure.getValue();
+            if (!isTemporaryFailure(status)) {
+                LOGGER.warn(EsIndexProviderI18n.changesRejectedByIndex, nodeKey, name(), status);
+                continue;
+            }
+            Integer previousAttempts = failedAttempts.get(nodeKey);
+            int nodeAttempts = previousAttempts != null ? previousAttempts + 1 : 1;
+            if (nodeAttempts >= MAX_BULK_ATTEMPTS) {
+                LOGGER.warn(EsIndexProviderI18n.changesDroppedAfterFailedAttempts, nodeKey, name(), nodeAttempts, status);
+                continue;
+            }
+            attempts.put(nodeKey, nodeAttempts);
+            if (pendingDeletes.contains(nodeKey)) {
+                retryDeletes.add(nodeKey);
+            } else {
+                retryDocs.put(nodeKey, pendingDocs.get(nodeKey));
+            }
+        }
+        pendingDocs.clear();
+        pendingDeletes.clear();
+        pendingDocs.putAll(retryDocs);
+        pendingDeletes.addAll(retryDeletes);
+        failedAttempts.clear();
+        failedAttempts.putAll(attempts);
+        if (!attempts.isEmpty()) {
+            LOGGER.warn(EsIndexProviderI18n.changesWillBeSentAgain, attempts.size(), name());
+        }
+    }
+
+    private boolean isTemporaryFailure(int status) {
+        return status == 429 || status >= HttpURLConnection.HTTP_INTERNAL_ERROR;
+    }
+
     /**
      * Searches indexed node's properties by node key or creates new empty list.
      * 
@@ -193,7 +300,7 @@ public class EsIndex implements ProvidedIndex {
      * @throws IOException 
      */
     private EsRequest findOrCreateDoc(String nodeKey) throws IOException {
-        EsRequest doc = client.getDocument(name(), workspace, nodeKey);
+        EsRequest doc = find(nodeKey);
         return doc != null ? doc : new EsRequest();
     }
 
@@ -244,6 +351,9 @@ public class EsIndex implements ProvidedIndex {
     @Override
     public void commit() {
         try {
+            synchronized (pendingDocs) {
+                flush();
+            }
             client.refresh(name());
         } catch (IOException e) {
             throw new EsIndexException(e);
@@ -284,6 +394,11 @@ public class EsIndex implements ProvidedIndex {
     @Override
     public void clearAllData() {
         try {
+            synchronized (pendingDocs) {
+                pendingDocs.clear();
+                pendingDeletes.clear();
+                failedAttempts.clear();
+            }
             client.deleteAll(name(), workspace);
         } catch (IOException e) {
             throw new EsIndexException(e);
@@ -292,7 +407,15 @@ public class EsIndex implements ProvidedIndex {
 
     @Override
     public void shutdown(boolean destroyed) {
-        if (destroyed) {
+        if (!destroyed) {
+            try {
+                synchronized (pendingDocs) {
+                    flush();
+                }
+            } catch (IOException e) {
+                throw new EsIndexException(e);
+            }
+        } else {
             try {
                 client.deleteIndex(name());
             } catch (Exception e) {
@@ -0,0 +1,40 @@
+/*
+ * ModeShape (http://www.modeshape.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.modeshape.jcr.index.elasticsearch;
+
+import org.modeshape.common.i18n.I18n;
+
+/**
+ * I18n constants for the Elasticsearch index provider.
+ */
+public final class EsIndexProviderI18n {
+
+    public static I18n changesRejectedByIndex;
+    public static I18n changesDroppedAfterFailedAttempts;
+    public static I18n changesWillBeSentAgain;
+
+    private EsIndexProviderI18n() {
+    }
+
+    static {
+        try {
+            I18n.initialize(EsIndexProviderI18n.class);
+        } catch (final Exception err) {
+            // CHECKSTYLE IGNORE check FOR NEXT 1 LINES
+            System.err.println(err);
+        }
+    }
+}
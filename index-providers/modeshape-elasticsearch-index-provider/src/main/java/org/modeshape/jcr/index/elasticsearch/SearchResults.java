@@ -31,12 +31,18 @@ import org.modeshape.jcr.spi.index.ResultWriter;
  */
 public class SearchResults implements Index.Results {
 
+    /**
+     * How long the scroll cursor is kept open between two batches.
+     */
+    private static final String SCROLL_KEEP_ALIVE = "1m";
+
     private final EsClient client;
     private final EsRequest query;
     private final String index, type;
     
     private int pos = 0;
     private int totalHits;
+    private String scrollId;
     
     /**
      * Creates new search result instance for the given search request.
@@ -52,22 +58,35 @@ public class SearchResults implements Index.Results {
 
     @Override
     public boolean getNextBatch(ResultWriter writer, int batchSize) {
-        query.put("from", pos);
-        query.put("size", batchSize);
-        
+        if (pos > 0 && scrollId == null) {
+            // all the hits have already been read
+            return false;
+        }
         try {
-            EsResponse res = client.search(index, type, query);
+            EsResponse res;
+            if (scrollId == null) {
+                // the first batch opens a scroll cursor, which is used to read all following batches
+                query.put("size", batchSize);
+                res = client.search(index, type, query, SCROLL_KEEP_ALIVE);
+            } else {
+                res = client.scroll(scrollId, SCROLL_KEEP_ALIVE);
+            }
+            scrollId = (String) res.get("_scroll_id");
             Document hits = (Document) res.get("hits");
             totalHits = hits.getInteger("total");
             List items = hits.getArray("hits");
             for (Object doc : items) {
                 Document hit = (Document) doc;
                 String nodeKey = hit.getString("_id");
-                float score = (hit.getDouble("_score").floatValue());
-                writer.add(new NodeKey(nodeKey), score);
+                Double score = hit.getDouble("_score");
+                writer.add(new NodeKey(nodeKey), score != null ? score.floatValue() : 1.0f);
                 pos++;
             }
-            return pos < totalHits;
+            boolean hasMore = !items.isEmpty() && pos < totalHits;
+            if (!hasMore) {
+                close();
+            }
+            return hasMore;
         } catch (IOException e) {
             return false;
         }
@@ -75,6 +94,15 @@ public class SearchResults implements Index.Results {
 
     @Override
     public void close() {
+        if (scrollId != null) {
+            try {
+                client.clearScroll(scrollId);
+            } catch (IOException e) {
+                // the cursor expires anyway
+            } finally {
+                scrollId = null;
+            }
+        }
     }
 
     /**
@@ -87,6 +115,8 @@ public class SearchResults implements Index.Results {
             return totalHits;
         }
         try {
+            // only the number of hits is needed, not the hits themselves
+            query.put("size", 0);
             EsResponse res = client.search(index, type, query);
             Document hits = (Document) res.get("hits");
             totalHits = hits.getInteger("total");
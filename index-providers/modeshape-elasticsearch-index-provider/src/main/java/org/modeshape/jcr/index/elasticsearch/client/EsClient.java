@@ -16,8 +16,14 @@
 package org.modeshape.jcr.index.elasticsearch.client;
 
 import java.io.IOException;
+import java.io.OutputStream;
 import java.net.HttpURLConnection;
 import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
 import org.infinispan.schematic.document.Document;
 import org.modeshape.jcr.index.elasticsearch.query.MatchAllQuery;
 
@@ -141,6 +147,75 @@ public class EsClient {
         }        
     }
 
+    /**
+     * Indexes and deletes several documents with a single request, using the bulk API.
+     * 
+     * @param name the name of the index.
+     * @param type index type
+     * @param documents documents to be indexed, keyed by document id
+     * @param deletedIds ids of the documents to be deleted
+     * @return the HTTP status of each document which could not be indexed or 
+     * deleted, keyed by document id; empty if all documents were indexed or deleted.
+     * @throws IOException 
+     */
+    public Map<String, Integer> bulk(String name, String type, Map<String, EsRequest> documents, 
+            Collection<String> deletedIds) throws IOException {
+        if (documents.isEmpty() && deletedIds.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        String url = String.format("http://%s:%d/%s/%s/_bulk", host, port, name, type);
+        HttpURLConnection connection = null;
+        try {
+            connection = (HttpURLConnection) new URL(url).openConnection();
+            connection.setDoInput(true);
+            connection.setDoOutput(true);
+            connection.setRequestMethod("POST");
+            connection.setRequestProperty("Content-Type", "application/x-www-form-urlencoded");
+            OutputStream out = connection.getOutputStream();
+            // the bulk API expects one action (optionally followed by its document) per line
+            for (Map.Entry<String, EsRequest> entry : documents.entrySet()) {
+                writeLine(out, action("index", entry.getKey()));
+                writeLine(out, entry.getValue());
+            }
+            for (String id : deletedIds) {
+                writeLine(out, action("delete", id));
+            }
+            if (connection.getResponseCode() != HttpURLConnection.HTTP_OK) {
+                throw new IOException(connection.getResponseMessage());
+            }
+            EsResponse response = EsResponse.read(connection.getInputStream());
+            if (!Boolean.TRUE.equals(response.get("errors"))) {
+                return Collections.emptyMap();
+            }
+            // each item holds the result of one action, keyed by the name of the action
+            Map<String, Integer> failures = new HashMap<>();
+            for (Object item : (Object[]) response.get("items")) {
+                for (Document.Field action : ((Document) item).fields()) {
+                    Document result = action.getValueAsDocument();
+                    if (result.containsField("error")) {
+                        failures.put(result.getString("_id"), result.getInteger("status"));
+                    }
+                }
+            }
+            return failures;
+        } finally {
+            if (connection != null) connection.disconnect();
+        }
+    }
+    
+    private EsRequest action(String name, String id) {
+        EsRequest metadata = new EsRequest();
+        metadata.put("_id", id);
+        EsRequest action = new EsRequest();
+        action.put(name, metadata);
+        return action;
+    }
+
+    private void writeLine(OutputStream out, EsRequest line) throws IOException {
+        line.write(out);
+        out.write("\n".getBytes(StandardCharsets.UTF_8));
+    }
+
     /**
      * Searches indexed document.
      * 
@@ -293,6 +368,99 @@ public class EsClient {
         }
     }
 
+    /**
+     * Executes query and keeps a scroll cursor open over its results, so that
+     * large result sets can be read in pages with {@link #scroll(String, String)}.
+     * 
+     * @param name index name.
+     * @param type index type.
+     * @param query query to be executed, including the page size
+     * @param keepAlive how long the cursor is kept open between pages, e.g. "1m"
+     * @return the first page of search results in json format, including 
+     * the "_scroll_id" of the cursor.
+     * @throws IOException 
+     */
+    public EsResponse search(String name, String type, EsRequest query, 
+            String keepAlive) throws IOException {
+        String url = String.format("http://%s:%d/%s/%s/_search?scroll=%s", host, port, name, type, keepAlive);
+        HttpURLConnection connection = null;
+        try {
+            connection = (HttpURLConnection) new URL(url).openConnection();
+            connection.setRequestMethod("POST");
+            connection.setDoOutput(true);
+            connection.setDoInput(true);
+            query.write(connection.getOutputStream());
+            
+            if (connection.getResponseCode() != HttpURLConnection.HTTP_OK) {
+                throw new IOException(connection.getResponseMessage());
+            }
+            
+            return EsResponse.read(connection.getInputStream());
+        } finally {
+            if (connection != null) connection.disconnect();
+        }
+    }
+
+    /**
+     * Reads the next page of results of a scroll cursor.
+     * 
+     * @param scrollId the id of the cursor, as returned with the previous page.
+     * @param keepAlive how long the cursor is kept open until the next page.
+     * @return the next page of search results in json format.
+     * @throws IOException 
+     */
+    public EsResponse scroll(String scrollId, String keepAlive) throws IOException {
+        String url = String.format("http://%s:%d/_search/scroll", host, port);
+        HttpURLConnection connection = null;
+        try {
+            connection = (HttpURLConnection) new URL(url).openConnection();
+            connection.setRequestMethod("POST");
+            connection.setDoOutput(true);
+            connection.setDoInput(true);
+            
+            EsRequest request = new EsRequest();
+            request.put("scroll", keepAlive);
+            request.put("scroll_id", scrollId);
+            request.write(connection.getOutputStream());
+            
+            if (connection.getResponseCode() != HttpURLConnection.HTTP_OK) {
+                throw new IOException(connection.getResponseMessage());
+            }
+            
+            return EsResponse.read(connection.getInputStream());
+        } finally {
+            if (connection != null) connection.disconnect();
+        }
+    }
+
+    /**
+     * Releases a scroll cursor before it expires.
+     * 
+     * @param scrollId the id of the cursor.
+     * @throws IOException 
+     */
+    public void clearScroll(String scrollId) throws IOException {
+        String url = String.format("http://%s:%d/_search/scroll", host, port);
+        HttpURLConnection connection = null;
+        try {
+            connection = (HttpURLConnection) new URL(url).openConnection();
+            connection.setRequestMethod("DELETE");
+            connection.setDoOutput(true);
+            connection.setDoInput(true);
+            
+            EsRequest request = new EsRequest();
+            request.put("scroll_id", new String[] {scrollId});
+            request.write(connection.getOutputStream());
+            
+            int status = connection.getResponseCode();
+            if (status != HttpURLConnection.HTTP_OK && status != HttpURLConnection.HTTP_NOT_FOUND) {
+                throw new IOException(connection.getResponseMessage());
+            }
+        } finally {
+            if (connection != null) connection.disconnect();
+        }
+    }
+
     /**
      * Counts entries.
      * 
@@ -0,0 +1,142 @@
+/*
+ * ModeShape (http://www.modeshape.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.modeshape.jcr.index.elasticsearch;
+
+import static org.junit.Assert.assertEquals;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import javax.jcr.PropertyType;
+import org.junit.Before;
+import org.junit.Test;
+import org.modeshape.jcr.ExecutionContext;
+import org.modeshape.jcr.index.elasticsearch.client.EsClient;
+import org.modeshape.jcr.index.elasticsearch.client.EsRequest;
+
+/**
+ * Unit test for the way an {@link EsIndex} handles the documents which Elasticsearch fails to apply in a bulk request, using a
+ * client which doesn't need a running Elasticsearch engine.
+ */
+public class EsIndexFlushTest {
+
+    private final static ExecutionContext context = new ExecutionContext();
+    private final static EsIndexColumn field = new EsIndexColumn(context, "field1", PropertyType.STRING);
+
+    private BulkRecordingClient client;
+    private EsIndex index;
+
+    @Before
+    public void setUp() {
+        client = new BulkRecordingClient();
+        index = new EsIndex(client, new EsIndexColumns(field), context, "test", "workspace");
+    }
+
+    @Test
+    public void shouldDropRejectedDocumentsAndResendTemporaryFailures() {
+        index.add("key1", field.getName(), "value1");
+        index.add("key2", field.getName(), "value2");
+        index.add("key3", field.getName(), "value3");
+        index.remove("key4");
+        client.failures.put("key1", 400);
+        client.failures.put("key2", 503);
+        client.failures.put("key4", 429);
+        index.commit();
+
+        client.failures.clear();
+        index.add("key5", field.getName(), "value5");
+        index.commit();
+        assertEquals(set("key2", "key5"), client.sentDocuments.get(1));
+        assertEquals(set("key4"), client.sentDeletes.get(1));
+
+        index.commit();
+        assertEquals(3, client.sentDocuments.size());
+        assertEquals(Collections.<String>emptySet(), client.sentDocuments.get(2));
+        assertEquals(Collections.<String>emptySet(), client.sentDeletes.get(2));
+    }
+
+    @Test
+    public void shouldStopResendingDocumentsAfterTheMaximumNumberOfAttempts() {
+        index.add("key1", field.getName(), "value1");
+        client.failures.put("key1", 500);
+        for (int i = 0; i < EsIndex.MAX_BULK_ATTEMPTS + 1; i++) {
+            index.commit();
+        }
+        int attempts = 0;
+        for (Set<String> sent : client.sentDocuments) {
+            if (sent.contains("key1")) {
+                attempts++;
+            }
+        }
+        assertEquals(EsIndex.MAX_BULK_ATTEMPTS, attempts);
+    }
+
+    private static Set<String> set( String... values ) {
+        Set<String> result = new HashSet<>();
+        Collections.addAll(result, values);
+        return result;
+    }
+
+    /**
+     * Records the documents sent with each bulk request and fails the configured ones.
+     */
+    private static class BulkRecordingClient extends EsClient {
+        private final Map<String, Integer> failures = new HashMap<>();
+        private final List<Set<String>> sentDocuments = new ArrayList<>();
+        private final List<Set<String>> sentDeletes = new ArrayList<>();
+
+        private BulkRecordingClient() {
+            super("localhost", 9200);
+        }
+
+        @Override
+        public boolean createIndex( String name, String type, EsRequest mappings ) {
+            return true;
+        }
+
+        @Override
+        public void flush( String name ) {
+        }
+
+        @Override
+        public void refresh( String name ) {
+        }
+
+        @Override
+        public EsRequest getDocument( String name, String type, String id ) {
+            return null;
+        }
+
+        @Override
+        public Map<String, Integer> bulk( String name, String type, Map<String, EsRequest> documents,
+                                          Collection<String> deletedIds ) throws IOException {
+            sentDocuments.add(new HashSet<>(documents.keySet()));
+            sentDeletes.add(new HashSet<>(deletedIds));
+            Map<String, Integer> result = new HashMap<>();
+            for (Map.Entry<String, Integer> failure : failures.entrySet()) {
+                if (documents.containsKey(failure.getKey()) || deletedIds.contains(failure.getKey())) {
+                    result.put(failure.getKey(), failure.getValue());
+                }
+            }
+            return result;
+        }
+    }
+}
@@ -18,6 +18,7 @@ package org.modeshape.jcr.index.elasticsearch;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.Map;
 import javax.jcr.PropertyType;
@@ -254,6 +255,60 @@ public class EsIndexTest {
         validate(sc, "key8");
     }
 
+    @Test
+    public void shouldReadResultsInSeveralBatches() {
+        PropertyExistence pe = new PropertyExistence(new SelectorName("test"), def2.getName());
+        ResultWriterImpl rw = new ResultWriterImpl();
+        Results results = index.filter(constraints(pe));
+        int batches = 1;
+        while (results.getNextBatch(rw, 2)) {
+            batches++;
+        }
+        results.close();
+        assertEquals(3, batches);
+        assertEquals(6, new HashSet<NodeKey>(rw.results()).size());
+    }
+
+    @Test
+    public void shouldCombineChangesOfSameNodeUntilCommit() throws Exception {
+        index.add(key("key8"), def1.getName(), "node8 - value8");
+        index.add(key("key8"), def2.getName(), 8);
+        index.commit();
+        try {
+            Comparison eq = new Comparison(propertyValue(def2), Operator.EQUAL_TO, new Literal(8));
+            validate(eq, "key8");
+            validate(fullTextSearch("node8 - value8"), "key8");
+        } finally {
+            index.remove(key("key8"));
+            index.commit();
+        }
+    }
+
+    @Test
+    public void shouldDropChangesRejectedByElasticsearchWithoutBlockingOthers() throws Exception {
+        EsIndexColumn stringColumn = new EsIndexColumn(context, "field", PropertyType.STRING);
+        EsIndexColumn longColumn = new EsIndexColumn(context, "field", PropertyType.LONG);
+        EsIndex rejecting = new EsIndex(client, new EsIndexColumns(stringColumn), context, "rejecting", "workspace");
+        try {
+            // map the field as a number in Elasticsearch, so that the non numeric value is rejected ...
+            client.createIndex("rejecting-workspace", "workspace", new EsIndexColumns(longColumn).mappings("workspace"));
+            rejecting.add(key("key9"), stringColumn.getName(), "not a number");
+            rejecting.add(key("key10"), stringColumn.getName(), "10");
+            rejecting.commit();
+            assertTrue(client.getDocument("rejecting-workspace", "workspace", key("key9")) == null);
+            assertEquals("10", client.getDocument("rejecting-workspace", "workspace", key("key10")).get("field"));
+
+            // the rejected change is not sent again by the next commit ...
+            client.createIndex("rejecting-workspace", "workspace", new EsIndexColumns(stringColumn).mappings("workspace"));
+            rejecting.add(key("key11"), stringColumn.getName(), "eleven");
+            rejecting.commit();
+            assertTrue(client.getDocument("rejecting-workspace", "workspace", key("key9")) == null);
+            assertEquals("eleven", client.getDocument("rejecting-workspace", "workspace", key("key11")).get("field"));
+        } finally {
+            rejecting.shutdown(true);
+        }
+    }
+
     private void validate(Constraint constraint, String... keys) {
         ResultWriterImpl rw = new ResultWriterImpl();
         Results results = index.filter(constraints(constraint));
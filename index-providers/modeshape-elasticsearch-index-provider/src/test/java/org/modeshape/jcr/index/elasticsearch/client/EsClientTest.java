@@ -15,10 +15,17 @@
  */
 package org.modeshape.jcr.index.elasticsearch.client;
 
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import javax.jcr.PropertyType;
 import org.elasticsearch.common.settings.Settings;
 import org.elasticsearch.node.Node;
 import org.elasticsearch.node.NodeBuilder;
+import org.infinispan.schematic.document.Document;
 import org.junit.After;
 import org.junit.AfterClass;
 import org.junit.Before;
@@ -30,6 +37,7 @@ import org.modeshape.common.util.FileUtil;
 import org.modeshape.jcr.ExecutionContext;
 import org.modeshape.jcr.index.elasticsearch.EsIndexColumn;
 import org.modeshape.jcr.index.elasticsearch.EsIndexColumns;
+import org.modeshape.jcr.index.elasticsearch.query.MatchAllQuery;
 
 /**
  *
@@ -142,6 +150,74 @@ public class EsClientTest {
         assertTrue(doc1 == null);
     }
 
+    @Test
+    public void shouldStoreAndDeleteDocumentsInBulk() throws Exception {
+        Map<String, EsRequest> docs = new HashMap<>();
+        for (int i = 0; i < 3; i++) {
+            EsRequest doc = new EsRequest();
+            doc.put("field1", "value" + i);
+            docs.put(Integer.toString(i), doc);
+        }
+        assertTrue(client.bulk(INDEX_NAME, TYPE_NAME, docs, Collections.<String>emptyList()).isEmpty());
+        assertEquals("value1", client.getDocument(INDEX_NAME, TYPE_NAME, "1").get("field1"));
+
+        docs.clear();
+        EsRequest doc = new EsRequest();
+        doc.put("field1", "changed");
+        docs.put("2", doc);
+        assertTrue(client.bulk(INDEX_NAME, TYPE_NAME, docs, Collections.singleton("1")).isEmpty());
+        assertTrue(client.getDocument(INDEX_NAME, TYPE_NAME, "1") == null);
+        assertEquals("changed", client.getDocument(INDEX_NAME, TYPE_NAME, "2").get("field1"));
+        client.refresh(INDEX_NAME);
+        assertEquals(2, client.count(INDEX_NAME, TYPE_NAME));
+    }
+
+    @Test
+    public void shouldReturnTheStatusOfDocumentsRejectedInBulk() throws Exception {
+        Map<String, EsRequest> docs = new HashMap<>();
+        EsRequest valid = new EsRequest();
+        valid.put("field2", 1.5);
+        docs.put("1", valid);
+        EsRequest invalid = new EsRequest();
+        invalid.put("field2", "not a number");
+        docs.put("2", invalid);
+        Map<String, Integer> failures = client.bulk(INDEX_NAME, TYPE_NAME, docs, Collections.<String>emptyList());
+        assertEquals(Collections.singleton("2"), failures.keySet());
+        assertEquals(400, failures.get("2").intValue());
+        assertEquals(1.5, client.getDocument(INDEX_NAME, TYPE_NAME, "1").get("field2"));
+    }
+
+    @Test
+    public void shouldReadAllHitsWithScrollCursor() throws Exception {
+        Map<String, EsRequest> docs = new HashMap<>();
+        for (int i = 0; i < 25; i++) {
+            EsRequest doc = new EsRequest();
+            doc.put("field1", "value" + i);
+            docs.put(Integer.toString(i), doc);
+        }
+        assertTrue(client.bulk(INDEX_NAME, TYPE_NAME, docs, Collections.<String>emptyList()).isEmpty());
+        client.refresh(INDEX_NAME);
+
+        EsRequest query = new EsRequest();
+        query.put("query", new MatchAllQuery().build());
+        query.put("size", 10);
+        EsResponse page = client.search(INDEX_NAME, TYPE_NAME, query, "1m");
+        Set<String> ids = new HashSet<>();
+        int pages = 0;
+        List<?> hits = ((Document)page.get("hits")).getArray("hits");
+        while (!hits.isEmpty()) {
+            pages++;
+            for (Object hit : hits) {
+                ids.add(((Document)hit).getString("_id"));
+            }
+            page = client.scroll((String)page.get("_scroll_id"), "1m");
+            hits = ((Document)page.get("hits")).getArray("hits");
+        }
+        client.clearScroll((String)page.get("_scroll_id"));
+        assertEquals(3, pages);
+        assertEquals(docs.keySet(), ids);
+    }
+
     @Test
     public void testCount() throws Exception {
         EsRequest doc = new EsRequest();
@@ -62,17 +62,22 @@ public final class LuceneConfig {
     private final Codec codec;
     private final String basePath;   
     private final AtomicLong lastSuccessfulCommitTime;
+    private final int commitIntervalSeconds;
+    private final int maxUncommittedChangeSets;
     
     protected static LuceneConfig inMemory() {
-        return new LuceneConfig(null, null, null, null, null, null);
+        return new LuceneConfig(null, null, null, null, null, 0, 0, null);
     }
 
     protected static LuceneConfig onDisk(String baseDir) {
-        return new LuceneConfig(baseDir, null, null, null, null, null);
+        return new LuceneConfig(baseDir, null, null, null, null, 0, 0, null);
     }
     
     protected LuceneConfig(String baseDir, String lockFactoryClass, String directoryClass, String analyzerClass,
-                           String codecName, Environment environment) {
+                           String codecName, int commitIntervalSeconds, int maxUncommittedChangeSets,
+                           Environment environment) {
+        this.commitIntervalSeconds = commitIntervalSeconds;
+        this.maxUncommittedChangeSets = maxUncommittedChangeSets;
         this.directoryClass = directoryClass;
         this.lockFactory = lockFactory(lockFactoryClass);
         this.analyzer = analyzer(analyzerClass, environment);
@@ -121,6 +126,37 @@ public final class LuceneConfig {
         return 30;
     }
 
+    /**
+     * Returns the maximum number of seconds between two durable (fsync-ed) commits of an index. If this is not a positive
+     * number, each set of changes is committed durably as soon as it has been written to the index.
+     * 
+     * @return the number of seconds
+     */
+    protected int commitIntervalSeconds() {
+        return commitIntervalSeconds;
+    }
+
+    /**
+     * Returns the number of sets of changes which may be written to an index before it is committed durably, regardless of
+     * the {@link #commitIntervalSeconds() commit interval}. This is only used if durable commits are not performed for each set of
+     * changes.
+     * 
+     * @return the number of change sets; a non-positive value means there is no such limit
+     */
+    protected int maxUncommittedChangeSets() {
+        return maxUncommittedChangeSets;
+    }
+
+    /**
+     * Returns whether the durable commits of the indexes are deferred and performed periodically, instead of after each set of
+     * changes.
+     * 
+     * @return {@code true} if the commits are deferred, {@code false} otherwise
+     */
+    protected boolean deferredCommits() {
+        return commitIntervalSeconds > 0;
+    }
+
     /**
      * Returns the analyzer configured for Lucene.
      * 
@@ -137,9 +173,14 @@ public final class LuceneConfig {
             return;
         }
         long timestamp = Long.valueOf(timestampString);
-        long currentTs = lastSuccessfulCommitTime.get();
-        if (timestamp > currentTs) {
-            lastSuccessfulCommitTime.compareAndSet(currentTs, timestamp);
+        while (true) {
+            long currentTs = lastSuccessfulCommitTime.get();
+            // when commits are deferred the indexes may have been committed at different times, so the earliest one is
+            // the time since when changes may be missing from some of them
+            boolean replace = currentTs < 0 || (deferredCommits() ? timestamp < currentTs : timestamp > currentTs);
+            if (!replace || lastSuccessfulCommitTime.compareAndSet(currentTs, timestamp)) {
+                return;
+            }
         }
     }
 
@@ -21,6 +21,9 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import javax.jcr.Binary;
 import javax.jcr.RepositoryException;
 import javax.jcr.query.qom.Constraint;
@@ -53,6 +56,11 @@ import org.modeshape.jcr.value.StringFactory;
 @Immutable
 public abstract class LuceneIndex implements ProvidedIndex<Object> {
 
+    /**
+     * The name of the thread pool shared by all the Lucene indexes for their periodic commits.
+     */
+    private static final String COMMITTER_THREAD_POOL_NAME = "modeshape-lucene-index-committer";
+
     protected final Logger logger = Logger.getLogger(getClass());
     protected final String name;
     protected final ExecutionContext context;
@@ -61,6 +69,9 @@ public abstract class LuceneIndex implements ProvidedIndex<Object> {
     protected final LuceneConfig config;
     protected final StringFactory stringFactory;
     protected final Searcher searcher;
+    private final AtomicInteger uncommittedChangeSets = new AtomicInteger();
+    private final ScheduledFuture<?> periodicCommits;
+    private boolean closed;
    
     protected LuceneIndex( String name,
                            String workspaceName, 
@@ -75,6 +86,14 @@ public abstract class LuceneIndex implements ProvidedIndex<Object> {
         this.config = config;
         this.writer = config.newWriter(workspaceName, name);
         this.searcher = new Searcher(config, writer, name);
+        if (config.deferredCommits()) {
+            // the changes are visible to queries via the NRT readers, so durable commits only have to be made periodically
+            int interval = config.commitIntervalSeconds();
+            this.periodicCommits = context.getScheduledThreadPool(COMMITTER_THREAD_POOL_NAME)
+                                          .scheduleWithFixedDelay(this::commitPeriodically, interval, interval, TimeUnit.SECONDS);
+        } else {
+            this.periodicCommits = null;
+        }
     }
 
     @Override
@@ -112,6 +131,7 @@ public abstract class LuceneIndex implements ProvidedIndex<Object> {
 
     @Override
     public long estimateCardinality( List<Constraint> andedConstraints, Map<String, Object> variables ) {
+        flushPendingChanges();
         try {
             return searcher.estimateCardinality(andedConstraints, queryFactory(variables));
         } catch (IOException e) {
@@ -121,35 +141,79 @@ public abstract class LuceneIndex implements ProvidedIndex<Object> {
 
     @Override
     public long estimateTotalCount() {
+        flushPendingChanges();
         return writer.numDocs();
     }
 
     @Override
     public Results filter( IndexConstraints constraints ) {
+        flushPendingChanges();
         return searcher.filter(constraints, queryFactory(constraints.getVariables()));
     }
 
     @Override
     public boolean requiresReindexing() {
+        flushPendingChanges();
         return writer.numDocs() <= 0;
     }
 
     public void commit() {
+        flushPendingChanges();
         if (!writer.hasUncommittedChanges()) {
             return;
         }
+        if (!config.deferredCommits()) {
+            commitDurably();
+            return;
+        }
+        int maxUncommittedChangeSets = config.maxUncommittedChangeSets();
+        if (maxUncommittedChangeSets > 0 && uncommittedChangeSets.incrementAndGet() >= maxUncommittedChangeSets) {
+            commitDurably();
+        } else {
+            // make the changes visible to queries without waiting for them to be written to disk
+            searcher.refreshSearchManager(true);
+        }
+    }
+
+    /**
+     * Commits all the changes written to the index writer, so that they are persisted on disk. When commits are deferred, this
+     * is also called periodically even if there are no changes, so that the time of the last commit stays recent.
+     */
+    protected synchronized void commitDurably() {
         try {
             Map<String, String> oldData = writer.getCommitData();
             Map<String, String> newData = new HashMap<>(oldData);
             preCommit(newData);
             writer.setCommitData(newData);
             writer.commit();
+            uncommittedChangeSets.set(0);
             postCommit();
         } catch (IOException e) {
             throw new LuceneIndexException("Cannot commit index writer", e);
         }
     }
 
+    private synchronized void commitPeriodically() {
+        if (closed) {
+            // the index has been shut down after this run was started
+            return;
+        }
+        try {
+            commitDurably();
+        } catch (RuntimeException e) {
+            // don't let a failure stop the periodic commits; the next one will include these changes
+            logger.error(e, LuceneIndexProviderI18n.errorWhileCommittingIndex, name);
+        }
+    }
+
+    /**
+     * Writes to the index writer any changes which were buffered by this index, without committing them. This is called before
+     * each commit and before each read, so that buffered changes are always visible to the readers of this index.
+     */
+    protected void flushPendingChanges() {
+        //nothing by default
+    }
+
     protected void postCommit() {
         //nothing by default     
     }
@@ -159,8 +223,20 @@ public abstract class LuceneIndex implements ProvidedIndex<Object> {
     }
 
     public void shutdown( boolean destroyed ) {
+        if (periodicCommits != null) {
+            periodicCommits.cancel(false);
+            // wait for a periodic commit which may be running, and prevent any other from using the closed writer
+            synchronized (this) {
+                closed = true;
+            }
+        }
         if (destroyed) {
             clearAllData();
+        } else {
+            flushPendingChanges();
+            if (writer.hasUncommittedChanges()) {
+                commitDurably();
+            }
         }
         try {
             searcher.close();
@@ -174,6 +250,7 @@ public abstract class LuceneIndex implements ProvidedIndex<Object> {
         try {
             writer.deleteAll();
             writer.commit();
+            uncommittedChangeSets.set(0);
         } catch (IOException e) {
             throw new LuceneIndexException("Cannot remove all documents from the index");
         }
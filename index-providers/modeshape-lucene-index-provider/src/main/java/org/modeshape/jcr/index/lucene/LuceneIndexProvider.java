@@ -76,13 +76,27 @@ public class LuceneIndexProvider extends IndexProvider {
     private String directoryClass;
     private String analyzerClass;
     private String codec;
+
+    /**
+     * The maximum number of seconds between two durable commits of each index. By default (or if this is not a positive number)
+     * each set of changes is committed durably as soon as it is written. Otherwise changes are only made visible to queries
+     * after each set of changes, and any changes lost because of a crash are reindexed using the change journal.
+     */
+    private int commitIntervalSeconds = 0;
+
+    /**
+     * The number of sets of changes after which an index is committed durably, even if the {@link #commitIntervalSeconds} have
+     * not yet passed. This is only used when {@link #commitIntervalSeconds} is a positive number.
+     */
+    private int maxUncommittedChangeSets = 1000;
     
     private LuceneConfig luceneConfig;
     
     @Override
     protected void doInitialize() throws RepositoryException {
         String baseDir = baseDir(); 
-        this.luceneConfig = new LuceneConfig(baseDir, lockFactoryClass, directoryClass, analyzerClass, codec, environment());
+        this.luceneConfig = new LuceneConfig(baseDir, lockFactoryClass, directoryClass, analyzerClass, codec, commitIntervalSeconds,
+                                           maxUncommittedChangeSets, environment());
     }
 
     private String baseDir() throws RepositoryException {
@@ -26,6 +26,7 @@ import org.modeshape.common.i18n.I18n;
 public final class LuceneIndexProviderI18n {
     
     public static I18n warnErrorWhileClosingSearcher;      
+    public static I18n errorWhileCommittingIndex;
     public static I18n multiColumnTextIndexesNotSupported;      
     public static I18n invalidColumnType; 
     public static I18n invalidOperatorForPropertyType;
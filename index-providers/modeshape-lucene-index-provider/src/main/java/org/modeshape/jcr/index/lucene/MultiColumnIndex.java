@@ -16,9 +16,8 @@
 package org.modeshape.jcr.index.lucene;
 
 import java.io.IOException;
-import java.util.Arrays;
 import java.util.HashSet;
-import java.util.List;
+import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.Set;
 import org.apache.lucene.document.Document;
@@ -40,6 +39,10 @@ import org.modeshape.jcr.value.PropertyType;
  * Lucene index which supports multiple heterogeneous columns for any given document. This is more complicated and performs 
  * worse in some cases than {@link SingleColumnIndex} because Lucene doesn't support updates, so this index has to deal with merging fields.
  * <p>
+ * To limit the cost of merging, all the property changes made to a node between two commits are collected on a single document,
+ * which is written to the index only once, when the changes are committed (or when the index is read).
+ * </p>
+ * <p>
  * Whenever possible, prefer the {@link SingleColumnIndex} implementation to this one. 
  * </p>
  * @author Horia Chiorean (hchiorea@redhat.com)
@@ -49,7 +52,11 @@ import org.modeshape.jcr.value.PropertyType;
 @Immutable
 class MultiColumnIndex extends LuceneIndex {
 
+    private static final int MAX_PENDING_DOCUMENTS = 10000;
+
     private final DocumentIdCache cache;
+    // the documents of the nodes changed since the last flush, keyed by node key
+    private final Map<String, PendingDocument> pendingDocuments = new LinkedHashMap<>();
     
     protected MultiColumnIndex( String name,
                                 String workspaceName, 
@@ -67,44 +74,101 @@ class MultiColumnIndex extends LuceneIndex {
         CheckArg.isNotNull(nodeKey, "nodeKey");
         CheckArg.isNotNull(propertyName, "propertyName");
         CheckArg.isNotNull(values, "values");
-       
-        try {
-            // first look at the cache and commit data to check if a document exists or not with this key. If a document does not
-            // exist, this operation will be a lot faster. Otherwise the document needs to be loaded which is costly....
-            // THIS IS A COSTLY OPERATION...
-            if (documentExists(nodeKey)) {
-                // we're updating an existing document
-                logger.debug("Updating the property '{0}' of document '{1}' in the Lucene index '{2}' with the values '{3}'",
-                             propertyName, nodeKey, name, values);
-                Document oldDocument = searcher.loadDocumentById(nodeKey);
-                Document newDocument = clone(oldDocument, propertyName);
-                                            
-                //add the fields for the new property
-                List<Field> fields = valuesToFields(propertyName, values);
-                fields.stream().forEach(newDocument::add);
-                writer.updateDocument(FieldUtil.idTerm(nodeKey), newDocument);
-            } else {
-                // we're creating the document for the first time...
-                logger.debug("Adding the document '{0}' in the Lucene Index '{1}' with the property '{2}' and values '{3}",
-                             nodeKey, name, propertyName, values);                 
-                Document document = new Document();
-                addProperty(nodeKey, document, propertyName, values);
-                writer.addDocument(document);
-                // mark the node key as added
-                cache.add(nodeKey);
+
+        logger.debug("Setting the property '{0}' of document '{1}' in the Lucene index '{2}' with the values '{3}'",
+                     propertyName, nodeKey, name, values);
+        synchronized (pendingDocuments) {
+            PendingDocument pending = pendingDocument(nodeKey, true);
+            // replace any existing fields of the property with the new ones
+            pending.removeProperty(propertyName);
+            valuesToFields(propertyName, values).stream().forEach(pending.document::add);
+            flushIfTooManyPending();
+        }
+    }
+
+    /**
+     * Returns the document which collects the changes made to a node in the current batch. The first time a node is changed in
+     * the batch, its existing document (if any) is loaded from the index; all the other changes of that node in the batch are
+     * made on the same document, which is written out only once by {@link #flushPendingChanges()}.
+     *
+     * @param nodeKey the node key; may not be null
+     * @param create {@code true} if a new document should be created when the node is not indexed
+     * @return the pending document, or {@code null} if the node is not indexed and {@code create} is false
+     */
+    private PendingDocument pendingDocument( String nodeKey, boolean create ) {
+        assert Thread.holdsLock(pendingDocuments);
+        PendingDocument pending = pendingDocuments.get(nodeKey);
+        if (pending != null) {
+            return pending;
+        }
+        Document existingDocument = null;
+        // first look at the cache and commit data to check if a document exists or not with this key. If a document does not
+        // exist, this operation will be a lot faster. Otherwise the document needs to be loaded which is costly....
+        if (documentExists(nodeKey)) {
+            try {
+                // THIS IS A COSTLY OPERATION...
+                existingDocument = searcher.loadDocumentById(nodeKey);
+            } catch (IOException e) {
+                throw new LuceneIndexException(e);
             }
-        } catch (IOException e) {
-            throw new LuceneIndexException(e);
         }
+        if (existingDocument != null) {
+            pending = new PendingDocument(clone(existingDocument), true);
+        } else if (create) {
+            Document document = new Document();
+            document.add(FieldUtil.idField(nodeKey));
+            pending = new PendingDocument(document, false);
+        } else {
+            return null;
+        }
+        pendingDocuments.put(nodeKey, pending);
+        return pending;
     }
 
-    private Document clone(Document oldDocument, String... excludeProps) {
-        List<String> excluded = Arrays.asList(excludeProps);
+    private void flushIfTooManyPending() {
+        if (pendingDocuments.size() >= MAX_PENDING_DOCUMENTS) {
+            flushPendingChanges();
+        }
+    }
 
+    @Override
+    protected void flushPendingChanges() {
+        synchronized (pendingDocuments) {
+            if (pendingDocuments.isEmpty()) {
+                return;
+            }
+            try {
+                for (Map.Entry<String, PendingDocument> entry : pendingDocuments.entrySet()) {
+                    String nodeKey = entry.getKey();
+                    PendingDocument pending = entry.getValue();
+                    Term idTerm = FieldUtil.idTerm(nodeKey);
+                    if (pending.document.getFields().size() == 1) {
+                        // only the id is left, so there is nothing to index for this node
+                        if (pending.existing) {
+                            writer.deleteDocuments(idTerm);
+                            // mark the node key as removed
+                            cache.remove(nodeKey);
+                        }
+                    } else if (pending.existing) {
+                        writer.updateDocument(idTerm, pending.document);
+                    } else {
+                        writer.addDocument(pending.document);
+                        // mark the node key as added
+                        cache.add(nodeKey);
+                    }
+                }
+            } catch (IOException e) {
+                throw new LuceneIndexException(e);
+            } finally {
+                pendingDocuments.clear();
+            }
+        }
+    }
+
+    private Document clone(Document oldDocument) {
         Document newDocument = new Document();
         oldDocument.getFields()
                    .stream()
-                   .filter((field) -> (!excluded.contains(field.name())))
                    .map((field) -> (clone((Field) field)))
                    .forEach(newDocument::add);
         return newDocument;
@@ -147,30 +211,16 @@ class MultiColumnIndex extends LuceneIndex {
     protected void remove(final String nodeKey, final String propertyName) {
         CheckArg.isNotNull(nodeKey, "nodeKey");
         CheckArg.isNotNull(propertyName, "propertyName");
-       
-        if (!documentExists(nodeKey)) {
-            // no document found so nothing to do
-            return;
-        }
-        try {
-            Document document = searcher.loadDocumentById(nodeKey);
-            boolean hasProperty = document.getField(propertyName) != null;
-            if (!hasProperty) {
+
+        synchronized (pendingDocuments) {
+            PendingDocument pending = pendingDocument(nodeKey, false);
+            if (pending == null) {
+                // no document found so nothing to do
                 return;
             }
-            Term idTerm = FieldUtil.idTerm(nodeKey);
-            if (document.getFields().size() == 1) {
-                // there are no more fields, so remove the entire document....
-                writer.deleteDocuments(idTerm);
-                // mark the node key as removed
-                cache.remove(nodeKey);
-            } else {
-                // create a clone without the property
-                Document newDocument = clone(document, propertyName);
-                writer.updateDocument(idTerm, newDocument);
-            }
-        } catch (IOException e) {
-            throw new LuceneIndexException(e);
+            // if there are no more fields, the entire document will be removed when flushing
+            pending.removeProperty(propertyName);
+            flushIfTooManyPending();
         }
     }
 
@@ -181,16 +231,46 @@ class MultiColumnIndex extends LuceneIndex {
 
     @Override
     public void remove( String nodeKey ) {
+        synchronized (pendingDocuments) {
+            // any changes made to the node in this batch are not relevant anymore
+            pendingDocuments.remove(nodeKey);
+        }
         super.remove(nodeKey);
         if (documentExists(nodeKey)) {
             cache.remove(nodeKey);
         }
     }
 
+    @Override
+    public void clearAllData() {
+        synchronized (pendingDocuments) {
+            pendingDocuments.clear();
+        }
+        super.clearAllData();
+    }
+
     private boolean documentExists( String nodeKey ) {
         return cache.hasNode(nodeKey) || writer.getCommitData().containsKey(nodeKey);
     }
 
+    /**
+     * The document of a node being changed in the current batch, together with whether the node was already indexed or not.
+     */
+    private static class PendingDocument {
+        private final Document document;
+        private final boolean existing;
+
+        private PendingDocument( Document document, boolean existing ) {
+            this.document = document;
+            this.existing = existing;
+        }
+
+        private void removeProperty( String propertyName ) {
+            document.removeFields(propertyName);
+            document.removeFields(FieldUtil.lengthField(propertyName));
+        }
+    }
+
     /**
      * A simple holder which tracks for each index writer session the document keys which exist in the index
      * and then writes this information in the commit data. This avoids the document searching required when updating the column
@@ -15,11 +15,16 @@
  */
 package org.modeshape.jcr.index.lucene;
 
+import java.io.IOException;
 import java.math.BigDecimal;
+import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Random;
 import java.util.UUID;
+import org.apache.lucene.index.DirectoryReader;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.store.FSDirectory;
 import org.junit.After;
 import org.junit.Before;
 import org.modeshape.common.util.FileUtil;
@@ -35,6 +40,7 @@ import org.modeshape.jcr.value.basic.ModeShapeDateTime;
  */
 public abstract class AbstractIndexPersistenceTest {
 
+    protected static final String DIRECTORY = "target/lucene-index-test";
     private static final Random RANDOM = new Random();
 
     protected ExecutionContext context;
@@ -45,9 +51,8 @@ public abstract class AbstractIndexPersistenceTest {
 
     @Before
     public void setUp() throws Exception {
-        String dir = "target/lucene-index-test";
-        FileUtil.delete(dir);
-        config = LuceneConfig.onDisk(dir);
+        FileUtil.delete(DIRECTORY);
+        config = LuceneConfig.onDisk(DIRECTORY);
         context = new ExecutionContext();
         index = defaultIndex();
     }
@@ -61,6 +66,14 @@ public abstract class AbstractIndexPersistenceTest {
         index.shutdown(false);
     }
   
+    protected int committedDocumentsCount( LuceneIndex index ) throws IOException {
+        // only the committed changes are visible to a reader which is not opened from the index writer
+        try (Directory directory = FSDirectory.open(Paths.get(DIRECTORY, "default", index.getName()));
+             DirectoryReader reader = DirectoryReader.open(directory)) {
+            return reader.numDocs();
+        }
+    }
+
     protected String addMultiplePropertiesToSameNode( LuceneIndex index, String nodeKey, int valuesPerProperty, PropertyType type) {
         List<Object> values = new ArrayList<>();
         IndexedProperty property = newProperty(type);
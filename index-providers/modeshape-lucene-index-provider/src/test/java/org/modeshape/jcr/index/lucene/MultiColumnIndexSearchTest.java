@@ -15,6 +15,7 @@
  */
 package org.modeshape.jcr.index.lucene;
 
+import static org.junit.Assert.assertEquals;
 import static org.modeshape.jcr.api.query.qom.Operator.EQUAL_TO;
 import static org.modeshape.jcr.index.lucene.PropertiesTestUtil.DATE_PROP;
 import static org.modeshape.jcr.index.lucene.PropertiesTestUtil.LONG_PROP;
@@ -97,5 +98,28 @@ public class MultiColumnIndexSearchTest extends SingleColumnIndexSearchTest {
         validateCardinality(existsLongProp, 1);
         validateFilterResults(existsLongProp, 1, false, nodes.get(1));
     }
-    
+
+    @Test
+    public void shouldOnlyIndexLatestValuesOfPropertyChangedSeveralTimesBeforeCommit() throws Exception {
+        String node = UUID.randomUUID().toString();
+        addValues(node, STRING_PROP, "a");
+        addValues(node, LONG_PROP, 1l);
+        addValues(node, STRING_PROP, "abc");
+        index.remove(node, LONG_PROP);
+        index.commit();
+        assertEquals(1, index.estimateTotalCount());
+
+        validateCardinality(length(STRING_PROP, EQUAL_TO, 1), 0);
+        validateCardinality(propertyValue(STRING_PROP, EQUAL_TO, "a"), 0);
+        validateFilterResults(propertyValue(STRING_PROP, EQUAL_TO, "abc"), 1, false, node);
+        validateFilterResults(length(STRING_PROP, EQUAL_TO, 3), 1, false, node);
+        validateCardinality(propertyExistence(LONG_PROP), 0);
+
+        // change an already indexed node and remove all of its properties
+        addValues(node, STRING_PROP, "ab");
+        validateFilterResults(length(STRING_PROP, EQUAL_TO, 2), 1, false, node);
+        index.remove(node, STRING_PROP);
+        index.commit();
+        assertEquals(0, index.estimateTotalCount());
+    }
 }
@@ -55,6 +55,47 @@ public class SingleColumnIndexPersistenceTest extends AbstractIndexPersistenceTe
         assertEquals(0, index.estimateTotalCount());
     }
 
+    @Test
+    public void shouldCommitDurablyOnlyPeriodicallyWhenCommitsAreDeferred() throws Exception {
+        config = new LuceneConfig(DIRECTORY, null, null, null, null, 1, 0, null);
+        LuceneIndex deferredIndex = createIndex("deferred");
+        try {
+            IndexedProperty property = newProperty(PropertyType.STRING);
+            deferredIndex.add(UUID.randomUUID().toString(), property.getName(), property.getValue());
+            deferredIndex.commit();
+            // the changes are visible right away ...
+            assertEquals(1, deferredIndex.estimateTotalCount());
+            assertEquals(0, committedDocumentsCount(deferredIndex));
+            // ... but are only written to disk by the periodic commit
+            long waitUntil = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(10);
+            while (committedDocumentsCount(deferredIndex) == 0 && System.currentTimeMillis() < waitUntil) {
+                Thread.sleep(100);
+            }
+            assertEquals(1, committedDocumentsCount(deferredIndex));
+        } finally {
+            deferredIndex.shutdown(false);
+        }
+    }
+
+    @Test
+    public void shouldCommitDurablyAfterTooManyDeferredChangeSets() throws Exception {
+        config = new LuceneConfig(DIRECTORY, null, null, null, null, 3600, 2, null);
+        LuceneIndex deferredIndex = createIndex("deferred");
+        try {
+            IndexedProperty property = newProperty(PropertyType.STRING);
+            deferredIndex.add(UUID.randomUUID().toString(), property.getName(), property.getValue());
+            deferredIndex.commit();
+            assertEquals(0, committedDocumentsCount(deferredIndex));
+            deferredIndex.add(UUID.randomUUID().toString(), property.getName(), property.getValue());
+            deferredIndex.commit();
+            assertEquals(2, committedDocumentsCount(deferredIndex));
+        } finally {
+            deferredIndex.shutdown(false);
+        }
+        // shutting down the index commits everything
+        assertEquals(2, committedDocumentsCount(deferredIndex));
+    }
+
     @Test
     public void shouldAddNodesWithSingleValues() throws Exception {
         assertEquals(0, index.estimateTotalCount());
@@ -0,0 +1,75 @@
+/*
+ * ModeShape (http://www.modeshape.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.infinispan.schematic.internal.document;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import org.infinispan.schematic.document.Document;
+import org.modeshape.jcr.BenchmarkRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures writing and reading the BSON representation of a node document, as persisted by an in-memory repository.
+ */
+@State( Scope.Benchmark )
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.MICROSECONDS )
+@Warmup( iterations = 5, time = 1 )
+@Measurement( iterations = 10, time = 1 )
+@Fork( 1 )
+public class BsonBenchmark {
+
+    private final BsonWriter writer = new BsonWriter();
+    private final BsonReader reader = new BsonReader();
+    private Document document;
+    private byte[] bytes;
+
+    @Setup
+    public void setup() throws Exception {
+        BenchmarkRepository repository = new BenchmarkRepository();
+        try {
+            document = repository.documentOf(repository.keyOf(repository.createNodeWithProperties("node")));
+        } finally {
+            repository.shutdown();
+        }
+        bytes = writer.write(document);
+    }
+
+    @Benchmark
+    public byte[] write() throws IOException {
+        return writer.write(document);
+    }
+
+    @Benchmark
+    public Document read() throws IOException {
+        return reader.read(new ByteArrayInputStream(bytes));
+    }
+
+    @Benchmark
+    public Document roundTrip() throws IOException {
+        return reader.read(new ByteArrayInputStream(writer.write(document)));
+    }
+}
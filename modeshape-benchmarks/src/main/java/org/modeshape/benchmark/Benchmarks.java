@@ -0,0 +1,54 @@
+/*
+ * ModeShape (http://www.modeshape.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.modeshape.benchmark;
+
+import java.io.File;
+import org.modeshape.jcr.ModeShape;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the ModeShape microbenchmarks. This accepts all of the standard JMH command line options, but unless the result format
+ * or file are specified, the results are written in JSON to a file named after the ModeShape version (e.g.,
+ * {@code target/jmh-results-5.0.json}) so that the results of different versions can be tracked and compared.
+ */
+public final class Benchmarks {
+
+    private static final String RESULTS_DIRECTORY = "target";
+
+    private Benchmarks() {
+    }
+
+    public static void main( String[] args ) throws RunnerException, CommandLineOptionException {
+        CommandLineOptions cmdOptions = new CommandLineOptions(args);
+        ChainedOptionsBuilder options = new OptionsBuilder().parent(cmdOptions);
+        if (!cmdOptions.getResultFormat().hasValue()) {
+            options.resultFormat(ResultFormatType.JSON);
+        }
+        if (!cmdOptions.getResult().hasValue()) {
+            String format = cmdOptions.getResultFormat().orElse(ResultFormatType.JSON).name().toLowerCase();
+            File directory = new File(RESULTS_DIRECTORY);
+            if (!directory.exists()) directory.mkdirs();
+            options.result(new File(directory, "jmh-results-" + ModeShape.getVersion() + "." + format).getPath());
+        }
+        new Runner(options.build()).run();
+    }
+}
@@ -0,0 +1,109 @@
+/*
+ * ModeShape (http://www.modeshape.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.modeshape.common.collection.ring;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures publishing entries to a single-producer {@link RingBuffer} (as used by the repository's change bus) with a number of
+ * consumers, and the time it takes for all of the consumers to see a batch of published entries.
+ */
+@State( Scope.Benchmark )
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.NANOSECONDS )
+@Warmup( iterations = 5, time = 1 )
+@Measurement( iterations = 10, time = 1 )
+@Fork( 1 )
+public class RingBufferBenchmark {
+
+    private static final int BATCH_SIZE = 1000;
+
+    @Param( {"1", "4"} )
+    public int consumerCount;
+
+    private ExecutorService executor;
+    private RingBuffer<Long, Consumer<Long>> ringBuffer;
+    private CountingConsumer[] consumers;
+    private long published;
+
+    @Setup
+    public void setup() {
+        executor = Executors.newCachedThreadPool();
+        ringBuffer = RingBufferBuilder.withSingleProducer(executor, Long.class).ofSize(RingBufferBuilder.DEFAULT_BUFFER_SIZE)
+                                      .named("benchmark").build();
+        consumers = new CountingConsumer[consumerCount];
+        for (int i = 0; i != consumerCount; ++i) {
+            consumers[i] = new CountingConsumer();
+            ringBuffer.addConsumer(consumers[i]);
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        try {
+            ringBuffer.shutdown();
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Benchmark
+    public boolean publish() {
+        return ringBuffer.add(++published);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation( BATCH_SIZE )
+    public long publishAndConsume() {
+        for (int i = 0; i != BATCH_SIZE; ++i) {
+            ringBuffer.add(++published);
+        }
+        // Wait until all of the consumers have seen the last entry ...
+        for (CountingConsumer consumer : consumers) {
+            while (consumer.lastSeen < published) {
+                Thread.yield();
+            }
+        }
+        return published;
+    }
+
+    protected static final class CountingConsumer extends Consumer<Long> {
+        protected volatile long lastSeen;
+
+        @Override
+        public boolean consume( Long entry,
+                                long position,
+                                long maxPosition ) {
+            lastSeen = entry;
+            return true;
+        }
+    }
+}
@@ -0,0 +1,186 @@
+/*
+ * ModeShape (http://www.modeshape.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.modeshape.jcr;
+
+import java.io.ByteArrayInputStream;
+import java.math.BigDecimal;
+import java.util.Calendar;
+import java.util.concurrent.TimeUnit;
+import javax.jcr.Node;
+import javax.jcr.RepositoryException;
+import org.infinispan.schematic.document.Document;
+import org.modeshape.jcr.cache.NodeKey;
+import org.modeshape.jcr.cache.RepositoryCache;
+import org.modeshape.jcr.cache.SessionCache;
+import org.modeshape.jcr.cache.document.DocumentStore;
+import org.modeshape.jcr.cache.document.WorkspaceCache;
+
+/**
+ * An in-memory repository used by the benchmarks, which gives the benchmarks in other packages access to the repository's
+ * internal components.
+ */
+public final class BenchmarkRepository {
+
+    private static final String REPOSITORY_NAME = "benchmarks";
+
+    private final JcrRepository repository;
+    private final JcrSession session;
+
+    /**
+     * Start a new in-memory repository with the default configuration, and log into the default workspace.
+     *
+     * @throws Exception if there is a problem starting the repository
+     */
+    public BenchmarkRepository() throws Exception {
+        this(new RepositoryConfiguration(REPOSITORY_NAME));
+    }
+
+    /**
+     * Start a new repository with the supplied configuration, and log into the default workspace.
+     *
+     * @param config the repository configuration; may not be null
+     * @throws Exception if there is a problem starting the repository
+     */
+    public BenchmarkRepository( RepositoryConfiguration config ) throws Exception {
+        this.repository = new JcrRepository(config);
+        this.repository.start();
+        this.session = repository.login();
+    }
+
+    /**
+     * @return the session logged into the default workspace; never null
+     */
+    public JcrSession session() {
+        return session;
+    }
+
+    /**
+     * @return the name of the workspace used by the {@link #session() session}; never null
+     */
+    public String workspaceName() {
+        return session.getWorkspace().getName();
+    }
+
+    /**
+     * @return the execution context of the repository; never null
+     */
+    public ExecutionContext context() {
+        return repository.runningState().context();
+    }
+
+    /**
+     * @return the document store of the repository; never null
+     */
+    public DocumentStore documentStore() {
+        return repository.documentStore();
+    }
+
+    /**
+     * @return the shared cache of the {@link #workspaceName() workspace}; never null
+     */
+    public WorkspaceCache workspaceCache() {
+        return repositoryCache().getWorkspaceCache(workspaceName());
+    }
+
+    /**
+     * Create a new session cache for the {@link #workspaceName() workspace}, independent of the {@link #session() session}.
+     *
+     * @return the new session cache; never null
+     */
+    public SessionCache createSessionCache() {
+        return repositoryCache().createSession(context(), workspaceName(), false);
+    }
+
+    /**
+     * Get the key of the supplied node.
+     *
+     * @param node the node; may not be null
+     * @return the node's key; never null
+     */
+    public NodeKey keyOf( Node node ) {
+        return ((AbstractJcrNode)node).key();
+    }
+
+    /**
+     * Create (and save) a node under the root node with the supplied number of children.
+     *
+     * @param name the name of the new node; may not be null
+     * @param childCount the number of children
+     * @return the new node; never null
+     * @throws RepositoryException if there is a problem creating the nodes
+     */
+    public Node createNodeWithChildren( String name,
+                                        int childCount ) throws RepositoryException {
+        Node parent = session.getRootNode().addNode(name);
+        for (int i = 0; i != childCount; ++i) {
+            parent.addNode("child" + i).setProperty("index", i);
+        }
+        session.save();
+        return parent;
+    }
+
+    /**
+     * Create (and save) a node under the root node with a representative mix of single- and multi-valued properties of the
+     * common property types.
+     *
+     * @param name the name of the new node; may not be null
+     * @return the new node; never null
+     * @throws RepositoryException if there is a problem creating the node
+     */
+    public Node createNodeWithProperties( String name ) throws RepositoryException {
+        Node node = session.getRootNode().addNode(name);
+        node.addMixin("mix:title");
+        node.setProperty("jcr:title", "A node with a representative set of properties");
+        node.setProperty("jcr:description", "Used to measure how quickly the properties are written and read");
+        node.setProperty("stringProperty", "The quick brown fox jumps over the lazy dog");
+        node.setProperty("longProperty", Long.MAX_VALUE);
+        node.setProperty("doubleProperty", Math.PI);
+        node.setProperty("booleanProperty", true);
+        node.setProperty("dateProperty", Calendar.getInstance());
+        node.setProperty("decimalProperty", new BigDecimal("1234567890.0987654321"));
+        node.setProperty("multiValuedProperty", new String[] {"red", "green", "blue", "cyan", "magenta", "yellow"});
+        node.setProperty("binaryProperty", session.getValueFactory().createBinary(new ByteArrayInputStream(new byte[256])));
+        session.save();
+        return node;
+    }
+
+    /**
+     * Get the persisted document of the node with the supplied key, directly from the document store.
+     *
+     * @param key the key of the node; may not be null
+     * @return the document; never null
+     */
+    public Document documentOf( NodeKey key ) {
+        return documentStore().get(key.toString()).getContent();
+    }
+
+    /**
+     * Log out of the session and shutdown the repository.
+     *
+     * @throws Exception if there is a problem shutting down the repository
+     */
+    public void shutdown() throws Exception {
+        try {
+            session.logout();
+        } finally {
+            repository.shutdown().get(30, TimeUnit.SECONDS);
+        }
+    }
+
+    private RepositoryCache repositoryCache() {
+        return repository.repositoryCache();
+    }
+}
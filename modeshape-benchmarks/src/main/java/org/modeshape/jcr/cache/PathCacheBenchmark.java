@@ -0,0 +1,87 @@
+/*
+ * ModeShape (http://www.modeshape.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.modeshape.jcr.cache;
+
+import java.util.concurrent.TimeUnit;
+import javax.jcr.Node;
+import org.modeshape.jcr.BenchmarkRepository;
+import org.modeshape.jcr.value.Path;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the resolution of the path of a node at a given depth with a {@link PathCache}, both when none of the ancestors' paths
+ * are known and when they are all cached.
+ */
+@State( Scope.Benchmark )
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.NANOSECONDS )
+@Warmup( iterations = 5, time = 1 )
+@Measurement( iterations = 10, time = 1 )
+@Fork( 1 )
+public class PathCacheBenchmark {
+
+    @Param( {"5", "20"} )
+    public int depth;
+
+    private BenchmarkRepository repository;
+    private NodeCache cache;
+    private PathCache warmPaths;
+    private CachedNode node;
+
+    @Setup
+    public void setup() throws Exception {
+        repository = new BenchmarkRepository();
+        Node node = repository.session().getRootNode();
+        for (int i = 0; i != depth; ++i) {
+            // Give each level some siblings, so that the child references have to be searched ...
+            for (int j = 0; j != 10; ++j) {
+                node.addNode("sibling" + j);
+            }
+            node = node.addNode("level" + i);
+        }
+        repository.session().save();
+        cache = repository.workspaceCache();
+        this.node = cache.getNode(repository.keyOf(node));
+        warmPaths = new PathCache(cache);
+        warmPaths.getPath(this.node);
+    }
+
+    @TearDown
+    public void tearDown() throws Exception {
+        repository.shutdown();
+    }
+
+    @Benchmark
+    public Path resolveUncached() {
+        return new PathCache(cache).getPath(node);
+    }
+
+    @Benchmark
+    public Path resolveCached() {
+        return warmPaths.getPath(node);
+    }
+}
@@ -0,0 +1,95 @@
+/*
+ * ModeShape (http://www.modeshape.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.modeshape.jcr.cache.document;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.infinispan.schematic.document.Document;
+import org.modeshape.jcr.BenchmarkRepository;
+import org.modeshape.jcr.value.Name;
+import org.modeshape.jcr.value.Property;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures how quickly the {@link DocumentTranslator} decodes the properties of a persisted node document.
+ */
+@State( Scope.Benchmark )
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.NANOSECONDS )
+@Warmup( iterations = 5, time = 1 )
+@Measurement( iterations = 10, time = 1 )
+@Fork( 1 )
+public class DocumentTranslatorBenchmark {
+
+    private BenchmarkRepository repository;
+    private DocumentTranslator translator;
+    private Document document;
+    private Name stringProperty;
+    private Name multiValuedProperty;
+    private Name dateProperty;
+
+    @Setup
+    public void setup() throws Exception {
+        repository = new BenchmarkRepository();
+        translator = repository.workspaceCache().translator();
+        document = repository.documentOf(repository.keyOf(repository.createNodeWithProperties("node")));
+        stringProperty = name("stringProperty");
+        multiValuedProperty = name("multiValuedProperty");
+        dateProperty = name("dateProperty");
+    }
+
+    @TearDown
+    public void tearDown() throws Exception {
+        repository.shutdown();
+    }
+
+    @Benchmark
+    public Map<Name, Property> decodeAllProperties() {
+        Map<Name, Property> properties = new HashMap<>();
+        translator.getProperties(document, properties);
+        return properties;
+    }
+
+    @Benchmark
+    public Property decodeStringProperty() {
+        return translator.getProperty(document, stringProperty);
+    }
+
+    @Benchmark
+    public Property decodeMultiValuedProperty() {
+        return translator.getProperty(document, multiValuedProperty);
+    }
+
+    @Benchmark
+    public Property decodeDateProperty() {
+        return translator.getProperty(document, dateProperty);
+    }
+
+    private Name name( String name ) {
+        return repository.context().getValueFactories().getNameFactory().create(name);
+    }
+}
@@ -0,0 +1,89 @@
+/*
+ * ModeShape (http://www.modeshape.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.modeshape.jcr.cache.document;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import javax.jcr.Node;
+import javax.jcr.NodeIterator;
+import org.modeshape.jcr.BenchmarkRepository;
+import org.modeshape.jcr.cache.NodeKey;
+import org.modeshape.jcr.cache.SessionCache;
+import org.modeshape.jcr.value.Name;
+import org.modeshape.jcr.value.PropertyFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures {@link WritableSessionCache#save()} of a session in which a property has been changed on each of N existing nodes.
+ */
+@State( Scope.Benchmark )
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.MICROSECONDS )
+@Warmup( iterations = 5, time = 1 )
+@Measurement( iterations = 10, time = 1 )
+@Fork( 1 )
+public class SessionCacheSaveBenchmark {
+
+    @Param( {"1", "10", "100", "1000"} )
+    public int changedNodes;
+
+    private BenchmarkRepository repository;
+    private SessionCache cache;
+    private PropertyFactory propertyFactory;
+    private Name propertyName;
+    private NodeKey[] keys;
+    private long counter;
+
+    @Setup
+    public void setup() throws Exception {
+        repository = new BenchmarkRepository();
+        Node parent = repository.createNodeWithChildren("parent", changedNodes);
+        List<NodeKey> keys = new ArrayList<>(changedNodes);
+        for (NodeIterator iter = parent.getNodes(); iter.hasNext();) {
+            keys.add(repository.keyOf(iter.nextNode()));
+        }
+        this.keys = keys.toArray(new NodeKey[keys.size()]);
+        this.cache = repository.createSessionCache();
+        this.propertyFactory = repository.context().getPropertyFactory();
+        this.propertyName = repository.context().getValueFactories().getNameFactory().create("counter");
+    }
+
+    @TearDown
+    public void tearDown() throws Exception {
+        repository.shutdown();
+    }
+
+    @Benchmark
+    public void save() {
+        ++counter;
+        for (NodeKey key : keys) {
+            cache.mutable(key).setProperty(cache, propertyFactory.create(propertyName, counter));
+        }
+        cache.save();
+    }
+}
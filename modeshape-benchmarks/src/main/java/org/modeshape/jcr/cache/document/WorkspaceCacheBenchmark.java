@@ -0,0 +1,115 @@
+/*
+ * ModeShape (http://www.modeshape.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.modeshape.jcr.cache.document;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import javax.jcr.Node;
+import javax.jcr.NodeIterator;
+import org.modeshape.jcr.BenchmarkRepository;
+import org.modeshape.jcr.cache.CachedNode;
+import org.modeshape.jcr.cache.NodeKey;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures {@link WorkspaceCache#getNode(NodeKey)} when the node is already cached (a hit) and when it has to be materialized from
+ * the document store (a miss).
+ */
+@State( Scope.Benchmark )
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.NANOSECONDS )
+@Warmup( iterations = 5, time = 1 )
+@Measurement( iterations = 10, time = 1 )
+@Fork( 1 )
+public class WorkspaceCacheBenchmark {
+
+    @Param( {"1000"} )
+    public int nodeCount;
+
+    private BenchmarkRepository repository;
+    private WorkspaceCache cache;
+    private WorkspaceCache uncached;
+    private NodeKey[] keys;
+    private int next;
+
+    @Setup
+    public void setup() throws Exception {
+        repository = new BenchmarkRepository();
+        Node parent = repository.createNodeWithChildren("parent", nodeCount);
+        List<NodeKey> keys = new ArrayList<>(nodeCount);
+        for (NodeIterator iter = parent.getNodes(); iter.hasNext();) {
+            keys.add(repository.keyOf(iter.nextNode()));
+        }
+        this.keys = keys.toArray(new NodeKey[keys.size()]);
+        this.cache = repository.workspaceCache();
+        // A view of the same workspace that never retains nodes, so that every lookup goes to the document store ...
+        this.uncached = new WorkspaceCache(cache, new NonRetainingMap());
+        for (NodeKey key : this.keys) {
+            cache.getNode(key);
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws Exception {
+        repository.shutdown();
+    }
+
+    @Benchmark
+    public CachedNode getNodeHit() {
+        return cache.getNode(nextKey());
+    }
+
+    @Benchmark
+    public CachedNode getNodeMiss() {
+        return uncached.getNode(nextKey());
+    }
+
+    private NodeKey nextKey() {
+        if (next == keys.length) next = 0;
+        return keys[next++];
+    }
+
+    /**
+     * A map that never retains any entries.
+     */
+    @SuppressWarnings( "serial" )
+    private static final class NonRetainingMap extends ConcurrentHashMap<NodeKey, CachedNode> {
+        @Override
+        public CachedNode putIfAbsent( NodeKey key,
+                                       CachedNode value ) {
+            return null;
+        }
+
+        @Override
+        public CachedNode put( NodeKey key,
+                               CachedNode value ) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,217 @@
+/*
+ * ModeShape (http://www.modeshape.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.modeshape.jcr.index.local;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import javax.jcr.query.qom.Constraint;
+import javax.jcr.query.qom.JoinCondition;
+import org.mapdb.BTreeKeySerializer;
+import org.mapdb.DB;
+import org.mapdb.DBMaker;
+import org.mapdb.Serializer;
+import org.modeshape.jcr.ExecutionContext;
+import org.modeshape.jcr.api.query.qom.Operator;
+import org.modeshape.jcr.cache.NodeKey;
+import org.modeshape.jcr.index.local.IndexValues.Converter;
+import org.modeshape.jcr.index.local.MapDB.Serializers;
+import org.modeshape.jcr.query.model.Comparison;
+import org.modeshape.jcr.query.model.Literal;
+import org.modeshape.jcr.query.model.PropertyValue;
+import org.modeshape.jcr.query.model.SelectorName;
+import org.modeshape.jcr.spi.index.IndexConstraints;
+import org.modeshape.jcr.spi.index.ResultWriter;
+import org.modeshape.jcr.spi.index.provider.Filter;
+import org.modeshape.jcr.value.PropertyType;
+import org.modeshape.jcr.value.ValueFactories;
+import org.modeshape.jcr.value.ValueFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures lookups in the local (MapDB-based) unique and duplicate value indexes, held in memory.
+ */
+@State( Scope.Benchmark )
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.NANOSECONDS )
+@Warmup( iterations = 5, time = 1 )
+@Measurement( iterations = 10, time = 1 )
+@Fork( 1 )
+public class LocalIndexBenchmark {
+
+    private static final String PROPERTY_NAME = "indexedProperty";
+    private static final String NODE_KEY_PREFIX = "12345671234567-";
+    private static final int DISTINCT_DUPLICATE_VALUES = 100;
+    private static final SelectorName SELECTOR = new SelectorName("selectorA");
+
+    @Param( {"100000"} )
+    public int entryCount;
+
+    private ExecutionContext context;
+    private DB db;
+    private LocalUniqueIndex<Long> uniqueIndex;
+    private LocalDuplicateIndex<String> duplicateIndex;
+    private long next;
+
+    @Setup
+    public void setup() {
+        context = new ExecutionContext();
+        db = DBMaker.newMemoryDB().make();
+        Serializers serializers = MapDB.serializers(context.getValueFactories());
+        uniqueIndex = uniqueValueIndex(serializers);
+        duplicateIndex = duplicateValueIndex(serializers);
+        for (int i = 0; i != entryCount; ++i) {
+            uniqueIndex.add(NODE_KEY_PREFIX + i, PROPERTY_NAME, (long)i);
+            duplicateIndex.add(NODE_KEY_PREFIX + i, PROPERTY_NAME, "value" + (i % DISTINCT_DUPLICATE_VALUES));
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        uniqueIndex.shutdown(true);
+        duplicateIndex.shutdown(true);
+        db.close();
+    }
+
+    @Benchmark
+    public long uniqueIndexEqualTo() {
+        return count(uniqueIndex.filter(constraints(Operator.EQUAL_TO, nextValue())));
+    }
+
+    @Benchmark
+    public long uniqueIndexRange() {
+        // Selects 100 entries ...
+        return count(uniqueIndex.filter(constraints(Operator.LESS_THAN, 100L)));
+    }
+
+    @Benchmark
+    public long duplicateIndexEqualTo() {
+        return count(duplicateIndex.filter(constraints(Operator.EQUAL_TO, "value" + (nextValue() % DISTINCT_DUPLICATE_VALUES))));
+    }
+
+    private long nextValue() {
+        if (next == entryCount) next = 0;
+        return next++;
+    }
+
+    @SuppressWarnings( "unchecked" )
+    private LocalUniqueIndex<Long> uniqueValueIndex( Serializers serializers ) {
+        PropertyType type = PropertyType.LONG;
+        ValueFactory<Long> valueFactory = (ValueFactory<Long>)context.getValueFactories().getValueFactory(type);
+        Converter<Long> converter = IndexValues.converter(valueFactory);
+        Serializer<Long> serializer = (Serializer<Long>)serializers.serializerFor(type.getValueClass());
+        BTreeKeySerializer<Long> keySerializer = (BTreeKeySerializer<Long>)serializers.bTreeKeySerializerFor(type.getValueClass(),
+                                                                                                             type.getComparator(),
+                                                                                                             false);
+        return new LocalUniqueIndex<>("uniqueIndex", "benchmark", db, converter, keySerializer, serializer);
+    }
+
+    @SuppressWarnings( "unchecked" )
+    private LocalDuplicateIndex<String> duplicateValueIndex( Serializers serializers ) {
+        PropertyType type = PropertyType.STRING;
+        Comparator<String> comparator = (Comparator<String>)type.getComparator();
+        ValueFactory<String> valueFactory = (ValueFactory<String>)context.getValueFactories().getValueFactory(type);
+        Converter<String> converter = IndexValues.converter(valueFactory);
+        Serializer<String> serializer = (Serializer<String>)serializers.serializerFor(type.getValueClass());
+        return new LocalDuplicateIndex<>("duplicateIndex", "benchmark", db, converter, serializer, comparator);
+    }
+
+    private IndexConstraints constraints( Operator op,
+                                          Object literalValue ) {
+        final Constraint comparison = new Comparison(new PropertyValue(SELECTOR, PROPERTY_NAME), op, new Literal(literalValue));
+        return new IndexConstraints() {
+            @Override
+            public Collection<Constraint> getConstraints() {
+                return Collections.singletonList(comparison);
+            }
+
+            @Override
+            public Map<String, Object> getParameters() {
+                return Collections.emptyMap();
+            }
+
+            @Override
+            public ValueFactories getValueFactories() {
+                return context.getValueFactories();
+            }
+
+            @Override
+            public Map<String, Object> getVariables() {
+                return Collections.emptyMap();
+            }
+
+            @Override
+            public boolean hasConstraints() {
+                return true;
+            }
+
+            @Override
+            public Collection<JoinCondition> getJoinConditions() {
+                return Collections.emptyList();
+            }
+        };
+    }
+
+    private static long count( Filter.Results results ) {
+        CountingWriter writer = new CountingWriter();
+        while (results.getNextBatch(writer, Integer.MAX_VALUE)) {
+            // keep going
+        }
+        results.close();
+        return writer.count;
+    }
+
+    private static final class CountingWriter implements ResultWriter {
+        protected long count;
+
+        @Override
+        public void add( NodeKey nodeKey,
+                         float score ) {
+            ++count;
+        }
+
+        @Override
+        public void add( Iterable<NodeKey> nodeKeys,
+                         float score ) {
+            for (Iterator<NodeKey> iter = nodeKeys.iterator(); iter.hasNext(); iter.next()) {
+                ++count;
+            }
+        }
+
+        @Override
+        public void add( Iterator<NodeKey> nodeKeys,
+                         float score ) {
+            while (nodeKeys.hasNext()) {
+                nodeKeys.next();
+                ++count;
+            }
+        }
+    }
+}
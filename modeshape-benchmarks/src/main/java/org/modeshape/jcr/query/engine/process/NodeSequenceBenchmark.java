@@ -0,0 +1,140 @@
+/*
+ * ModeShape (http://www.modeshape.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.modeshape.jcr.query.engine.process;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import javax.jcr.Node;
+import javax.jcr.NodeIterator;
+import org.modeshape.jcr.BenchmarkRepository;
+import org.modeshape.jcr.cache.NodeKey;
+import org.modeshape.jcr.cache.document.WorkspaceCache;
+import org.modeshape.jcr.query.BufferManager;
+import org.modeshape.jcr.query.NodeSequence;
+import org.modeshape.jcr.query.NodeSequence.Batch;
+import org.modeshape.jcr.query.RowExtractors;
+import org.modeshape.jcr.query.RowExtractors.ExtractFromRow;
+import org.modeshape.jcr.query.model.JoinType;
+import org.modeshape.jcr.query.model.NullOrder;
+import org.modeshape.jcr.query.model.TypeSystem;
+import org.modeshape.jcr.value.Name;
+import org.modeshape.jcr.value.ValueTypeSystem;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the {@link SortingSequence} and {@link HashJoinSequence} query operators over the nodes of an in-memory repository.
+ */
+@State( Scope.Benchmark )
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.MICROSECONDS )
+@Warmup( iterations = 5, time = 1 )
+@Measurement( iterations = 10, time = 1 )
+@Fork( 1 )
+public class NodeSequenceBenchmark {
+
+    @Param( {"1000", "10000"} )
+    public int nodeCount;
+
+    @Param( {"true", "false"} )
+    public boolean useHeap;
+
+    private BenchmarkRepository repository;
+    private WorkspaceCache cache;
+    private BufferManager bufferMgr;
+    private TypeSystem types;
+    private String workspaceName;
+    private List<NodeKey> keys;
+    private Name indexProperty;
+
+    @Setup
+    public void setup() throws Exception {
+        repository = new BenchmarkRepository();
+        Node parent = repository.createNodeWithChildren("parent", nodeCount);
+        keys = new ArrayList<>(nodeCount + 1);
+        keys.add(repository.keyOf(parent));
+        for (NodeIterator iter = parent.getNodes(); iter.hasNext();) {
+            keys.add(repository.keyOf(iter.nextNode()));
+        }
+        cache = repository.workspaceCache();
+        workspaceName = repository.workspaceName();
+        bufferMgr = new BufferManager(repository.context());
+        types = new ValueTypeSystem(repository.context().getValueFactories());
+        indexProperty = repository.context().getValueFactories().getNameFactory().create("index");
+    }
+
+    @TearDown
+    public void tearDown() throws Exception {
+        try {
+            bufferMgr.close();
+        } finally {
+            repository.shutdown();
+        }
+    }
+
+    @Benchmark
+    public long sortByPath() {
+        ExtractFromRow extractor = RowExtractors.extractPath(0, cache, types);
+        return consume(new SortingSequence(workspaceName, allNodes(), extractor, bufferMgr, cache, false, useHeap, true,
+                                           NullOrder.NULLS_LAST));
+    }
+
+    @Benchmark
+    public long sortByPropertyValue() {
+        ExtractFromRow extractor = RowExtractors.extractPropertyValue(indexProperty, 0, cache, types.getLongFactory());
+        return consume(new SortingSequence(workspaceName, allNodes(), extractor, bufferMgr, cache, false, useHeap, true,
+                                           NullOrder.NULLS_LAST));
+    }
+
+    @Benchmark
+    public long joinParentToChildren() {
+        ExtractFromRow leftExtractor = RowExtractors.extractNodeKey(0, cache, types);
+        ExtractFromRow rightExtractor = RowExtractors.extractParentNodeKey(0, cache, types);
+        return consume(new HashJoinSequence(workspaceName, allNodes(), allNodes(), leftExtractor, rightExtractor, JoinType.INNER,
+                                            bufferMgr, cache, null, false, useHeap));
+    }
+
+    private NodeSequence allNodes() {
+        return NodeSequence.withNodeKeys(keys, 1.0f, workspaceName, cache);
+    }
+
+    private static long consume( NodeSequence sequence ) {
+        long rows = 0L;
+        try {
+            Batch batch = null;
+            while ((batch = sequence.nextBatch()) != null) {
+                while (batch.hasNext()) {
+                    batch.nextRow();
+                    ++rows;
+                }
+            }
+        } finally {
+            sequence.close();
+        }
+        return rows;
+    }
+}
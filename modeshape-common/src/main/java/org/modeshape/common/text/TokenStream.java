@@ -16,6 +16,7 @@
 package org.modeshape.common.text;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
 import java.util.ListIterator;
@@ -413,10 +414,7 @@ public class TokenStream {
     public TokenStream start() throws ParsingException {
         // Create the tokens ...
         if (tokens == null) {
-            TokenFactory tokenFactory = caseSensitive ? new CaseSensitiveTokenFactory() : new CaseInsensitiveTokenFactory();
-            CharacterStream characterStream = new CharacterArrayStream(inputContent);
-            tokenizer.tokenize(characterStream, tokenFactory);
-            this.tokens = initializeTokens(tokenFactory.getTokens());
+            this.tokens = initializeTokens(tokenize());
         }
 
         // Create the iterator ...
@@ -425,6 +423,42 @@ public class TokenStream {
         return this;
     }
 
+    /**
+     * Begin the token stream using tokens that were already produced by {@link #tokenize() tokenizing} the same content with an
+     * equivalent tokenizer and case sensitivity, possibly by another stream. This allows several streams that
+     * {@link #initializeTokens(List) preprocess} the tokens differently to share the work of tokenizing the content. The
+     * supplied list is never modified.
+     * 
+     * @param contentTokens the tokens of this stream's content; may not be null
+     * @return this object for easy method chaining; never null
+     */
+    public TokenStream start( List<Token> contentTokens ) {
+        CheckArg.isNotNull(contentTokens, "contentTokens");
+        if (tokens == null) {
+            this.tokens = initializeTokens(Collections.unmodifiableList(contentTokens));
+        }
+
+        // Create the iterator ...
+        tokenIterator = this.tokens.listIterator();
+        moveToNextToken();
+        return this;
+    }
+
+    /**
+     * Tokenize the content of this stream, without {@link #initializeTokens(List) preprocessing} the tokens or starting the
+     * stream.
+     * 
+     * @return the tokens of the content; never null
+     * @throws ParsingException if an error occurs during tokenization of the content
+     * @see #start(List)
+     */
+    public List<Token> tokenize() throws ParsingException {
+        TokenFactory tokenFactory = caseSensitive ? new CaseSensitiveTokenFactory() : new CaseInsensitiveTokenFactory();
+        CharacterStream characterStream = new CharacterArrayStream(inputContent);
+        tokenizer.tokenize(characterStream, tokenFactory);
+        return tokenFactory.getTokens();
+    }
+
     /**
      * Method to allow subclasses to preprocess the set of tokens and return the correct tokens to use. The default behavior is to
      * simply return the supplied tokens.
@@ -1676,7 +1710,7 @@ public class TokenStream {
 
         @Override
         public final boolean matches( int expectedType ) {
-            return expectedType == ANY_TYPE || (currentToken().type() & expectedType) == expectedType;
+            return expectedType == ANY_TYPE || (type & expectedType) == expectedType;
         }
 
         @Override
@@ -0,0 +1,176 @@
+/*
+ * ModeShape (http://www.modeshape.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.modeshape.common.util;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * A single range of bytes requested via the HTTP {@code Range} header, as defined in RFC 7233. The start and end positions are
+ * both inclusive, and are always within the bounds of the resource for which the range was {@link #parse(String, long) parsed}.
+ */
+public final class ByteRange {
+
+    /**
+     * The maximum number of ranges honored in a single request. Requests with more ranges are answered with the full content,
+     * which protects the server from clients that request many tiny (or overlapping) ranges.
+     */
+    protected static final int MAX_RANGES = 64;
+
+    private static final String BYTES_UNIT = "bytes=";
+
+    private static final Comparator<ByteRange> BY_START = new Comparator<ByteRange>() {
+        @Override
+        public int compare( ByteRange range1,
+                            ByteRange range2 ) {
+            return Long.compare(range1.start, range2.start);
+        }
+    };
+
+    private final long start;
+    private final long end;
+
+    protected ByteRange( long start,
+                         long end ) {
+        assert start >= 0;
+        assert end >= start;
+        this.start = start;
+        this.end = end;
+    }
+
+    /**
+     * Get the position of the first byte in this range.
+     * 
+     * @return the zero-based start position; never negative
+     */
+    public long getStart() {
+        return start;
+    }
+
+    /**
+     * Get the position of the last byte in this range.
+     * 
+     * @return the zero-based end position (inclusive); never less than the {@link #getStart() start}
+     */
+    public long getEnd() {
+        return end;
+    }
+
+    /**
+     * Get the number of bytes in this range.
+     * 
+     * @return the length; always positive
+     */
+    public long getLength() {
+        return end - start + 1;
+    }
+
+    /**
+     * Get the value of the {@code Content-Range} header describing this range.
+     * 
+     * @param resourceLength the total length of the resource
+     * @return the header value; never null
+     */
+    public String toContentRange( long resourceLength ) {
+        return "bytes " + start + "-" + end + "/" + resourceLength;
+    }
+
+    /**
+     * Parse the value of a {@code Range} header for a resource of the given length. Overlapping and adjacent ranges are coalesced
+     * into a single range, and the resulting ranges are ordered by their start position.
+     * 
+     * @param rangeHeader the value of the {@code Range} header; may be null
+     * @param resourceLength the total length of the resource
+     * @return the satisfiable ranges; null if the header is missing, malformed, uses a unit other than bytes or contains too many
+     *         ranges (in which case the header must be ignored and the full content returned), or an empty list if none of the
+     *         ranges can be satisfied
+     */
+    public static List<ByteRange> parse( String rangeHeader,
+                                         long resourceLength ) {
+        if (rangeHeader == null) return null;
+        rangeHeader = rangeHeader.trim();
+        if (!rangeHeader.regionMatches(true, 0, BYTES_UNIT, 0, BYTES_UNIT.length())) return null;
+        String[] specs = rangeHeader.substring(BYTES_UNIT.length()).split(",");
+        if (specs.length > MAX_RANGES) return null;
+        List<ByteRange> ranges = new ArrayList<ByteRange>(specs.length);
+        for (String spec : specs) {
+            spec = spec.trim();
+            int dash = spec.indexOf('-');
+            if (dash == -1) return null;
+            try {
+                String first = spec.substring(0, dash).trim();
+                String last = spec.substring(dash + 1).trim();
+                if (first.length() == 0) {
+                    // A suffix range, requesting the last N bytes ...
+                    if (last.length() == 0) return null;
+                    long suffixLength = Long.parseLong(last);
+                    if (suffixLength < 0) return null;
+                    if (suffixLength == 0 || resourceLength == 0) continue;
+                    ranges.add(new ByteRange(Math.max(0, resourceLength - suffixLength), resourceLength - 1));
+                } else {
+                    long start = Long.parseLong(first);
+                    long end = last.length() == 0 ? Long.MAX_VALUE : Long.parseLong(last);
+                    if (start < 0 || end < start) return null;
+                    if (start >= resourceLength) continue;
+                    ranges.add(new ByteRange(start, Math.min(end, resourceLength - 1)));
+                }
+            } catch (NumberFormatException e) {
+                return null;
+            }
+        }
+        return coalesce(ranges);
+    }
+
+    private static List<ByteRange> coalesce( List<ByteRange> ranges ) {
+        if (ranges.size() < 2) return ranges;
+        Collections.sort(ranges, BY_START);
+        List<ByteRange> result = new ArrayList<ByteRange>(ranges.size());
+        ByteRange current = ranges.get(0);
+        for (int i = 1; i != ranges.size(); ++i) {
+            ByteRange next = ranges.get(i);
+            if (next.start <= current.end + 1) {
+                current = new ByteRange(current.start, Math.max(current.end, next.end));
+            } else {
+                result.add(current);
+                current = next;
+            }
+        }
+        result.add(current);
+        return result;
+    }
+
+    @Override
+    public boolean equals( Object obj ) {
+        if (obj == this) return true;
+        if (obj instanceof ByteRange) {
+            ByteRange that = (ByteRange)obj;
+            return this.start == that.start && this.end == that.end;
+        }
+        return false;
+    }
+
+    @Override
+    public int hashCode() {
+        return (int)(start ^ (end >>> 32) ^ end);
+    }
+
+    @Override
+    public String toString() {
+        return start + "-" + end;
+    }
+}
@@ -0,0 +1,43 @@
+/*
+ * ModeShape (http://www.modeshape.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.modeshape.common.util;
+
+import java.io.IOException;
+import java.nio.channels.WritableByteChannel;
+
+/**
+ * An optional interface for {@link java.io.InputStream} implementations whose content is backed by a file (or other random-access
+ * source) and that can therefore transfer an arbitrary region of that content directly to a channel, without first reading and
+ * discarding the preceding bytes and without copying the content through a heap buffer.
+ * 
+ * @see IoUtil#write(java.io.InputStream, java.io.OutputStream, long, long)
+ */
+public interface ChannelTransferable {
+
+    /**
+     * Transfer the given region of the content to the supplied channel. This method does not change the current position of the
+     * stream, nor does it close the stream or the channel.
+     * 
+     * @param position the position within the content at which the transfer is to begin; must be non-negative
+     * @param count the maximum number of bytes to be transferred; must be non-negative
+     * @param target the target channel; may not be null
+     * @return the number of bytes actually transferred, which may be less than {@code count} if the end of the content is reached
+     * @throws IOException if there is a problem reading the content or writing to the channel
+     */
+    long transferTo( long position,
+                     long count,
+                     WritableByteChannel target ) throws IOException;
+}
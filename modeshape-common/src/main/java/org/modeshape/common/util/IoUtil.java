@@ -31,6 +31,9 @@ import java.io.Reader;
 import java.io.Writer;
 import java.net.MalformedURLException;
 import java.net.URL;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
 import java.util.Arrays;
 import org.modeshape.common.annotation.Immutable;
 import org.modeshape.common.logging.Logger;
@@ -356,6 +359,67 @@ public class IoUtil {
         }
     }
 
+    /**
+     * Write a region of the contents of the supplied stream to the given stream. Unlike the other {@code write} methods, this
+     * method closes neither stream, so that several regions can be written to the same output. When the input is
+     * {@link ChannelTransferable} or a {@link FileInputStream}, the region is transferred directly from the underlying file
+     * without reading the preceding bytes; otherwise the preceding bytes are skipped and the region is copied through a buffer.
+     * 
+     * @param input the content to write to the stream; may not be null
+     * @param stream the stream to which the content is to be written; may not be null
+     * @param offset the offset of the first byte of the region within the input; must be non-negative
+     * @param length the maximum number of bytes to write; must be non-negative
+     * @return the number of bytes actually written, which is less than {@code length} if the input ends before the region does
+     * @throws IOException if there is a problem reading the input or writing to the output
+     * @throws IllegalArgumentException if either stream is null, or if the offset or length is negative
+     */
+    public static long write( InputStream input,
+                              OutputStream stream,
+                              long offset,
+                              long length ) throws IOException {
+        CheckArg.isNotNull(input, "input stream");
+        CheckArg.isNotNull(stream, "destination stream");
+        CheckArg.isNonNegative(offset, "offset");
+        CheckArg.isNonNegative(length, "length");
+        while (input instanceof SelfClosingInputStream) {
+            // Closing the wrapper closes the wrapped stream, so the wrapped stream can be used directly ...
+            input = ((SelfClosingInputStream)input).wrappedStream();
+        }
+        if (input instanceof ChannelTransferable) {
+            return ((ChannelTransferable)input).transferTo(offset, length, Channels.newChannel(stream));
+        }
+        if (input instanceof FileInputStream) {
+            FileChannel channel = ((FileInputStream)input).getChannel();
+            WritableByteChannel target = Channels.newChannel(stream);
+            long written = 0L;
+            while (written < length) {
+                long transferred = channel.transferTo(offset + written, length - written, target);
+                if (transferred <= 0) break;
+                written += transferred;
+            }
+            return written;
+        }
+        long toSkip = offset;
+        while (toSkip > 0) {
+            long skipped = input.skip(toSkip);
+            if (skipped <= 0) {
+                // Some streams don't skip, so make sure we've not reached the end ...
+                if (input.read() == -1) return 0L;
+                skipped = 1;
+            }
+            toSkip -= skipped;
+        }
+        byte[] buffer = new byte[(int)Math.min(length, 65536L)];
+        long written = 0L;
+        while (written < length) {
+            int numRead = input.read(buffer, 0, (int)Math.min(buffer.length, length - written));
+            if (numRead == -1) break;
+            stream.write(buffer, 0, numRead);
+            written += numRead;
+        }
+        return written;
+    }
+
     /**
      * Write the entire contents of the supplied string to the given writer. This method always flushes and closes the writer when
      * finished.
@@ -492,4 +492,27 @@ public class TokenStreamTest {
         assertThat(tokens.nextPosition().getColumn(), is(7));
 
     }
+
+    @Test
+    public void shouldStartWithTokensProducedByAnotherStream() {
+        TokenStream tokenizingStream = new TokenStream(content, tokenizer, false);
+        tokens = new TokenStream(content, tokenizer, false).start(tokenizingStream.tokenize());
+        assertThat(tokens.matches("SELECT", "ALL", "COLUMNS"), is(true));
+        assertThat(tokens.matches(new int[] {WORD, WORD, WORD}), is(true));
+        tokens.consume("SELECT");
+        tokens.consume("ALL");
+        tokens.consume("COLUMNS");
+        tokens.consume("FROM");
+        tokens.consume("THIS");
+        tokens.consume("TABLE");
+        assertThat(tokens.hasNext(), is(false));
+    }
+
+    @Test
+    public void shouldMatchTypesOfTokensFollowingCurrentToken() {
+        content = "Select 'quoted' columns";
+        makeCaseInsensitive();
+        assertThat(tokens.matches(new int[] {WORD, SINGLE_QUOTED_STRING, WORD}), is(true));
+        assertThat(tokens.matches(new int[] {WORD, WORD}), is(false));
+    }
 }
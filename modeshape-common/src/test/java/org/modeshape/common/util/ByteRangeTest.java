@@ -0,0 +1,99 @@
+/*
+ * ModeShape (http://www.modeshape.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.modeshape.common.util;
+
+import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsNull.nullValue;
+import static org.junit.Assert.assertThat;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import org.junit.Test;
+
+public class ByteRangeTest {
+
+    private static final long LENGTH = 1000L;
+
+    @Test
+    public void shouldIgnoreMissingOrMalformedHeaders() {
+        assertThat(ByteRange.parse(null, LENGTH), is(nullValue()));
+        assertThat(ByteRange.parse("items=0-10", LENGTH), is(nullValue()));
+        assertThat(ByteRange.parse("bytes=10", LENGTH), is(nullValue()));
+        assertThat(ByteRange.parse("bytes=-", LENGTH), is(nullValue()));
+        assertThat(ByteRange.parse("bytes=20-10", LENGTH), is(nullValue()));
+        assertThat(ByteRange.parse("bytes=a-b", LENGTH), is(nullValue()));
+    }
+
+    @Test
+    public void shouldParseSingleRanges() {
+        assertThat(ByteRange.parse("bytes=0-499", LENGTH), is(ranges(0, 499)));
+        assertThat(ByteRange.parse("bytes=500-", LENGTH), is(ranges(500, 999)));
+        assertThat(ByteRange.parse("bytes=-200", LENGTH), is(ranges(800, 999)));
+        assertThat(ByteRange.parse("Bytes = 10-19", LENGTH), is(nullValue()));
+        assertThat(ByteRange.parse("BYTES=10-19", LENGTH), is(ranges(10, 19)));
+    }
+
+    @Test
+    public void shouldTruncateRangesExtendingPastTheEnd() {
+        assertThat(ByteRange.parse("bytes=900-2000", LENGTH), is(ranges(900, 999)));
+        assertThat(ByteRange.parse("bytes=-5000", LENGTH), is(ranges(0, 999)));
+    }
+
+    @Test
+    public void shouldReturnEmptyListIfNoRangeIsSatisfiable() {
+        assertThat(ByteRange.parse("bytes=1000-1100", LENGTH), is(Collections.<ByteRange>emptyList()));
+        assertThat(ByteRange.parse("bytes=-0", LENGTH), is(Collections.<ByteRange>emptyList()));
+        assertThat(ByteRange.parse("bytes=2000-, 1000-", LENGTH), is(Collections.<ByteRange>emptyList()));
+    }
+
+    @Test
+    public void shouldParseMultipleRangesInOrder() {
+        assertThat(ByteRange.parse("bytes=500-599, 0-99", LENGTH), is(ranges(0, 99, 500, 599)));
+        assertThat(ByteRange.parse("bytes=0-99,2000-3000,-100", LENGTH), is(ranges(0, 99, 900, 999)));
+    }
+
+    @Test
+    public void shouldCoalesceOverlappingAndAdjacentRanges() {
+        assertThat(ByteRange.parse("bytes=0-99,50-149", LENGTH), is(ranges(0, 149)));
+        assertThat(ByteRange.parse("bytes=100-199,0-99", LENGTH), is(ranges(0, 199)));
+        assertThat(ByteRange.parse("bytes=0-9,5-6,900-,-50", LENGTH), is(ranges(0, 9, 900, 999)));
+    }
+
+    @Test
+    public void shouldIgnoreHeaderWithTooManyRanges() {
+        StringBuilder header = new StringBuilder("bytes=");
+        for (int i = 0; i <= ByteRange.MAX_RANGES; ++i) {
+            if (i != 0) header.append(',');
+            header.append(i * 10).append('-').append(i * 10 + 1);
+        }
+        assertThat(ByteRange.parse(header.toString(), LENGTH), is(nullValue()));
+    }
+
+    @Test
+    public void shouldProduceContentRange() {
+        ByteRange range = ByteRange.parse("bytes=10-19", LENGTH).get(0);
+        assertThat(range.getLength(), is(10L));
+        assertThat(range.toContentRange(LENGTH), is("bytes 10-19/1000"));
+    }
+
+    private static List<ByteRange> ranges( long... startsAndEnds ) {
+        ByteRange[] ranges = new ByteRange[startsAndEnds.length / 2];
+        for (int i = 0; i != ranges.length; ++i) {
+            ranges[i] = new ByteRange(startsAndEnds[2 * i], startsAndEnds[2 * i + 1]);
+        }
+        return Arrays.asList(ranges);
+    }
+}
@@ -18,6 +18,9 @@ package org.modeshape.common.util;
 import static org.hamcrest.core.Is.is;
 import static org.junit.Assert.assertThat;
 import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
@@ -110,6 +113,47 @@ public class IoUtilTest {
         assertThat(wrapper.isClosed(), is(true));
     }
 
+    @Test
+    public void writeShouldWriteRegionOfStreamWithoutClosingEitherStream() throws Exception {
+        String content = "This is the way to grandma's house.";
+        InputStreamWrapper input = new InputStreamWrapper(new ByteArrayInputStream(content.getBytes()));
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        OutputStreamWrapper output = new OutputStreamWrapper(bytes);
+        assertThat(IoUtil.write(input, output, 12L, 3L), is(3L));
+        assertThat(new String(bytes.toByteArray()), is("way"));
+        assertThat(input.isClosed(), is(false));
+        assertThat(output.isClosed(), is(false));
+
+        // Regions extending past the end are truncated ...
+        bytes.reset();
+        assertThat(IoUtil.write(new ByteArrayInputStream(content.getBytes()), bytes, 30L, 100L), is(5L));
+        assertThat(new String(bytes.toByteArray()), is("ouse."));
+        bytes.reset();
+        assertThat(IoUtil.write(new ByteArrayInputStream(content.getBytes()), bytes, 100L, 10L), is(0L));
+    }
+
+    @Test
+    public void writeShouldTransferRegionOfFileStream() throws Exception {
+        String content = "This is the way to grandma's house.";
+        File file = File.createTempFile("ioUtilTest", ".txt");
+        try {
+            IoUtil.write(content, file);
+            FileInputStream input = new FileInputStream(file);
+            try {
+                ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+                assertThat(IoUtil.write(input, bytes, 19L, 8L), is(8L));
+                assertThat(new String(bytes.toByteArray()), is("grandma'"));
+                bytes.reset();
+                assertThat(IoUtil.write(input, bytes, 0L, 4L), is(4L));
+                assertThat(new String(bytes.toByteArray()), is("This"));
+            } finally {
+                input.close();
+            }
+        } finally {
+            file.delete();
+        }
+    }
+
     protected class InputStreamWrapper extends InputStream {
 
         private boolean closed = false;
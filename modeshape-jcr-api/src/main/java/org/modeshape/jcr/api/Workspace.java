@@ -15,6 +15,8 @@
  */
 package org.modeshape.jcr.api;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.concurrent.Future;
 import javax.jcr.AccessDeniedException;
 import javax.jcr.RepositoryException;
@@ -139,6 +141,77 @@ public interface Workspace extends javax.jcr.Workspace {
      */
     Future<Boolean> reindexSinceAsync( long timestamp ) throws RepositoryException;
 
+    /**
+     * Remove the node at the supplied path and all of its descendants, immediately persisting the removal. Unlike
+     * {@link javax.jcr.Node#remove()}, the descendants are never loaded into a session but are removed in bounded batches, each
+     * within its own transaction, and only a single {@link javax.jcr.observation.Event#NODE_REMOVED} event is generated for the
+     * removed node. This method is intended for the removal of very large subtrees.
+     * <p>
+     * The node is first detached from its parent (at which point it is no longer visible to any session), and then the nodes in
+     * the subtree are removed. This method blocks until all the nodes in the subtree have been removed.
+     * </p>
+     *
+     * @param absPath the absolute path of the top node of the subtree; may not be null
+     * @return the number of nodes that were removed
+     * @throws javax.jcr.PathNotFoundException if there is no node at the supplied path
+     * @throws javax.jcr.ReferentialIntegrityException if any node in the subtree is the target of a strong reference from
+     *         outside the subtree
+     * @throws AccessDeniedException if the session does not have the privileges to remove the node
+     * @throws RepositoryException if the node cannot be removed in bulk (e.g. it is the root node, an external node or a shared
+     *         node, or access control is enabled) or if there is any other problem with this session or workspace
+     * @see #removeSubtreeAsync(String)
+     * @since 5.0
+     */
+    long removeSubtree( String absPath ) throws RepositoryException;
+
+    /**
+     * Remove the node at the supplied path and all of its descendants, removing the descendants asynchronously. The node itself
+     * is detached from its parent before this method returns, so that it is no longer visible to any session, while the nodes in
+     * the subtree are removed in the background.
+     *
+     * @param absPath the absolute path of the top node of the subtree; may not be null
+     * @return a future representing the asynchronous removal, which returns the number of nodes that were removed; never null
+     * @throws javax.jcr.PathNotFoundException if there is no node at the supplied path
+     * @throws javax.jcr.ReferentialIntegrityException if any node in the subtree is the target of a strong reference from
+     *         outside the subtree
+     * @throws AccessDeniedException if the session does not have the privileges to remove the node
+     * @throws RepositoryException if the node cannot be removed in bulk or if there is any other problem with this session or
+     *         workspace
+     * @see #removeSubtree(String)
+     * @since 5.0
+     */
+    Future<Long> removeSubtreeAsync( String absPath ) throws RepositoryException;
+
+    /**
+     * Deserializes an XML document and adds the resulting item subgraph as a child of the node at the supplied path, exactly like
+     * {@link #importXML(String, InputStream, int)}, except that the imported content is saved in batches while the document is
+     * being read rather than in one save once the whole document has been read. This limits the amount of transient state and
+     * the size of each change set when importing very large documents.
+     * <p>
+     * A batch is saved once at least <code>saveBatchSize</code> nodes have been read, but only at a point where this cannot
+     * violate a constraint that the complete document satisfies; content with pending references or shared nodes, and nodes
+     * whose mandatory children are still to be read, are kept until they can be saved. Because the batches are saved
+     * independently, other sessions may see the partially-imported content. If the import fails, the nodes that were already
+     * saved by this import are removed again; nodes that were removed or replaced because of the <code>uuidBehavior</code>
+     * cannot be restored, so the import should instead be repeated using
+     * {@link javax.jcr.ImportUUIDBehavior#IMPORT_UUID_COLLISION_REPLACE_EXISTING}.
+     * </p>
+     *
+     * @param parentAbsPath the absolute path of a node under which (as child) the imported subgraph will be built.
+     * @param in An {@link InputStream} from which the XML to be deserialized is read.
+     * @param uuidBehavior a four-value flag that governs how incoming UUIDs are handled.
+     * @param saveBatchSize the minimum number of nodes that are saved together, or 0 if the content should only be saved once
+     *        the whole document has been read
+     * @throws IOException if an error during an I/O operation occurs.
+     * @throws RepositoryException if the content cannot be imported or if another error occurs.
+     * @see #importXML(String, InputStream, int)
+     * @since 5.0
+     */
+    void importXML( String parentAbsPath,
+                    InputStream in,
+                    int uuidBehavior,
+                    int saveBatchSize ) throws IOException, RepositoryException;
+
     /**
      * Returns the federation manager instance which can be used to connect to external sources.
      * @return a {@link FederationManager} instance; never {@code null}
@@ -53,6 +53,16 @@ public interface Query extends javax.jcr.query.Query {
      */
     public String getAbstractQueryModelRepresentation();
 
+    /**
+     * Get the maximum number of rows and the number of initial rows to skip of this query, whether they are defined by the query
+     * statement itself or were set with {@link #setLimit(long)} and {@link #setOffset(long)}.
+     * 
+     * @return the limits of this query, or null if they are not known
+     */
+    public default org.modeshape.jcr.api.query.qom.Limit getLimits() {
+        return null;
+    }
+
     /**
      * Generates a plan for the this query and returns a <code>{@link QueryResult}</code> object that contains no results (nodes
      * or rows) but does have a query plan.
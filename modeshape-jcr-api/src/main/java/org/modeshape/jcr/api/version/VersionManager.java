@@ -15,9 +15,13 @@
  */
 package org.modeshape.jcr.api.version;
 
+import javax.jcr.InvalidItemStateException;
 import javax.jcr.PathNotFoundException;
 import javax.jcr.RepositoryException;
 import javax.jcr.UnsupportedRepositoryOperationException;
+import javax.jcr.lock.LockException;
+import javax.jcr.version.Version;
+import javax.jcr.version.VersionException;
 
 /**
  * ModeShape's extension of {@link javax.jcr.version.VersionManager}
@@ -43,4 +47,24 @@ public interface VersionManager extends javax.jcr.version.VersionManager {
      * @throws javax.jcr.RepositoryException if anything unexpected fails while performing the operation
      */
     public void remove(String absPath) throws UnsupportedRepositoryOperationException, PathNotFoundException,RepositoryException;
+
+    /**
+     * Checks in each of the versionable nodes at the given absolute paths, as if {@link #checkin(String)} were called for each
+     * of them, but records all of the new versions with a single save. Nodes which are already checked in are not changed, and
+     * their current base version is returned instead.
+     * <br>
+     * If any of the nodes cannot be checked in, then none of them are.
+     *
+     * @param absPaths the absolute paths of the versionable nodes; may not be {@code null}
+     * @return the new (or, for nodes already checked in, the current base) {@link Version} of each node, in the same order
+     * as the paths; never {@code null}
+     * @throws VersionException if any of the nodes cannot be checked in. See {@link #checkin(String)}.
+     * @throws UnsupportedRepositoryOperationException if any of the nodes is not {@code mix:versionable}
+     * @throws InvalidItemStateException if the session has pending changes
+     * @throws LockException if any of the nodes is locked by another session
+     * @throws javax.jcr.RepositoryException if anything unexpected fails while performing the operation
+     */
+    public Version[] checkin(String[] absPaths)
+        throws VersionException, UnsupportedRepositoryOperationException, InvalidItemStateException, LockException,
+        RepositoryException;
 }
@@ -2333,12 +2333,8 @@ abstract class AbstractJcrNode extends AbstractJcrItem implements Node {
         NodeTypes nodeTypes = session().nodeTypes();
         try {
             CachedNode node = node();
-            // Check the primary type ...
-            Name primaryTypeName = node.getPrimaryType(cache);
-            if (nodeTypes.isTypeOrSubtype(primaryTypeName, nodeTypeName)) return true;
-            // Check the mixins ...
-            Set<Name> mixinTypes = node.getMixinTypes(cache);
-            if (nodeTypes.isTypeOrSubtype(mixinTypes, nodeTypeName)) return true;
+            // Check the primary type and the mixins ...
+            return nodeTypes.isTypeOrSubtype(node.getPrimaryType(cache), node.getMixinTypes(cache), nodeTypeName);
         } catch (ItemNotFoundException e) {
             // The node has been removed, so do nothing
         }
@@ -3151,6 +3147,25 @@ abstract class AbstractJcrNode extends AbstractJcrItem implements Node {
     }
 
     void internalRemove( boolean skipVersioningValidation )
+        throws VersionException, LockException, ConstraintViolationException, RepositoryException {
+        checkRemovable(skipVersioningValidation);
+
+        // Even if this is shareable, we remove the shareable nodes the same way
+        // (per section 14.2 of the JCR 2.0 specification) ...
+        doRemove();
+    }
+
+    /**
+     * Verify that this node can be removed by the current session, without actually removing it.
+     *
+     * @param skipVersioningValidation true if the checked-in state of the parent should not be verified
+     * @throws InvalidItemStateException if this node is no longer a child of its parent
+     * @throws VersionException if the parent is checked in and the OPV of this node is not 'ignore'
+     * @throws LockException if the parent is locked by another session
+     * @throws AccessDeniedException if the session does not have the privileges to remove this node
+     * @throws RepositoryException if any other error occurs
+     */
+    final void checkRemovable( boolean skipVersioningValidation )
         throws VersionException, LockException, ConstraintViolationException, RepositoryException {
         checkSession();
 
@@ -3191,10 +3206,6 @@ abstract class AbstractJcrNode extends AbstractJcrItem implements Node {
             }
             // Otherwise, child node definition is 'ignore', so okay to remove ...
         }
-
-        // Even if this is shareable, we remove the shareable nodes the same way
-        // (per section 14.2 of the JCR 2.0 specification) ...
-        doRemove();
     }
 
     /**
@@ -3420,6 +3431,7 @@ abstract class AbstractJcrNode extends AbstractJcrItem implements Node {
         CachedNode node = node(); // TCK: this should throw an exception if the node has been removed
         if (!keepChanges) {
             session.cache().clear(node);
+            session.releaseUnchangedJcrNodes();
         }
     }
 
@@ -28,6 +28,8 @@ import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.atomic.AtomicReference;
 import javax.jcr.NamespaceRegistry;
 import javax.jcr.PathNotFoundException;
@@ -58,10 +60,13 @@ import org.modeshape.jcr.cache.MutableCachedNode;
 import org.modeshape.jcr.cache.NodeKey;
 import org.modeshape.jcr.cache.SessionCache;
 import org.modeshape.jcr.cache.WorkspaceNotFoundException;
+import org.modeshape.jcr.cache.change.ChangeSet;
+import org.modeshape.jcr.cache.change.ChangeSetListener;
 import org.modeshape.jcr.cache.document.DocumentTranslator;
 import org.modeshape.jcr.cache.document.LocalDocumentStore;
 import org.modeshape.jcr.cache.document.WorkspaceCache;
 import org.modeshape.jcr.federation.ConnectorChangeSetImpl;
+import org.modeshape.jcr.federation.FederatedDocumentCache;
 import org.modeshape.jcr.spi.federation.Connector;
 import org.modeshape.jcr.spi.federation.ConnectorChangeSet;
 import org.modeshape.jcr.spi.federation.ConnectorChangeSetFactory;
@@ -90,6 +95,8 @@ public final class Connectors {
     private boolean initialized = false;
     private final AtomicReference<Snapshot> snapshot = new AtomicReference<>();
     private volatile DocumentTranslator translator;
+    private final ConcurrentMap<String, FederatedDocumentCache> documentCachesBySourceKey = new ConcurrentHashMap<>();
+    private final ChangeSetListener documentCacheInvalidator = new DocumentCacheInvalidator();
 
     protected Connectors( JcrRepository.RunningState repository,
                           Collection<Component> components,
@@ -109,6 +116,10 @@ public final class Connectors {
 
         // initialize the configured connectors
         initializeConnectors();
+        if (!documentCachesBySourceKey.isEmpty()) {
+            // evict the cached documents as soon as the repository is notified that they have changed ...
+            repository.changeBus().registerInThread(documentCacheInvalidator);
+        }
         
         createExternalWorkspaces();        
         
@@ -381,6 +392,35 @@ public final class Connectors {
         }
     }
 
+    /**
+     * Returns the cache of the documents returned by the connector with the given source key, if that connector has a cache
+     * time-to-live.
+     * 
+     * @param sourceKey a {@code non-null} {@link String}
+     * @return the document cache, or {@code null} if the documents of the connector are not cached this way
+     * @see Connector#getCacheTtlSeconds()
+     */
+    public FederatedDocumentCache getDocumentCache( String sourceKey ) {
+        return documentCachesBySourceKey.get(sourceKey);
+    }
+
+    /**
+     * Signals that the external documents for the nodes with the given keys have changed, so that any cached copies are discarded.
+     * 
+     * @param externalNodeKeys the keys of the external nodes; may not be null
+     */
+    public void externalDocumentsChanged( Iterable<NodeKey> externalNodeKeys ) {
+        if (documentCachesBySourceKey.isEmpty()) {
+            return;
+        }
+        for (NodeKey key : externalNodeKeys) {
+            FederatedDocumentCache cache = documentCachesBySourceKey.get(key.getSourceKey());
+            if (cache != null) {
+                cache.invalidate(key.getIdentifier());
+            }
+        }
+    }
+
     /**
      * Signals that an internal node with the given key has been removed.
      * 
@@ -503,6 +543,11 @@ public final class Connectors {
         // If successful, call the 'postInitialize' method reflectively (due to inability to call directly) ...
         Method postInitialize = Reflection.findMethod(Connector.class, "postInitialize");
         Reflection.invokeAccessibly(connector, postInitialize, new Object[] {});
+
+        if (connector.isCacheable() && connector.getCacheTtlSeconds() > 0) {
+            documentCachesBySourceKey.put(sourceKey, new FederatedDocumentCache(connector.getCacheTtlSeconds(),
+                                                                                connector.getCacheSize()));
+        }
     }
 
     protected RunningState repository() {
@@ -542,6 +587,13 @@ public final class Connectors {
         if (!initialized || !hasConnectors()) {
             return;
         }
+        if (!documentCachesBySourceKey.isEmpty()) {
+            repository.changeBus().unregister(documentCacheInvalidator);
+            for (FederatedDocumentCache cache : documentCachesBySourceKey.values()) {
+                cache.clear();
+            }
+            documentCachesBySourceKey.clear();
+        }
         Snapshot current = this.snapshot.get();
         current.shutdownConnectors();
         current.shutdownUnusedConnectors();
@@ -638,6 +690,17 @@ public final class Connectors {
         return connector != null && connector.isReadonly();
     }
 
+    /**
+     * A listener which removes from the {@link FederatedDocumentCache document caches} the documents of all changed nodes, whether
+     * they were changed through the repository or {@link ConnectorChangeSet published} by a connector.
+     */
+    protected final class DocumentCacheInvalidator implements ChangeSetListener {
+        @Override
+        public void notify( ChangeSet changeSet ) {
+            externalDocumentsChanged(changeSet.changedNodes());
+        }
+    }
+
     /**
      * An immutable class used internally to provide a consistent (immutable) view of the {@link Connector} instances, along with
      * various cached data to make it easy to find a {@link Connector} instance by projected or external source keys, etc.
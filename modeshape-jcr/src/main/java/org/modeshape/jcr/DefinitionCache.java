@@ -93,14 +93,43 @@ final class DefinitionCache {
         addDefinitionsForTypeAndAllSupertypes(nodeType);
     }
 
+    /**
+     * Create a cache with the definitions of a primary type and mixin types. Unlike the definitions within the hierarchy of a
+     * single type, the definitions of different types do not override each other: the definitions of each type (including the
+     * inherited ones) are appended in the order of the types, so looking up a name returns the definitions of the primary type
+     * first, followed by those of each mixin type, as if the types were searched one after the other.
+     *
+     * @param primaryType the primary type; may not be null
+     * @param mixinTypes the mixin types; may be null
+     */
     DefinitionCache( JcrNodeType primaryType,
                      Iterable<JcrNodeType> mixinTypes ) {
-        addDefinitionsForTypeAndAllSupertypes(primaryType);
-        // Assumption is that addMixin won't allow mixin types that conflict with primary types
+        addAllDefinitions(primaryType);
         if (mixinTypes != null) {
             for (JcrNodeType mixinType : mixinTypes) {
-                addDefinitionsForTypeAndAllSupertypes(mixinType);
+                addAllDefinitions(mixinType);
+            }
+        }
+    }
+
+    private final void addAllDefinitions( JcrNodeType nodeType ) {
+        for (JcrNodeDefinition definition : nodeType.allChildNodeDefinitions()) {
+            Name name = definition.getInternalName();
+            if (definition.allowsSameNameSiblings()) {
+                childNodeDefinitionsThatAllowSns.put(name, definition);
+            } else {
+                childNodeDefinitionsThatAllowNoSns.put(name, definition);
+            }
+            allChildNodeDefinitions.put(name, definition);
+        }
+        for (JcrPropertyDefinition definition : nodeType.allPropertyDefinitions()) {
+            Name name = definition.getInternalName();
+            if (definition.isMultiple()) {
+                multiValuedPropertyDefinitions.put(name, definition);
+            } else {
+                singleValuedPropertyDefinitions.put(name, definition);
             }
+            allPropertyDefinitions.put(name, definition);
         }
     }
 
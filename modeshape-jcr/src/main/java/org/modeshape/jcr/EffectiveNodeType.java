@@ -0,0 +1,214 @@
+/*
+ * ModeShape (http://www.modeshape.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.modeshape.jcr;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.modeshape.common.annotation.Immutable;
+import org.modeshape.jcr.value.Name;
+
+/**
+ * The effective node type of a node, computed once for each distinct combination of primary type and mixin types. It holds the
+ * resolved {@link JcrNodeType} instances, a {@link DefinitionCache} with the definitions of all of these types (and their
+ * supertypes) merged into name-keyed lookup tables, and a bitset of all the types and supertypes so that
+ * {@link #isNodeType(Name)} does not need to walk the type hierarchy of each type.
+ * <p>
+ * Instances are obtained via {@link NodeTypes#getEffectiveNodeType(Name, Collection)} and are only valid for the
+ * {@link NodeTypes} instance that created them. The mixin types are always held in the order in which they were registered,
+ * so the effective node type does not depend on the order in which the mixin names were supplied.
+ * </p>
+ */
+@Immutable
+final class EffectiveNodeType {
+
+    private final NodeTypes nodeTypes;
+    private final Name primaryTypeName;
+    private final Set<Name> mixinTypeNames;
+    private final JcrNodeType primaryType;
+    private final List<JcrNodeType> mixinTypes;
+    private final DefinitionCache definitions;
+    private final BitSet typeAndSupertypes;
+    private final Map<Name, Integer> nodeTypeIndexes;
+
+    /**
+     * @param nodeTypes the node types that create this effective type; may not be null
+     * @param primaryTypeName the name of the primary type; may be null if unknown
+     * @param mixinTypeNames the names of the mixin types, including those that are not registered; may not be null
+     * @param primaryType the primary type; may be null if the primary type is not registered
+     * @param mixinTypes the registered mixin types, in the order in which they were registered; may not be null but may be empty
+     * @param nodeTypeIndexes the index of each registered node type, used for the bitset of types and supertypes; may not be null
+     */
+    EffectiveNodeType( NodeTypes nodeTypes,
+                       Name primaryTypeName,
+                       Set<Name> mixinTypeNames,
+                       JcrNodeType primaryType,
+                       List<JcrNodeType> mixinTypes,
+                       Map<Name, Integer> nodeTypeIndexes ) {
+        this.nodeTypes = nodeTypes;
+        this.primaryTypeName = primaryTypeName;
+        this.mixinTypeNames = mixinTypeNames;
+        this.primaryType = primaryType;
+        this.mixinTypes = Collections.unmodifiableList(new ArrayList<>(mixinTypes));
+        this.nodeTypeIndexes = nodeTypeIndexes;
+        this.typeAndSupertypes = new BitSet(nodeTypeIndexes.size());
+        if (primaryType != null) {
+            this.definitions = new DefinitionCache(primaryType, this.mixinTypes);
+            addTypeAndSupertypes(primaryType);
+        } else {
+            // Nothing can be precomputed, so all lookups must fall back to searching the individual types ...
+            this.definitions = null;
+        }
+        for (JcrNodeType mixinType : this.mixinTypes) {
+            addTypeAndSupertypes(mixinType);
+        }
+    }
+
+    private void addTypeAndSupertypes( JcrNodeType nodeType ) {
+        for (JcrNodeType type : nodeType.getTypeAndSupertypes()) {
+            Integer index = nodeTypeIndexes.get(type.getInternalName());
+            if (index != null) typeAndSupertypes.set(index);
+        }
+    }
+
+    /**
+     * Get the primary type.
+     *
+     * @return the primary type, or null if the primary type is not registered
+     */
+    JcrNodeType getPrimaryType() {
+        return primaryType;
+    }
+
+    /**
+     * Get the registered mixin types, in the order in which they were registered.
+     *
+     * @return the mixin types; never null but possibly empty
+     */
+    List<JcrNodeType> getMixinTypes() {
+        return mixinTypes;
+    }
+
+    /**
+     * Get the names of the mixin types for which this effective type was created, including those that are not registered.
+     *
+     * @return the mixin type names; never null but possibly empty
+     */
+    Set<Name> getMixinTypeNames() {
+        return mixinTypeNames;
+    }
+
+    /**
+     * Get the definitions of the primary type and the mixin types. A name maps to the definitions of the primary type first,
+     * followed by those of each mixin type.
+     *
+     * @return the definitions, or null if the primary type is not registered
+     */
+    DefinitionCache getDefinitions() {
+        return definitions;
+    }
+
+    /**
+     * Determine whether this effective type was created by the supplied node types for the supplied combination of primary type
+     * and mixin types. This does not allocate anything, so it can be used to check whether a previously used effective type can
+     * be used again.
+     *
+     * @param nodeTypes the node types; may not be null
+     * @param primaryTypeName the name of the primary type; may not be null
+     * @param mixinTypeNames the names of the mixin types, in any order; may be null or empty
+     * @return true if this effective type applies to the supplied types, or false otherwise
+     */
+    boolean appliesTo( NodeTypes nodeTypes,
+                       Name primaryTypeName,
+                       Collection<Name> mixinTypeNames ) {
+        if (this.nodeTypes != nodeTypes || !primaryTypeName.equals(this.primaryTypeName)) return false;
+        if (mixinTypeNames == null || mixinTypeNames.isEmpty()) return this.mixinTypeNames.isEmpty();
+        return sameNames(this.mixinTypeNames, mixinTypeNames);
+    }
+
+    /**
+     * Determine whether the two collections contain the same names, regardless of their order.
+     *
+     * @param names the first names; may not be null
+     * @param otherNames the second names; may not be null
+     * @return true if both collections have the same size and contain the same names, or false otherwise
+     */
+    static boolean sameNames( Collection<Name> names,
+                              Collection<Name> otherNames ) {
+        return names.size() == otherNames.size() && names.containsAll(otherNames) && otherNames.containsAll(names);
+    }
+
+    /**
+     * Determine whether the primary type or any of the mixin types is or extends the node type with the supplied name.
+     *
+     * @param nodeTypeName the name of the node type; may not be null
+     * @return true if the effective type is of the named node type, or false otherwise
+     */
+    boolean isNodeType( Name nodeTypeName ) {
+        if (JcrNtLexicon.BASE.equals(nodeTypeName)) return true;
+        Integer index = nodeTypeIndexes.get(nodeTypeName);
+        return index != null && typeAndSupertypes.get(index);
+    }
+
+    /**
+     * Determine whether any of the types defines (or inherits) at least one property definition with the supplied name. When this
+     * returns false, the only applicable property definitions are the residual ones. If the primary type is not registered, this
+     * method conservatively returns true.
+     *
+     * @param propertyName the name of the property; may not be null
+     * @return true if there is at least one property definition with the supplied name, or false otherwise
+     */
+    boolean hasPropertyDefinitions( Name propertyName ) {
+        return definitions == null || !definitions.allPropertyDefinitions(propertyName).isEmpty();
+    }
+
+    /**
+     * Determine whether any of the types defines (or inherits) at least one child node definition with the supplied name. When
+     * this returns false, the only applicable child node definitions are the residual ones. If the primary type is not
+     * registered, this method conservatively returns true.
+     *
+     * @param childName the name of the child node; may not be null
+     * @return true if there is at least one child node definition with the supplied name, or false otherwise
+     */
+    boolean hasChildNodeDefinitions( Name childName ) {
+        return definitions == null || !definitions.allChildNodeDefinitions(childName).isEmpty();
+    }
+
+    /**
+     * Determine whether any of the types defines (or inherits) at least one property definition or child node definition with the
+     * supplied name.
+     *
+     * @param itemName the name of the item; may not be null
+     * @return true if there is at least one property or child node definition with the supplied name, or false otherwise
+     */
+    boolean hasItemDefinitions( Name itemName ) {
+        return hasPropertyDefinitions(itemName) || hasChildNodeDefinitions(itemName);
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append(primaryType != null ? primaryType.getName() : "<unknown>");
+        for (JcrNodeType mixinType : mixinTypes) {
+            sb.append(',').append(mixinType.getName());
+        }
+        return sb.toString();
+    }
+}
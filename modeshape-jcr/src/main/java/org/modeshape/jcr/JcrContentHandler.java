@@ -73,6 +73,14 @@ import org.xml.sax.helpers.DefaultHandler;
  * <p>
  * Each content handler is only intended to be used once and discarded. This class is <b>NOT</b> thread-safe.
  * </p>
+ * <p>
+ * A handler that saves when completed can also be asked to save the imported content in batches while the document is being
+ * read. A batch is saved once at least the requested number of nodes have been completely read, but only at a point where
+ * doing so cannot violate any constraint that would be satisfied by the complete document: no references, shared nodes or
+ * replaced referenced nodes may be pending resolution, and none of the nodes whose elements are still open may have mandatory
+ * child node definitions. The content of batches that were already saved can be {@link #removeSavedContent(Exception) removed}
+ * if the import fails later on.
+ * </p>
  * 
  * @see JcrSession#getImportContentHandler(String, int)
  * @see JcrWorkspace#getImportContentHandler(String, int)
@@ -116,7 +124,12 @@ class JcrContentHandler extends DefaultHandler {
     private final JcrNodeTypeManager nodeTypes;
     private final org.modeshape.jcr.api.NamespaceRegistry jcrNamespaceRegistry;
     private final boolean saveWhenCompleted;
+    private final int saveBatchSize;
     private final String systemWorkspaceKey;
+    private final NodeKey importParentKey;
+    private final List<NodeKey> importedTopLevelNodeKeys = new ArrayList<>();
+    private int nodesCompletedSinceSave;
+    private int savedBatches;
 
     private AbstractJcrNode currentNode;
     private ContentHandler delegate;
@@ -128,7 +141,18 @@ class JcrContentHandler extends DefaultHandler {
                        boolean saveWhenCompleted,
                        boolean retentionInfoRetained,
                        boolean lifecycleInfoRetained ) throws PathNotFoundException, RepositoryException {
+        this(session, parent, uuidBehavior, saveWhenCompleted, 0, retentionInfoRetained, lifecycleInfoRetained);
+    }
+
+    JcrContentHandler( JcrSession session,
+                       AbstractJcrNode parent,
+                       int uuidBehavior,
+                       boolean saveWhenCompleted,
+                       int saveBatchSize,
+                       boolean retentionInfoRetained,
+                       boolean lifecycleInfoRetained ) throws PathNotFoundException, RepositoryException {
         assert session != null;
+        assert saveBatchSize == 0 || saveWhenCompleted;
         assert uuidBehavior == ImportUUIDBehavior.IMPORT_UUID_CREATE_NEW
                || uuidBehavior == ImportUUIDBehavior.IMPORT_UUID_COLLISION_REMOVE_EXISTING
                || uuidBehavior == ImportUUIDBehavior.IMPORT_UUID_COLLISION_REPLACE_EXISTING
@@ -145,10 +169,12 @@ class JcrContentHandler extends DefaultHandler {
         this.retentionInfoRetained = retentionInfoRetained;
         this.lifecycleInfoRetained = lifecycleInfoRetained;
         this.saveWhenCompleted = saveWhenCompleted;
+        this.saveBatchSize = saveBatchSize;
 
         this.cache = session.cache();
 
         this.currentNode = parent;
+        this.importParentKey = parent.key();
 
         this.jcrValueFactory = session.getValueFactory();
         this.nodeTypes = session.nodeTypeManager();
@@ -232,90 +258,174 @@ class JcrContentHandler extends DefaultHandler {
         try {
             // first make sure all the necessary reference properties have been set
             processReferences();
-            
-            for (AbstractJcrNode node : nodesForPostProcessing) {
-                MutableCachedNode mutable = node.mutable();
-
-                // ---------------
-                // mix:versionable
-                // ---------------
-                if (node.isNodeType(JcrMixLexicon.VERSIONABLE)) {
-
-                    // Does the versionable node already have a reference to the version history?
-                    // If so, then we ignore it because we'll use our own key ...
-
-                    // Does the versionable node already have a base version?
-                    AbstractJcrProperty baseVersionProp = node.getProperty(JcrLexicon.BASE_VERSION);
-                    if (baseVersionProp != null) {
-                        // we rely on the fact that the base version ref is exported with full key
-                        NodeKeyReference baseVersionRef = (NodeKeyReference)baseVersionProp.getValue().value();
-                        String workspaceKey = baseVersionRef.getNodeKey().getWorkspaceKey();
-                        //we only register the base version if it comes from the system workspace (if it doesn't come from the
-                        //system workspace, it's not valid - e.g. could be coming from an older version of ModeShape)
-                        if (systemWorkspaceKey.equals(workspaceKey)) {
-                            session.setDesiredBaseVersionKey(node.key(), baseVersionRef.getNodeKey());
-                        }
+            postProcess(nodesForPostProcessing);
+        } catch (RepositoryException e) {
+            throw new EnclosingSAXException(e);
+        }
+    }
+
+    private void postProcess( List<AbstractJcrNode> nodes ) throws RepositoryException {
+        for (AbstractJcrNode node : nodes) {
+            MutableCachedNode mutable = node.mutable();
+
+            // ---------------
+            // mix:versionable
+            // ---------------
+            if (node.isNodeType(JcrMixLexicon.VERSIONABLE)) {
+
+                // Does the versionable node already have a reference to the version history?
+                // If so, then we ignore it because we'll use our own key ...
+
+                // Does the versionable node already have a base version?
+                AbstractJcrProperty baseVersionProp = node.getProperty(JcrLexicon.BASE_VERSION);
+                if (baseVersionProp != null) {
+                    // we rely on the fact that the base version ref is exported with full key
+                    NodeKeyReference baseVersionRef = (NodeKeyReference)baseVersionProp.getValue().value();
+                    String workspaceKey = baseVersionRef.getNodeKey().getWorkspaceKey();
+                    //we only register the base version if it comes from the system workspace (if it doesn't come from the
+                    //system workspace, it's not valid - e.g. could be coming from an older version of ModeShape)
+                    if (systemWorkspaceKey.equals(workspaceKey)) {
+                        session.setDesiredBaseVersionKey(node.key(), baseVersionRef.getNodeKey());
                     }
                 }
+            }
+
+            // ---------------
+            // mix:lockable
+            // ---------------
+            if (node.isNodeType(JcrMixLexicon.LOCKABLE) && node.isLocked()) {
+                // Nodes should not be locked upon import ...
+                node.unlock();
+            }
 
-                // ---------------
-                // mix:lockable
-                // ---------------
-                if (node.isNodeType(JcrMixLexicon.LOCKABLE) && node.isLocked()) {
-                    // Nodes should not be locked upon import ...
-                    node.unlock();
+            // ---------------
+            // mix:lifecycle
+            // ---------------
+            if (node.isNodeType(JcrMixLexicon.LIFECYCLE)) {
+                if (lifecycleInfoRetained && !isValidReference(node, JcrLexicon.LIFECYCLE_POLICY, false)) {
+                    // The 'jcr:lifecyclePolicy' REFERENCE values is not valid or does not reference an existing node,
+                    // so the 'jcr:lifecyclePolicy' and 'jcr:currentLifecycleState' properties should be removed...
+                    mutable.removeProperty(cache, JcrLexicon.LIFECYCLE_POLICY);
+                    mutable.removeProperty(cache, JcrLexicon.CURRENT_LIFECYCLE_STATE);
                 }
+            }
 
-                // ---------------
-                // mix:lifecycle
-                // ---------------
-                if (node.isNodeType(JcrMixLexicon.LIFECYCLE)) {
-                    if (lifecycleInfoRetained && !isValidReference(node, JcrLexicon.LIFECYCLE_POLICY, false)) {
-                        // The 'jcr:lifecyclePolicy' REFERENCE values is not valid or does not reference an existing node,
-                        // so the 'jcr:lifecyclePolicy' and 'jcr:currentLifecycleState' properties should be removed...
-                        mutable.removeProperty(cache, JcrLexicon.LIFECYCLE_POLICY);
-                        mutable.removeProperty(cache, JcrLexicon.CURRENT_LIFECYCLE_STATE);
-                    }
+            // --------------------
+            // mix:managedRetention
+            // --------------------
+            if (node.isNodeType(JcrMixLexicon.MANAGED_RETENTION)) {
+                if (retentionInfoRetained && !isValidReference(node, JcrLexicon.RETENTION_POLICY, false)) {
+                    // The 'jcr:retentionPolicy' REFERENCE values is not valid or does not reference an existing node,
+                    // so the 'jcr:retentionPolicy', 'jcr:hold' and 'jcr:isDeep' properties should be removed ...
+                    mutable.removeProperty(cache, JcrLexicon.HOLD);
+                    mutable.removeProperty(cache, JcrLexicon.IS_DEEP);
+                    mutable.removeProperty(cache, JcrLexicon.RETENTION_POLICY);
                 }
 
-                // --------------------
-                // mix:managedRetention
-                // --------------------
-                if (node.isNodeType(JcrMixLexicon.MANAGED_RETENTION)) {
-                    if (retentionInfoRetained && !isValidReference(node, JcrLexicon.RETENTION_POLICY, false)) {
-                        // The 'jcr:retentionPolicy' REFERENCE values is not valid or does not reference an existing node,
-                        // so the 'jcr:retentionPolicy', 'jcr:hold' and 'jcr:isDeep' properties should be removed ...
-                        mutable.removeProperty(cache, JcrLexicon.HOLD);
-                        mutable.removeProperty(cache, JcrLexicon.IS_DEEP);
-                        mutable.removeProperty(cache, JcrLexicon.RETENTION_POLICY);
-                    }
+            }
 
-                }
+            // --------------------
+            // mix:share
+            // --------------------
+            if (node.isNodeType(ModeShapeLexicon.SHARE)) {
+                // get the actual key of the shareable node
+                String shareableNodeUUID = shareIdsToUUIDMap.get(node.key());
+                assert shareableNodeUUID != null;
+                NodeKey shareableNodeKey = uuidToNodeKeyMapping.get(shareableNodeUUID);
+                assert shareableNodeKey != null;
+
+                // unlink the current key from its parent references
+                NodeKey parentKey = mutable.getParentKey(cache);
+                MutableCachedNode parent = cache.mutable(parentKey);
+                parent.removeChild(cache, node.key());
+
+                // re-link it with the correct key - that of the shareable node
+                parent.linkChild(cache, shareableNodeKey, node.name());
+            }
+        }
+    }
 
-                // --------------------
-                // mix:share
-                // --------------------
-                if (node.isNodeType(ModeShapeLexicon.SHARE)) {
-                    // get the actual key of the shareable node
-                    String shareableNodeUUID = shareIdsToUUIDMap.get(node.key());
-                    assert shareableNodeUUID != null;
-                    NodeKey shareableNodeKey = uuidToNodeKeyMapping.get(shareableNodeUUID);
-                    assert shareableNodeKey != null;
-
-                    // unlink the current key from its parent references
-                    NodeKey parentKey = mutable.getParentKey(cache);
-                    MutableCachedNode parent = cache.mutable(parentKey);
-                    parent.removeChild(cache, node.key());
-
-                    // re-link it with the correct key - that of the shareable node
-                    parent.linkChild(cache, shareableNodeKey, node.name());
-                }
+    /**
+     * Called after the element of a node has been completely read, to save the content imported so far if this handler saves in
+     * batches and enough nodes have been read since the last save.
+     * 
+     * @param openHandler the handler of the closest node whose element is still open; may not be null
+     * @throws SAXException if the content cannot be saved
+     */
+    protected void nodeCompleted( NodeHandler openHandler ) throws SAXException {
+        if (saveBatchSize <= 0 || ++nodesCompletedSinceSave < saveBatchSize) {
+            return;
+        }
+        try {
+            if (!canSaveBatch(openHandler)) {
+                // try again when the next node has been completed ...
+                return;
             }
+            // the remaining post-processing doesn't depend upon any content that is still to be read ...
+            postProcess(nodesForPostProcessing);
+            nodesForPostProcessing.clear();
+            session.save();
+            nodesCompletedSinceSave = 0;
+            ++savedBatches;
         } catch (RepositoryException e) {
             throw new EnclosingSAXException(e);
         }
     }
 
+    private boolean canSaveBatch( NodeHandler openHandler ) throws SAXException, RepositoryException {
+        if (!allReferenceProperties.isEmpty() || !shareIdsToUUIDMap.isEmpty() || !referrersByNodeKey.isEmpty()) {
+            // these can only be resolved once the whole document has been read ...
+            return false;
+        }
+        NodeTypes nodeTypes = session.nodeTypes();
+        for (NodeHandler handler = openHandler; handler != null; handler = handler.parentHandler()) {
+            if (handler instanceof BasicNodeHandler) {
+                AbstractJcrNode node = handler.node();
+                if (nodeTypes.hasMandatoryChildNodeDefinitions(node.getPrimaryTypeName(), node.getMixinTypeNames())) {
+                    // the mandatory children of the node may still be in the document ...
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Remove the content that this handler already saved in batches, after the import failed. Nodes that were removed or
+     * replaced because of the {@link ImportUUIDBehavior} cannot be restored.
+     * 
+     * @param importFailure the failure of the import, to which any problem while removing the content is added; may not be
+     *        null
+     */
+    void removeSavedContent( Exception importFailure ) {
+        if (savedBatches == 0) {
+            return;
+        }
+        try {
+            session.refresh(false);
+            for (NodeKey key : importedTopLevelNodeKeys) {
+                AbstractJcrNode node = null;
+                try {
+                    node = session.node(key, null);
+                } catch (ItemNotFoundException e) {
+                    // the node was never saved
+                    continue;
+                }
+                try {
+                    // the subtree may be very large, so don't load it into the session ...
+                    session.workspace().removeSubtree(node.getPath());
+                } catch (RepositoryException e) {
+                    node.remove();
+                }
+            }
+            if (session.hasPendingChanges()) {
+                session.save();
+            }
+        } catch (RepositoryException | RuntimeException e) {
+            importFailure.addSuppressed(e);
+        }
+    }
+
     private void processReferences() throws RepositoryException {
         // if there were any reference properties imported, they can only be set on the corresponding nodes *after* all
         // the graph has been imported
@@ -824,6 +934,9 @@ class JcrContentHandler extends DefaultHandler {
 
                     // Otherwise, it's just a regular node...
                     child = parent.addChildNode(nodeName, primaryTypeName, key, true, false);
+                    if (saveBatchSize > 0 && importParentKey.equals(parentKey)) {
+                        importedTopLevelNodeKeys.add(child.key());
+                    }
                 } else {
                     child = existingNode;
                 }
@@ -1115,6 +1228,7 @@ class JcrContentHandler extends DefaultHandler {
                 case "node":
                     current.finish(); // make sure the node is created
                     current = current.parentHandler();
+                    nodeCompleted(current);
                     break;
                 case "value":
                     // Add the content for the current property ...
@@ -1198,6 +1312,7 @@ class JcrContentHandler extends DefaultHandler {
                                 String name ) throws SAXException {
             current.finish();
             current = current.parentHandler();
+            nodeCompleted(current);
         }
 
         @Override
@@ -423,6 +423,7 @@ public final class JcrI18n {
     public static I18n cannotRemoveUnorderedCollectionMixin;
     public static I18n cannotRemoveVersion;
     public static I18n pendingMergeConflicts;
+    public static I18n unableToCheckinConcurrently;
     public static I18n invalidVersion;
     public static I18n invalidVersionLabel;
     public static I18n invalidVersionName;
@@ -478,6 +479,10 @@ public final class JcrI18n {
     public static I18n errorRemovingISPNCache;
 
     public static I18n failedWhileRollingBackDestroyToRuntimeError;
+    public static I18n cannotRemoveSubtreeWithTransientChanges;
+    public static I18n cannotRemoveSubtreeInBulk;
+    public static I18n cannotRemoveSubtreeWithSharedDescendant;
+    public static I18n cannotRemoveSubtreeWithLockedDescendant;
     public static I18n unexpectedException;
     public static I18n errorDeterminingCurrentTransactionAssumingNone;
     public static I18n errorWhileRollingBackActiveTransactionUsingWorkspaceThatIsBeingDeleted;
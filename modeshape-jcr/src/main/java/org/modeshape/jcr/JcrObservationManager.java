@@ -34,6 +34,7 @@ import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
+import java.util.ListIterator;
 import java.util.Map;
 import java.util.NoSuchElementException;
 import java.util.Set;
@@ -82,6 +83,7 @@ import org.modeshape.jcr.value.NameFactory;
 import org.modeshape.jcr.value.Path;
 import org.modeshape.jcr.value.PathFactory;
 import org.modeshape.jcr.value.StringFactory;
+import org.modeshape.jcr.value.ValueFormatException;
 
 /**
  * The implementation of JCR {@link ObservationManager}.
@@ -121,6 +123,11 @@ final class JcrObservationManager implements ObservationManager {
      */
     private final Observable repositoryObservable;
 
+    /**
+     * The repository-wide index of the criteria of all the JCR listeners.
+     */
+    private final ObservationListenerIndex listenerIndex;
+
     /**
      * The JCR repository listener wrappers.
      */
@@ -136,15 +143,19 @@ final class JcrObservationManager implements ObservationManager {
     /**
      * @param session the owning session (never <code>null</code>)
      * @param repositoryObservable the repository observable used to register JCR listeners (never <code>null</code>)
-     * @throws IllegalArgumentException if either parameter is <code>null</code>
+     * @param listenerIndex the repository-wide index in which the JCR listeners are registered (never <code>null</code>)
+     * @throws IllegalArgumentException if any parameter is <code>null</code>
      */
     JcrObservationManager( JcrSession session,
-                           Observable repositoryObservable ) {
+                           Observable repositoryObservable,
+                           ObservationListenerIndex listenerIndex ) {
         CheckArg.isNotNull(session, "session");
         CheckArg.isNotNull(repositoryObservable, "repositoryObservable");
+        CheckArg.isNotNull(listenerIndex, "listenerIndex");
 
         this.session = session;
         this.repositoryObservable = repositoryObservable;
+        this.listenerIndex = listenerIndex;
 
         this.listeners = Collections.newSetFromMap(new ConcurrentHashMap<JcrListenerAdapter, Boolean>());
         
@@ -166,8 +177,12 @@ final class JcrObservationManager implements ObservationManager {
 
         // create wrapper and register
         JcrListenerAdapter adapter = new JcrListenerAdapter(listener, eventTypes, absPath, isDeep, uuid, nodeTypeName, noLocal);
+        // index the listener before it can receive any changes
+        this.listenerIndex.register(adapter.registration());
         if (this.repositoryObservable.register(adapter)) {
             this.listeners.add(adapter);
+        } else {
+            this.listenerIndex.unregister(adapter);
         }
     }
 
@@ -191,6 +206,7 @@ final class JcrObservationManager implements ObservationManager {
         for (JcrListenerAdapter adapter : this.listeners) {
             assert (adapter != null);
             this.repositoryObservable.unregister(adapter);
+            this.listenerIndex.unregister(adapter);
         }
         this.listeners.clear();
     }
@@ -204,6 +220,7 @@ final class JcrObservationManager implements ObservationManager {
             assert (adapter != null);
             if (adapter.delegate.equals(listener)) {
                 this.repositoryObservable.unregister(adapter);
+                this.listenerIndex.unregister(adapter);
                 adapterIterator.remove();
                 break;
             }
@@ -285,9 +302,19 @@ final class JcrObservationManager implements ObservationManager {
             this.changeSetConverter = new ChangeSetConverter(absPath, eventTypes, isDeep, nodeTypeNames, noLocal, uuids);
         }
 
+        /**
+         * @return the criteria of this listener, used to register it in the repository-wide listener index
+         */
+        ObservationListenerIndex.Registration registration() {
+            return changeSetConverter.registrationFor(this);
+        }
+
         @Override
         public void notify( ChangeSet changeSet ) {
-            Collection<Event> events = changeSetConverter.convert(changeSet);
+            // only look at the changes which the index matched for this listener
+            NodeTypes nodeTypes = session.repository().nodeTypeManager().getNodeTypes();
+            Iterable<Change> changes = listenerIndex.changesFor(this, changeSet, nodeTypes);
+            Collection<Event> events = changeSetConverter.convert(changeSet, changes);
 
             // notify delegate
             if (!events.isEmpty()) {
@@ -777,6 +804,18 @@ final class JcrObservationManager implements ObservationManager {
         }
 
         protected List<Event> convert( ChangeSet changeSet ) {
+            return convert(changeSet, changeSet);
+        }
+
+        /**
+         * Converts some of the changes of a change set into events.
+         * 
+         * @param changeSet the change set; may not be null
+         * @param changes the changes of the change set which should be converted, in order; may not be null
+         * @return the events; never null
+         */
+        protected List<Event> convert( ChangeSet changeSet,
+                                       Iterable<Change> changes ) {
             List<Event> events = new ArrayList<>();
 
             if (shouldRejectChangeSet(changeSet)) {
@@ -786,13 +825,30 @@ final class JcrObservationManager implements ObservationManager {
             String userData = changeSet.getUserData().get(OBSERVATION_USER_DATA_KEY);
             JcrEventBundle bundle = new JcrEventBundle(changeSet.getTimestamp(), changeSet.getUserId(), userData);
 
-            for (Change change : changeSet) {
+            for (Change change : changes) {
                 processChange(events, bundle, change);
             }
 
             return events;
         }
 
+        protected ObservationListenerIndex.Registration registrationFor( Object listener ) {
+            Path matchPath = null;
+            if (!StringUtil.isBlank(absPath)) {
+                try {
+                    matchPath = pathFactory().create(absPath);
+                } catch (ValueFormatException e) {
+                    // leave it to the listener to deal with the path
+                }
+                if (matchPath != null && !matchPath.isAbsolute()) {
+                    matchPath = null;
+                }
+            }
+            return new ObservationListenerIndex.Registration(listener, getWorkspaceName(), getSystemWorkspaceName(),
+                                                             getSessionId(), noLocal, eventTypes, matchPath, isDeep, uuids,
+                                                             nodeTypeNames);
+        }
+
         private boolean shouldRejectChangeSet( ChangeSet changeSet ) {
             return !acceptBasedOnOriginatingSession(changeSet) || !acceptBasedOnOriginatingWorkspace(changeSet);
         }
@@ -1168,7 +1224,8 @@ final class JcrObservationManager implements ObservationManager {
         private final JcrObservationManager.ChangeSetConverter changeSetConverter;
 
         private long position = -1;
-        private Iterator<Event> eventsIterator = null;
+        private List<Event> events = null;
+        private ListIterator<Event> eventsIterator = null;
         private Iterator<JournalRecord> recordsIterator = null;
         private ZonedDateTime laterThanDateUTC = null;
 
@@ -1189,6 +1246,7 @@ final class JcrObservationManager implements ObservationManager {
             laterThanDateUTC = ZonedDateTime.ofInstant(Instant.ofEpochMilli(date), DateTimeUtil.UTC);
             // reset the position and the internal iterator
             position = -1;
+            events = null;
             eventsIterator = null;
         }
 
@@ -1206,8 +1264,17 @@ final class JcrObservationManager implements ObservationManager {
             if (skipNum < 0) {
                 throw new IllegalArgumentException("Illegal argument to skip: " + skipNum);
             }
-            for (int i = 0; i < skipNum; i++) {
-                nextEvent();
+            // skip over the events of entire records at a time, instead of returning each of them
+            long remaining = skipNum;
+            while (remaining > 0) {
+                if (!advance()) {
+                    throw new NoSuchElementException();
+                }
+                int nextIndex = eventsIterator.nextIndex();
+                int skipped = (int)Math.min(remaining, events.size() - nextIndex);
+                eventsIterator = events.listIterator(nextIndex + skipped);
+                position += skipped;
+                remaining -= skipped;
             }
         }
 
@@ -1250,7 +1317,8 @@ final class JcrObservationManager implements ObservationManager {
             while (recordsIterator.hasNext()) {
                 // navigate to the next "valid" record
                 JournalRecord record = recordsIterator.next();
-                eventsIterator = this.changeSetConverter.convert(record.getChangeSet()).iterator();
+                events = this.changeSetConverter.convert(record.getChangeSet());
+                eventsIterator = events.listIterator();
                 if (eventsIterator.hasNext()) {
                     return true;
                 }
@@ -191,6 +191,7 @@ public class JcrRepository implements org.modeshape.jcr.api.Repository {
     private final AtomicReference<State> state = new AtomicReference<State>(State.NOT_RUNNING);
     private final Lock stateLock = new ReentrantLock();
     private final AtomicBoolean allowAutoStartDuringLogin = new AtomicBoolean(AUTO_START_REPO_UPON_LOGIN);
+    private final ObservationListenerIndex observationListenerIndex = new ObservationListenerIndex();
     private Problems configurationProblems = null;
 
     /**
@@ -467,6 +468,10 @@ public class JcrRepository implements org.modeshape.jcr.api.Repository {
         return runningState().changeBus();
     }
 
+    final ObservationListenerIndex observationListenerIndex() {
+        return observationListenerIndex;
+    }
+
     protected final String repositoryKey() {
         return runningState().repositoryKey();
     }
@@ -1651,6 +1656,8 @@ public class JcrRepository implements org.modeshape.jcr.api.Repository {
             if (this.changeBus != null) {
                 this.changeBus.shutdown();
             }
+            // and forget all the listeners which were registered with it
+            observationListenerIndex.clear();
 
             // shutdown the journal
             if (this.journal != null) {
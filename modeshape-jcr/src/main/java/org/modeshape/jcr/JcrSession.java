@@ -118,6 +118,8 @@ import org.xml.sax.SAXException;
 import org.xml.sax.SAXParseException;
 import org.xml.sax.XMLReader;
 import org.xml.sax.helpers.XMLReaderFactory;
+import com.googlecode.concurrentlinkedhashmap.ConcurrentLinkedHashMap;
+import com.googlecode.concurrentlinkedhashmap.EvictionListener;
 
 /**
  *
@@ -126,10 +128,25 @@ public class JcrSession implements org.modeshape.jcr.api.Session {
 
     private static final String[] NO_ATTRIBUTES_NAMES = new String[] {};
 
+    /**
+     * The maximum number of {@link AbstractJcrNode} instances each session keeps for reuse. Nodes with transient changes are always
+     * kept, regardless of this limit.
+     */
+    private static final int MAX_CACHED_JCR_NODES = 10000;
+
     protected final JcrRepository repository;
     private final SessionCache cache;
     private final JcrRootNode rootNode;
-    private final ConcurrentMap<NodeKey, AbstractJcrNode> jcrNodes = new ConcurrentHashMap<>();
+    /**
+     * The {@link AbstractJcrNode} instances used most recently by this session. The least recently used ones are evicted so that
+     * they can be reclaimed, except for those with transient changes which are moved to {@link #transientJcrNodes}.
+     */
+    private final ConcurrentMap<NodeKey, AbstractJcrNode> jcrNodes = newJcrNodeCache();
+    /**
+     * The {@link AbstractJcrNode} instances evicted from {@link #jcrNodes} while their nodes had transient changes, so that the
+     * same instance is used for such a node until its changes are saved or discarded.
+     */
+    private final ConcurrentMap<NodeKey, AbstractJcrNode> transientJcrNodes = new ConcurrentHashMap<>();
     private final Map<String, Object> sessionAttributes;
     private final JcrWorkspace workspace;
     private final JcrNamespaceRegistry sessionRegistry;
@@ -468,8 +485,41 @@ public class JcrSession implements org.modeshape.jcr.api.Session {
         return stringFactory().create(path);
     }
 
+    private ConcurrentMap<NodeKey, AbstractJcrNode> newJcrNodeCache() {
+        EvictionListener<NodeKey, AbstractJcrNode> listener = new EvictionListener<NodeKey, AbstractJcrNode>() {
+            @Override
+            public void onEviction( NodeKey key,
+                                    AbstractJcrNode node ) {
+                if (cache.hasChanges(key)) {
+                    transientJcrNodes.putIfAbsent(key, node);
+                }
+            }
+        };
+        return new ConcurrentLinkedHashMap.Builder<NodeKey, AbstractJcrNode>().maximumWeightedCapacity(MAX_CACHED_JCR_NODES)
+                                                                             .listener(listener)
+                                                                             .build();
+    }
+
+    /**
+     * Forget the evicted {@link AbstractJcrNode} instances of the nodes which no longer have transient changes, once some of the
+     * changes of this session have been saved or discarded.
+     */
+    void releaseUnchangedJcrNodes() {
+        for (NodeKey key : transientJcrNodes.keySet()) {
+            if (!cache.hasChanges(key)) {
+                transientJcrNodes.remove(key);
+            }
+        }
+    }
+
+    private AbstractJcrNode cachedJcrNode( NodeKey nodeKey ) {
+        AbstractJcrNode node = jcrNodes.get(nodeKey);
+        return node != null ? node : transientJcrNodes.get(nodeKey);
+    }
+
     protected void releaseCachedNode( AbstractJcrNode node ) {
         jcrNodes.remove(node.key(), node);
+        transientJcrNodes.remove(node.key(), node);
     }
 
     /**
@@ -502,7 +552,7 @@ public class JcrSession implements org.modeshape.jcr.api.Session {
             // The node must not exist or must have been deleted ...
             throw new ItemNotFoundException(nodeKey.toString());
         }
-        AbstractJcrNode node = jcrNodes.get(nodeKey);
+        AbstractJcrNode node = cachedJcrNode(nodeKey);
         if (node == null) {
             node = node(cachedNode, expectedType, parentKey);
         } else if (parentKey != null) {
@@ -540,7 +590,7 @@ public class JcrSession implements org.modeshape.jcr.api.Session {
                           NodeKey parentKey ) {
         assert cachedNode != null;
         NodeKey nodeKey = cachedNode.getKey();
-        AbstractJcrNode node = jcrNodes.get(nodeKey);
+        AbstractJcrNode node = cachedJcrNode(nodeKey);
         boolean mightBeShared = true;
         if (node == null) {
 
@@ -1173,6 +1223,8 @@ public class JcrSession implements org.modeshape.jcr.api.Session {
             this.baseVersionKeys.set(null);
             this.originalVersionKeys.set(null);
             this.aclChangesCount.set(0);
+            // none of the nodes has transient changes anymore, so they can all be evicted ...
+            this.transientJcrNodes.clear();
         } catch (WrappedException e) {
             Throwable cause = e.getCause();
             throw (cause instanceof RepositoryException) ? (RepositoryException)cause : new RepositoryException(e.getCause());
@@ -1244,6 +1296,7 @@ public class JcrSession implements org.modeshape.jcr.api.Session {
         try {
             sessionCache.save(keysToBeSaved, systemContent.cache(), new JcrPreSave(systemContent, baseVersionKeys,
                                                                                    originalVersionKeys, aclChangesCount()));
+            releaseUnchangedJcrNodes();
         } catch (WrappedException e) {
             Throwable cause = e.getCause();
             throw (cause instanceof RepositoryException) ? (RepositoryException)cause : new RepositoryException(e.getCause());
@@ -1275,6 +1328,7 @@ public class JcrSession implements org.modeshape.jcr.api.Session {
         if (!keepChanges) {
             cache.clear();
             aclChangesCount.set(0);
+            transientJcrNodes.clear();
         }
         // Otherwise there is nothing to do, as all persistent changes are always immediately visible to all sessions
         // using that same workspace
@@ -50,6 +50,7 @@ import javax.jcr.version.Version;
 import javax.jcr.version.VersionException;
 import javax.jcr.version.VersionHistory;
 import javax.jcr.version.VersionIterator;
+import javax.transaction.SystemException;
 import org.modeshape.common.annotation.NotThreadSafe;
 import org.modeshape.common.i18n.I18n;
 import org.modeshape.common.logging.Logger;
@@ -59,10 +60,13 @@ import org.modeshape.jcr.api.value.DateTime;
 import org.modeshape.jcr.cache.CachedNode;
 import org.modeshape.jcr.cache.ChildReference;
 import org.modeshape.jcr.cache.ChildReferences;
+import org.modeshape.jcr.cache.DocumentAlreadyExistsException;
 import org.modeshape.jcr.cache.MutableCachedNode;
 import org.modeshape.jcr.cache.NodeCache;
 import org.modeshape.jcr.cache.NodeKey;
 import org.modeshape.jcr.cache.SessionCache;
+import org.modeshape.jcr.cache.SessionCache.PreSave;
+import org.modeshape.jcr.cache.SessionCache.SaveContext;
 import org.modeshape.jcr.value.DateTimeFactory;
 import org.modeshape.jcr.value.Name;
 import org.modeshape.jcr.value.NameFactory;
@@ -81,6 +85,11 @@ final class JcrVersionManager implements org.modeshape.jcr.api.version.VersionMa
 
     private final static Logger LOGGER = Logger.getLogger(JcrVersionManager.class);
 
+    /**
+     * The number of times a check-in conflicting with concurrent check-ins is attempted.
+     */
+    private static final int MAX_CHECKIN_ATTEMPTS = 5;
+
     /**
      * Property names from nt:frozenNode that should never be copied directly to a node when the frozen node is restored.
      */
@@ -295,6 +304,19 @@ final class JcrVersionManager implements org.modeshape.jcr.api.version.VersionMa
         return checkin(session.getNode(absPath));
     }
 
+    @Override
+    public Version[] checkin( String[] absPaths )
+        throws VersionException, UnsupportedRepositoryOperationException, InvalidItemStateException, LockException,
+        RepositoryException {
+        CheckArg.isNotNull(absPaths, "absPaths");
+        if (LOGGER.isDebugEnabled()) LOGGER.debug("VersionManager.checkin({0})", Arrays.asList(absPaths));
+        AbstractJcrNode[] nodes = new AbstractJcrNode[absPaths.length];
+        for (int i = 0; i != absPaths.length; ++i) {
+            nodes[i] = session.getNode(absPaths[i]);
+        }
+        return checkin(nodes);
+    }
+
     /**
      * Checks in the given node, creating (and returning) a new {@link Version}.
      * 
@@ -306,26 +328,117 @@ final class JcrVersionManager implements org.modeshape.jcr.api.version.VersionMa
      * @see AbstractJcrNode#checkin()
      */
     JcrVersionNode checkin( AbstractJcrNode node ) throws RepositoryException {
-        checkVersionable(node);
+        return checkin(new AbstractJcrNode[] {node})[0];
+    }
 
-        if (node.isNew() || node.isModified()) {
-            throw new InvalidItemStateException(JcrI18n.noPendingChangesAllowed.text());
+    /**
+     * Checks in the given nodes, recording all of the new versions with a single save of the system content.
+     * <p>
+     * A check-in that conflicts with a concurrent check-in (i.e., both create the same version history folder or the same
+     * version name) fails when saving, in which case the whole check-in is retried against the latest persisted content. This
+     * is not done within user transactions, which cannot be retried.
+     * </p>
+     * 
+     * @param nodes the nodes to be checked in; may not be null
+     * @return the {@link Version} objects for each of the nodes, in the same order; never null
+     * @throws RepositoryException if an error occurs during the checkin. See {@link javax.jcr.Node#checkin()} for a full
+     *         description of the possible error conditions.
+     */
+    JcrVersionNode[] checkin( AbstractJcrNode[] nodes ) throws RepositoryException {
+        for (int attempt = 1;; ++attempt) {
+            try {
+                return checkinOnce(nodes);
+            } catch (DocumentAlreadyExistsException | ConcurrentCheckinException e) {
+                if (attempt >= MAX_CHECKIN_ATTEMPTS || isInTransaction()) {
+                    throw new InvalidItemStateException(JcrI18n.unableToCheckinConcurrently.text(attempt), e);
+                }
+                LOGGER.debug("Retrying a check-in that conflicted with a concurrent one: {0}", e.getMessage());
+            }
         }
+    }
 
-        // Check this separately since it throws a different type of exception
-        if (node.isLocked() && !node.holdsLock()) {
-            throw new LockException(JcrI18n.lockTokenNotHeld.text(node.getPath()));
+    private boolean isInTransaction() throws RepositoryException {
+        try {
+            return session.repository().transactions().isCurrentlyInTransaction();
+        } catch (SystemException e) {
+            throw new RepositoryException(e);
+        }
+    }
+
+    private JcrVersionNode[] checkinOnce( AbstractJcrNode[] nodes ) throws RepositoryException {
+        JcrVersionNode[] result = new JcrVersionNode[nodes.length];
+        boolean[] checkedOut = new boolean[nodes.length];
+        for (int i = 0; i != nodes.length; ++i) {
+            AbstractJcrNode node = nodes[i];
+            checkVersionable(node);
+
+            if (node.isNew() || node.isModified()) {
+                throw new InvalidItemStateException(JcrI18n.noPendingChangesAllowed.text());
+            }
+
+            // Check this separately since it throws a different type of exception
+            if (node.isLocked() && !node.holdsLock()) {
+                throw new LockException(JcrI18n.lockTokenNotHeld.text(node.getPath()));
+            }
+
+            if (node.getProperty(JcrLexicon.MERGE_FAILED) != null) {
+                throw new VersionException(JcrI18n.pendingMergeConflicts.text(node.getPath()));
+            }
+
+            javax.jcr.Property isCheckedOut = node.getProperty(JcrLexicon.IS_CHECKED_OUT);
+            checkedOut[i] = isCheckedOut.getBoolean();
+            if (!checkedOut[i]) {
+                result[i] = node.getBaseVersion();
+            }
         }
 
-        if (node.getProperty(JcrLexicon.MERGE_FAILED) != null) {
-            throw new VersionException(JcrI18n.pendingMergeConflicts.text(node.getPath()));
+        // Create the system content that we'll use to update the system branch, and the session used to update the nodes ...
+        SessionCache systemSession = session.createSystemCache(false);
+        SystemContent systemContent = new SystemContent(systemSession);
+        SessionCache versionSession = session.spawnSessionCache(false);
+
+        // The new versions (keyed by the versionable node) and their names (keyed by the version history) ...
+        Map<NodeKey, MutableCachedNode> versionsByNodeKey = new HashMap<>();
+        Map<NodeKey, Name> versionNamesByHistoryKey = new HashMap<>();
+        for (int i = 0; i != nodes.length; ++i) {
+            if (checkedOut[i] && !versionsByNodeKey.containsKey(nodes[i].key())) {
+                MutableCachedNode version = recordNewVersion(nodes[i], systemSession, systemContent, versionSession);
+                versionsByNodeKey.put(nodes[i].key(), version);
+                versionNamesByHistoryKey.put(version.getParentKey(systemSession), version.getName(systemSession));
+            }
         }
+        if (versionsByNodeKey.isEmpty()) {
+            return result;
+        }
+
+        // Now save all of the changes.
+        // the system session must be saved first so that its nodes are cleared first from the shared ws cache
+        // this is required because there are references from the other session pointing towards the system session
+        systemSession.save(versionSession, new VersionNamesCheck(versionNamesByHistoryKey));
 
-        javax.jcr.Property isCheckedOut = node.getProperty(JcrLexicon.IS_CHECKED_OUT);
-        if (!isCheckedOut.getBoolean()) {
-            return node.getBaseVersion();
+        for (int i = 0; i != nodes.length; ++i) {
+            if (checkedOut[i]) {
+                result[i] = (JcrVersionNode)session.node(versionsByNodeKey.get(nodes[i].key()), Type.VERSION);
+            }
         }
+        return result;
+    }
 
+    /**
+     * Record in the given system session a new version of the given node, and update the node's 'mix:versionable' properties in
+     * the given version session. Neither of the sessions is saved.
+     * 
+     * @param node the node being checked in; may not be null
+     * @param systemSession the session used to update the version storage; may not be null
+     * @param systemContent the system content over the system session; may not be null
+     * @param versionSession the session used to update the node being checked in; may not be null
+     * @return the new version node; never null
+     * @throws RepositoryException if an error occurs while recording the version
+     */
+    private MutableCachedNode recordNewVersion( AbstractJcrNode node,
+                                                SessionCache systemSession,
+                                                SystemContent systemContent,
+                                                SessionCache versionSession ) throws RepositoryException {
         // Collect some of the information about the node that we'll need ...
         SessionCache cache = cache();
         NodeKey versionedKey = node.key();
@@ -333,49 +446,78 @@ final class JcrVersionManager implements org.modeshape.jcr.api.version.VersionMa
         CachedNode cachedNode = node.node();
         DateTime now = session().dateFactory().create();
 
-        // Create the system content that we'll use to update the system branch ...
-        SessionCache systemSession = session.createSystemCache(false);
-        SystemContent systemContent = new SystemContent(systemSession);
+        // Create a new version in the history for this node; this initializes the version history if it is missing ...
+        List<Property> versionableProps = new ArrayList<Property>();
+        addVersionedPropertiesFor(node, false, versionableProps);
 
-        MutableCachedNode version = null;
-        try {
-            // Create a new version in the history for this node; this initializes the version history if it is missing ...
-            List<Property> versionableProps = new ArrayList<Property>();
-            addVersionedPropertiesFor(node, false, versionableProps);
-
-            AtomicReference<MutableCachedNode> frozen = new AtomicReference<MutableCachedNode>();
-            version = systemContent.recordNewVersion(cachedNode, cache, versionHistoryPath, null, versionableProps, now, frozen);
-            NodeKey historyKey = version.getParentKey(systemSession);
-
-            // Update the node's 'mix:versionable' properties, using a new session ...
-            SessionCache versionSession = session.spawnSessionCache(false);
-            MutableCachedNode versionableNode = versionSession.mutable(versionedKey);
-            PropertyFactory props = propertyFactory();
-            ReferenceFactory refFactory = session.referenceFactory();
-            Reference historyRef = refFactory.create(historyKey, true);
-            Reference baseVersionRef = refFactory.create(version.getKey(), true);
-            versionableNode.setProperty(versionSession, props.create(JcrLexicon.VERSION_HISTORY, historyRef));
-            versionableNode.setProperty(versionSession, props.create(JcrLexicon.BASE_VERSION, baseVersionRef));
-            versionableNode.setProperty(versionSession, props.create(JcrLexicon.IS_CHECKED_OUT, Boolean.FALSE));
-            // The 'jcr:predecessors' set to an empty array, per Section 15.2 in JSR-283
-            versionableNode.setProperty(versionSession, props.create(JcrLexicon.PREDECESSORS, new Object[] {}));
-
-            // Now process the children of the versionable node, and add them under the frozen node ...
-            MutableCachedNode frozenNode = frozen.get();
-            for (ChildReference childRef : versionableNode.getChildReferences(versionSession)) {
-                AbstractJcrNode child = session.node(childRef.getKey(), null, versionedKey);
-                versionNodeAt(child, childRef.getName(), frozenNode, false, versionSession, systemSession);
-            }
+        AtomicReference<MutableCachedNode> frozen = new AtomicReference<MutableCachedNode>();
+        MutableCachedNode version = systemContent.recordNewVersion(cachedNode, cache, versionHistoryPath, null, versionableProps,
+                                                                   now, frozen);
+        NodeKey historyKey = version.getParentKey(systemSession);
+
+        // Update the node's 'mix:versionable' properties ...
+        MutableCachedNode versionableNode = versionSession.mutable(versionedKey);
+        PropertyFactory props = propertyFactory();
+        ReferenceFactory refFactory = session.referenceFactory();
+        Reference historyRef = refFactory.create(historyKey, true);
+        Reference baseVersionRef = refFactory.create(version.getKey(), true);
+        versionableNode.setProperty(versionSession, props.create(JcrLexicon.VERSION_HISTORY, historyRef));
+        versionableNode.setProperty(versionSession, props.create(JcrLexicon.BASE_VERSION, baseVersionRef));
+        versionableNode.setProperty(versionSession, props.create(JcrLexicon.IS_CHECKED_OUT, Boolean.FALSE));
+        // The 'jcr:predecessors' set to an empty array, per Section 15.2 in JSR-283
+        versionableNode.setProperty(versionSession, props.create(JcrLexicon.PREDECESSORS, new Object[] {}));
+
+        // Now process the children of the versionable node, and add them under the frozen node ...
+        MutableCachedNode frozenNode = frozen.get();
+        for (ChildReference childRef : versionableNode.getChildReferences(versionSession)) {
+            AbstractJcrNode child = session.node(childRef.getKey(), null, versionedKey);
+            versionNodeAt(child, childRef.getName(), frozenNode, false, versionSession, systemSession);
+        }
+        return version;
+    }
+
+    /**
+     * Signals that a check-in created a version with the same name as a version concurrently created by another check-in.
+     */
+    protected static final class ConcurrentCheckinException extends RuntimeException {
+        private static final long serialVersionUID = 1L;
 
-            // Now save all of the changes.
-            // the system session must be saved first so that its nodes are cleared first from the shared ws cache
-            // this is required because there are references from the other session pointing towards the system session
-            systemSession.save(versionSession, null);
-        } finally {
-            // TODO: Versioning: may want to catch this block and retry, if the new version name couldn't be created
+        protected ConcurrentCheckinException( NodeKey historyKey,
+                                              Name versionName ) {
+            super("Version '" + versionName + "' already exists in version history " + historyKey);
         }
+    }
 
-        return (JcrVersionNode)session.node(version, Type.VERSION);
+    /**
+     * A {@link PreSave} operation that verifies, once the version histories have been locked, that no other check-in has
+     * concurrently created a version with the same name as one of the new versions.
+     */
+    protected static final class VersionNamesCheck implements PreSave {
+        private final Map<NodeKey, Name> versionNamesByHistoryKey;
+
+        protected VersionNamesCheck( Map<NodeKey, Name> versionNamesByHistoryKey ) {
+            this.versionNamesByHistoryKey = versionNamesByHistoryKey;
+        }
+
+        @Override
+        public void processBeforeLocking( MutableCachedNode modifiedOrNewNode,
+                                          SaveContext context ) {
+            // nothing to do
+        }
+
+        @Override
+        public void processAfterLocking( MutableCachedNode modifiedNode,
+                                         SaveContext context,
+                                         NodeCache persistentNodeCache ) {
+            Name versionName = versionNamesByHistoryKey.get(modifiedNode.getKey());
+            if (versionName == null) {
+                return;
+            }
+            CachedNode persistedHistory = persistentNodeCache.getNode(modifiedNode.getKey());
+            if (persistedHistory != null && persistedHistory.getChildReferences(persistentNodeCache).getChild(versionName) != null) {
+                throw new ConcurrentCheckinException(modifiedNode.getKey(), versionName);
+            }
+        }
     }
 
     /**
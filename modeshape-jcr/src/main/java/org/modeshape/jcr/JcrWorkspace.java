@@ -22,6 +22,7 @@ import java.util.HashSet;
 import java.util.Iterator;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Future;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
@@ -33,6 +34,7 @@ import javax.jcr.ItemNotFoundException;
 import javax.jcr.NoSuchWorkspaceException;
 import javax.jcr.NodeIterator;
 import javax.jcr.PathNotFoundException;
+import javax.jcr.ReferentialIntegrityException;
 import javax.jcr.Repository;
 import javax.jcr.RepositoryException;
 import javax.jcr.UnsupportedRepositoryOperationException;
@@ -50,6 +52,7 @@ import org.modeshape.jcr.api.index.IndexManager;
 import org.modeshape.jcr.cache.CachedNode;
 import org.modeshape.jcr.cache.MutableCachedNode;
 import org.modeshape.jcr.cache.NodeKey;
+import org.modeshape.jcr.cache.NodeNotFoundException;
 import org.modeshape.jcr.cache.RepositoryCache;
 import org.modeshape.jcr.cache.SessionCache;
 import org.modeshape.jcr.cache.document.WritableSessionCache;
@@ -72,6 +75,8 @@ import org.xml.sax.helpers.XMLReaderFactory;
 @ThreadSafe
 class JcrWorkspace implements org.modeshape.jcr.api.Workspace {
 
+    private static final String SUBTREE_REMOVAL_POOL_NAME = "modeshape-subtree-removal";
+
     private final JcrSession session;
     private final String workspaceName;
     private final Lock lock = new ReentrantLock();
@@ -650,7 +655,8 @@ class JcrWorkspace implements org.modeshape.jcr.api.Workspace {
             try {
                 lock.lock();
                 if (observationManager == null) {
-                    observationManager = new JcrObservationManager(session, repository().changeBus());
+                    observationManager = new JcrObservationManager(session, repository().changeBus(),
+                                                                  repository().observationListenerIndex());
                 }
             } finally {
                 lock.unlock();
@@ -703,7 +709,12 @@ class JcrWorkspace implements org.modeshape.jcr.api.Workspace {
 
         CheckArg.isNotNull(parentAbsPath, "parentAbsPath");
         session.checkLive();
+        return importContentHandler(parentAbsPath, uuidBehavior, 0);
+    }
 
+    private JcrContentHandler importContentHandler( String parentAbsPath,
+                                                    int uuidBehavior,
+                                                    int saveBatchSize ) throws RepositoryException {
         // Create a new session, since we don't want to mess with the current session and because we'll save right
         // when finished reading the document ...
         JcrSession session = this.session.spawnSession(false);
@@ -718,7 +729,8 @@ class JcrWorkspace implements org.modeshape.jcr.api.Workspace {
         Repository repo = getSession().getRepository();
         boolean retainLifecycleInfo = repo.getDescriptorValue(Repository.OPTION_LIFECYCLE_SUPPORTED).getBoolean();
         boolean retainRetentionInfo = repo.getDescriptorValue(Repository.OPTION_RETENTION_SUPPORTED).getBoolean();
-        return new JcrContentHandler(session, parent, uuidBehavior, saveWhenFinished, retainRetentionInfo, retainLifecycleInfo);
+        return new JcrContentHandler(session, parent, uuidBehavior, saveWhenFinished, saveBatchSize, retainRetentionInfo,
+                                     retainLifecycleInfo);
     }
 
     @Override
@@ -727,14 +739,50 @@ class JcrWorkspace implements org.modeshape.jcr.api.Workspace {
                            int uuidBehavior )
         throws IOException, VersionException, PathNotFoundException, ItemExistsException, ConstraintViolationException,
         InvalidSerializedDataException, LockException, AccessDeniedException, RepositoryException {
+        importXML(parentAbsPath, in, uuidBehavior, 0);
+    }
+
+    @Override
+    public void importXML( String parentAbsPath,
+                           InputStream in,
+                           int uuidBehavior,
+                           int saveBatchSize ) throws IOException, RepositoryException {
         CheckArg.isNotNull(parentAbsPath, "parentAbsPath");
         CheckArg.isNotNull(in, "in");
+        CheckArg.isNonNegative(saveBatchSize, "saveBatchSize");
         session.checkLive();
 
+        JcrContentHandler handler = null;
+        try {
+            handler = importContentHandler(parentAbsPath, uuidBehavior, saveBatchSize);
+        } catch (RepositoryException | RuntimeException e) {
+            closeQuietly(in, e);
+            throw e;
+        }
+        try {
+            importXML(handler, in);
+        } catch (IOException | RepositoryException | RuntimeException e) {
+            // don't leave the content of the batches that were already saved behind ...
+            handler.removeSavedContent(e);
+            throw e;
+        }
+    }
+
+    private void closeQuietly( InputStream in,
+                               Exception error ) {
+        try {
+            in.close();
+        } catch (IOException | RuntimeException e) {
+            error.addSuppressed(e);
+        }
+    }
+
+    private void importXML( JcrContentHandler handler,
+                            InputStream in ) throws IOException, RepositoryException {
         boolean error = false;
         try {
             XMLReader parser = XMLReaderFactory.createXMLReader();
-            parser.setContentHandler(getImportContentHandler(parentAbsPath, uuidBehavior));
+            parser.setContentHandler(handler);
             parser.parse(new InputSource(in));
         } catch (EnclosingSAXException ese) {
             Exception cause = ese.getException();
@@ -950,6 +998,78 @@ class JcrWorkspace implements org.modeshape.jcr.api.Workspace {
         }
     }
 
+    @Override
+    public long removeSubtree( String absPath ) throws RepositoryException {
+        WritableSessionCache removeCache = (WritableSessionCache)this.session.spawnSession(false).cache();
+        AbstractJcrNode node = subtreeNode(absPath);
+        Path path = detachSubtree(removeCache, node);
+        try {
+            return removeCache.purgeSubtree(node.key(), path, WritableSessionCache.DEFAULT_SUBTREE_REMOVAL_BATCH_SIZE);
+        } catch (RuntimeException e) {
+            throw new RepositoryException(e);
+        }
+    }
+
+    @Override
+    public Future<Long> removeSubtreeAsync( String absPath ) throws RepositoryException {
+        final WritableSessionCache removeCache = (WritableSessionCache)this.session.spawnSession(false).cache();
+        final AbstractJcrNode node = subtreeNode(absPath);
+        final NodeKey key = node.key();
+        final Path path = detachSubtree(removeCache, node);
+        ExecutorService executor = repository().runningState().context().getThreadPool(SUBTREE_REMOVAL_POOL_NAME);
+        return executor.submit(() -> removeCache.purgeSubtree(key, path, WritableSessionCache.DEFAULT_SUBTREE_REMOVAL_BATCH_SIZE));
+    }
+
+    private AbstractJcrNode subtreeNode( String absPath ) throws RepositoryException {
+        session.checkLive();
+        CheckArg.isNotEmpty(absPath, "absPath");
+        return session.getNode(absPath);
+    }
+
+    private Path detachSubtree( WritableSessionCache removeCache,
+                                AbstractJcrNode node ) throws RepositoryException {
+        if (node.isRoot() || node.isExternal() || node.isShareable() || session.checkPermissionsWhenIteratingChildren()) {
+            // the permissions of the descendants would have to be checked one by one ...
+            throw new RepositoryException(JcrI18n.cannotRemoveSubtreeInBulk.text(node.location(), getName()));
+        }
+        node.checkRemovable(false);
+        Path path = node.path();
+        checkForLockedDescendants(node, path);
+        try {
+            removeCache.detachSubtree(node.key());
+        } catch (org.modeshape.jcr.cache.ReferentialIntegrityException e) {
+            throw new ReferentialIntegrityException(e);
+        } catch (NodeNotFoundException e) {
+            throw new PathNotFoundException(e);
+        } catch (RuntimeException e) {
+            throw new RepositoryException(e);
+        }
+        return path;
+    }
+
+    private void checkForLockedDescendants( AbstractJcrNode node,
+                                            Path path ) throws RepositoryException {
+        // Removing a node is an alteration of its parent (see Section 17.7 of the JCR 2.0 specification), and the descendants
+        // are not loaded one by one, so refuse to remove the subtree if any descendant is locked by another session.
+        // We assume that there are far fewer locks than there are descendants of the supplied node ...
+        SessionCache cache = session.cache();
+        JcrLockManager lockManager = lockManager();
+        for (RepositoryLockManager.ModeShapeLock lock : repository().lockManager().allLocks()) {
+            if (!workspaceName.equals(lock.getWorkspaceName()) || lockManager.hasLockToken(lock.getLockToken())) {
+                continue;
+            }
+            CachedNode lockedNode = cache.getNode(lock.getLockedNodeKey());
+            if (lockedNode == null) {
+                continue;
+            }
+            Path lockedPath = lockedNode.getPath(cache);
+            if (lockedPath.isDescendantOf(path)) {
+                throw new LockException(JcrI18n.cannotRemoveSubtreeWithLockedDescendant.text(node.location(), getName(),
+                                                                                              session.readable(lockedPath)));
+            }
+        }
+    }
+
     @Override
     public FederationManager getFederationManager() throws RepositoryException {
         session.checkLive();
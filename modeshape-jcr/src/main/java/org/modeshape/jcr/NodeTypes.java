@@ -20,6 +20,7 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.LinkedHashSet;
@@ -27,6 +28,8 @@ import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import javax.jcr.ItemExistsException;
 import javax.jcr.PropertyType;
 import javax.jcr.RepositoryException;
@@ -93,6 +96,31 @@ public class NodeTypes {
     private final Map<Name, JcrNodeType> nodeTypes = new HashMap<Name, JcrNodeType>();
     private final Map<PropertyDefinitionId, JcrPropertyDefinition> propertyDefinitions = new HashMap<PropertyDefinitionId, JcrPropertyDefinition>();
     private final Map<NodeDefinitionId, JcrNodeDefinition> childNodeDefinitions = new HashMap<NodeDefinitionId, JcrNodeDefinition>();
+    /**
+     * The index of each node type, used in the bitsets of the {@link EffectiveNodeType effective node types}.
+     */
+    private final Map<Name, Integer> nodeTypeIndexes = new HashMap<>();
+    /**
+     * The effective node types for each distinct combination of primary type and mixin types that has been used. Since the node
+     * types in this instance never change, the entries never become stale.
+     */
+    private final ConcurrentMap<EffectiveNodeTypeKey, EffectiveNodeType> effectiveNodeTypes = new ConcurrentHashMap<>();
+    /**
+     * The effective node types of the primary types that have been used without any mixin types, which can be found without
+     * creating a key.
+     */
+    private final ConcurrentMap<Name, EffectiveNodeType> effectiveNodeTypesWithoutMixins = new ConcurrentHashMap<>();
+    /**
+     * Orders node types by the order in which they were registered, which is the canonical order of the mixin types of an
+     * {@link EffectiveNodeType}.
+     */
+    private final Comparator<JcrNodeType> registrationOrder = new Comparator<JcrNodeType>() {
+        @Override
+        public int compare( JcrNodeType type1,
+                            JcrNodeType type2 ) {
+            return nodeTypeIndexes.get(type1.getInternalName()).compareTo(nodeTypeIndexes.get(type2.getInternalName()));
+        }
+    };
 
     private final Collection<JcrNodeType> unmodifiableNodeTypes;
     private final Collection<JcrNodeType> unmodifiableMixinNodeTypes;
@@ -116,6 +144,15 @@ public class NodeTypes {
 
     private static final Set<Name> NONE = Collections.emptySet();
 
+    /**
+     * The maximum number of effective node types cached by each instance. The number of distinct combinations of primary type and
+     * mixin types is usually small, but this limits the memory used when an application uses lots of different combinations.
+     */
+    private static final int MAX_CACHED_EFFECTIVE_NODE_TYPES = 10000;
+
+    /** Thread local variable containing the last EffectiveNodeType used */
+    private static final ThreadLocal<EffectiveNodeType> lastEffectiveNodeType = new ThreadLocal<>();
+
     /** Thread local variable containing the last NodeDefinitionSet used */
     private static final ThreadLocal<ReusableNodeDefinitionSet> nodeDefinitionSet = new ThreadLocal<ReusableNodeDefinitionSet>() {
         @Override
@@ -216,6 +253,7 @@ public class NodeTypes {
 
                 // Store the node type in the quick-lookup maps ...
                 this.nodeTypes.put(name, nodeType);
+                this.nodeTypeIndexes.put(name, this.nodeTypeIndexes.size());
                 for (JcrNodeDefinition childDefinition : nodeType.childNodeDefinitions()) {
                     this.childNodeDefinitions.put(childDefinition.getId(), childDefinition);
                 }
@@ -449,6 +487,23 @@ public class NodeTypes {
         return nodeType != null && nodeType.isNodeType(candidateSupertypeName);
     }
 
+    /**
+     * Determine whether the node's primary type or any of its mixin types matches or extends the node type with the supplied name.
+     * Unlike {@link #isTypeOrSubtype(Set, Name)}, this uses the cached {@link EffectiveNodeType effective node type} for the
+     * combination of primary type and mixin types, so the check does not depend on the number of types.
+     *
+     * @param primaryTypeName the name of the primary type of a node; may not be null
+     * @param mixinTypeNames the names of the mixin types of a node; may be null or empty
+     * @param candidateSupertypeName the name of the potential supertype node type; may not be null
+     * @return true if the primary type or any of the mixin types matches or extends the node type given by the supplied name, or
+     *         false otherwise
+     */
+    public boolean isTypeOrSubtype( Name primaryTypeName,
+                                    Collection<Name> mixinTypeNames,
+                                    Name candidateSupertypeName ) {
+        return getEffectiveNodeType(primaryTypeName, mixinTypeNames).isNodeType(candidateSupertypeName);
+    }
+
     /**
      * Determine whether at least one of the node's given node types matches or extends the node type with the supplied name.
      *
@@ -910,6 +965,57 @@ public class NodeTypes {
         return nodeTypes.containsKey(nodeTypeName);
     }
 
+    /**
+     * Get the effective node type for the supplied combination of primary type and mixin types. Effective node types are computed
+     * once and cached, so this is a single map lookup for all but the first call with each distinct combination. The last
+     * effective node type used by each thread is checked first, since nodes are often processed one after the other with the
+     * same types; in that case, and when there are no mixin types, nothing is allocated.
+     *
+     * @param primaryTypeName the name of the primary type; may be null if unknown, in which case the result is not cached
+     * @param mixinTypeNames the names of the mixin types, in any order; may be null or empty
+     * @return the effective node type; never null
+     */
+    EffectiveNodeType getEffectiveNodeType( Name primaryTypeName,
+                                            Collection<Name> mixinTypeNames ) {
+        boolean noMixins = mixinTypeNames == null || mixinTypeNames.isEmpty();
+        if (primaryTypeName != null) {
+            EffectiveNodeType effectiveType = lastEffectiveNodeType.get();
+            if (effectiveType != null && effectiveType.appliesTo(this, primaryTypeName, mixinTypeNames)) return effectiveType;
+            if (noMixins) {
+                effectiveType = effectiveNodeTypesWithoutMixins.get(primaryTypeName);
+            } else {
+                effectiveType = effectiveNodeTypes.get(new EffectiveNodeTypeKey(primaryTypeName, mixinTypeNames));
+            }
+            if (effectiveType != null) {
+                lastEffectiveNodeType.set(effectiveType);
+                return effectiveType;
+            }
+        }
+
+        Set<Name> mixinNames = noMixins ? NONE : Collections.unmodifiableSet(new HashSet<>(mixinTypeNames));
+        List<JcrNodeType> mixinTypes = new ArrayList<>(mixinNames.size());
+        for (Name mixinTypeName : mixinNames) {
+            JcrNodeType mixinType = getNodeType(mixinTypeName);
+            if (mixinType != null) mixinTypes.add(mixinType);
+        }
+        // Use a canonical order, so that the definitions don't depend on the order in which the mixins were supplied ...
+        Collections.sort(mixinTypes, registrationOrder);
+        EffectiveNodeType effectiveType = new EffectiveNodeType(this, primaryTypeName, mixinNames, getNodeType(primaryTypeName),
+                                                                mixinTypes, nodeTypeIndexes);
+        if (primaryTypeName == null) return effectiveType;
+        if (effectiveNodeTypes.size() + effectiveNodeTypesWithoutMixins.size() < MAX_CACHED_EFFECTIVE_NODE_TYPES) {
+            EffectiveNodeType existing = null;
+            if (noMixins) {
+                existing = effectiveNodeTypesWithoutMixins.putIfAbsent(primaryTypeName, effectiveType);
+            } else {
+                existing = effectiveNodeTypes.putIfAbsent(new EffectiveNodeTypeKey(primaryTypeName, mixinNames), effectiveType);
+            }
+            if (existing != null) effectiveType = existing;
+        }
+        lastEffectiveNodeType.set(effectiveType);
+        return effectiveType;
+    }
+
     /**
      * Searches the supplied primary node type and the mixin node types for a property definition that is the best match for the
      * given property name, property type, and value.
@@ -1025,6 +1131,14 @@ public class NodeTypes {
                                                   boolean checkTypeAndConstraints ) {
         boolean setToEmpty = value == null;
 
+        EffectiveNodeType effectiveType = getEffectiveNodeType(primaryTypeName, mixinTypeNames);
+        if (!effectiveType.hasPropertyDefinitions(propertyName)) {
+            // None of the types defines a property with this name, so only the residual definitions can apply ...
+            if (propertyName.equals(JcrNodeType.RESIDUAL_NAME)) return null;
+            return findPropertyDefinition(session, primaryTypeName, mixinTypeNames, JcrNodeType.RESIDUAL_NAME, value,
+                                          checkMultiValuedDefinitions, skipProtected, checkTypeAndConstraints);
+        }
+
         /*
          * We use this flag to indicate that there was a definition encountered with the same name.  If
          * a named definition (or definitions - for example the same node type could define a LONG and BOOLEAN
@@ -1036,7 +1150,7 @@ public class NodeTypes {
         boolean matchedOnName = false;
 
         // Look for a single-value property definition on the primary type that matches by name and type ...
-        JcrNodeType primaryType = getNodeType(primaryTypeName);
+        JcrNodeType primaryType = effectiveType.getPrimaryType();
         if (primaryType != null) {
             for (JcrPropertyDefinition definition : primaryType.allSingleValuePropertyDefinitions(propertyName)) {
                 matchedOnName = true;
@@ -1450,6 +1564,14 @@ public class NodeTypes {
         boolean setToEmpty = values == null;
         int propertyType = values == null || values.length == 0 ? PropertyType.STRING : values[0].getType();
 
+        EffectiveNodeType effectiveType = getEffectiveNodeType(primaryTypeName, mixinTypeNames);
+        if (!effectiveType.hasPropertyDefinitions(propertyName)) {
+            // None of the types defines a property with this name, so only the residual definitions can apply ...
+            if (propertyName.equals(JcrNodeType.RESIDUAL_NAME)) return null;
+            return findPropertyDefinition(session, primaryTypeName, mixinTypeNames, JcrNodeType.RESIDUAL_NAME, values,
+                                          skipProtected, checkTypeAndConstraints);
+        }
+
         /*
          * We use this flag to indicate that there was a definition encountered with the same name.  If
          * a named definition (or definitions - for example the same node type could define a LONG and BOOLEAN
@@ -1461,7 +1583,7 @@ public class NodeTypes {
         boolean matchedOnName = false;
 
         // Look for a multi-value property definition on the primary type that matches by name and type ...
-        JcrNodeType primaryType = getNodeType(primaryTypeName);
+        JcrNodeType primaryType = effectiveType.getPrimaryType();
         if (primaryType != null) {
             for (JcrPropertyDefinition definition : primaryType.allMultiValuePropertyDefinitions(propertyName)) {
                 matchedOnName = true;
@@ -1638,8 +1760,16 @@ public class NodeTypes {
                                List<Name> mixinTypeNamesOfParent,
                                Name propertyName,
                                boolean skipProtected ) {
+        EffectiveNodeType effectiveType = getEffectiveNodeType(primaryTypeNameOfParent, mixinTypeNamesOfParent);
+        if (!effectiveType.hasPropertyDefinitions(propertyName)) {
+            // None of the types defines an item with this name, so only the residual definitions can apply ...
+            if (propertyName.equals(JcrNodeType.RESIDUAL_NAME)) return false;
+            return canRemoveProperty(primaryTypeNameOfParent, mixinTypeNamesOfParent, JcrNodeType.RESIDUAL_NAME,
+                                     skipProtected);
+        }
+
         // First look in the primary type ...
-        JcrNodeType primaryType = getNodeType(primaryTypeNameOfParent);
+        JcrNodeType primaryType = effectiveType.getPrimaryType();
         if (primaryType != null) {
             for (JcrPropertyDefinition definition : primaryType.allPropertyDefinitions(propertyName)) {
                 // Skip protected definitions ...
@@ -1687,8 +1817,15 @@ public class NodeTypes {
                            List<Name> mixinTypeNamesOfParent,
                            Name itemName,
                            boolean skipProtected ) {
+        EffectiveNodeType effectiveType = getEffectiveNodeType(primaryTypeNameOfParent, mixinTypeNamesOfParent);
+        if (!effectiveType.hasItemDefinitions(itemName)) {
+            // None of the types defines an item with this name, so only the residual definitions can apply ...
+            if (itemName.equals(JcrNodeType.RESIDUAL_NAME)) return false;
+            return canRemoveItem(primaryTypeNameOfParent, mixinTypeNamesOfParent, JcrNodeType.RESIDUAL_NAME, skipProtected);
+        }
+
         // First look in the primary type for a matching property definition...
-        JcrNodeType primaryType = getNodeType(primaryTypeNameOfParent);
+        JcrNodeType primaryType = effectiveType.getPrimaryType();
         if (primaryType != null) {
             for (JcrPropertyDefinition definition : primaryType.allPropertyDefinitions(itemName)) {
                 // Skip protected definitions ...
@@ -1833,8 +1970,16 @@ public class NodeTypes {
                                   Collection<Name> mixinTypeNamesOfParent,
                                   Name childName,
                                   boolean skipProtected ) {
+        EffectiveNodeType effectiveType = getEffectiveNodeType(primaryTypeNameOfParent, mixinTypeNamesOfParent);
+        if (!effectiveType.hasChildNodeDefinitions(childName)) {
+            // None of the types defines an item with this name, so only the residual definitions can apply ...
+            if (childName.equals(JcrNodeType.RESIDUAL_NAME)) return false;
+            return canRemoveAllChildren(primaryTypeNameOfParent, mixinTypeNamesOfParent, JcrNodeType.RESIDUAL_NAME,
+                                        skipProtected);
+        }
+
         // First look in the primary type ...
-        JcrNodeType primaryType = getNodeType(primaryTypeNameOfParent);
+        JcrNodeType primaryType = effectiveType.getPrimaryType();
         if (primaryType != null) {
             for (JcrNodeDefinition definition : primaryType.allChildNodeDefinitions(childName)) {
                 // Skip protected definitions ...
@@ -2391,11 +2536,13 @@ public class NodeTypes {
                 return use(new SingleNodeDefinitionSet(primaryTypeNameOfParent, mixinsWithChildDefns, defn));
             }
             // There are multiple child node definitions in the primary type, and no mixins with child node defns ...
-            return use(new MultipleNodeDefinitionSet(primaryTypeNameOfParent, null));
+            return use(new MultipleNodeDefinitionSet(primaryTypeNameOfParent, null, getEffectiveNodeType(primaryTypeNameOfParent,
+                                                                                                           null)));
         }
 
         // There is a primary type and at least one mixin with child node definitions ...
-        return use(new MultipleNodeDefinitionSet(primaryTypeNameOfParent, mixinsWithChildDefns));
+        return use(new MultipleNodeDefinitionSet(primaryTypeNameOfParent, mixinsWithChildDefns,
+                                                 getEffectiveNodeType(primaryTypeNameOfParent, mixinsWithChildDefns)));
     }
 
     /**
@@ -2454,6 +2601,50 @@ public class NodeTypes {
                                          ExecutionContext context ) throws ConstraintViolationException, ItemExistsException;
     }
 
+    /**
+     * The key for the cache of {@link EffectiveNodeType effective node types}: the name of the primary type and the names of the
+     * mixin types, in any order. The keys used for lookups wrap the caller's collection of mixin names rather than copying it.
+     */
+    @Immutable
+    private static final class EffectiveNodeTypeKey {
+        private final Name primaryType;
+        private final Collection<Name> mixinTypes;
+        private final int hc;
+
+        protected EffectiveNodeTypeKey( Name primaryType,
+                                        Collection<Name> mixinTypes ) {
+            this.primaryType = primaryType;
+            this.mixinTypes = mixinTypes;
+            // Like Set.hashCode(), this does not depend on the order of the names ...
+            int mixinsHash = 0;
+            for (Name mixinType : mixinTypes) {
+                mixinsHash += mixinType.hashCode();
+            }
+            this.hc = 31 * primaryType.hashCode() + mixinsHash;
+        }
+
+        @Override
+        public int hashCode() {
+            return hc;
+        }
+
+        @Override
+        public boolean equals( Object obj ) {
+            if (obj == this) return true;
+            if (obj instanceof EffectiveNodeTypeKey) {
+                EffectiveNodeTypeKey that = (EffectiveNodeTypeKey)obj;
+                return this.hc == that.hc && this.primaryType.equals(that.primaryType)
+                       && EffectiveNodeType.sameNames(this.mixinTypes, that.mixinTypes);
+            }
+            return false;
+        }
+
+        @Override
+        public String toString() {
+            return primaryType + (mixinTypes.isEmpty() ? "" : " " + mixinTypes);
+        }
+    }
+
     /**
      * This class is used to build up a useful error message that includes why each of the child node definitions did not match.
      * When this class is used, we already know that no match was found and the algorithm is repeated with an instance of this
@@ -2600,18 +2791,15 @@ public class NodeTypes {
             builder.throwFailure();
         }
 
-        protected JcrNodeDefinition findBest( JcrNodeType primaryType,
-                                              JcrNodeType[] additionalTypes,
+        protected JcrNodeDefinition findBest( EffectiveNodeType effectiveType,
                                               Name childName,
                                               Name childPrimaryType,
                                               boolean skipProtected,
                                               SiblingCounter siblingCounter ) {
-            return childDefinitionSatisfies(primaryType, additionalTypes, childName, childPrimaryType, skipProtected,
-                                            siblingCounter, null);
+            return childDefinitionSatisfies(effectiveType, childName, childPrimaryType, skipProtected, siblingCounter, null);
         }
 
-        protected void reasonNotMatched( JcrNodeType primaryType,
-                                         JcrNodeType[] additionalTypes,
+        protected void reasonNotMatched( EffectiveNodeType effectiveType,
                                          Name childName,
                                          Name childPrimaryType,
                                          boolean skipProtected,
@@ -2625,16 +2813,15 @@ public class NodeTypes {
             MatchResults builder = new MatchResults(childName, childPrimaryType, skipProtected, siblingCounter,
                                                     parentPrimaryType, parentMixinTypes, parentPath, workspaceName,
                                                     repositoryName, context);
-            childDefinitionSatisfies(primaryType, additionalTypes, childName, childPrimaryType, skipProtected, siblingCounter,
-                                     builder);
+            childDefinitionSatisfies(effectiveType, childName, childPrimaryType, skipProtected, siblingCounter, builder);
             builder.throwFailure();
         }
 
         /**
          * Figure out whether a child with the given name and primary type can be added under a parent with only the given child
          * node definition. This logic is much more streamlined than
-         * {@link #childDefinitionSatisfies(JcrNodeType, JcrNodeType[], Name, Name, boolean, SiblingCounter, MatchResults)}, and
-         * it's worth having because such cases are very prevalent.
+         * {@link #childDefinitionSatisfies(EffectiveNodeType, Name, Name, boolean, SiblingCounter, MatchResults)}, and it's worth
+         * having because such cases are very prevalent.
          *
          * @param defn the parent's sole child node definition; may not be null
          * @param childName the name of the proposed child; may be null if the child name is to be determined by the definition
@@ -2646,7 +2833,7 @@ public class NodeTypes {
          * @param matches the mismatch results object that, if the child definition could not be used for this child, records why;
          *        may be null if only attempting to find a matching definition (pass 1)
          * @return the matching node definition, or null if the definition does not match
-         * @see #childDefinitionSatisfies(JcrNodeType, JcrNodeType[], Name, Name, boolean, SiblingCounter, MatchResults)
+         * @see #childDefinitionSatisfies(EffectiveNodeType, Name, Name, boolean, SiblingCounter, MatchResults)
          */
         private JcrNodeDefinition childDefinitionSatisfies( JcrNodeDefinition defn,
                                                             Name childName,
@@ -2695,10 +2882,11 @@ public class NodeTypes {
         /**
          * Figure out whether a child with the given name and primary type can be added under a parent with a primary type and
          * additional mixin types that have child node definitions. This logic is more complicated than the more efficient
-         * {@link #childDefinitionSatisfies(JcrNodeDefinition, Name, Name, boolean, SiblingCounter, MatchResults)}.
+         * {@link #childDefinitionSatisfies(JcrNodeDefinition, Name, Name, boolean, SiblingCounter, MatchResults)}. The
+         * definitions are looked up in the effective type's table, which for each name holds the definitions of the primary type
+         * followed by those of each mixin type.
          *
-         * @param primaryType the parent's primary node type; may not be null
-         * @param additionalTypes the parent's mixin node types; may be null, but generally should not be empty
+         * @param effectiveType the effective type of the parent, with a registered primary type; may not be null
          * @param childName the name of the proposed child; may be null if the child name is to be determined by the definition
          * @param childPrimaryType the primary type of the proposed child; may be null if the default type is to be used
          * @param skipProtected true if this method should not consider any of the parent's child node definitions that are
@@ -2710,33 +2898,22 @@ public class NodeTypes {
          * @return the matching node definition, or null if the definition does not match
          * @see #childDefinitionSatisfies(JcrNodeDefinition, Name, Name, boolean, SiblingCounter, MatchResults)
          */
-        private JcrNodeDefinition childDefinitionSatisfies( JcrNodeType primaryType,
-                                                            JcrNodeType[] additionalTypes,
+        private JcrNodeDefinition childDefinitionSatisfies( EffectiveNodeType effectiveType,
                                                             Name childName,
                                                             Name childPrimaryType,
                                                             boolean skipProtected,
                                                             SiblingCounter siblingCounter,
                                                             MatchResults matches ) {
-            assert primaryType != null;
+            JcrNodeType primaryType = effectiveType.getPrimaryType();
+            DefinitionCache definitions = effectiveType.getDefinitions();
+            assert primaryType != null && definitions != null;
             JcrNodeType childType = childPrimaryType != null ? getNodeType(childPrimaryType) : null;
             JcrNodeDefinition defn = null;
             // First check for child node defns that match by name, type, and allow SNS ...
-            defn = childDefinitionSatisfies(primaryType, childType, childName, skipProtected, true, matches);
+            defn = childDefinitionSatisfies(definitions, childType, childName, skipProtected, true, matches);
             if (defn != null) return defn;
-            if (additionalTypes != null) {
-                for (JcrNodeType additionalType : additionalTypes) {
-                    defn = childDefinitionSatisfies(additionalType, childType, childName, skipProtected, true, matches);
-                    if (defn != null) return defn;
-                }
-            }
             // Then check for child node defns that match by name and type but that do not allow SNS ...
-            defn = childDefinitionSatisfies(primaryType, childType, childName, skipProtected, false, matches);
-            if (defn == null && additionalTypes != null) {
-                for (JcrNodeType additionalType : additionalTypes) {
-                    defn = childDefinitionSatisfies(additionalType, childType, childName, skipProtected, false, matches);
-                    if (defn != null) break;
-                }
-            }
+            defn = childDefinitionSatisfies(definitions, childType, childName, skipProtected, false, matches);
             if (defn != null) {
                 // We found a child node defn that matches exactly by at least name but does not allow SNS.
                 // Even though it might be expensive to count the existing children, a non-SNS child node definition that
@@ -2751,15 +2928,8 @@ public class NodeTypes {
             }
 
             // Check for residual child node defns that match by type and allow SNS ...
-            defn = childDefinitionSatisfies(primaryType, childType, JcrNodeType.RESIDUAL_NAME, skipProtected, true, matches);
+            defn = childDefinitionSatisfies(definitions, childType, JcrNodeType.RESIDUAL_NAME, skipProtected, true, matches);
             if (defn != null) return defn;
-            if (additionalTypes != null) {
-                for (JcrNodeType additionalType : additionalTypes) {
-                    defn = childDefinitionSatisfies(additionalType, childType, JcrNodeType.RESIDUAL_NAME, skipProtected, true,
-                                                    matches);
-                    if (defn != null) return defn;
-                }
-            }
 
             if (childName != null) {
                 // No child definitions were found that allow SNS, so see how many existing same-name-siblings there are ...
@@ -2783,35 +2953,22 @@ public class NodeTypes {
                 }
 
                 // There are no siblings with same name, so we can look for child defns that match by name, type and no SNS ...
-                defn = childDefinitionSatisfies(primaryType, childType, childName, skipProtected, false, matches);
+                defn = childDefinitionSatisfies(definitions, childType, childName, skipProtected, false, matches);
                 if (defn != null) return defn;
-                if (additionalTypes != null) {
-                    for (JcrNodeType additionalType : additionalTypes) {
-                        defn = childDefinitionSatisfies(additionalType, childType, childName, skipProtected, false, matches);
-                        if (defn != null) return defn;
-                    }
-                }
             }
             // Check for residual child node defns that match by type and no SNS ...
-            defn = childDefinitionSatisfies(primaryType, childType, JcrNodeType.RESIDUAL_NAME, skipProtected, false, matches);
+            defn = childDefinitionSatisfies(definitions, childType, JcrNodeType.RESIDUAL_NAME, skipProtected, false, matches);
             if (defn != null) return defn;
-            if (additionalTypes != null) {
-                for (JcrNodeType additionalType : additionalTypes) {
-                    defn = childDefinitionSatisfies(additionalType, childType, JcrNodeType.RESIDUAL_NAME, skipProtected, false,
-                                                    matches);
-                    if (defn != null) return defn;
-                }
-            }
             // None were matched ...
             return null;
         }
 
         /**
-         * Figure out whether a child with the given name and primary type can be added under a parent with the given node type.
+         * Figure out whether a child with the given name and primary type can be added under a parent with the given definitions.
          * Note that this is called from within
-         * {@link #childDefinitionSatisfies(JcrNodeType, JcrNodeType[], Name, Name, boolean, SiblingCounter, MatchResults)}.
+         * {@link #childDefinitionSatisfies(EffectiveNodeType, Name, Name, boolean, SiblingCounter, MatchResults)}.
          *
-         * @param type the parent node type; may not be null
+         * @param definitions the definitions of the parent's node types; may not be null
          * @param childPrimaryType the primary type for the child; may be null if the primary type is not known and would be
          *        determined by the matching child node definition's default type
          * @param childName the name of the proposed child; may be null if the child name is to be determined by the definition
@@ -2822,9 +2979,9 @@ public class NodeTypes {
          * @param matches the mismatch results object that, if the child definition could not be used for this child, records why;
          *        may be null if only attempting to find a matching definition (pass 1)
          * @return the matching node definition, or null if the definition does not match
-         * @see #findBest(JcrNodeType, JcrNodeType[], Name, Name, boolean, SiblingCounter)
+         * @see #findBest(EffectiveNodeType, Name, Name, boolean, SiblingCounter)
          */
-        private JcrNodeDefinition childDefinitionSatisfies( JcrNodeType type,
+        private JcrNodeDefinition childDefinitionSatisfies( DefinitionCache definitions,
                                                             JcrNodeType childPrimaryType,
                                                             Name childName,
                                                             boolean skipProtected,
@@ -2833,7 +2990,7 @@ public class NodeTypes {
             if (childName != null) {
                 // Either a residual or a name ...
                 // See if the primary type has any child node defns that match by name and allow/disallow SNS ...
-                for (JcrNodeDefinition defn : type.allChildNodeDefinitions(childName, allowSns)) {
+                for (JcrNodeDefinition defn : definitions.allChildNodeDefinitions(childName, allowSns)) {
                     // Skip protected definitions ...
                     if (skipProtected && defn.isProtected()) {
                         if (matches != null) matches.noProtectedDefinitionsAllowed(defn);
@@ -2847,7 +3004,7 @@ public class NodeTypes {
                 }
             } else {
                 // There is no name, so look thru all non-residual child node defns that have a matching type ...
-                for (JcrNodeDefinition defn : type.allChildNodeDefinitions()) {
+                for (JcrNodeDefinition defn : definitions.allChildNodeDefinitions()) {
                     if (defn.isResidual()) continue;
                     if (!allowSns && !defn.allowsSameNameSiblings()) continue;
                     // Skip protected definitions ...
@@ -2903,22 +3060,13 @@ public class NodeTypes {
     }
 
     private class MultipleNodeDefinitionSet extends AbstractNodeDefinitionSet {
-        private final JcrNodeType nodeType;
-        private final JcrNodeType[] additionalTypes;
+        private final EffectiveNodeType effectiveType;
 
         protected MultipleNodeDefinitionSet( Name primaryType,
-                                             Set<Name> mixinTypes ) {
+                                             Set<Name> mixinTypes,
+                                             EffectiveNodeType effectiveType ) {
             super(primaryType, mixinTypes);
-            this.nodeType = getNodeType(primaryType);
-            if (mixinTypes == null || mixinTypes.isEmpty()) {
-                this.additionalTypes = null;
-            } else {
-                this.additionalTypes = new JcrNodeType[mixinTypes.size()];
-                int index = -1;
-                for (Name mixinType : mixinTypes) {
-                    this.additionalTypes[++index] = getNodeType(mixinType);
-                }
-            }
+            this.effectiveType = effectiveType;
         }
 
         @Override
@@ -2926,7 +3074,7 @@ public class NodeTypes {
                                                              Name childPrimaryType,
                                                              boolean skipProtected,
                                                              SiblingCounter siblingCounter ) {
-            return findBest(nodeType, additionalTypes, childName, childPrimaryType, skipProtected, siblingCounter);
+            return findBest(effectiveType, childName, childPrimaryType, skipProtected, siblingCounter);
         }
 
         @Override
@@ -2941,8 +3089,8 @@ public class NodeTypes {
                                                 String repositoryName,
                                                 ExecutionContext context )
             throws ConstraintViolationException, ItemExistsException {
-            reasonNotMatched(nodeType, additionalTypes, childName, childPrimaryType, skipProtected, siblingCounter,
-                             parentPrimaryType, parentMixinTypes, parentPath, workspaceName, repositoryName, context);
+            reasonNotMatched(effectiveType, childName, childPrimaryType, skipProtected, siblingCounter, parentPrimaryType,
+                             parentMixinTypes, parentPath, workspaceName, repositoryName, context);
         }
     }
 
@@ -0,0 +1,380 @@
+/*
+ * ModeShape (http://www.modeshape.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.modeshape.jcr;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+import javax.jcr.observation.Event;
+import org.modeshape.common.annotation.Immutable;
+import org.modeshape.common.annotation.ThreadSafe;
+import org.modeshape.jcr.cache.NodeKey;
+import org.modeshape.jcr.cache.change.AbstractNodeChange;
+import org.modeshape.jcr.cache.change.AbstractPropertyChange;
+import org.modeshape.jcr.cache.change.Change;
+import org.modeshape.jcr.cache.change.ChangeSet;
+import org.modeshape.jcr.cache.change.NodeAdded;
+import org.modeshape.jcr.cache.change.NodeMoved;
+import org.modeshape.jcr.cache.change.NodeRemoved;
+import org.modeshape.jcr.cache.change.NodeRenamed;
+import org.modeshape.jcr.cache.change.NodeReordered;
+import org.modeshape.jcr.cache.change.NodeSequenced;
+import org.modeshape.jcr.cache.change.NodeSequencingFailure;
+import org.modeshape.jcr.cache.change.PropertyAdded;
+import org.modeshape.jcr.cache.change.PropertyChanged;
+import org.modeshape.jcr.cache.change.PropertyRemoved;
+import org.modeshape.jcr.value.Name;
+import org.modeshape.jcr.value.Path;
+
+/**
+ * A repository-wide index over the criteria of all the registered JCR event listeners, which allows each {@link ChangeSet} to be
+ * matched only once against all the listeners, instead of having each listener look at every change. The paths of the listeners
+ * are kept in a trie, while the UUIDs and node types of each listener are kept in sets.
+ * <p>
+ * The matching is conservative: it only rejects the changes which a listener would reject anyway, based on the originating
+ * workspace and session, the event types, the path, the UUIDs and (when the change contains the required type information) the
+ * node types. The remaining checks (e.g. permissions) are still performed by each listener, but only for the changes returned by
+ * {@link #changesFor(Object, ChangeSet, NodeTypes)}.
+ * </p>
+ */
+@ThreadSafe
+final class ObservationListenerIndex {
+
+    private final Map<Object, Registration> registrations = new IdentityHashMap<>();
+    private volatile Snapshot snapshot = new Snapshot(Collections.<Registration>emptyList());
+
+    /**
+     * The changes matched for each listener, for the change sets which are still being dispatched. The entries are removed once
+     * the change sets are not referenced anymore.
+     */
+    private final Map<ChangeSet, Map<Object, List<Change>>> matchesByChangeSet = new WeakHashMap<>();
+
+    /**
+     * Adds a listener to this index.
+     * 
+     * @param registration the criteria of the listener; may not be null
+     */
+    synchronized void register( Registration registration ) {
+        registrations.put(registration.listener, registration);
+        snapshot = new Snapshot(registrations.values());
+    }
+
+    /**
+     * Removes a listener from this index.
+     * 
+     * @param listener the listener; may not be null
+     */
+    synchronized void unregister( Object listener ) {
+        if (registrations.remove(listener) != null) {
+            snapshot = new Snapshot(registrations.values());
+        }
+    }
+
+    /**
+     * Removes all the listeners from this index.
+     */
+    synchronized void clear() {
+        registrations.clear();
+        snapshot = new Snapshot(Collections.<Registration>emptyList());
+    }
+
+    /**
+     * Returns the changes from a change set which the given listener may accept. The change set is matched against all the
+     * registered listeners the first time this is called, and the result is reused for the other listeners.
+     * 
+     * @param listener the listener; may not be null
+     * @param changeSet the change set; may not be null
+     * @param nodeTypes the node types used to check the node type criteria; may not be null
+     * @return the changes, in the order in which they appear in the change set; never null but possibly empty
+     */
+    Iterable<Change> changesFor( Object listener,
+                                 ChangeSet changeSet,
+                                 NodeTypes nodeTypes ) {
+        Map<Object, List<Change>> matches;
+        synchronized (matchesByChangeSet) {
+            matches = matchesByChangeSet.get(changeSet);
+        }
+        if (matches == null || !matches.containsKey(listener)) {
+            // match the change set once for all the listeners (including this one, if it registered in the meantime) ...
+            matches = snapshot.match(changeSet, nodeTypes);
+            synchronized (matchesByChangeSet) {
+                matchesByChangeSet.put(changeSet, matches);
+            }
+        }
+        List<Change> changes = matches.get(listener);
+        // the listener is not registered (anymore), so let it look at all the changes
+        return changes != null ? changes : changeSet;
+    }
+
+    /**
+     * Returns the JCR event types which may be fired for a change.
+     * 
+     * @param change the change; may not be null
+     * @return the event types, as a bit mask
+     */
+    static int eventTypesFor( AbstractNodeChange change ) {
+        if (change instanceof NodeMoved || change instanceof NodeRenamed || change instanceof NodeReordered) {
+            // JCR 1.0 expects the NODE_ADDED and NODE_REMOVED events in addition to NODE_MOVED
+            return Event.NODE_MOVED | Event.NODE_ADDED | Event.NODE_REMOVED;
+        } else if (change instanceof NodeAdded) {
+            return Event.NODE_ADDED;
+        } else if (change instanceof NodeRemoved) {
+            return Event.NODE_REMOVED;
+        } else if (change instanceof PropertyChanged) {
+            return Event.PROPERTY_CHANGED;
+        } else if (change instanceof PropertyAdded) {
+            return Event.PROPERTY_ADDED;
+        } else if (change instanceof PropertyRemoved) {
+            return Event.PROPERTY_REMOVED;
+        } else if (change instanceof NodeSequenced) {
+            return org.modeshape.jcr.api.observation.Event.Sequencing.NODE_SEQUENCED;
+        } else if (change instanceof NodeSequencingFailure) {
+            return org.modeshape.jcr.api.observation.Event.Sequencing.NODE_SEQUENCING_FAILURE;
+        }
+        return 0;
+    }
+
+    /**
+     * Returns the path against which the path criteria of the listeners are checked: the path of the node for property changes,
+     * or the path of the parent node for node changes.
+     * 
+     * @param change the change; may not be null
+     * @return the path; never null
+     */
+    static Path parentNodePathOfChange( AbstractNodeChange change ) {
+        Path changePath = change.getPath();
+        if (change instanceof AbstractPropertyChange) {
+            return changePath;
+        }
+        return changePath.isRoot() ? changePath : changePath.getParent();
+    }
+
+    /**
+     * The criteria with which a listener was registered.
+     */
+    @Immutable
+    static final class Registration {
+        protected final Object listener;
+        private final String workspaceName;
+        private final String systemWorkspaceName;
+        private final String sessionId;
+        private final boolean noLocal;
+        private final int eventTypes;
+        private final Path absPath;
+        private final boolean isDeep;
+        private final Set<String> uuids;
+        private final Name[] nodeTypeNames;
+
+        /**
+         * @param listener the listener; may not be null
+         * @param workspaceName the name of the workspace of the listener's session; may not be null
+         * @param systemWorkspaceName the name of the system workspace; may not be null
+         * @param sessionId the identifier of the listener's session; may not be null
+         * @param noLocal whether the changes made by the listener's session are ignored
+         * @param eventTypes the event types the listener is interested in
+         * @param absPath the path of the nodes the listener is interested in, or null if all paths are of interest
+         * @param isDeep whether the nodes below {@code absPath} are also of interest
+         * @param uuids the identifiers of the nodes the listener is interested in, or null if all nodes are of interest
+         * @param nodeTypeNames the node types the listener is interested in, or null if all node types are of interest
+         */
+        Registration( Object listener,
+                      String workspaceName,
+                      String systemWorkspaceName,
+                      String sessionId,
+                      boolean noLocal,
+                      int eventTypes,
+                      Path absPath,
+                      boolean isDeep,
+                      Set<String> uuids,
+                      Name[] nodeTypeNames ) {
+            this.listener = listener;
+            this.workspaceName = workspaceName;
+            this.systemWorkspaceName = systemWorkspaceName;
+            this.sessionId = sessionId;
+            this.noLocal = noLocal;
+            this.eventTypes = eventTypes;
+            this.absPath = absPath;
+            this.isDeep = isDeep;
+            this.uuids = uuids;
+            this.nodeTypeNames = nodeTypeNames;
+        }
+
+        protected boolean rejectsAll() {
+            // JSR-283#12.5.3.4.2 and JSR-283#12.5.3.4.3
+            return (uuids != null && uuids.isEmpty()) || (nodeTypeNames != null && nodeTypeNames.length == 0) || eventTypes == 0;
+        }
+
+        protected boolean accepts( ChangeSet changeSet ) {
+            String changeSetWorkspace = changeSet.getWorkspaceName();
+            if (!workspaceName.equalsIgnoreCase(changeSetWorkspace) && !systemWorkspaceName.equalsIgnoreCase(changeSetWorkspace)) {
+                return false;
+            }
+            return !noLocal || !sessionId.equals(changeSet.getSessionId());
+        }
+
+        protected boolean accepts( AbstractNodeChange change,
+                                   int changeEventTypes,
+                                   NodeTypes nodeTypes ) {
+            if ((eventTypes & changeEventTypes) == 0) {
+                return false;
+            }
+            if (uuids != null) {
+                // the identifier exposed to the session is either the identifier or the string form of the key
+                NodeKey key = change.getKey();
+                if (!uuids.contains(key.getIdentifier()) && !uuids.contains(key.toString())) {
+                    return false;
+                }
+            }
+            return nodeTypeNames == null || acceptsNodeTypes(change, nodeTypes);
+        }
+
+        private boolean acceptsNodeTypes( AbstractNodeChange change,
+                                          NodeTypes nodeTypes ) {
+            Name parentPrimaryType;
+            Set<Name> parentMixinTypes;
+            if (change instanceof AbstractPropertyChange) {
+                // the node of a property change is the "parent" whose types are checked
+                parentPrimaryType = change.getPrimaryType();
+                parentMixinTypes = change.getMixinTypes();
+            } else if (change instanceof NodeRemoved) {
+                parentPrimaryType = ((NodeRemoved)change).getParentPrimaryType();
+                parentMixinTypes = ((NodeRemoved)change).getParentMixinTypes();
+            } else {
+                // the types of the parent are not known without loading it, so let the listener check them
+                return true;
+            }
+            if (parentPrimaryType == null) {
+                return true;
+            }
+            if (nodeTypes.isTypeOrSubtype(nodeTypeNames, parentPrimaryType)) {
+                return true;
+            }
+            if (parentMixinTypes != null) {
+                for (Name parentMixin : parentMixinTypes) {
+                    if (nodeTypes.isTypeOrSubtype(nodeTypeNames, parentMixin)) {
+                        return true;
+                    }
+                }
+            }
+            return false;
+        }
+    }
+
+    /**
+     * An immutable view over all the registrations, with the path criteria organized in a trie.
+     */
+    @Immutable
+    private static final class Snapshot {
+        private final List<Registration> registrations;
+        private final PathNode root = new PathNode();
+
+        protected Snapshot( Iterable<Registration> registrations ) {
+            this.registrations = new ArrayList<>();
+            for (Registration registration : registrations) {
+                this.registrations.add(registration);
+                if (registration.rejectsAll()) {
+                    // this listener will never receive any events
+                    continue;
+                }
+                PathNode node = root;
+                if (registration.absPath == null) {
+                    // all paths are of interest
+                    node.deep.add(registration);
+                    continue;
+                }
+                for (Path.Segment segment : registration.absPath) {
+                    node = node.child(segment);
+                }
+                if (registration.isDeep) {
+                    node.deep.add(registration);
+                } else {
+                    node.exact.add(registration);
+                }
+            }
+        }
+
+        protected Map<Object, List<Change>> match( ChangeSet changeSet,
+                                                   NodeTypes nodeTypes ) {
+            Map<Object, List<Change>> changesByListener = new IdentityHashMap<>(registrations.size());
+            Set<Registration> acceptingChangeSet = Collections.newSetFromMap(new IdentityHashMap<Registration, Boolean>());
+            for (Registration registration : registrations) {
+                changesByListener.put(registration.listener, new ArrayList<Change>());
+                if (registration.accepts(changeSet)) {
+                    acceptingChangeSet.add(registration);
+                }
+            }
+            if (acceptingChangeSet.isEmpty()) {
+                return changesByListener;
+            }
+            List<Registration> candidates = new ArrayList<>();
+            for (Change change : changeSet) {
+                if (!(change instanceof AbstractNodeChange)) {
+                    continue;
+                }
+                AbstractNodeChange nodeChange = (AbstractNodeChange)change;
+                int changeEventTypes = eventTypesFor(nodeChange);
+                if (changeEventTypes == 0) {
+                    continue;
+                }
+                candidates.clear();
+                collectCandidates(parentNodePathOfChange(nodeChange), candidates);
+                for (Registration candidate : candidates) {
+                    if (acceptingChangeSet.contains(candidate) && candidate.accepts(nodeChange, changeEventTypes, nodeTypes)) {
+                        changesByListener.get(candidate.listener).add(change);
+                    }
+                }
+            }
+            return changesByListener;
+        }
+
+        private void collectCandidates( Path path,
+                                        List<Registration> candidates ) {
+            PathNode node = root;
+            candidates.addAll(node.deep);
+            for (Path.Segment segment : path) {
+                node = node.children.get(segment);
+                if (node == null) {
+                    return;
+                }
+                candidates.addAll(node.deep);
+            }
+            candidates.addAll(node.exact);
+        }
+    }
+
+    /**
+     * A node in the trie of the listeners' paths.
+     */
+    private static final class PathNode {
+        protected final Map<Path.Segment, PathNode> children = new HashMap<>();
+        protected final List<Registration> exact = new ArrayList<>();
+        protected final List<Registration> deep = new ArrayList<>();
+
+        protected PathNode child( Path.Segment segment ) {
+            PathNode child = children.get(segment);
+            if (child == null) {
+                child = new PathNode();
+                children.put(segment, child);
+            }
+            return child;
+        }
+    }
+}
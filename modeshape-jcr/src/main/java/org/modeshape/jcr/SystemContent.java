@@ -15,6 +15,7 @@
  */
 package org.modeshape.jcr;
 
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
@@ -24,6 +25,7 @@ import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.UUID;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
@@ -1138,6 +1140,10 @@ public class SystemContent {
         return systemKey().withId(versionableNodeKey.getIdentifier());
     }
 
+    protected NodeKey versionHistoryFolderKeyFor( String folderPath ) {
+        return systemKey().withId(UUID.nameUUIDFromBytes(folderPath.getBytes(StandardCharsets.UTF_8)).toString());
+    }
+
     public boolean hasVersionHistory( NodeKey versionableNodeKey ) {
         return cache().getNode(versionHistoryNodeKeyFor(versionableNodeKey)) != null;
     }
@@ -1196,16 +1202,20 @@ public class SystemContent {
         // Find the parent of the version history node by walking the path and creating any missing intermediate folders ...
         Path parentPathInStorage = versionHistoryPath.getParent().subpath(2);
         Property primaryType = null;
+        StringBuilder folderPath = new StringBuilder(ModeShapeLexicon.VERSION_HISTORY_FOLDER.getLocalName());
         for (Segment segment : parentPathInStorage) {
+            folderPath.append('/').append(segment.getName().getLocalName());
             ChildReferences childRefs = node.getChildReferences(system);
             ChildReference ref = childRefs.getChild(segment);
             if (ref != null) {
                 // Look up the child node ...
                 node = system.getNode(ref);
             } else {
-                // Create the intermediate node ...
+                // Create the intermediate node, using a key derived from its path. That way, when concurrent sessions create
+                // the same folder only the first save succeeds and the others fail (and can be retried) rather than
+                // creating same-name-siblings ...
                 MutableCachedNode mutableNode = system.mutable(node.getKey());
-                NodeKey key = systemKey().withRandomId();
+                NodeKey key = versionHistoryFolderKeyFor(folderPath.toString());
                 if (primaryType == null) {
                     primaryType = propertyFactory.create(JcrLexicon.PRIMARY_TYPE, ModeShapeLexicon.VERSION_HISTORY_FOLDER);
                 }
@@ -149,6 +149,15 @@ public interface SessionCache extends NodeCache {
      */
     public boolean hasChanges();
 
+    /**
+     * Determine whether the node with the supplied key has transient, unsaved changes in this session. Unlike looking at the node
+     * itself, this never loads the node.
+     * 
+     * @param key the key of the node; may not be null
+     * @return true if the node has unsaved changes (or is new or has been removed), or false otherwise
+     */
+    public boolean hasChanges( NodeKey key );
+
     /**
      * Returns a set with the {@link NodeKey}s of the transient nodes from this cache. Please note that there may be nodes which
      * have been removed by another session.
@@ -101,6 +101,11 @@ public class SessionCacheWrapper implements SessionCache {
         return delegate.hasChanges();
     }
 
+    @Override
+    public boolean hasChanges( NodeKey key ) {
+        return delegate.hasChanges(key);
+    }
+
     @Override
     public Set<NodeKey> getChangedNodeKeys() {
         return delegate.getChangedNodeKeys();
@@ -105,6 +105,11 @@ public abstract class ChangeSetAdapter implements ChangeSetListener {
                                 NodeRemoved removed = (NodeRemoved)change;
                                 removeNode(workspaceName, removed.getKey(), removed.getParentKey(), removed.getPath(),
                                            removed.getPrimaryType(), removed.getMixinTypes());
+                            } else if (change instanceof NodePurged) {
+                                firePropertyChanges(lastKey, lastPrimaryType, lastMixinTypes, propChanges);
+                                NodePurged purged = (NodePurged)change;
+                                removeNode(workspaceName, purged.getKey(), purged.getParentKey(), purged.getPath(),
+                                           purged.getPrimaryType(), purged.getMixinTypes());
                             } else if (change instanceof AbstractPropertyChange) {
                                 AbstractPropertyChange propChange = (AbstractPropertyChange)change;
                                 if (!propChange.getKey().equals(lastKey)) firePropertyChanges(lastKey, lastPrimaryType, lastMixinTypes,
@@ -81,6 +81,42 @@ public interface Changes {
                       Name parentPrimaryType,
                       Set<Name> parentMixinTypes );
 
+    /**
+     * Signal that a node and all of its descendants were removed in bulk. No separate removal changes are signalled for the
+     * descendants, whose documents are {@link #nodePurged(NodeKey, NodeKey, Path, Name, Set) purged} later.
+     * @param key the key for the removed node; may not be null
+     * @param parentKey the key for the old parent of the removed node; may not be null
+     * @param path the path to the removed node; may not be null
+     * @param primaryType the primary type of the node; may not be null
+     * @param mixinTypes the mixin types of the node; may not be null
+     * @param parentPrimaryType the primary type of the parent of the node; may be null if this information is not available
+     * @param parentMixinTypes the mixin types of the parent of the node; may be null if this information is not available
+     * @param descendantCount the number of descendants removed together with the node
+     */
+    void nodeSubtreeRemoved( NodeKey key,
+                             NodeKey parentKey,
+                             Path path,
+                             Name primaryType,
+                             Set<Name> mixinTypes,
+                             Name parentPrimaryType,
+                             Set<Name> parentMixinTypes,
+                             long descendantCount );
+
+    /**
+     * Signal that the document of a node in a subtree which was previously removed in bulk (see
+     * {@link #nodeSubtreeRemoved(NodeKey, NodeKey, Path, Name, Set, Name, Set, long)}) was purged.
+     * @param key the key for the purged node; may not be null
+     * @param parentKey the key for the parent of the purged node; may not be null
+     * @param path the path to the purged node, relative to the old location of the subtree; may not be null
+     * @param primaryType the primary type of the node; may not be null
+     * @param mixinTypes the mixin types of the node; may not be null
+     */
+    void nodePurged( NodeKey key,
+                     NodeKey parentKey,
+                     Path path,
+                     Name primaryType,
+                     Set<Name> mixinTypes );
+
     /**
      * Signal that a node was renamed (but still has the same parent)
      * @param key the key for the node; may not be null
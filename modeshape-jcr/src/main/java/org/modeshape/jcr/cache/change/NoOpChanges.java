@@ -67,6 +67,25 @@ public final class NoOpChanges implements Changes {
                              Set<Name> parentMixinTypes ) {
     }
 
+    @Override
+    public void nodeSubtreeRemoved( NodeKey key,
+                                    NodeKey parentKey,
+                                    Path path,
+                                    Name primaryType,
+                                    Set<Name> mixinTypes,
+                                    Name parentPrimaryType,
+                                    Set<Name> parentMixinTypes,
+                                    long descendantCount ) {
+    }
+
+    @Override
+    public void nodePurged( NodeKey key,
+                            NodeKey parentKey,
+                            Path path,
+                            Name primaryType,
+                            Set<Name> mixinTypes ) {
+    }
+
     @Override
     public void nodeRenamed( NodeKey key,
                              Path newPath,
@@ -0,0 +1,60 @@
+/*
+ * ModeShape (http://www.modeshape.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.modeshape.jcr.cache.change;
+
+import java.util.Set;
+import org.modeshape.jcr.cache.NodeKey;
+import org.modeshape.jcr.value.Name;
+import org.modeshape.jcr.value.Path;
+
+/**
+ * Change representing the bulk removal of a node and all of its descendants. Unlike a regular {@link NodeRemoved} change, no
+ * separate removal changes are recorded for the descendants of the removed node; only a {@link NodePurged} change is recorded
+ * for each node once its document is removed.
+ */
+public class NodeSubtreeRemoved extends NodeRemoved {
+
+    private static final long serialVersionUID = 1L;
+
+    private final long descendantCount;
+
+    public NodeSubtreeRemoved( NodeKey key,
+                               NodeKey parentKey,
+                               Path path,
+                               Name primaryType,
+                               Set<Name> mixinTypes,
+                               Name parentPrimaryType,
+                               Set<Name> parentMixinTypes,
+                               long descendantCount ) {
+        super(key, parentKey, path, primaryType, mixinTypes, parentPrimaryType, parentMixinTypes);
+        this.descendantCount = descendantCount;
+    }
+
+    /**
+     * Get the number of descendants which were removed together with the node.
+     *
+     * @return the number of removed descendants; never negative
+     */
+    public long getDescendantCount() {
+        return descendantCount;
+    }
+
+    @Override
+    public String toString() {
+        return "Removed subtree of node '" + this.getKey() + "' at \"" + path + "\" (" + descendantCount + " descendants) from under "
+               + getParentKey();
+    }
+}
@@ -123,6 +123,28 @@ public class RecordingChanges implements Changes, ChangeSet {
                                    parentMixinTypes));
     }
 
+    @Override
+    public void nodeSubtreeRemoved( NodeKey key,
+                                    NodeKey parentKey,
+                                    Path path,
+                                    Name primaryType,
+                                    Set<Name> mixinTypes,
+                                    Name parentPrimaryType,
+                                    Set<Name> parentMixinTypes,
+                                    long descendantCount ) {
+        events.add(new NodeSubtreeRemoved(key, parentKey, path, filterName(primaryType), filterNameSet(mixinTypes),
+                                          parentPrimaryType, parentMixinTypes, descendantCount));
+    }
+
+    @Override
+    public void nodePurged( NodeKey key,
+                            NodeKey parentKey,
+                            Path path,
+                            Name primaryType,
+                            Set<Name> mixinTypes ) {
+        events.add(new NodePurged(key, parentKey, path, filterName(primaryType), filterNameSet(mixinTypes)));
+    }
+
     @Override
     public void nodeRenamed( NodeKey key,
                              Path newPath,
@@ -296,10 +296,17 @@ public class LazyCachedNode implements CachedNode, Serializable {
     @Override
     public Path getPath( NodeCache cache ) {
         WorkspaceCache wsCache = workspaceCache(cache);
+        Path path = wsCache.memoizedPath(key);
+        if (path != null) {
+            return path;
+        }
+        long pathsGeneration = wsCache.pathsGeneration();
         CachedNode parent = parent(wsCache);
         if (parent != null) {
             Path parentPath = parent.getPath(wsCache);
-            return wsCache.pathFactory().create(parentPath, getSegment(wsCache));
+            path = wsCache.pathFactory().create(parentPath, getSegment(wsCache));
+            wsCache.memoizePath(key, path, pathsGeneration);
+            return path;
         }
         // check that the node hasn't been removed in the meantime
         if (wsCache.getNode(key) == null) {
@@ -313,10 +320,17 @@ public class LazyCachedNode implements CachedNode, Serializable {
     public Path getPath( PathCache pathCache ) throws NodeNotFoundException {
         NodeCache cache = pathCache.getCache();
         WorkspaceCache wsCache = workspaceCache(cache);
+        Path path = wsCache.memoizedPath(key);
+        if (path != null) {
+            return path;
+        }
+        long pathsGeneration = wsCache.pathsGeneration();
         CachedNode parent = parent(wsCache);
         if (parent != null) {
             Path parentPath = pathCache.getPath(parent);
-            return wsCache.pathFactory().create(parentPath, getSegment(wsCache));
+            path = wsCache.pathFactory().create(parentPath, getSegment(wsCache));
+            wsCache.memoizePath(key, path, pathsGeneration);
+            return path;
         }
         // check that the node hasn't been removed in the meantime
         if (wsCache.getNode(key) == null) {
@@ -329,6 +343,10 @@ public class LazyCachedNode implements CachedNode, Serializable {
     @Override
     public int getDepth( NodeCache cache ) throws NodeNotFoundException {
         WorkspaceCache wsCache = workspaceCache(cache);
+        Path path = wsCache.memoizedPath(key);
+        if (path != null) {
+            return path.size();
+        }
         CachedNode parent = parent(wsCache);
         if (parent != null) {
             // This is not the root, so get our parent's depth and add 1 ...
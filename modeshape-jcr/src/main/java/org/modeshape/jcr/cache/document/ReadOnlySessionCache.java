@@ -47,6 +47,11 @@ public class ReadOnlySessionCache extends AbstractSessionCache {
         return false;
     }
 
+    @Override
+    public boolean hasChanges( NodeKey key ) {
+        return false;
+    }
+
     @Override
     public Set<NodeKey> getChangedNodeKeys() {
         return Collections.emptySet();
@@ -18,6 +18,7 @@ package org.modeshape.jcr.cache.document;
 import java.util.Iterator;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
 import org.infinispan.schematic.SchematicDb;
 import org.infinispan.schematic.SchematicEntry;
 import org.infinispan.schematic.document.Document;
@@ -31,11 +32,17 @@ import org.modeshape.jcr.cache.ChildReference;
 import org.modeshape.jcr.cache.NodeCache;
 import org.modeshape.jcr.cache.NodeKey;
 import org.modeshape.jcr.cache.WorkspaceNotFoundException;
+import org.modeshape.jcr.cache.change.Change;
 import org.modeshape.jcr.cache.change.ChangeSet;
 import org.modeshape.jcr.cache.change.ChangeSetListener;
+import org.modeshape.jcr.cache.change.NodeMoved;
+import org.modeshape.jcr.cache.change.NodeRemoved;
+import org.modeshape.jcr.cache.change.NodeRenamed;
+import org.modeshape.jcr.cache.change.NodeReordered;
 import org.modeshape.jcr.value.NameFactory;
 import org.modeshape.jcr.value.Path;
 import org.modeshape.jcr.value.PathFactory;
+import com.googlecode.concurrentlinkedhashmap.ConcurrentLinkedHashMap;
 
 /**
  * A {@link NodeCache} implementation that uses Infinispan's {@link SchematicDb} for storage, with each node represented as a
@@ -45,6 +52,11 @@ public class WorkspaceCache implements DocumentCache {
 
     protected static final Logger LOGGER = Logger.getLogger(WorkspaceCache.class);
 
+    /**
+     * The maximum number of node paths memoized by each workspace cache.
+     */
+    private static final int MAX_MEMOIZED_PATHS = 10000;
+
     private final DocumentTranslator translator;
     private final ExecutionContext context;
     private final DocumentStore documentStore;
@@ -61,6 +73,13 @@ public class WorkspaceCache implements DocumentCache {
     private final ChangeSetListener systemChangeNotifier;
     private final ChangeSetListener nonSystemChangeNotifier;
     private final RepositoryEnvironment repositoryEnvironment;
+    /**
+     * The paths of the persisted nodes, shared by all the sessions using this workspace. The paths are only valid for the
+     * {@link #pathsGeneration generation} in which they were computed, and every change that might alter the paths of existing
+     * nodes starts a new generation. This is null for the transient, non-shared workspace caches.
+     */
+    private final ConcurrentMap<NodeKey, MemoizedPath> pathsByKey;
+    private final AtomicLong pathsGeneration = new AtomicLong();
     private volatile boolean closed = false;
 
     public WorkspaceCache( ExecutionContext context,
@@ -94,6 +113,8 @@ public class WorkspaceCache implements DocumentCache {
         this.pathFactory = context.getValueFactories().getPathFactory();
         this.nameFactory = context.getValueFactories().getNameFactory();
         this.nodesByKey = cache;
+        this.pathsByKey = new ConcurrentLinkedHashMap.Builder<NodeKey, MemoizedPath>().maximumWeightedCapacity(MAX_MEMOIZED_PATHS)
+                                                                                    .build();
         this.repositoryEnvironment = repositoryEnvironment;
         if (systemWorkspace != null) {
             // This is not the system workspace, so we have to listen both asynchronously and synchronously ...
@@ -124,6 +145,7 @@ public class WorkspaceCache implements DocumentCache {
         this.nameFactory = original.nameFactory;
         this.repositoryEnvironment = original.repositoryEnvironment;
         this.nodesByKey = cache;
+        this.pathsByKey = null;
         this.systemChangeNotifier = null;
         this.nonSystemChangeNotifier = null;
         //the change bus is not copied on purpose because this ctr should only be used for creating lightweight, "transient" instances
@@ -175,6 +197,68 @@ public class WorkspaceCache implements DocumentCache {
     final DocumentStore documentStore() {
         return documentStore;
     }
+
+    /**
+     * Get the current generation of the memoized paths, which should be obtained before computing a path that is to be
+     * {@link #memoizePath memoized}.
+     * 
+     * @return the generation
+     */
+    final long pathsGeneration() {
+        return pathsGeneration.get();
+    }
+
+    /**
+     * Get the memoized path of the node with the given key.
+     * 
+     * @param key the node key; may not be null
+     * @return the path of the node, or null if it is not known
+     */
+    final Path memoizedPath( NodeKey key ) {
+        if (pathsByKey == null) {
+            return null;
+        }
+        MemoizedPath memoized = pathsByKey.get(key);
+        return memoized != null && memoized.generation == pathsGeneration.get() ? memoized.path : null;
+    }
+
+    /**
+     * Remember the path of the node with the given key, unless the paths have changed since it was computed. Only the paths of
+     * nodes owned by this repository's source are remembered, since external nodes can change without any events.
+     * 
+     * @param key the node key; may not be null
+     * @param path the path of the node; may not be null
+     * @param generation the {@link #pathsGeneration() generation} obtained before the path was computed
+     */
+    final void memoizePath( NodeKey key,
+                            Path path,
+                            long generation ) {
+        if (pathsByKey != null && generation == pathsGeneration.get() && sourceKey.equals(key.getSourceKey())) {
+            pathsByKey.put(key, new MemoizedPath(path, generation));
+        }
+    }
+
+    private void invalidatePathsIfChanged( ChangeSet changes ) {
+        if (pathsByKey == null) {
+            return;
+        }
+        for (Change change : changes) {
+            // (new nodes and changed properties don't alter the paths of the existing nodes)
+            if (change instanceof NodeMoved || change instanceof NodeRenamed || change instanceof NodeReordered
+                || change instanceof NodeRemoved) {
+                invalidatePaths();
+                return;
+            }
+        }
+    }
+
+    private void invalidatePaths() {
+        if (pathsByKey != null) {
+            // start a new generation first, so that paths computed concurrently from the old nodes are never memoized ...
+            pathsGeneration.incrementAndGet();
+            pathsByKey.clear();
+        }
+    }
     
     final RepositoryEnvironment repositoryEnvironment() {
         return repositoryEnvironment;
@@ -283,6 +367,7 @@ public class WorkspaceCache implements DocumentCache {
     @Override
     public void clear() {
         nodesByKey.clear();
+        invalidatePaths();
     }
 
     protected void evictChangedNodes( ChangeSet changes ) {
@@ -296,6 +381,7 @@ public class WorkspaceCache implements DocumentCache {
                 if (closed) break;
                 nodesByKey.remove(key);
             }
+            invalidatePathsIfChanged(changes);
         }
     }
 
@@ -316,6 +402,7 @@ public class WorkspaceCache implements DocumentCache {
             if (closed) break;
             nodesByKey.remove(key);
         }
+        invalidatePathsIfChanged(changes);
 
         // Send the changes to the change bus so that others can see them ...
         if (changeBus != null) changeBus.notify(changes);
@@ -403,6 +490,17 @@ public class WorkspaceCache implements DocumentCache {
         return new WorkspaceCache(this, nodes);
     }
 
+    private static final class MemoizedPath {
+        private final Path path;
+        private final long generation;
+
+        protected MemoizedPath( Path path,
+                                long generation ) {
+            this.path = path;
+            this.generation = generation;
+        }
+    }
+
     protected final class SystemChangeNotifier implements ChangeSetListener {
         private final String systemWorkspaceName;
 
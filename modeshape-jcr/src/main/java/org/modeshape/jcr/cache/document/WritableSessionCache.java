@@ -15,10 +15,12 @@
  */
 package org.modeshape.jcr.cache.document;
 
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.Deque;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
@@ -27,6 +29,7 @@ import java.util.LinkedHashSet;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
+import java.util.NoSuchElementException;
 import java.util.Queue;
 import java.util.Set;
 import java.util.TreeSet;
@@ -54,6 +57,7 @@ import org.modeshape.common.util.CheckArg;
 import org.modeshape.jcr.ExecutionContext;
 import org.modeshape.jcr.JcrI18n;
 import org.modeshape.jcr.JcrLexicon;
+import org.modeshape.jcr.JcrNtLexicon;
 import org.modeshape.jcr.NodeTypes;
 import org.modeshape.jcr.RepositoryEnvironment;
 import org.modeshape.jcr.TimeoutException;
@@ -89,7 +93,10 @@ import org.modeshape.jcr.value.BinaryKey;
 import org.modeshape.jcr.value.Name;
 import org.modeshape.jcr.value.NamespaceRegistry;
 import org.modeshape.jcr.value.Path;
+import org.modeshape.jcr.value.PathFactory;
 import org.modeshape.jcr.value.Property;
+import org.modeshape.jcr.value.Reference;
+import org.modeshape.jcr.value.basic.NodeKeyReference;
 import org.modeshape.jcr.value.binary.AbstractBinary;
 import org.modeshape.jcr.value.binary.BinaryStore;
 import org.modeshape.jcr.value.binary.BinaryStoreException;
@@ -117,6 +124,10 @@ public class WritableSessionCache extends AbstractSessionCache {
     private static final NodeKey REMOVED_KEY = new NodeKey("REMOVED_NODE_SHOULD_NEVER_BE_PERSISTED");
     private static final SessionNode REMOVED = new SessionNode(REMOVED_KEY, false);
     private static final int MAX_REPEAT_FOR_LOCK_ACQUISITION_TIMEOUT = 4;
+    /**
+     * The default number of documents that are removed within a single transaction by {@link #destroySubtree(NodeKey, int)}.
+     */
+    public static final int DEFAULT_SUBTREE_REMOVAL_BATCH_SIZE = 1000;
     private static final long PAUSE_TIME_BEFORE_REPEAT_FOR_LOCK_ACQUISITION_TIMEOUT = 50L;
 
     private final ReadWriteLock lock = new ReentrantReadWriteLock();
@@ -128,6 +139,12 @@ public class WritableSessionCache extends AbstractSessionCache {
     private Set<NodeKey> replacedNodes;
     private LinkedHashSet<NodeKey> changedNodesInOrder;
     private Map<NodeKey, ReferrerChanges> referrerChangesForRemovedNodes;
+    /**
+     * The keys of the nodes which are being detached from their parents by {@link #detachSubtree(NodeKey)}, together with the
+     * number of their descendants.
+     */
+    @GuardedBy( "lock" )
+    private final Map<NodeKey, Long> detachedSubtrees = new HashMap<>();
 
 
     /**
@@ -388,6 +405,17 @@ public class WritableSessionCache extends AbstractSessionCache {
         }
     }
 
+    @Override
+    public boolean hasChanges( NodeKey key ) {
+        Lock lock = this.lock.readLock();
+        try {
+            lock.lock();
+            return changedNodesInOrder.contains(key);
+        } finally {
+            lock.unlock();
+        }
+    }
+
     /**
      * Signal that this session cache should check for an existing transaction and use the appropriate workspace cache. If there
      * is a (new to this session) transaction, then this session will use a transaction-specific workspace cache (shared by other
@@ -1056,6 +1084,19 @@ public class WritableSessionCache extends AbstractSessionCache {
                 }
                 // Otherwise, the removed node was created in the session (but not ever persisted),
                 // so we don't have to do anything ...
+            } else if (detachedSubtrees.containsKey(key)) {
+                // This node is the top of a subtree which is removed in bulk, so we only have to record a single event. The
+                // documents of this node and all of its descendants are removed separately (see #purgeSubtree) ...
+                CachedNode persisted = persistedCache.getNode(key);
+                if (persisted == null) {
+                    throw new DocumentNotFoundException(keyStr);
+                }
+                Path path = workspacePaths.getPath(persisted);
+                NodeKey parentKey = persisted.getParentKey(persistedCache);
+                CachedNode parent = persistedCache.getNode(parentKey);
+                changes.nodeSubtreeRemoved(key, parentKey, path, persisted.getPrimaryType(persistedCache),
+                                           persisted.getMixinTypes(persistedCache), parent.getPrimaryType(persistedCache),
+                                           parent.getMixinTypes(persistedCache), detachedSubtrees.get(key));
             } else {
                 // Get the primary and mixin type names; even though we're passing in the session, the two properties
                 // should be there and shouldn't require a looking in the cache...
@@ -1755,6 +1796,418 @@ public class WritableSessionCache extends AbstractSessionCache {
         }
     }
 
+    /**
+     * Remove the node with the supplied key and all of its descendants, without loading the descendants into this session. This
+     * simply {@link #detachSubtree(NodeKey) detaches} the subtree and then {@link #purgeSubtree(NodeKey, Path, int) purges} the
+     * documents of all the nodes in the subtree.
+     *
+     * @param key the key of the top node of the subtree; may not be null
+     * @param batchSize the maximum number of documents removed within a single transaction; must be positive
+     * @return the number of nodes which were removed
+     * @see #detachSubtree(NodeKey)
+     * @see #purgeSubtree(NodeKey, Path, int)
+     */
+    public long destroySubtree( NodeKey key,
+                                int batchSize ) {
+        CachedNode node = getNode(key);
+        if (node == null) {
+            throw new NodeNotFoundException(key);
+        }
+        Path path = node.getPath(this);
+        detachSubtree(key);
+        return purgeSubtree(key, path, batchSize);
+    }
+
+    /**
+     * Detach the node with the supplied key from its parent and immediately save that change, recording a single
+     * {@link org.modeshape.jcr.cache.change.NodeSubtreeRemoved} change for the whole subtree. The documents of the node and its
+     * descendants are not removed by this method: they are no longer reachable from the workspace root and should be removed via
+     * {@link #purgeSubtree(NodeKey, Path, int)}.
+     * <p>
+     * The descendants are streamed from the document store (rather than being loaded into this session) to verify that none of
+     * them is shared with (i.e., also a child of) a node outside of the subtree or the target of a strong reference from outside
+     * of the subtree.
+     * </p>
+     *
+     * @param key the key of the top node of the subtree; may not be null
+     * @return the number of descendants of the node
+     * @throws NodeNotFoundException if there is no such node
+     * @throws IllegalStateException if this session has transient changes
+     * @throws IllegalArgumentException if the node is the root node, an external node or a node with multiple parents, or if
+     *         any of its descendants has multiple parents
+     * @throws ReferentialIntegrityException if any node in the subtree is strongly referenced from outside of the subtree
+     */
+    public long detachSubtree( NodeKey key ) {
+        CheckArg.isNotNull(key, "key");
+        if (hasChanges()) {
+            throw new IllegalStateException(JcrI18n.cannotRemoveSubtreeWithTransientChanges.text(key, workspaceName()));
+        }
+        CachedNode node = getNode(key);
+        if (node == null) {
+            throw new NodeNotFoundException(key);
+        }
+        NodeKey parentKey = node.getParentKey(this);
+        boolean isExternal = !key.getSourceKey().equalsIgnoreCase(getRootKey().getSourceKey());
+        if (parentKey == null || isExternal || !node.getAdditionalParentKeys(this).isEmpty()) {
+            throw new IllegalArgumentException(JcrI18n.cannotRemoveSubtreeInBulk.text(key, workspaceName()));
+        }
+        long descendantCount = countDescendantsIfRemovable(key, node.getPath(this));
+
+        Lock lock = this.lock.writeLock();
+        try {
+            lock.lock();
+            detachedSubtrees.put(key, descendantCount);
+            mutable(parentKey).removeChild(this, key);
+        } finally {
+            lock.unlock();
+        }
+        try {
+            save();
+        } catch (RuntimeException e) {
+            // Discard the removal of the child from its parent ...
+            clear();
+            throw e;
+        } finally {
+            try {
+                lock.lock();
+                detachedSubtrees.remove(key);
+            } finally {
+                lock.unlock();
+            }
+        }
+        return descendantCount;
+    }
+
+    /**
+     * Remove from the document store the documents of the node with the supplied key and all of its descendants, in batches of
+     * (at most) the given size. Each batch is removed within a separate transaction, so that the memory and the locks required
+     * by this method do not depend on the size of the subtree. Nodes are removed children-first, so a subtree that has been
+     * partially purged (e.g., due to a failure) can be purged again.
+     * <p>
+     * The node should have been {@link #detachSubtree(NodeKey) detached} from its parent prior to calling this method. No node
+     * events are recorded for the removed documents, but a {@link org.modeshape.jcr.cache.change.NodePurged} change is recorded
+     * for each of them (so that the indexes no longer contain the removed nodes) and all outgoing references and binary values
+     * used by the removed nodes are released.
+     * </p>
+     *
+     * @param key the key of the top node of the subtree; may not be null
+     * @param path the path of the top node of the subtree before it was detached; may not be null
+     * @param batchSize the maximum number of documents removed within a single transaction; must be positive
+     * @return the number of nodes which were removed
+     */
+    public long purgeSubtree( NodeKey key,
+                              Path path,
+                              int batchSize ) {
+        CheckArg.isNotNull(key, "key");
+        CheckArg.isNotNull(path, "path");
+        CheckArg.isPositive(batchSize, "batchSize");
+        WorkspaceCache workspace = workspaceCache();
+        DocumentTranslator translator = workspace.translator();
+        Map<NodeKey, Path> batch = new LinkedHashMap<>();
+        long removed = 0L;
+        for (SubtreeDocumentIterator documents = subtreeDocuments(workspace, key, path); documents.hasNext();) {
+            Document document = documents.next();
+            batch.put(new NodeKey(translator.getKey(document)), documents.path());
+            if (batch.size() == batchSize) {
+                removed += purgeDocuments(workspace, batch);
+                batch.clear();
+            }
+        }
+        if (!batch.isEmpty()) {
+            removed += purgeDocuments(workspace, batch);
+        }
+        LOGGER.debug("Removed {0} node(s) in the subtree of '{1}'", removed, key);
+        return removed;
+    }
+
+    private long countDescendantsIfRemovable( NodeKey subtreeKey,
+                                              Path subtreePath ) {
+        WorkspaceCache workspace = workspaceCache();
+        DocumentTranslator translator = workspace.translator();
+        Map<NodeKey, Set<NodeKey>> referrersByNode = new HashMap<>();
+        long count = 0L;
+        for (SubtreeDocumentIterator documents = subtreeDocuments(workspace, subtreeKey, subtreePath); documents.hasNext();) {
+            Document document = documents.next();
+            ++count;
+            if (!translator.getAdditionalParentKeys(document).isEmpty()) {
+                // the node is shared, so removing its document would leave a dangling child reference in another parent ...
+                String path = documents.path().getString(context().getNamespaceRegistry());
+                throw new IllegalArgumentException(JcrI18n.cannotRemoveSubtreeWithSharedDescendant.text(subtreeKey, workspaceName(),
+                                                                                                       path));
+            }
+            Set<NodeKey> strongReferrers = translator.getReferrers(document, ReferenceType.STRONG);
+            if (strongReferrers.isEmpty()) {
+                continue;
+            }
+            for (Iterator<NodeKey> referrers = strongReferrers.iterator(); referrers.hasNext();) {
+                if (isAtOrBelow(workspace, referrers.next(), subtreeKey)) {
+                    referrers.remove();
+                }
+            }
+            if (!strongReferrers.isEmpty()) {
+                referrersByNode.put(new NodeKey(translator.getKey(document)), strongReferrers);
+            }
+        }
+        if (!referrersByNode.isEmpty()) {
+            Map<String, Set<String>> referrerPathsByNode = new HashMap<>();
+            for (Map.Entry<NodeKey, Set<NodeKey>> entry : referrersByNode.entrySet()) {
+                Set<String> referrerPaths = new HashSet<>();
+                for (NodeKey referrerKey : entry.getValue()) {
+                    referrerPaths.add(pathOrKey(workspace, referrerKey));
+                }
+                referrerPathsByNode.put(pathOrKey(workspace, entry.getKey()), referrerPaths);
+            }
+            throw new ReferentialIntegrityException(referrerPathsByNode);
+        }
+        // don't count the top node of the subtree ...
+        return count - 1;
+    }
+
+    private boolean isAtOrBelow( WorkspaceCache workspace,
+                                 NodeKey key,
+                                 NodeKey ancestorKey ) {
+        DocumentStore documentStore = workspace.documentStore();
+        DocumentTranslator translator = workspace.translator();
+        String workspaceKey = workspace.getWorkspaceKey();
+        NodeKey current = key;
+        while (current != null) {
+            if (current.equals(ancestorKey)) {
+                return true;
+            }
+            SchematicEntry entry = documentStore.get(current.toString());
+            if (entry == null) {
+                return false;
+            }
+            current = translator.getParentKey(entry.getContent(), workspaceKey, workspaceKey);
+        }
+        return false;
+    }
+
+    private String pathOrKey( WorkspaceCache workspace,
+                              NodeKey key ) {
+        CachedNode node = workspace.getNode(key);
+        return node != null ? node.getPath(workspace).getString(context().getNamespaceRegistry()) : key.toString();
+    }
+
+    private SubtreeDocumentIterator subtreeDocuments( WorkspaceCache workspace,
+                                                      NodeKey topKey,
+                                                      Path topPath ) {
+        return new SubtreeDocumentIterator(workspace, context().getValueFactories().getPathFactory(), topKey, topPath);
+    }
+
+    private int purgeDocuments( WorkspaceCache workspace,
+                                Map<NodeKey, Path> pathsByKey ) {
+        Set<NodeKey> keys = pathsByKey.keySet();
+        DocumentStore documentStore = workspace.documentStore();
+        DocumentTranslator translator = workspace.translator();
+        NodeTypes nodeTypes = nodeTypes();
+        ExecutionContext context = context();
+
+        // Determine all the documents that will be changed, which includes the binary reference documents and the
+        // documents of the nodes referenced by the removed nodes ...
+        Set<String> keysToLock = new TreeSet<>();
+        for (NodeKey key : keys) {
+            String keyStr = key.toString();
+            keysToLock.add(keyStr);
+            SchematicEntry entry = documentStore.get(keyStr);
+            if (entry == null) {
+                continue;
+            }
+            for (Property property : propertiesOf(translator, entry.getContent())) {
+                for (Object value : property) {
+                    if (value instanceof AbstractBinary) {
+                        keysToLock.add(translator.keyForBinaryReferenceDocument(((AbstractBinary)value).getKey().toString()));
+                    } else if (value instanceof Reference) {
+                        keysToLock.add(referredKey((Reference)value).toString());
+                    }
+                }
+            }
+        }
+
+        RecordingChanges changes = new RecordingChanges(context.getId(), context.getProcessId(), workspace.getRepositoryKey(),
+                                                        workspace.getWorkspaceName(), repositoryEnvironment.journalId());
+        Set<BinaryKey> unusedBinaryKeys = new HashSet<>();
+        Map<NodeKey, ReferrerChanges> referrerChangesByKey = new HashMap<>();
+        int removed = 0;
+        Transaction txn = null;
+        try {
+            txn = txns.begin();
+            if (!documentStore.lockDocuments(keysToLock)) {
+                throw new TimeoutException("Timeout while attempting to lock the keys " + keysToLock);
+            }
+            for (NodeKey key : keys) {
+                String keyStr = key.toString();
+                SchematicEntry entry = documentStore.get(keyStr);
+                if (entry == null) {
+                    // The document has already been removed (e.g., by a previous attempt to purge the subtree) ...
+                    continue;
+                }
+                Document doc = entry.getContent();
+                Name primaryType = translator.getPrimaryType(doc);
+                Set<Name> mixinTypes = translator.getMixinTypes(doc);
+                // JCR 3.13.4.6 strong outgoing references from a frozen node are ignored
+                boolean isFrozenNode = JcrNtLexicon.FROZEN_NODE.equals(primaryType);
+                for (Property property : propertiesOf(translator, doc)) {
+                    if (property.isBinary()) {
+                        Object value = property.isMultiple() ? Arrays.asList(property.getValuesAsArray()) : property.getFirstValue();
+                        translator.decrementBinaryReferenceCount(value, unusedBinaryKeys, null);
+                    } else if (property.isReference()) {
+                        for (Object value : property) {
+                            Reference reference = (Reference)value;
+                            if (!reference.isWeak() && isFrozenNode) {
+                                continue;
+                            }
+                            NodeKey referredKey = referredKey(reference);
+                            ReferrerChanges referrerChanges = referrerChangesByKey.get(referredKey);
+                            if (referrerChanges == null) {
+                                referrerChanges = new ReferrerChanges();
+                                referrerChangesByKey.put(referredKey, referrerChanges);
+                            }
+                            if (reference.isWeak()) {
+                                referrerChanges.removeWeakReferrer(property, key);
+                            } else {
+                                referrerChanges.removeStrongReferrer(property, key);
+                            }
+                        }
+                    }
+                }
+                if (nodeTypes != null && nodeTypes.isUnorderedCollection(primaryType, mixinTypes)) {
+                    translator.removeAllBucketsFromUnorderedCollection(key);
+                }
+                NodeKey parentKey = translator.getParentKey(doc, workspace.getWorkspaceKey(), workspace.getWorkspaceKey());
+                documentStore.remove(keyStr);
+                changes.nodePurged(key, parentKey, pathsByKey.get(key), primaryType, mixinTypes);
+                ++removed;
+            }
+            // Update the referrers of the nodes which are still around ...
+            for (Map.Entry<NodeKey, ReferrerChanges> entry : referrerChangesByKey.entrySet()) {
+                EditableDocument referred = documentStore.edit(entry.getKey().toString(), false);
+                if (referred != null) {
+                    translator.changeReferrers(referred, entry.getValue());
+                }
+            }
+            for (BinaryKey binaryKey : unusedBinaryKeys) {
+                changes.binaryValueNoLongerUsed(binaryKey);
+            }
+            changes.setChangedNodes(new HashSet<>(keys));
+            changes.freeze(context.getSecurityContext().getUserName(), context.getData(),
+                           context.getValueFactories().getDateFactory().create());
+            if (changes.hasBinaryChanges()) {
+                txn.uponCommit(binaryUsageUpdateFunction(changes.usedBinaries(), changes.unusedBinaries()));
+            }
+            txn.commit();
+        } catch (Exception e) {
+            if (txn != null) {
+                try {
+                    txn.rollback();
+                } catch (Exception rollbackError) {
+                    LOGGER.debug(rollbackError, "Error while rolling back the removal of nodes {0}", keys);
+                }
+            }
+            if (e instanceof RuntimeException) {
+                throw (RuntimeException)e;
+            }
+            throw new WrappedException(e);
+        }
+        txns.updateCache(workspace, changes, txn);
+        return removed;
+    }
+
+    private Collection<Property> propertiesOf( DocumentTranslator translator,
+                                               Document document ) {
+        Map<Name, Property> properties = new HashMap<>();
+        translator.getProperties(document, properties);
+        return properties.values();
+    }
+
+    private NodeKey referredKey( Reference reference ) {
+        if (reference instanceof NodeKeyReference) {
+            return ((NodeKeyReference)reference).getNodeKey();
+        }
+        return new NodeKey(reference.getString());
+    }
+
+    /**
+     * An iterator over the documents of a node and all of its descendants, which returns the children of a node before the node
+     * itself. The documents are read directly from the document store, so that neither the session nor the workspace caches are
+     * populated with the nodes in the subtree. Only the child iterators along the current path are kept in memory.
+     */
+    private static final class SubtreeDocumentIterator implements Iterator<Document> {
+        private final WorkspaceCache workspace;
+        private final PathFactory pathFactory;
+        private final String sourceKey;
+        private final Deque<Document> documents = new ArrayDeque<>();
+        private final Deque<Path> paths = new ArrayDeque<>();
+        private final Deque<Iterator<ChildReference>> children = new ArrayDeque<>();
+        private Document next;
+        private Path nextPath;
+        private Path path;
+
+        protected SubtreeDocumentIterator( WorkspaceCache workspace,
+                                           PathFactory pathFactory,
+                                           NodeKey topKey,
+                                           Path topPath ) {
+            this.workspace = workspace;
+            this.pathFactory = pathFactory;
+            this.sourceKey = topKey.getSourceKey();
+            push(topKey, topPath);
+        }
+
+        private void push( NodeKey key,
+                           Path path ) {
+            SchematicEntry entry = workspace.documentStore().get(key.toString());
+            if (entry == null) {
+                // the node has already been removed
+                return;
+            }
+            Document document = entry.getContent();
+            documents.push(document);
+            paths.push(path);
+            children.push(workspace.translator().getChildReferences(workspace, document).iterator());
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (next == null && !documents.isEmpty()) {
+                Iterator<ChildReference> childIter = children.peek();
+                if (childIter.hasNext()) {
+                    ChildReference childRef = childIter.next();
+                    NodeKey childKey = childRef.getKey();
+                    // only delete children from the same source (prevents deletion of external nodes in case of federation)
+                    if (childKey.getSourceKey().equalsIgnoreCase(sourceKey)) {
+                        push(childKey, pathFactory.create(paths.peek(), childRef.getSegment()));
+                    }
+                } else {
+                    children.pop();
+                    next = documents.pop();
+                    nextPath = paths.pop();
+                }
+            }
+            return next != null;
+        }
+
+        @Override
+        public Document next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            Document result = next;
+            path = nextPath;
+            next = null;
+            nextPath = null;
+            return result;
+        }
+
+        /**
+         * Get the path of the node whose document was last returned by {@link #next()}.
+         *
+         * @return the path of the node; null if {@link #next()} was not called yet
+         */
+        protected Path path() {
+            return path;
+        }
+    }
+
     private void collectBinaryReferences(NodeKey nodeKey, Property property) {
         property.forEach(value->{
             assert value instanceof Binary;
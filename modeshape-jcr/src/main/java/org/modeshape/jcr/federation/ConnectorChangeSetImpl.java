@@ -18,6 +18,7 @@ package org.modeshape.jcr.federation;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.Map;
 import java.util.Set;
@@ -27,6 +28,12 @@ import org.modeshape.jcr.Connectors.PathMappings;
 import org.modeshape.jcr.api.value.DateTime;
 import org.modeshape.jcr.bus.ChangeBus;
 import org.modeshape.jcr.cache.NodeKey;
+import org.modeshape.jcr.cache.change.AbstractNodeChange;
+import org.modeshape.jcr.cache.change.Change;
+import org.modeshape.jcr.cache.change.NodeAdded;
+import org.modeshape.jcr.cache.change.NodeMoved;
+import org.modeshape.jcr.cache.change.NodeRemoved;
+import org.modeshape.jcr.cache.change.NodeReordered;
 import org.modeshape.jcr.cache.change.RecordingChanges;
 import org.modeshape.jcr.spi.federation.ConnectorChangeSet;
 import org.modeshape.jcr.value.DateTimeFactory;
@@ -46,6 +53,8 @@ public class ConnectorChangeSetImpl implements ConnectorChangeSet {
     private final String repositoryKey;
     private final ChangeBus bus;
     private final Map<String, RecordingChanges> changesByWorkspace = new HashMap<String, RecordingChanges>();
+    private final Map<String, Set<NodeKey>> invalidatedNodesByWorkspace = new HashMap<String, Set<NodeKey>>();
+    private final Set<NodeKey> invalidatedNodes = new HashSet<NodeKey>();
     private final DateTimeFactory timeFactory;
     private final String journalId;
     private final String sessionId;
@@ -310,16 +319,67 @@ public class ConnectorChangeSetImpl implements ConnectorChangeSet {
         }
     }
 
+    @Override
+    public void nodeInvalidated( String docId,
+                                 String path ) {
+        NodeKey key = nodeKey(docId);
+        Path externalPath = pathMappings.getPathFactory().create(path);
+        // This external path in the connector may be projected into *multiple* nodes in the same or different workspaces ...
+        for (WorkspaceAndPath wsAndPath : pathMappings.resolveExternalPathToInternal(externalPath)) {
+            String workspaceName = wsAndPath.getWorkspaceName();
+            changesFor(workspaceName);
+            Set<NodeKey> keys = invalidatedNodesByWorkspace.get(workspaceName);
+            if (keys == null) {
+                keys = new HashSet<NodeKey>();
+                invalidatedNodesByWorkspace.put(workspaceName, keys);
+            }
+            keys.add(key);
+        }
+        // The node may be cached even when it is not projected into any workspace ...
+        invalidatedNodes.add(key);
+    }
+
     @Override
     public void publish( Map<String, String> data ) {
         DateTime now = timeFactory.create();
         if (data == null) data = Collections.emptyMap();
         // Freeze and then notify the bus of each change set of a given workspace ...
         for (RecordingChanges changes : changesByWorkspace.values()) {
+            // Record the changed nodes so that caches evict their (now stale) representations ...
+            changes.setChangedNodes(changedNodes(changes, invalidatedNodesByWorkspace.get(changes.getWorkspaceName())));
             changes.freeze(connectorSourceName, data, now);
             bus.notify(changes);
         }
+        if (!invalidatedNodes.isEmpty()) {
+            connectors.externalDocumentsChanged(invalidatedNodes);
+        }
         changesByWorkspace.clear();
+        invalidatedNodesByWorkspace.clear();
+        invalidatedNodes.clear();
+    }
+
+    private Set<NodeKey> changedNodes( RecordingChanges changes,
+                                       Set<NodeKey> invalidated ) {
+        Set<NodeKey> keys = invalidated != null ? new HashSet<NodeKey>(invalidated) : new HashSet<NodeKey>();
+        for (Change change : changes) {
+            if (change instanceof AbstractNodeChange) {
+                keys.add(((AbstractNodeChange)change).getKey());
+            }
+            // Adding, removing, moving or reordering a node also changes the children of its parent(s) ...
+            if (change instanceof NodeAdded) {
+                keys.add(((NodeAdded)change).getParentKey());
+            } else if (change instanceof NodeRemoved) {
+                keys.add(((NodeRemoved)change).getParentKey());
+            } else if (change instanceof NodeMoved) {
+                NodeMoved moved = (NodeMoved)change;
+                keys.add(moved.getNewParent());
+                keys.add(moved.getOldParent());
+            } else if (change instanceof NodeReordered) {
+                keys.add(((NodeReordered)change).getParent());
+            }
+        }
+        keys.remove(null);
+        return keys;
     }
 
     private NodeKey nodeKey( String documentId ) {
@@ -0,0 +1,117 @@
+/*
+ * ModeShape (http://www.modeshape.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.modeshape.jcr.federation;
+
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import org.infinispan.schematic.document.Document;
+import org.modeshape.common.annotation.ThreadSafe;
+import org.modeshape.common.util.CheckArg;
+import com.googlecode.concurrentlinkedhashmap.ConcurrentLinkedHashMap;
+
+/**
+ * A bounded cache of the documents returned by a single {@link org.modeshape.jcr.spi.federation.Connector}, in which each document
+ * expires a fixed amount of time after it was read from the connector. Documents are also removed as soon as the repository is
+ * notified that they have changed.
+ *
+ * @see org.modeshape.jcr.spi.federation.Connector#getCacheTtlSeconds()
+ * @see org.modeshape.jcr.spi.federation.Connector#getCacheSize()
+ */
+@ThreadSafe
+public class FederatedDocumentCache {
+
+    private final ConcurrentMap<String, CachedDocument> documentsById;
+    private final long ttlInMillis;
+
+    /**
+     * Creates a new cache.
+     *
+     * @param ttlInSeconds the number of seconds after which a cached document expires; must be positive
+     * @param maxSize the maximum number of documents held by the cache; must be positive
+     */
+    public FederatedDocumentCache( int ttlInSeconds,
+                                   int maxSize ) {
+        CheckArg.isPositive(ttlInSeconds, "ttlInSeconds");
+        CheckArg.isPositive(maxSize, "maxSize");
+        this.ttlInMillis = TimeUnit.SECONDS.toMillis(ttlInSeconds);
+        this.documentsById = new ConcurrentLinkedHashMap.Builder<String, CachedDocument>().maximumWeightedCapacity(maxSize).build();
+    }
+
+    /**
+     * Returns a copy of the cached document with the given identifier, if it has not yet expired.
+     *
+     * @param documentId the connector's identifier of the document; may not be null
+     * @return a copy of the cached document, or {@code null} if there is no such document or if it has expired
+     */
+    public Document get( String documentId ) {
+        CachedDocument cached = documentsById.get(documentId);
+        if (cached == null) {
+            return null;
+        }
+        if (cached.expiresAt <= System.currentTimeMillis()) {
+            documentsById.remove(documentId, cached);
+            return null;
+        }
+        return cached.document.clone();
+    }
+
+    /**
+     * Caches a copy of a document that was just read from the connector.
+     *
+     * @param documentId the connector's identifier of the document; may not be null
+     * @param document the document; may not be null
+     */
+    public void put( String documentId,
+                     Document document ) {
+        documentsById.put(documentId, new CachedDocument(document.clone(), System.currentTimeMillis() + ttlInMillis));
+    }
+
+    /**
+     * Removes the document with the given identifier from this cache.
+     *
+     * @param documentId the connector's identifier of the document; may not be null
+     */
+    public void invalidate( String documentId ) {
+        documentsById.remove(documentId);
+    }
+
+    /**
+     * Removes all the documents from this cache.
+     */
+    public void clear() {
+        documentsById.clear();
+    }
+
+    /**
+     * Returns the number of documents in this cache, including those which have expired but have not been removed yet.
+     *
+     * @return the number of cached documents
+     */
+    public int size() {
+        return documentsById.size();
+    }
+
+    private static final class CachedDocument {
+        protected final Document document;
+        protected final long expiresAt;
+
+        protected CachedDocument( Document document,
+                                  long expiresAt ) {
+            this.document = document;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
@@ -123,6 +123,7 @@ public class FederatedDocumentStore implements DocumentStore {
             checkConnectorIsWritable(connector);
             EditableDocument editableDocument = replaceNodeKeysWithDocumentIds(document);
             connector.storeDocument(editableDocument);
+            invalidateCachedDocument(key);
         }
         return null;
     }
@@ -143,6 +144,7 @@ public class FederatedDocumentStore implements DocumentStore {
                 DocumentChanges documentChanges = createDocumentChanges(nodeChanges, connector.getSourceName(), editableDocument,
                                                                         documentId);
                 connector.updateDocument(documentChanges);
+                invalidateCachedDocument(key);
             }
         }
     }
@@ -256,7 +258,14 @@ public class FederatedDocumentStore implements DocumentStore {
             } else {
                 // interpret the key as a regular node id
                 String docId = documentIdFromNodeKey(key);
-                document = connector.getDocumentById(docId);
+                FederatedDocumentCache cache = connectors.getDocumentCache(sourceKey(key));
+                document = cache != null ? cache.get(docId) : null;
+                if (document == null) {
+                    document = connector.getDocumentById(docId);
+                    if (document != null && cache != null && new FederatedDocumentReader(translator(), document).isCacheable()) {
+                        cache.put(docId, document);
+                    }
+                }
             }
             if (document != null) {
                 // clone the document, so we don't alter the original
@@ -272,7 +281,8 @@ public class FederatedDocumentStore implements DocumentStore {
     private EditableDocument updateCaching(Connector connector,
                                            EditableDocument editableDocument) {
         DocumentReader reader = new FederatedDocumentReader(translator(), editableDocument);
-        if (!reader.isCacheable() || !connector.isCacheable()) {
+        // documents with a time-to-live are cached (and expired) by the connector's document cache, not by the workspace cache
+        if (!reader.isCacheable() || !connector.isCacheable() || connector.getCacheTtlSeconds() > 0) {
             translator.setCacheable(editableDocument, false);
             return editableDocument;
         }
@@ -308,6 +318,7 @@ public class FederatedDocumentStore implements DocumentStore {
         if (connector != null) {
             checkConnectorIsWritable(connector);
             boolean result = connector.removeDocument(documentIdFromNodeKey(key));
+            invalidateCachedDocument(key);
             connectors.externalNodeRemoved(key);
             return result;
         }
@@ -443,6 +454,13 @@ public class FederatedDocumentStore implements DocumentStore {
         return new NodeKey(sourceKey, FEDERATED_WORKSPACE_KEY, documentId);
     }
 
+    private void invalidateCachedDocument( String key ) {
+        FederatedDocumentCache cache = connectors.getDocumentCache(sourceKey(key));
+        if (cache != null) {
+            cache.invalidate(documentIdFromNodeKey(key));
+        }
+    }
+
     private String documentIdFromNodeKey( String nodeKey ) {
         return new NodeKey(nodeKey).getIdentifier();
     }
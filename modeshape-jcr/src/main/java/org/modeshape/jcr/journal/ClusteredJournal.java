@@ -64,7 +64,7 @@ public class ClusteredJournal extends MessageConsumer<ClusteredJournal.DeltaMess
         CheckArg.isNotNull(clusteringService, "clusteringService");
 
         this.clusteringService = clusteringService;
-        this.localJournal = localJournal.withSearchTimeDelta(clusteringService.getMaxAllowedClockDelayMillis());
+        this.localJournal = localJournal;
     }
 
     @Override
@@ -206,11 +206,7 @@ public class ClusteredJournal extends MessageConsumer<ClusteredJournal.DeltaMess
             return;
         }
 
-        Long requestorLastChangeSetTime = request.getRequestorLastChangeSetTime();
-        LocalDateTime lastChangeSetTime = requestorLastChangeSetTime != null ? 
-                                          DateTimeUtil.localDateTimeUTC(requestorLastChangeSetTime) :
-                                          null;
-        Records delta = recordsNewerThan(lastChangeSetTime, false, false);
+        Records delta = deltaSince(request.getRequestorLastChangeSetTime());
         List<JournalRecord> deltaList = new ArrayList<>(delta.size());
         for (JournalRecord record : delta) {
             deltaList.add(record);
@@ -223,6 +219,24 @@ public class ClusteredJournal extends MessageConsumer<ClusteredJournal.DeltaMess
         clusteringService.sendMessage(response);
     }
 
+    /**
+     * Returns the records which should be sent to a journal whose last change set has the given time. Because the clocks of the
+     * cluster members may be out of sync, the search starts {@link ClusteringService#getMaxAllowedClockDelayMillis()} before the
+     * requestor's last change time, so that records stamped by members whose clocks run behind are not missed. Some of the
+     * returned records may already be present in the requestor's journal, but that is harmless because records are stored by
+     * their time-based key.
+     *
+     * @param requestorLastChangeSetTime the time of the requestor's last change set, or {@code null} if it has none
+     * @return the records which form the delta; never {@code null}
+     */
+    protected Records deltaSince( Long requestorLastChangeSetTime ) {
+        if (requestorLastChangeSetTime == null) {
+            return recordsNewerThan(null, false, false);
+        }
+        long searchStart = requestorLastChangeSetTime - clusteringService.getMaxAllowedClockDelayMillis();
+        return recordsNewerThan(DateTimeUtil.localDateTimeUTC(searchStart), true, false);
+    }
+
     private void processDeltaResponse(DeltaMessage message) {
         String journalId = journalId();
         if (!journalId.equals(message.getRequestorId())) {
@@ -23,6 +23,7 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.Iterator;
 import java.util.NavigableMap;
+import java.util.NavigableSet;
 import java.util.NoSuchElementException;
 import java.util.UUID;
 import java.util.concurrent.TimeUnit;
@@ -31,8 +32,10 @@ import org.infinispan.schematic.document.ThreadSafe;
 import org.mapdb.Atomic;
 import org.mapdb.BTreeKeySerializer;
 import org.mapdb.BTreeMap;
+import org.mapdb.Bind;
 import org.mapdb.DB;
 import org.mapdb.DBMaker;
+import org.mapdb.Fun;
 import org.modeshape.common.logging.Logger;
 import org.modeshape.common.util.CheckArg;
 import org.modeshape.common.util.StringUtil;
@@ -53,15 +56,16 @@ public class LocalJournal implements ChangeJournal {
 
     private static final int DEFAULT_MAX_TIME_TO_KEEP_FILES = -1;
     private static final String RECORDS_FIELD = "records";
+    private static final String RECORDS_BY_CHANGE_TIME_FIELD = "recordsByChangeTime";
     private static final String JOURNAL_ID_FIELD = "journalId";
     private static final TimeBasedKeys TIME_BASED_KEYS = TimeBasedKeys.create();
-
-    /**
-     * When searching records in the local journal, we want to use a small delta to compensate for the fact that there is slight
-     * delay from the point in time when a change set is created (after session.save) to the point when the journal record is added
-     * (notify async).
-     */
-    private static final long DEFAULT_LOCAL_SEARCH_DELTA = TimeUnit.SECONDS.toMillis(1);
+    private static final Fun.Function2<Long, Long, JournalRecord> CHANGE_TIME = new Fun.Function2<Long, Long, JournalRecord>() {
+        @Override
+        public Long run( Long timeBasedKey,
+                         JournalRecord record ) {
+            return record.getChangeTimeMillis();
+        }
+    };
 
     private final String journalLocation;
     private final boolean asyncWritesEnabled;
@@ -73,7 +77,12 @@ public class LocalJournal implements ChangeJournal {
      * The records are a map of {@link org.modeshape.jcr.journal.JournalRecord} instances keyed by a time-based key.
      */
     private BTreeMap<Long, JournalRecord> records;
-    private long searchTimeDelta;
+    /**
+     * A secondary index over the {@link #records}, holding a (change time, time-based key) pair for each record. The change time
+     * of a record is the time of its {@link ChangeSet}, which does not necessarily follow the order of the time-based keys (e.g.
+     * records received from other cluster members), so all the time-based searches go through this index.
+     */
+    private NavigableSet<Fun.Tuple2<Long, Long>> recordsByChangeTime;
     private volatile boolean stopped;
 
     /**
@@ -92,7 +101,6 @@ public class LocalJournal implements ChangeJournal {
         this.asyncWritesEnabled = asyncWritesEnabled;
         this.maxTimeToKeepEntriesMillis = TimeUnit.DAYS.toMillis(maxDaysToKeepEntries);
         this.stopped = true;
-        this.searchTimeDelta = DEFAULT_LOCAL_SEARCH_DELTA;
     }
 
     protected LocalJournal( String journalLocation ) {
@@ -139,12 +147,18 @@ public class LocalJournal implements ChangeJournal {
                                          .keySerializer(BTreeKeySerializer.ZERO_OR_POSITIVE_LONG)
                                          .counterEnable()
                                          .makeOrGet();
+            this.recordsByChangeTime = this.journalDB.createTreeSet(RECORDS_BY_CHANGE_TIME_FIELD)
+                                                     .serializer(BTreeKeySerializer.TUPLE2)
+                                                     .makeOrGet();
+            // keep the index in sync with the records; this also fills the index of journals written before it existed
+            Bind.secondaryKey(this.records, this.recordsByChangeTime, CHANGE_TIME);
             Atomic.String journalAtomic = this.journalDB.getAtomicString(JOURNAL_ID_FIELD);
             //only write the value the first time
             if (StringUtil.isBlank(journalAtomic.get())) {
                 journalAtomic.set("Journal_" + UUID.randomUUID().toString());
             }
             this.journalId = journalAtomic.get();
+            this.journalDB.commit();
             this.stopped = false;
         } catch (Exception e) {
             throw new RepositoryException(JcrI18n.cannotStartJournal.text(), e);
@@ -236,44 +250,26 @@ public class LocalJournal implements ChangeJournal {
             return Records.EMPTY;
         }
 
-        long changeSetMillisUTC = -1;
-        long searchBound = -1;
-        if (changeSetTime != null) {
-            changeSetMillisUTC = changeSetTime.toInstant(ZoneOffset.UTC).toEpochMilli();
-            //adjust the millis using a delta so that we are sure we catch everything in a cluster which may have differences in
-            //clock time
-            searchBound = TIME_BASED_KEYS.getCounterStartingAt(changeSetMillisUTC - searchTimeDelta);
+        if (changeSetTime == null) {
+            return allRecords(descendingOrder);
         }
-
-        NavigableMap<Long, JournalRecord> subMap = records.tailMap(searchBound, true);
-        if (subMap.isEmpty()) {
-            return Records.EMPTY;
-        }
-        //process each of the records from the result and look at the timestamp of the changeset, so that we're sure we only include
-        //the correct ones (we used a delta to make sure we get everything)
-        long startKeyInSubMap = -1;
-        for (Iterator<Long> timeBasedKeysIterator = subMap.keySet().iterator(); timeBasedKeysIterator.hasNext();) {
-            Long timeBasedKey = timeBasedKeysIterator.next();
-            JournalRecord record = subMap.get(timeBasedKey);
-            long recordChangeTimeMillisUTC = record.getChangeTimeMillis();
-            if (((recordChangeTimeMillisUTC == changeSetMillisUTC) && inclusive)
-                || recordChangeTimeMillisUTC > changeSetMillisUTC) {
-                startKeyInSubMap = timeBasedKey;
-                break;
-            }
-        }
-        return startKeyInSubMap != -1 ? recordsFrom(subMap.tailMap(startKeyInSubMap, true), descendingOrder) : Records.EMPTY;
+        long changeSetMillisUTC = changeSetTime.toInstant(ZoneOffset.UTC).toEpochMilli();
+        NavigableSet<Fun.Tuple2<Long, Long>> keys = inclusive ? 
+                                                    recordsByChangeTime.tailSet(Fun.t2(changeSetMillisUTC, (Long)null), true) :
+                                                    recordsByChangeTime.tailSet(Fun.t2(changeSetMillisUTC, Fun.<Long>HI()), false);
+        return keys.isEmpty() ? Records.EMPTY : recordsFrom(keys, descendingOrder);
     }
 
     @Override
     public Iterator<NodeKey> changedNodesSince( final long timestamp ) {
-        // we use a delta to make sure we get everything and we filter false positives later on
-        long searchBound = TIME_BASED_KEYS.getCounterStartingAt(timestamp - searchTimeDelta);
-        Collection<JournalRecord> journalRecords = records.tailMap(searchBound, true).values();
-        if (journalRecords.isEmpty()) {
+        if (stopped) {
             return Collections.emptyListIterator();
         }
-        final Iterator<JournalRecord> recordsIterator = journalRecords.iterator();  
+        NavigableSet<Fun.Tuple2<Long, Long>> keys = recordsByChangeTime.tailSet(Fun.t2(timestamp, (Long)null), true);
+        if (keys.isEmpty()) {
+            return Collections.emptyListIterator();
+        }
+        final Iterator<JournalRecord> recordsIterator = recordsIterator(keys.iterator());
         return new Iterator<NodeKey>() {
             private Iterator<NodeKey> currentBatchOfKeys = null;
             
@@ -301,10 +297,9 @@ public class LocalJournal implements ChangeJournal {
             private void nextBatchOfKeys() {
                 if ((currentBatchOfKeys == null || !currentBatchOfKeys.hasNext()) && recordsIterator.hasNext()) {
                     while (recordsIterator.hasNext()) {
-                        JournalRecord record = recordsIterator.next();
-                        // we searched using a delta, so we must eliminate false positives
-                        if (record.getChangeTimeMillis() >= timestamp) {
-                            currentBatchOfKeys = record.getChangeSet().changedNodes().iterator();
+                        Collection<NodeKey> changedNodes = recordsIterator.next().getChangeSet().changedNodes();
+                        if (!changedNodes.isEmpty()) {
+                            currentBatchOfKeys = changedNodes.iterator();
                             break;
                         }
                     }
@@ -321,14 +316,50 @@ public class LocalJournal implements ChangeJournal {
         return journalId;
     }
 
-    protected LocalJournal withSearchTimeDelta( final long searchTimeDelta ) {
-        this.searchTimeDelta = searchTimeDelta;
-        return this;
+    private Iterator<JournalRecord> recordsIterator( final Iterator<Fun.Tuple2<Long, Long>> keys ) {
+        return new Iterator<JournalRecord>() {
+            private JournalRecord next;
+
+            @Override
+            public boolean hasNext() {
+                // records may be removed after the keys were read, so skip over those
+                while (next == null && keys.hasNext()) {
+                    next = records.get(keys.next().b);
+                }
+                return next != null;
+            }
+
+            @Override
+            public JournalRecord next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                JournalRecord result = next;
+                next = null;
+                return result;
+            }
+
+            @Override
+            public void remove() {
+                throw new UnsupportedOperationException("This iterator is read-only");
+            }
+        };
+    }
+
+    private Records recordsFrom( final NavigableSet<Fun.Tuple2<Long, Long>> keys,
+                                 boolean descending ) {
+        Iterator<Fun.Tuple2<Long, Long>> keysIterator = descending ? keys.descendingIterator() : keys.iterator();
+        return recordsFrom(keys, recordsIterator(keysIterator));
+    }
+
+    private static Records recordsFrom( final NavigableMap<Long, JournalRecord> content,
+                                        boolean descending ) {
+        Iterator<JournalRecord> iterator = descending ? content.descendingMap().values().iterator() : content.values().iterator();
+        return recordsFrom(content.keySet(), iterator);
     }
 
-    private static Records recordsFrom( final NavigableMap<Long, JournalRecord> content, boolean descending ) {
-        final Iterator<JournalRecord> iterator = descending ? content.descendingMap().values().iterator() : 
-                                                              content.values().iterator();
+    private static Records recordsFrom( final Collection<?> content,
+                                        final Iterator<JournalRecord> iterator ) {
         return new Records() {
             @Override
             public int size() {
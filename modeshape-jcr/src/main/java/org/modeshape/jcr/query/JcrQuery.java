@@ -97,6 +97,11 @@ public class JcrQuery extends JcrAbstractQuery {
         return query.toString();
     }
 
+    @Override
+    public org.modeshape.jcr.api.query.qom.Limit getLimits() {
+        return query.getLimits();
+    }
+
     /**
      * {@inheritDoc}
      * 
@@ -63,7 +63,7 @@ public class SelectQuery extends Query implements org.modeshape.jcr.api.query.qo
 
     @Override
     public Query withOffset( int offset ) {
-        if (getLimits().getRowLimit() == offset) return this; // nothing to change
+        if (getLimits().getOffset() == offset) return this; // nothing to change
         return new SelectQuery(source(), constraint(), orderings(), columns(), getLimits().withOffset(offset), isDistinct());
     }
 
@@ -105,6 +105,27 @@ public abstract class Connector {
      */
     private boolean cacheable = true;
 
+    /**
+     * The number of seconds for which documents returned by this connector are cached by the repository before they are read
+     * again from the external source. A value of {@code 0} (the default) means that documents do not expire and are only
+     * discarded when evicted or when the connector {@link ConnectorChangeSet publishes} changes to them.
+     * <p>
+     * The field is assigned via reflection based upon the configuration of the external source represented by this connector
+     * before ModeShape calls {@link #initialize(NamespaceRegistry, NodeTypeManager)}.
+     * </p>
+     */
+    private int cacheTtlSeconds = 0;
+
+    /**
+     * The maximum number of documents returned by this connector that the repository caches when a {@link #cacheTtlSeconds}
+     * is set.
+     * <p>
+     * The field is assigned via reflection based upon the configuration of the external source represented by this connector
+     * before ModeShape calls {@link #initialize(NamespaceRegistry, NodeTypeManager)}.
+     * </p>
+     */
+    private int cacheSize = 10000;
+
     /**
      * A flag which indicates whether content exposed by this connector should be indexed or not by the repository. This acts as a
      * global flag, allowing a connector to mark it's entire content as non-queryable. By default, all content is queryable.
@@ -252,6 +273,25 @@ public abstract class Connector {
         return cacheable;
     }
 
+    /**
+     * Returns the number of seconds for which documents exposed by this connector are cached by the repository.
+     * 
+     * @return the time-to-live in seconds, or {@code 0} if cached documents do not expire
+     */
+    public int getCacheTtlSeconds() {
+        return cacheTtlSeconds;
+    }
+
+    /**
+     * Returns the maximum number of documents exposed by this connector that are cached by the repository when a
+     * {@link #getCacheTtlSeconds() time-to-live} is set.
+     * 
+     * @return the maximum number of cached documents
+     */
+    public int getCacheSize() {
+        return cacheSize;
+    }
+
     /**
      * Indicates if content exposed by this connector should be indexed by the repository or not.
      *
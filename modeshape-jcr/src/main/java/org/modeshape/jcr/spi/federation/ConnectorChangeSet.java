@@ -176,6 +176,23 @@ public interface ConnectorChangeSet {
                           Property oldProperty,
                           Property newProperty );
 
+    /**
+     * Signal that the external data of a node resource has changed in a way that the connector does not (or cannot) describe with
+     * the other methods, so that the repository discards any representation of the node it has cached and reads it again from
+     * the connector. No observation events are produced for such a change.
+     * <p>
+     * This does nothing by default, so that existing implementations of this interface need not change. The change sets that
+     * the repository hands to connectors override it.
+     * </p>
+     *
+     * @param docId the connector's identifier for the node; may not be null
+     * @param path the path of the node; may not be null
+     */
+    default void nodeInvalidated( String docId,
+                                  String path ) {
+        // there is nothing cached by default ...
+    }
+
     /**
      * Finish the construction of this change-set and make it available for publication into the repository. This also empties the
      * record of change events and prepares to accept a new record.
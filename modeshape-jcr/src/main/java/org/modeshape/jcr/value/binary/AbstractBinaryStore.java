@@ -15,8 +15,15 @@
  */
 package org.modeshape.jcr.value.binary;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicLong;
@@ -55,12 +62,36 @@ public abstract class AbstractBinaryStore implements BinaryStore {
     private static final int SMALL_BUFFER_SIZE = 1 << 12; // 4K
     private static final int TINY_BUFFER_SIZE = 1 << 11; // 2K
 
+    /**
+     * The number of leading bytes captured while storing a binary value, which is what content-based MIME type detection reads
+     */
+    private static final int INGESTED_HEAD_SIZE = 1 << 16; // 64K
+
+    /**
+     * The maximum number of recently stored values whose leading bytes are kept
+     */
+    private static final int MAX_INGESTED_VALUES = 128;
+
+    /**
+     * The (generic) MIME types detected for container formats (e.g. ZIP or OLE2 based documents), which can only be refined
+     * using the whole content rather than its first bytes
+     */
+    private static final Set<String> CONTAINER_MIME_TYPES = new HashSet<>(Arrays.asList("application/zip",
+                                                                                        "application/x-tika-ooxml",
+                                                                                        "application/x-tika-msoffice"));
+
     protected final Logger logger = Logger.getLogger(getClass());
     private final AtomicLong minBinarySizeInBytes = new AtomicLong(DEFAULT_MINIMUM_BINARY_SIZE_IN_BYTES);
 
     private volatile TextExtractors extractors;
     private volatile MimeTypeDetector detector = NullMimeTypeDetector.INSTANCE;
 
+    /**
+     * The leading bytes (or the whole content, if small enough) of the most recently stored values, captured while storing them
+     * so that detecting their MIME type and extracting their text doesn't require reading them back from the store.
+     */
+    private final Map<BinaryKey, IngestedContent> ingestedContent = Collections.synchronizedMap(new RecentlyIngested());
+
     /**
      * Given a number of bytes representing the length of a file, returns the optimum size for a buffer that should be used
      * when reading/working with that file
@@ -133,8 +164,13 @@ public abstract class AbstractBinaryStore implements BinaryStore {
         try {
             CountDownLatch latch = extractors.getWorkerLatch(binary.getKey(), false);
             if (latch == null) {
-                // There is no latch, so just compute the text here ...
-                latch = extractors.extract(this, binary, new TextExtractorContext(detector()));
+                // There is no latch, so just compute the text here (from the content captured when it was stored, if possible) ...
+                IngestedContent ingested = ingestedContent.get(binary.getKey());
+                BinaryValue source = binary;
+                if (ingested != null && ingested.complete && binary instanceof StoredBinaryValue) {
+                    source = new IngestedBinaryValue(this, binary.getKey(), ingested.bytes);
+                }
+                latch = extractors.extract(this, source, new TextExtractorContext(detector()));
             }
             // There was a latch, so wait till the work is done ...
             if (latch != null && latch.await(DEFAULT_LATCH_WAIT_IN_SECONDS, TimeUnit.SECONDS)) {
@@ -163,7 +199,20 @@ public abstract class AbstractBinaryStore implements BinaryStore {
             }
         }
         
-        String detectedMimeType = detector().mimeTypeOf(name, binary);
+        String detectedMimeType = null;
+        IngestedContent ingested = binary instanceof InMemoryBinaryValue ? null : ingestedContent.get(binary.getKey());
+        if (ingested != null) {
+            // detect the MIME type from the bytes captured when the value was stored, rather than reading them again ...
+            detectedMimeType = detector().mimeTypeOf(name, new InMemoryBinaryValue(this, binary.getKey(), ingested.bytes));
+            if (!ingested.complete && (detectedMimeType == null || CONTAINER_MIME_TYPES.contains(detectedMimeType))) {
+                // the leading bytes weren't enough, so use the whole content ...
+                detectedMimeType = null;
+                ingested = null;
+            }
+        }
+        if (ingested == null) {
+            detectedMimeType = detector().mimeTypeOf(name, binary);
+        }
         if (binary instanceof InMemoryBinaryValue) {
             return detectedMimeType;
         } else if (!StringUtil.isBlank(detectedMimeType)) {
@@ -186,6 +235,41 @@ public abstract class AbstractBinaryStore implements BinaryStore {
         return true;
     }
 
+    /**
+     * Wraps the stream with the content of a binary value which is about to be stored, so that while the store reads that
+     * content (once), the SHA-1 hash and the size of the content are computed and, when this store detects MIME types or extracts
+     * text, the leading bytes of the content are captured. Once the store has persisted the content and closed the returned
+     * stream, it should call {@link #ingested(IngestingInputStream)}.
+     * <p>
+     * A stream which is already being ingested (e.g. by a store which stages the content in another store before persisting it)
+     * is returned as is, so that the content is hashed only once.
+     * </p>
+     *
+     * @param stream the stream with the content; may not be null
+     * @return the wrapping stream; never null
+     */
+    protected final IngestingInputStream ingest( InputStream stream ) {
+        CheckArg.isNotNull(stream, "stream");
+        if (stream instanceof IngestingInputStream) {
+            return (IngestingInputStream)stream;
+        }
+        boolean capture = detector != NullMimeTypeDetector.INSTANCE || (extractors != null && extractors.extractionEnabled());
+        return new IngestingInputStream(stream, capture ? INGESTED_HEAD_SIZE : 0);
+    }
+
+    /**
+     * Records the content captured by a stream obtained from {@link #ingest(InputStream)}, after the content has been stored and
+     * the stream closed, so that it's used when the MIME type of the value is first needed and when its text is first extracted.
+     *
+     * @param ingest the closed stream; may not be null
+     */
+    protected final void ingested( IngestingInputStream ingest ) {
+        byte[] head = ingest.getHead();
+        if (head.length > 0) {
+            ingestedContent.put(ingest.getKey(), new IngestedContent(head, ingest.isHeadComplete()));
+        }
+    }
+
     /**
      * Returns the stored mime-type of a binary value.
      *
@@ -260,4 +344,49 @@ public abstract class AbstractBinaryStore implements BinaryStore {
     public void shutdown() {
         //does nothing by default
     }
+
+    private static final class RecentlyIngested extends LinkedHashMap<BinaryKey, IngestedContent> {
+        private static final long serialVersionUID = 1L;
+
+        protected RecentlyIngested() {
+            super(MAX_INGESTED_VALUES, 0.75f, true);
+        }
+
+        @Override
+        protected boolean removeEldestEntry( Map.Entry<BinaryKey, IngestedContent> eldest ) {
+            return size() > MAX_INGESTED_VALUES;
+        }
+    }
+
+    private static final class IngestedContent {
+        protected final byte[] bytes;
+        protected final boolean complete;
+
+        protected IngestedContent( byte[] bytes,
+                                   boolean complete ) {
+            this.bytes = bytes;
+            this.complete = complete;
+        }
+    }
+
+    /**
+     * A stored value whose content is read from the bytes captured when it was stored, rather than from the store.
+     */
+    private static final class IngestedBinaryValue extends StoredBinaryValue {
+        private static final long serialVersionUID = 1L;
+
+        private final transient byte[] content;
+
+        protected IngestedBinaryValue( BinaryStore store,
+                                       BinaryKey key,
+                                       byte[] content ) {
+            super(store, key, content.length);
+            this.content = content;
+        }
+
+        @Override
+        protected InputStream internalStream() {
+            return new ByteArrayInputStream(content);
+        }
+    }
 }
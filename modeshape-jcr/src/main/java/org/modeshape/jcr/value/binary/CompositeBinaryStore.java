@@ -20,6 +20,7 @@ import java.io.InputStream;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.Map;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.TimeUnit;
 import javax.jcr.RepositoryException;
 import org.modeshape.common.collection.Collections;
@@ -32,23 +33,33 @@ import org.modeshape.jcr.mimetype.NullMimeTypeDetector;
 import org.modeshape.jcr.text.TextExtractorContext;
 import org.modeshape.jcr.value.BinaryKey;
 import org.modeshape.jcr.value.BinaryValue;
+import com.googlecode.concurrentlinkedhashmap.ConcurrentLinkedHashMap;
 
 /**
  * A {@link BinaryStore} implementation that stores files in other BinaryStores. This store is initialized with a map of number of
  * BinaryStores. On retrieval, the CompositeBinaryStore will look in all the other BinaryStores for the value. When storing a
  * value, the CompositeBinaryStore may receive a StorageHint that MAY be used when determining which named BinaryStore to write
  * to. If a storage hint is not provided (or doesn't match a store), the value will be stored in the default store.
+ * <p>
+ * The store remembers in which named store each recently stored or found binary value is located, so that reads of those values
+ * go directly to the right store rather than probing every store in turn. This location index is rebuilt lazily (e.g., after a
+ * restart): keys whose location is not known are looked up in all the named stores. Since the same value can be stored in
+ * several named stores, usage changes are always sent to all of them.
+ * </p>
  */
 public class CompositeBinaryStore implements BinaryStore {
 
     private static final String DEFAULT_STRATEGY_HINT = "default";
+    private static final int MAX_KNOWN_LOCATIONS = 100000;
     private volatile TextExtractors extractors;
     private volatile MimeTypeDetector detector = NullMimeTypeDetector.INSTANCE;
 
     protected Logger logger = Logger.getLogger(getClass());
 
     private Map<String, BinaryStore> namedStores;
-    private BinaryStore defaultBinaryStore;
+    private String defaultBinaryStoreName;
+    private final ConcurrentMap<BinaryKey, String> storeNamesByKey = new ConcurrentLinkedHashMap.Builder<BinaryKey, String>().maximumWeightedCapacity(MAX_KNOWN_LOCATIONS)
+                                                                                                                               .build();
 
     /**
      * Initialize a new CompositeBinaryStore using a Map of other BinaryKeys that are keyed by an implementer-provided key. The
@@ -58,7 +69,7 @@ public class CompositeBinaryStore implements BinaryStore {
      */
     public CompositeBinaryStore( Map<String, BinaryStore> namedStores ) {
         this.namedStores = namedStores;
-        this.defaultBinaryStore = null;
+        this.defaultBinaryStoreName = null;
     }
 
     /**
@@ -147,8 +158,10 @@ public class CompositeBinaryStore implements BinaryStore {
 
     @Override
     public BinaryValue storeValue( InputStream stream, String hint, boolean markAsUnused ) throws BinaryStoreException {
-        BinaryStore binaryStore = selectBinaryStore(hint);
+        String binaryStoreName = selectBinaryStoreName(hint);
+        BinaryStore binaryStore = namedStores.get(binaryStoreName);
         BinaryValue bv = binaryStore.storeValue(stream, markAsUnused);
+        storeNamesByKey.put(bv.getKey(), binaryStoreName);
         logger.debug("Stored binary " + bv.getKey() + " into binary store " + binaryStore + " used=" + markAsUnused);
         return bv;
     }
@@ -205,17 +218,33 @@ public class CompositeBinaryStore implements BinaryStore {
 
     @Override
     public InputStream getInputStream( BinaryKey key ) throws BinaryStoreException {
+        String knownStoreName = storeNamesByKey.get(key);
+        if (knownStoreName != null) {
+            try {
+                return namedStores.get(knownStoreName).getInputStream(key);
+            } catch (BinaryStoreException e) {
+                // the value is no longer there, so look for it in all the stores ...
+                logger.trace(e, "The named store " + knownStoreName + " no longer contains " + key);
+                storeNamesByKey.remove(key, knownStoreName);
+            }
+        }
+
         Iterator<Map.Entry<String, BinaryStore>> it = getNamedStoreIterator();
 
         while (it.hasNext()) {
             final Map.Entry<String, BinaryStore> entry = it.next();
 
             final String binaryStoreKey = entry.getKey();
+            if (binaryStoreKey.equals(knownStoreName)) {
+                continue;
+            }
 
             BinaryStore binaryStore = entry.getValue();
             logger.trace("Checking binary store " + binaryStoreKey + " for key " + key);
             try {
-                return binaryStore.getInputStream(key);
+                InputStream stream = binaryStore.getInputStream(key);
+                storeNamesByKey.put(key, binaryStoreKey);
+                return stream;
             } catch (BinaryStoreException e) {
                 // this exception is "normal", and is thrown
                 logger.trace(e, "The named store " + binaryStoreKey + " raised exception");
@@ -227,16 +256,7 @@ public class CompositeBinaryStore implements BinaryStore {
 
     @Override
     public boolean hasBinary( BinaryKey key ) {
-        Iterator<Map.Entry<String, BinaryStore>> it = getNamedStoreIterator();
-
-        while (it.hasNext()) {
-            BinaryStore bs = it.next().getValue();
-            if (bs.hasBinary(key)) {
-                return true;
-            }
-        }
-
-        return false;
+        return findBinaryStoreContainingKey(key) != null;
     }
 
     @SuppressWarnings( "unused" )
@@ -308,23 +328,9 @@ public class CompositeBinaryStore implements BinaryStore {
             return extractors.extract((InMemoryBinaryValue)binary, new TextExtractorContext(detector));
         }
 
-        Iterator<Map.Entry<String, BinaryStore>> it = getNamedStoreIterator();
-
-        while (it.hasNext()) {
-            Map.Entry<String, BinaryStore> entry = it.next();
-
-            final String binaryStoreKey = entry.getKey();
-            BinaryStore bs = entry.getValue();
-            try {
-                if (bs.hasBinary(binary.getKey())) {
-                    return bs.getText(binary);
-                }
-            } catch (BinaryStoreException e) {
-                logger.debug(e, "The named store " + binaryStoreKey + " raised exception");
-                if (!it.hasNext()) {
-                    throw e;
-                }
-            }
+        BinaryStore bs = findBinaryStoreContainingKey(binary.getKey());
+        if (bs != null) {
+            return bs.getText(binary);
         }
 
         throw new BinaryStoreException(JcrI18n.unableToFindBinaryValue.text(binary.getKey(), this));
@@ -342,24 +348,9 @@ public class CompositeBinaryStore implements BinaryStore {
             return detectedMimeType;
         }
 
-        Iterator<Map.Entry<String, BinaryStore>> it = getNamedStoreIterator();
-
-        while (it.hasNext()) {
-            Map.Entry<String, BinaryStore> entry = it.next();
-
-            final String binaryStoreKey = entry.getKey();
-            BinaryStore bs = entry.getValue();
-
-            try {
-                if (bs.hasBinary(binary.getKey())) {
-                    return bs.getMimeType(binary, name);
-                }
-            } catch (BinaryStoreException e) {
-                logger.debug(e, "The named store " + binaryStoreKey + " raised exception");
-                if (!it.hasNext()) {
-                    throw e;
-                }
-            }
+        BinaryStore bs = findBinaryStoreContainingKey(binary.getKey());
+        if (bs != null) {
+            return bs.getMimeType(binary, name);
         }
 
         throw new BinaryStoreException(JcrI18n.unableToFindBinaryValue.text(binary.getKey(), this));
@@ -396,11 +387,25 @@ public class CompositeBinaryStore implements BinaryStore {
      * @return the BinaryStore that contains the given key
      */
     public BinaryStore findBinaryStoreContainingKey( BinaryKey key ) {
+        String knownStoreName = storeNamesByKey.get(key);
+        if (knownStoreName != null) {
+            BinaryStore bs = namedStores.get(knownStoreName);
+            if (bs.hasBinary(key)) {
+                return bs;
+            }
+            storeNamesByKey.remove(key, knownStoreName);
+        }
+
         Iterator<Map.Entry<String, BinaryStore>> binaryStoreIterator = getNamedStoreIterator();
 
         while (binaryStoreIterator.hasNext()) {
-            BinaryStore bs = binaryStoreIterator.next().getValue();
+            Map.Entry<String, BinaryStore> entry = binaryStoreIterator.next();
+            if (entry.getKey().equals(knownStoreName)) {
+                continue;
+            }
+            BinaryStore bs = entry.getValue();
             if (bs.hasBinary(key)) {
+                storeNamesByKey.put(key, entry.getKey());
                 return bs;
             }
         }
@@ -415,38 +420,50 @@ public class CompositeBinaryStore implements BinaryStore {
      * @return a named BinaryStore from the hint, or the default store
      */
     private BinaryStore selectBinaryStore( String hint ) {
+        return namedStores.get(selectBinaryStoreName(hint));
+    }
 
-        BinaryStore namedBinaryStore = null;
+    /**
+     * Select the name of a named binary store for the given hint
+     * 
+     * @param hint a hint to a binary store; possibly null
+     * @return the name of the named BinaryStore from the hint, or of the default store
+     */
+    private String selectBinaryStoreName( String hint ) {
+
+        String namedBinaryStoreName = null;
 
         if (hint != null) {
             logger.trace("Selecting named binary store for hint: " + hint);
-            namedBinaryStore = namedStores.get(hint);
+            if (namedStores.containsKey(hint)) {
+                namedBinaryStoreName = hint;
+            }
         }
 
-        if (namedBinaryStore == null) {
-            namedBinaryStore = getDefaultBinaryStore();
+        if (namedBinaryStoreName == null) {
+            namedBinaryStoreName = getDefaultBinaryStoreName();
         }
 
-        logger.trace("Selected binary store: " + namedBinaryStore.toString());
+        logger.trace("Selected binary store: " + namedStores.get(namedBinaryStoreName));
 
-        return namedBinaryStore;
+        return namedBinaryStoreName;
     }
 
-    private BinaryStore getDefaultBinaryStore() {
-        if (defaultBinaryStore == null) {
+    private String getDefaultBinaryStoreName() {
+        if (defaultBinaryStoreName == null) {
             if (namedStores.containsKey(DEFAULT_STRATEGY_HINT)) {
-                defaultBinaryStore = namedStores.get(DEFAULT_STRATEGY_HINT);
+                defaultBinaryStoreName = DEFAULT_STRATEGY_HINT;
             } else {
                 logger.trace("Did not find a named binary store with the key 'default', picking the first binary store in the list");
-                final Iterator<BinaryStore> iterator = namedStores.values().iterator();
+                final Iterator<String> iterator = namedStores.keySet().iterator();
 
                 if (iterator.hasNext()) {
-                    defaultBinaryStore = iterator.next();
+                    defaultBinaryStoreName = iterator.next();
                 }
             }
         }
 
-        return defaultBinaryStore;
+        return defaultBinaryStoreName;
     }
 
 }
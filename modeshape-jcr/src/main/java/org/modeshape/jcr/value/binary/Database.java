@@ -22,8 +22,11 @@ import java.sql.DatabaseMetaData;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.Statement;
 import java.sql.Timestamp;
+import java.util.ArrayList;
 import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Properties;
 import java.util.Set;
 import org.modeshape.common.logging.Logger;
@@ -82,6 +85,10 @@ public class Database {
     protected static final String DEFAULT_STATEMENTS_FILE_PATH = STATEMENTS_FILE_PATH + STATEMENTS_FILE_PREFIX + "default"
                                                                  + STATEMENTS_FILENAME_SUFFIX;
     protected static final int DEFAULT_MAX_EXTRACTED_TEXT_LENGTH = 1000;
+    /**
+     * The maximum number of rows that are updated or removed with a single JDBC batch (and transaction).
+     */
+    protected static final int BATCH_SIZE = 500;
 
     private static final Logger LOGGER = Logger.getLogger(Database.class);
 
@@ -91,6 +98,8 @@ public class Database {
     private static final String MARK_UNUSED_STMT_KEY = "mark_unused";
     private static final String MARK_USED_STMT_KEY = "mark_used";
     private static final String REMOVE_EXPIRED_STMT_KEY = "remove_expired";
+    private static final String GET_EXPIRED_KEYS_STMT_KEY = "get_expired_keys";
+    private static final String REMOVE_EXPIRED_CONTENT_STMT_KEY = "remove_expired_content";
     private static final String GET_MIMETYPE_STMT_KEY = "get_mimetype";
     private static final String SET_MIMETYPE_STMT_KEY = "set_mimetype";
     private static final String GET_EXTRACTED_TEXT_STMT_KEY = "get_extracted_text";
@@ -125,6 +134,7 @@ public class Database {
     private final String prefix;
     private final String tableName;
     private final int maxExtractedTextLength;
+    private final boolean supportsBatchUpdates;
 
     private Properties statements;
 
@@ -166,6 +176,7 @@ public class Database {
         if (LOGGER.isDebugEnabled()) {
             LOGGER.debug("Using max length for extracted text '{0}'", maxExtractedTextLength);
         }
+        this.supportsBatchUpdates = metaData.supportsBatchUpdates();
     }
 
     private int determineMaxExtractedTextLength( DatabaseMetaData metaData ) {
@@ -388,11 +399,13 @@ public class Database {
         PreparedStatement markUnusedSql = prepareStatement(MARK_UNUSED_STMT_KEY, connection);
         try {
             Timestamp now = new Timestamp(System.currentTimeMillis());
+            int batched = 0;
             for (BinaryKey key : keys) {
                 markUnusedSql.setTimestamp(1, now);
                 markUnusedSql.setString(2, key.toString());
-                executeUpdate(markUnusedSql);
+                batched = addBatch(markUnusedSql, batched, connection);
             }
+            executeBatch(markUnusedSql, batched, connection);
         } finally {
             tryToClose(markUnusedSql);
         }
@@ -402,10 +415,12 @@ public class Database {
                                    Iterable<BinaryKey> keys ) throws SQLException {
         PreparedStatement markUsedSql = prepareStatement(MARK_USED_STMT_KEY, connection);
         try {
+            int batched = 0;
             for (BinaryKey key : keys) {
                 markUsedSql.setString(1, key.toString());
-                executeUpdate(markUsedSql);
+                batched = addBatch(markUsedSql, batched, connection);
             }
+            executeBatch(markUsedSql, batched, connection);
         } finally {
             tryToClose(markUsedSql);
         }
@@ -413,12 +428,66 @@ public class Database {
 
     protected void removeExpiredContent( long deadline,
                                          Connection connection ) throws SQLException {
-        PreparedStatement removedExpiredSql = prepareStatement(REMOVE_EXPIRED_STMT_KEY, connection);
+        Timestamp deadlineTimestamp = new Timestamp(deadline);
+        if (!supportsBatchUpdates) {
+            PreparedStatement removedExpiredSql = prepareStatement(REMOVE_EXPIRED_STMT_KEY, connection);
+            try {
+                removedExpiredSql.setTimestamp(1, deadlineTimestamp);
+                execute(removedExpiredSql);
+            } finally {
+                tryToClose(removedExpiredSql);
+            }
+            return;
+        }
+        // Remove the expired rows in chunks, so that a large cleanup doesn't hold locks on the whole table in one transaction
+        List<String> expiredKeys = null;
+        do {
+            expiredKeys = readExpiredKeys(deadlineTimestamp, connection);
+            if (expiredKeys.isEmpty()) {
+                return;
+            }
+            PreparedStatement removeExpiredContentSql = prepareStatement(REMOVE_EXPIRED_CONTENT_STMT_KEY, connection);
+            try {
+                for (String key : expiredKeys) {
+                    removeExpiredContentSql.setString(1, key);
+                    removeExpiredContentSql.setTimestamp(2, deadlineTimestamp);
+                    removeExpiredContentSql.addBatch();
+                }
+                if (!removedAny(executeBatch(removeExpiredContentSql, expiredKeys.size(), connection))) {
+                    // nothing was removed, so reading the expired keys again would return the same rows
+                    return;
+                }
+            } finally {
+                tryToClose(removeExpiredContentSql);
+            }
+        } while (expiredKeys.size() == BATCH_SIZE);
+    }
+
+    private static boolean removedAny( int[] updateCounts ) {
+        for (int updateCount : updateCounts) {
+            // some drivers only report that the statement succeeded, without the number of rows ...
+            if (updateCount > 0 || updateCount == Statement.SUCCESS_NO_INFO) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private List<String> readExpiredKeys( Timestamp deadline,
+                                          Connection connection ) throws SQLException {
+        PreparedStatement getExpiredKeysSql = prepareStatement(GET_EXPIRED_KEYS_STMT_KEY, connection);
         try {
-            removedExpiredSql.setTimestamp(1, new java.sql.Timestamp(deadline));
-            execute(removedExpiredSql);
+            getExpiredKeysSql.setMaxRows(BATCH_SIZE);
+            getExpiredKeysSql.setTimestamp(1, deadline);
+            ResultSet rs = executeQuery(getExpiredKeysSql);
+            List<String> keys = new ArrayList<>();
+            while (rs.next() && keys.size() < BATCH_SIZE) {
+                keys.add(rs.getString(1));
+            }
+            return keys;
         } finally {
-            tryToClose(removedExpiredSql);
+            // will also close the result set
+            tryToClose(getExpiredKeysSql);
         }
     }
 
@@ -514,6 +583,65 @@ public class Database {
         sql.executeUpdate();
     }
 
+    /**
+     * Adds the current parameters of the given statement to its batch, executing the batch once it holds {@link #BATCH_SIZE}
+     * entries. If the driver does not support batch updates, the statement is simply executed.
+     * 
+     * @param sql the statement; may not be null
+     * @param batched the number of entries already in the batch
+     * @param connection the connection; may not be null
+     * @return the number of entries in the batch after this call
+     * @throws SQLException if the statement cannot be executed
+     */
+    private int addBatch( PreparedStatement sql,
+                          int batched,
+                          Connection connection ) throws SQLException {
+        if (!supportsBatchUpdates) {
+            executeUpdate(sql);
+            return 0;
+        }
+        sql.addBatch();
+        if (++batched < BATCH_SIZE) {
+            return batched;
+        }
+        executeBatch(sql, batched, connection);
+        return 0;
+    }
+
+    private int[] executeBatch( PreparedStatement sql,
+                                int batched,
+                                Connection connection ) throws SQLException {
+        if (batched == 0) {
+            return new int[0];
+        }
+        LOGGER.trace("Executing batch of {0} statements: {1}", batched, sql);
+        // run each batch in its own transaction, unless the caller is already managing one ...
+        boolean autoCommit = connection.getAutoCommit();
+        if (autoCommit) {
+            connection.setAutoCommit(false);
+        }
+        try {
+            int[] updateCounts = sql.executeBatch();
+            if (autoCommit) {
+                connection.commit();
+            }
+            return updateCounts;
+        } catch (SQLException e) {
+            if (autoCommit) {
+                try {
+                    connection.rollback();
+                } catch (SQLException rollbackError) {
+                    LOGGER.debug(rollbackError, "Cannot roll back batch");
+                }
+            }
+            throw e;
+        } finally {
+            if (autoCommit) {
+                connection.setAutoCommit(true);
+            }
+        }
+    }
+
     protected class DatabaseBinaryStream extends InputStream {
         private final Connection connection;
         private final PreparedStatement statement;
@@ -168,9 +168,10 @@ public class DatabaseBinaryStore extends AbstractBinaryStore {
     @Override
     public BinaryValue storeValue( InputStream stream, final boolean markAsUnused ) throws BinaryStoreException {
         // store into temporary file system store and get SHA-1
-        final BinaryValue temp = cache.storeValue(stream, markAsUnused);
+        final IngestingInputStream ingest = ingest(stream);
+        final BinaryValue temp = cache.storeValue(ingest, markAsUnused);
         try {
-            return dbCall(new DBCallable<BinaryValue>() {
+            BinaryValue value = dbCall(new DBCallable<BinaryValue>() {
                 @Override
                 public BinaryValue execute( Connection connection ) throws Exception {
                     // prepare new binary key based on SHA-1
@@ -198,6 +199,8 @@ public class DatabaseBinaryStore extends AbstractBinaryStore {
                     return new StoredBinaryValue(DatabaseBinaryStore.this, key, temp.getSize());
                 }
             });
+            ingested(ingest);
+            return value;
         } finally {
             // remove content from temp store
             cache.markAsUnused(temp.getKey());
@@ -25,19 +25,16 @@ import java.io.OutputStream;
 import java.io.RandomAccessFile;
 import java.nio.channels.Channels;
 import java.nio.channels.FileChannel;
-import java.security.NoSuchAlgorithmException;
 import java.util.HashSet;
 import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.locks.Lock;
-import org.modeshape.common.SystemFailureException;
 import org.modeshape.common.annotation.ThreadSafe;
 import org.modeshape.common.logging.Logger;
 import org.modeshape.common.util.IoUtil;
-import org.modeshape.common.util.SecureHash;
-import org.modeshape.common.util.SecureHash.Algorithm;
-import org.modeshape.common.util.SecureHash.HashingInputStream;
 import org.modeshape.jcr.JcrI18n;
 import org.modeshape.jcr.value.BinaryKey;
 import org.modeshape.jcr.value.BinaryValue;
@@ -46,16 +43,32 @@ import org.modeshape.jcr.value.BinaryValue;
  * A {@link BinaryStore} that stores files in a directory on the file system. The store does use file locks to prevent other
  * processes from concurrently writing the files, and it also uses an internal set of locks to prevent multiple threads from
  * simultaneously writing to the persisted files.
+ * <p>
+ * Unused binary values are marked by an empty file in the trash directory, whose last modified time is the time since which the
+ * value is unused. To avoid walking the whole trash directory on each garbage collection, the store also keeps an "unused since"
+ * index in its {@value #UNUSED_INDEX_DIRECTORY_NAME} directory: there is a sub-directory for each
+ * {@link #UNUSED_INDEX_BUCKET_MILLIS time interval} in which values were marked as unused, containing an empty file named after
+ * the SHA-1 of each of these values.
+ * The garbage collection only visits the intervals which are older than the minimum age, oldest first, and removes the index
+ * files as soon as they have been processed, so that an interrupted garbage collection simply resumes where it stopped.
+ * </p>
  */
 @ThreadSafe
 public class FileSystemBinaryStore extends AbstractBinaryStore {
 
     protected static final String TRASH_DIRECTORY_NAME = "trash";
+    protected static final String UNUSED_INDEX_DIRECTORY_NAME = ".unused-since";
+
+    /**
+     * The width of the time intervals in which the "unused since" index groups the unused values.
+     */
+    protected static final long UNUSED_INDEX_BUCKET_MILLIS = TimeUnit.MINUTES.toMillis(1);
 
     private static final String EXTRACTED_TEXT_SUFFIX = "-extracted-text";
     private static final String MIME_TYPE_SUFFIX = "-mime-type";
     private static final String TEMP_FILE_PREFIX = "ms-fs-binstore";
     private static final String TEMP_FILE_SUFFIX = "hashing";
+    private static final String UNUSED_INDEX_COMPLETE_FILE_NAME = "complete";
     
     private static final ConcurrentHashMap<String, FileSystemBinaryStore> INSTANCES = new ConcurrentHashMap<String, FileSystemBinaryStore>();
 
@@ -82,6 +95,7 @@ public class FileSystemBinaryStore extends AbstractBinaryStore {
 
     private final File directory;
     private final File trash;
+    private final File unusedIndex;
     private final NamedLocks locks = new NamedLocks();
     private volatile boolean initialized = false;
 
@@ -92,6 +106,7 @@ public class FileSystemBinaryStore extends AbstractBinaryStore {
     protected FileSystemBinaryStore( File directory, File trash ) {
         this.directory = directory;
         this.trash = trash;
+        this.unusedIndex = new File(directory, UNUSED_INDEX_DIRECTORY_NAME);
     }
 
     public File getDirectory() {
@@ -103,13 +118,11 @@ public class FileSystemBinaryStore extends AbstractBinaryStore {
         File tmpFile = null;
         BinaryValue value = null;
         try {
-            // Write the contents to a temporary file, and while we do grab the SHA-1 hash and the length ...
-            HashingInputStream hashingStream = SecureHash.createHashingStream(Algorithm.SHA_1, stream);
+            // Write the contents to a temporary file, and while we do grab the SHA-1 hash, the length and the leading bytes ...
+            IngestingInputStream ingest = ingest(stream);
             tmpFile = File.createTempFile(TEMP_FILE_PREFIX, TEMP_FILE_SUFFIX);
-            IoUtil.write(hashingStream, new BufferedOutputStream(new FileOutputStream(tmpFile)),
-                         AbstractBinaryStore.MEDIUM_BUFFER_SIZE);
-            byte[] sha1 = hashingStream.getHash();
-            BinaryKey key = new BinaryKey(sha1);
+            IoUtil.write(ingest, new BufferedOutputStream(new FileOutputStream(tmpFile)), AbstractBinaryStore.MEDIUM_BUFFER_SIZE);
+            BinaryKey key = ingest.getKey();
 
             final long numberOfBytes = tmpFile.length();
             if (numberOfBytes < getMinimumBinarySizeInBytes()) {
@@ -122,12 +135,11 @@ public class FileSystemBinaryStore extends AbstractBinaryStore {
                 if (markAsUnused) {
                     markAsUnused(key);
                 }
+                ingested(ingest);
             }
             return value;
         } catch (IOException e) {
             throw new BinaryStoreException(e);
-        } catch (NoSuchAlgorithmException e) {
-            throw new SystemFailureException(e);
         } finally {
             if (tmpFile != null) {
                 try {
@@ -196,6 +208,7 @@ public class FileSystemBinaryStore extends AbstractBinaryStore {
         try {
             if (!trashFile.exists() || !trashFile.canRead()) {
                 IoUtil.write("", new BufferedOutputStream(new FileOutputStream(trashFile)));
+                addToUnusedIndex(key, trashFile.lastModified());
             }
             return trashFile;
         } catch (IOException e) {
@@ -477,72 +490,137 @@ public class FileSystemBinaryStore extends AbstractBinaryStore {
     public void removeValuesUnusedLongerThan( long minimumAge,
                                               TimeUnit unit ) throws BinaryStoreException {
         long oldestTimestamp = System.currentTimeMillis() - TimeUnit.MILLISECONDS.convert(minimumAge, unit);
-        try {
-            removeFilesOlderThan(oldestTimestamp, trash);
-        } catch (IOException e) {
-            throw new BinaryStoreException(e);
-        } catch (BinaryStoreException bse) {
-            throw bse;
+        File complete = new File(unusedIndex, UNUSED_INDEX_COMPLETE_FILE_NAME);
+        if (!complete.exists()) {
+            // the trash files were created before the index existed (or the index was removed), so index all of them once ...
+            unusedIndex.mkdirs();
+            addTrashFilesToUnusedIndex(trash);
+            try {
+                complete.createNewFile();
+            } catch (IOException e) {
+                throw new BinaryStoreException(e);
+            }
+        }
+        // visit the intervals in chronological order, stopping at the first one which is not old enough ...
+        for (File bucket : unusedIndexBuckets().headMap(oldestTimestamp).values()) {
+            removeValuesUnusedLongerThan(oldestTimestamp, bucket);
+            if (Thread.currentThread().isInterrupted()) {
+                // the remaining intervals will be processed by the next garbage collection
+                return;
+            }
+        }
+    }
+
+    private SortedMap<Long, File> unusedIndexBuckets() {
+        SortedMap<Long, File> buckets = new TreeMap<>();
+        File[] files = unusedIndex.listFiles();
+        if (files == null) {
+            return buckets;
         }
+        for (File file : files) {
+            if (!file.isDirectory()) continue;
+            try {
+                buckets.put(Long.valueOf(file.getName()), file);
+            } catch (NumberFormatException e) {
+                // not an interval of the index
+            }
+        }
+        return buckets;
     }
 
-    private void removeFilesOlderThan( long oldestTimestamp,
-                                       File parentDirectory ) throws IOException, BinaryStoreException {
-        if (parentDirectory == null || !parentDirectory.exists() || parentDirectory.isFile()) {
+    private void removeValuesUnusedLongerThan( long oldestTimestamp,
+                                               File bucket ) throws BinaryStoreException {
+        File[] hints = bucket.listFiles();
+        if (hints == null) {
             return;
         }
-        boolean pruneTrashRequired = false;
-        boolean pruneMainRequired = false;
-        File[] files = parentDirectory.listFiles();
-        if (files == null) {
+        for (File hint : hints) {
+            // we know that the files in the index have the name as sha1
+            String sha1 = hint.getName();
+            // hold the lock of the value, so that it cannot be concurrently marked as unused (and indexed) again
+            Lock lock = locks.writeLock(sha1);
+            try {
+                removeValueUnusedLongerThan(oldestTimestamp, new BinaryKey(sha1), hint);
+            } finally {
+                lock.unlock();
+            }
+        }
+        // this only succeeds if all of the values in the interval have been processed
+        bucket.delete();
+    }
+
+    private void removeValueUnusedLongerThan( long oldestTimestamp,
+                                              BinaryKey key,
+                                              File hint ) throws BinaryStoreException {
+        File trashFile = findFile(trash, key, false);
+        if (!trashFile.exists()) {
+            // the value has been used again since
+            hint.delete();
+            pruneEmptyDirectories(trash, trashFile.getParentFile());
             return;
         }
-        File mainDirectoryToPrune = null;
-        for (File fileOrDir : files) {
-            if (fileOrDir == null || !fileOrDir.exists()) {
-                continue;
+        long unusedSince = trashFile.lastModified();
+        if (unusedSince >= oldestTimestamp) {
+            // the value has been used and then marked as unused again since, so move it to the right interval
+            File newHint = unusedIndexFile(key, unusedSince);
+            if (!newHint.equals(hint)) {
+                addToUnusedIndex(key, unusedSince);
+                hint.delete();
             }
-            // The file or directory should exist at this point (at least for now) ...
-            if (fileOrDir.isDirectory()) {
-                removeFilesOlderThan(oldestTimestamp, fileOrDir);
-            } else if (fileOrDir.isFile()) {
-                File file = fileOrDir;
-                if (file.lastModified() < oldestTimestamp) {
-                    // we know that the files in the trash have the name as sha1
-                    String sha1 = file.getName();
-                    BinaryKey key = new BinaryKey(sha1);
-                    File persistedFile = findFile(directory, key, false);
-                    if (persistedFile.exists() && persistedFile.canRead()) {
-                        Lock lock = locks.writeLock(sha1);
-                        try {
-                            if (persistedFile.exists()) {
-                                // only remove the trash files if we successfully deleted the main file
-                                // otherwise we'll try this again later on
-                                if (persistedFile.delete() && removeTrashFile(key)) {
-                                    pruneTrashRequired = true;
-                                    pruneMainRequired = true;
-                                    mainDirectoryToPrune = persistedFile.getParentFile();
-                                }
-                            }
-                        } finally {
-                            lock.unlock();
-                        }
-                    } else {
-                        // the persisted file doesn't exist anymore, so remove all trash files
-                        if (removeAllTrashFilesFor(key)) {
-                            pruneTrashRequired = true;
-                        }
-                    }
-                }
+            return;
+        }
+        File persistedFile = findFile(directory, key, false);
+        if (persistedFile.exists() && persistedFile.canRead()) {
+            // only remove the trash and index files if we successfully deleted the main file
+            // otherwise we'll try this again later on
+            if (persistedFile.delete() && removeTrashFile(key)) {
+                hint.delete();
+                pruneEmptyDirectories(trash, trashFile.getParentFile());
+                pruneEmptyDirectories(directory, persistedFile.getParentFile());
             }
+        } else {
+            // the persisted file doesn't exist anymore, so remove all trash files
+            removeAllTrashFilesFor(key);
+            hint.delete();
+            pruneEmptyDirectories(trash, trashFile.getParentFile());
         }
-        if (pruneTrashRequired) {
-            // at least one file was removed, so cleanup the dir structure
-            pruneEmptyDirectories(trash, parentDirectory);
+    }
+
+    private void addTrashFilesToUnusedIndex( File parentDirectory ) throws BinaryStoreException {
+        File[] files = parentDirectory.listFiles();
+        if (files == null) {
+            return;
+        }
+        for (File file : files) {
+            if (file.isDirectory()) {
+                addTrashFilesToUnusedIndex(file);
+            } else if (file.isFile() && file.getName().length() == 40) {
+                addToUnusedIndex(new BinaryKey(file.getName()), file.lastModified());
+            }
         }
-        if (pruneMainRequired && mainDirectoryToPrune != null) {
-            pruneEmptyDirectories(directory, mainDirectoryToPrune);
+    }
+
+    private void addToUnusedIndex( BinaryKey key,
+                                   long unusedSince ) throws BinaryStoreException {
+        File hint = unusedIndexFile(key, unusedSince);
+        IOException failure = null;
+        for (int i = 0; i != 5; ++i) {
+            hint.getParentFile().mkdirs();
+            try {
+                hint.createNewFile();
+                return;
+            } catch (IOException e) {
+                // the interval may just have been removed by a concurrent garbage collection, so try again ...
+                failure = e;
+            }
         }
+        throw new BinaryStoreException(failure);
+    }
+
+    private File unusedIndexFile( BinaryKey key,
+                                  long unusedSince ) {
+        long bucket = unusedSince - unusedSince % UNUSED_INDEX_BUCKET_MILLIS;
+        return new File(new File(unusedIndex, Long.toString(bucket)), key.toString());
     }
 
     @Override
@@ -0,0 +1,174 @@
+/*
+ * ModeShape (http://www.modeshape.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.modeshape.jcr.value.binary;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import org.modeshape.common.SystemFailureException;
+import org.modeshape.common.annotation.NotThreadSafe;
+import org.modeshape.common.util.SecureHash;
+import org.modeshape.common.util.SecureHash.Algorithm;
+import org.modeshape.common.util.SecureHash.HashingInputStream;
+import org.modeshape.jcr.value.BinaryKey;
+
+/**
+ * An {@link InputStream} which wraps the content of a binary value while a {@link AbstractBinaryStore store} persists it, so that
+ * reading the content once produces the SHA-1 hash of the content, its size and (optionally) a copy of its first bytes. Those
+ * first bytes are enough to detect the MIME type of most content and, for small values, are the whole content, so neither the
+ * MIME type detection nor the text extraction have to read the content back from the store.
+ * 
+ * @see AbstractBinaryStore#ingest(InputStream)
+ */
+@NotThreadSafe
+public final class IngestingInputStream extends FilterInputStream {
+
+    private static final byte[] EMPTY_HEAD = new byte[0];
+
+    private final int headSize;
+    private byte[] head = EMPTY_HEAD;
+    private int headLength;
+    private long size;
+
+    protected IngestingInputStream( InputStream stream,
+                                    int headSize ) {
+        super(hashingStream(stream));
+        assert headSize >= 0;
+        this.headSize = headSize;
+    }
+
+    private static HashingInputStream hashingStream( InputStream stream ) {
+        try {
+            return SecureHash.createHashingStream(Algorithm.SHA_1, stream);
+        } catch (NoSuchAlgorithmException e) {
+            throw new SystemFailureException(e);
+        }
+    }
+
+    @Override
+    public int read() throws IOException {
+        int result = in.read();
+        if (result != -1) {
+            if (headLength < headSize) {
+                ensureHeadCapacity(headLength + 1);
+                head[headLength++] = (byte)result;
+            }
+            ++size;
+        }
+        return result;
+    }
+
+    @Override
+    public int read( byte[] b,
+                     int off,
+                     int len ) throws IOException {
+        int n = in.read(b, off, len);
+        if (n > 0) {
+            int captured = Math.min(n, headSize - headLength);
+            if (captured > 0) {
+                ensureHeadCapacity(headLength + captured);
+                System.arraycopy(b, off, head, headLength, captured);
+                headLength += captured;
+            }
+            size += n;
+        }
+        return n;
+    }
+
+    private void ensureHeadCapacity( int capacity ) {
+        // the head grows with the content, so small values don't cost a whole head ...
+        if (capacity > head.length) {
+            head = Arrays.copyOf(head, Math.min(headSize, Math.max(capacity, head.length * 2)));
+        }
+    }
+
+    @Override
+    public long skip( long n ) throws IOException {
+        // every byte has to be hashed (and possibly captured), so skipped bytes are still read ...
+        byte[] buffer = new byte[(int)Math.min(n, AbstractBinaryStore.MEDIUM_BUFFER_SIZE)];
+        long skipped = 0;
+        while (skipped < n) {
+            int read = read(buffer, 0, (int)Math.min(buffer.length, n - skipped));
+            if (read == -1) {
+                break;
+            }
+            skipped += read;
+        }
+        return skipped;
+    }
+
+    @Override
+    public boolean markSupported() {
+        return false;
+    }
+
+    @Override
+    public synchronized void mark( int readlimit ) {
+        // not supported, since re-reading content would corrupt the hash
+    }
+
+    @Override
+    public synchronized void reset() throws IOException {
+        throw new IOException("mark/reset not supported");
+    }
+
+    /**
+     * Get the SHA-1 hash of the content which has been read. This method will return null if the stream has not yet been closed.
+     * 
+     * @return the hash, or null if the stream has not yet been closed
+     */
+    public byte[] getHash() {
+        return ((HashingInputStream)in).getHash();
+    }
+
+    /**
+     * Get the key of the content which has been read. This should only be called once the stream has been closed.
+     * 
+     * @return the key; never null
+     */
+    public BinaryKey getKey() {
+        return new BinaryKey(getHash());
+    }
+
+    /**
+     * Get the number of bytes which have been read.
+     * 
+     * @return the size of the content
+     */
+    public long getSize() {
+        return size;
+    }
+
+    /**
+     * Get a copy of the first bytes of the content which have been captured while reading.
+     * 
+     * @return the captured bytes; never null but empty if nothing was captured
+     */
+    public byte[] getHead() {
+        return Arrays.copyOf(head, headLength);
+    }
+
+    /**
+     * Determine whether the {@link #getHead() captured bytes} are the whole content.
+     * 
+     * @return true if all the content has been captured, or false otherwise
+     */
+    public boolean isHeadComplete() {
+        return headLength == size;
+    }
+}
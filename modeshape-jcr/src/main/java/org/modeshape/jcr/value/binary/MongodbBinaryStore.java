@@ -200,11 +200,14 @@ public class MongodbBinaryStore extends AbstractBinaryStore {
     public BinaryValue storeValue( InputStream stream,
                                    boolean markAsUnused ) throws BinaryStoreException {
         // store into temporary file system store and get SHA-1
-        BinaryValue temp = cache.storeValue(stream, markAsUnused);
+        IngestingInputStream ingest = ingest(stream);
+        BinaryValue temp = cache.storeValue(ingest, markAsUnused);
         try {
             // prepare new binary key based on SHA-1
             BinaryKey key = new BinaryKey(temp.getKey().toString());
 
+            ingested(ingest);
+
             // check for duplicate records
             if (db.collectionExists(key.toString())) {
                 return new StoredBinaryValue(this, key, temp.getSize());
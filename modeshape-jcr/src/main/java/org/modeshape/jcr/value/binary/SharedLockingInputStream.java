@@ -20,8 +20,11 @@ import java.io.File;
 import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
 import java.util.concurrent.Callable;
 import java.util.concurrent.locks.Lock;
+import org.modeshape.common.util.ChannelTransferable;
 import org.modeshape.jcr.value.BinaryKey;
 
 /**
@@ -30,13 +33,19 @@ import org.modeshape.jcr.value.BinaryKey;
  * {@link #close() closed explicitly} or if there are any errors or exceptions while reading. Caution: be very careful when
  * working with this class, as any open without close operations can produce "readLocks" which do not get released, blocking any
  * potential subsequent writes.
+ * <p>
+ * Regions of the file can also be {@link #transferTo(long, long, WritableByteChannel) transferred} directly from the file's
+ * channel (under the same locks), which allows callers serving ranges of large binary values to avoid reading the content that
+ * precedes each range.
+ * </p>
  */
-public final class SharedLockingInputStream extends InputStream {
+public final class SharedLockingInputStream extends InputStream implements ChannelTransferable {
 
     protected final BinaryKey key;
     protected final File file;
     protected final NamedLocks lockManager;
     protected InputStream stream;
+    protected FileInputStream fileStream;
     protected Lock processLock;
     protected FileLocks.WrappedLock fileLock;
     protected boolean eofReached;
@@ -73,8 +82,9 @@ public final class SharedLockingInputStream extends InputStream {
                     SharedLockingInputStream.this.fileLock = FileLocks.get().readLock(file);
 
                     // Now create a buffered stream ...
+                    SharedLockingInputStream.this.fileStream = new FileInputStream(file);
                     SharedLockingInputStream.this.stream = new BufferedInputStream(
-                                                                                   new FileInputStream(file),
+                                                                                   fileStream,
                                                                                    AbstractBinaryStore.bestBufferSize(file.length()));
                     SharedLockingInputStream.this.eofReached = false;
                 }
@@ -105,6 +115,7 @@ public final class SharedLockingInputStream extends InputStream {
                 stream.close();
             } finally {
                 stream = null;
+                fileStream = null;
                 if (fileLock != null) {
                     try {
                         fileLock.unlock();
@@ -253,6 +264,27 @@ public final class SharedLockingInputStream extends InputStream {
         });
     }
 
+    @Override
+    public long transferTo( final long position,
+                            final long count,
+                            final WritableByteChannel target ) throws IOException {
+        return doOperation(new Callable<Long>() {
+            @Override
+            public Long call() throws Exception {
+                open();
+                // Positional transfers don't change the position of the channel, so the buffered stream is unaffected ...
+                FileChannel channel = fileStream.getChannel();
+                long transferred = 0L;
+                while (transferred < count) {
+                    long result = channel.transferTo(position + transferred, count - transferred, target);
+                    if (result <= 0) break;
+                    transferred += result;
+                }
+                return transferred;
+            }
+        });
+    }
+
     @Override
     public String toString() {
         return key.toString();
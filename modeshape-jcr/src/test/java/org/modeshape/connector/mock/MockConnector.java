@@ -30,6 +30,7 @@ import org.infinispan.schematic.document.Document;
 import org.infinispan.schematic.document.EditableDocument;
 import org.modeshape.jcr.JcrNtLexicon;
 import org.modeshape.jcr.api.nodetype.NodeTypeManager;
+import org.modeshape.jcr.spi.federation.ConnectorChangeSet;
 import org.modeshape.jcr.spi.federation.DocumentChanges;
 import org.modeshape.jcr.spi.federation.DocumentReader;
 import org.modeshape.jcr.spi.federation.DocumentWriter;
@@ -147,6 +148,29 @@ public class MockConnector extends WritableConnector implements Pageable {
         documentsByLocation.put(NONT_QUERYABLE_DOC_LOCATION, nonQueryableDoc);
     }
 
+    /**
+     * Changes a property of the document at the given location directly in the "external system" (i.e. without going through the
+     * repository), optionally signalling the change to the repository.
+     * 
+     * @param location the location of the document; may not be null
+     * @param propertyName the name of the property; may not be null
+     * @param value the new value of the property; may not be null
+     * @param invalidate {@code true} if the node should be {@link ConnectorChangeSet#nodeInvalidated(String, String) invalidated}
+     */
+    public void changePropertyExternally( String location,
+                                          String propertyName,
+                                          Object value,
+                                          boolean invalidate ) {
+        Document document = documentsByLocation.get(location);
+        String id = readDocument(document).getDocumentId();
+        persistDocument(id, writeDocument(document).addProperty(propertyName, value).document());
+        if (invalidate) {
+            ConnectorChangeSet changes = newConnectorChangedSet();
+            changes.nodeInvalidated(id, location);
+            changes.publish(null);
+        }
+    }
+
     @Override
     public Document getDocumentById( String id ) {
         Document doc = documentsById.get(id);
@@ -0,0 +1,110 @@
+/*
+ * ModeShape (http://www.modeshape.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.modeshape.jcr;
+
+import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsNull.notNullValue;
+import static org.hamcrest.core.IsNull.nullValue;
+import static org.junit.Assert.assertThat;
+import java.util.concurrent.TimeUnit;
+import javax.jcr.RepositoryException;
+import javax.jcr.Session;
+import org.junit.Before;
+import org.junit.Test;
+import org.modeshape.connector.mock.MockConnector;
+import org.modeshape.jcr.cache.NodeKey;
+import org.modeshape.jcr.federation.FederatedDocumentCache;
+
+/**
+ * Tests the caching of the documents returned by connectors, both when a connector's documents expire after a time-to-live and
+ * when a connector invalidates the nodes whose external data has changed.
+ */
+public class ConnectorCachingTest extends SingleUseAbstractTest {
+
+    private static final String PROPERTY_NAME = "federated1_prop1";
+
+    private Connectors connectors;
+
+    @Before
+    @Override
+    public void beforeEach() throws Exception {
+        startRepositoryWithConfiguration(resource("config/repo-config-federation-caching.json"));
+        connectors = repository().runningState().connectors();
+    }
+
+    @Test
+    public void shouldOnlyCreateDocumentCachesForConnectorsWithTimeToLive() throws Exception {
+        assertThat(connectors.getDocumentCache(NodeKey.keyForSourceName("expiring-source")), is(notNullValue()));
+        assertThat(connectors.getDocumentCache(NodeKey.keyForSourceName("cached-source")), is(nullValue()));
+    }
+
+    @Test
+    public void shouldReadExternalChangesAfterCachedDocumentExpires() throws Exception {
+        assertThat(readProperty("/expiring"), is("a string"));
+
+        connector("expiring-source").changePropertyExternally(MockConnector.DOC1_LOCATION, PROPERTY_NAME, "changed", false);
+        assertThat(readProperty("/expiring"), is("a string"));
+
+        Thread.sleep(TimeUnit.SECONDS.toMillis(1) + 100);
+        assertThat(readProperty("/expiring"), is("changed"));
+    }
+
+    @Test
+    public void shouldReadExternalChangesOfExpiringDocumentsOnceConnectorInvalidatesNode() throws Exception {
+        assertThat(readProperty("/expiring"), is("a string"));
+        FederatedDocumentCache cache = connectors.getDocumentCache(NodeKey.keyForSourceName("expiring-source"));
+        assertThat(cache.size() > 0, is(true));
+
+        connector("expiring-source").changePropertyExternally(MockConnector.DOC1_LOCATION, PROPERTY_NAME, "changed", true);
+        assertEventuallyRead("/expiring", "changed");
+    }
+
+    @Test
+    public void shouldReadExternalChangesOfCachedDocumentsOnceConnectorInvalidatesNode() throws Exception {
+        assertThat(readProperty("/cached"), is("a string"));
+
+        connector("cached-source").changePropertyExternally(MockConnector.DOC1_LOCATION, PROPERTY_NAME, "changed", false);
+        assertThat(readProperty("/cached"), is("a string"));
+
+        connector("cached-source").changePropertyExternally(MockConnector.DOC1_LOCATION, PROPERTY_NAME, "changed again", true);
+        assertEventuallyRead("/cached", "changed again");
+    }
+
+    private MockConnector connector( String sourceName ) {
+        return (MockConnector)connectors.getConnectorForSourceName(sourceName);
+    }
+
+    private String readProperty( String path ) throws RepositoryException {
+        Session session = repository.login();
+        try {
+            return session.getNode(path).getProperty(PROPERTY_NAME).getString();
+        } finally {
+            session.logout();
+        }
+    }
+
+    private void assertEventuallyRead( String path,
+                                       String expectedValue ) throws Exception {
+        // the repository is notified of the invalidation asynchronously ...
+        long deadline = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(5);
+        String value = readProperty(path);
+        while (!expectedValue.equals(value) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(50);
+            value = readProperty(path);
+        }
+        assertThat(value, is(expectedValue));
+    }
+}
@@ -24,6 +24,7 @@ import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertThat;
 import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.File;
@@ -1180,6 +1181,64 @@ public class ImportExportTest extends SingleUseAbstractTest {
         sessC.logout();
     }
 
+    @Test
+    public void shouldImportInBatchesIntoWorkspace() throws Exception {
+        byte[] systemView = exportNodesForBatchImport(120);
+
+        session.getRootNode().addNode("target");
+        session.save();
+        ((Workspace)session.getWorkspace()).importXML("/target", new ByteArrayInputStream(systemView),
+                                                      ImportUUIDBehavior.IMPORT_UUID_CREATE_NEW, 25);
+
+        session.refresh(false);
+        Node imported = session.getNode("/target/batchSource");
+        assertThat(imported.getNodes().getSize(), is(120L));
+        for (int i = 0; i != 120; ++i) {
+            Node child = imported.getNode("child" + i);
+            assertThat(child.getProperty("index").getLong(), is((long)i));
+            assertThat(child.getNode("grandchild").getProperty("index").getLong(), is((long)i));
+        }
+    }
+
+    @Test
+    public void shouldRemoveSavedBatchesWhenImportIntoWorkspaceFails() throws Exception {
+        String systemView = new String(exportNodesForBatchImport(120), "UTF-8");
+        // append a node with an unknown primary type, which fails the import only after the other nodes were saved ...
+        int end = systemView.lastIndexOf("</sv:node>");
+        systemView = systemView.substring(0, end) + "<sv:node sv:name=\"invalid\">"
+                     + "<sv:property sv:name=\"jcr:primaryType\" sv:type=\"Name\"><sv:value>nt:noSuchType</sv:value>"
+                     + "</sv:property></sv:node>" + systemView.substring(end);
+
+        session.getRootNode().addNode("target");
+        session.save();
+        try {
+            ((Workspace)session.getWorkspace()).importXML("/target", new ByteArrayInputStream(systemView.getBytes("UTF-8")),
+                                                          ImportUUIDBehavior.IMPORT_UUID_CREATE_NEW, 25);
+            fail("The import should have failed");
+        } catch (RepositoryException e) {
+            // expected
+        }
+
+        session.refresh(false);
+        assertFalse(session.getNode("/target").hasNodes());
+    }
+
+    private byte[] exportNodesForBatchImport( int childCount ) throws RepositoryException, IOException {
+        Node source = session.getRootNode().addNode("batchSource");
+        for (int i = 0; i != childCount; ++i) {
+            Node child = source.addNode("child" + i);
+            child.setProperty("index", i);
+            child.addNode("grandchild").setProperty("index", i);
+        }
+        session.save();
+
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        session.exportSystemView("/batchSource", baos, false, false);
+        source.remove();
+        session.save();
+        return baos.toByteArray();
+    }
+
     private void assertCarsImported() throws RepositoryException {
         assertNode("/a/b/Cars");
         assertNode("/a/b/Cars/Hybrid");
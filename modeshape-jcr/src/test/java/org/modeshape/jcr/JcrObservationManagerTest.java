@@ -2223,6 +2223,43 @@ public final class JcrObservationManagerTest extends SingleUseAbstractTest {
         assertFalse(journal.hasNext());
     }
 
+    @Test
+    public void shouldSkipEventsInJournalAcrossRecords() throws Exception {
+        long startingDate = System.currentTimeMillis();
+        for (int i = 1; i <= 3; i++) {
+            getRoot().addNode("node" + i);
+            session.save();
+        }
+
+        EventJournal journal = getObservationManager().getEventJournal();
+        journal.skipTo(startingDate);
+        // each save produces a node added and a property added event
+        journal.skip(1);
+        assertEquals(0, journal.getPosition());
+        journal.skip(2);
+        assertEquals(2, journal.getPosition());
+        journal.skip(0);
+        assertEquals(2, journal.getPosition());
+        int remaining = 0;
+        while (journal.hasNext()) {
+            journal.nextEvent();
+            remaining++;
+        }
+        assertEquals(3, remaining);
+        assertEquals(5, journal.getPosition());
+
+        journal = getObservationManager().getEventJournal();
+        journal.skipTo(startingDate);
+        journal.skip(4);
+        assertEquals(3, journal.getPosition());
+        try {
+            journal.skip(3);
+            fail("Should not be able to skip past the end of the journal");
+        } catch (NoSuchElementException e) {
+            // expected
+        }
+    }
+
     @Test
     @FixFor( "MODE-2336" )
     public void shouldReceiveNodeTypeFilteredEventsWithUserTransactions() throws Exception {
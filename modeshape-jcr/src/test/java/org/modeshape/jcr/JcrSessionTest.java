@@ -20,6 +20,7 @@ import static org.hamcrest.core.IsInstanceOf.instanceOf;
 import static org.hamcrest.core.IsNot.not;
 import static org.hamcrest.core.IsNull.notNullValue;
 import static org.hamcrest.core.IsNull.nullValue;
+import static org.hamcrest.core.IsSame.sameInstance;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
@@ -1338,6 +1339,75 @@ public class JcrSessionTest extends SingleUseAbstractTest {
         }
     }
 
+    @Test
+    public void shouldUseSameNodeInstancesForTransientNodesWhenMoreNodesThanCachedAreUsed() throws Exception {
+        Node parent = session.getRootNode().addNode("parent");
+        for (int i = 0; i != 10100; ++i) {
+            parent.addNode("child" + i);
+        }
+        session.save();
+
+        Node modified = session.getNode("/parent/child0");
+        modified.setProperty("prop", "value");
+        Node added = parent.addNode("added");
+        // use more nodes than the session keeps ...
+        for (NodeIterator children = parent.getNodes(); children.hasNext();) {
+            children.nextNode();
+        }
+        assertThat(session.getNode("/parent/child0"), is(sameInstance(modified)));
+        assertThat(session.getNode("/parent/added"), is(sameInstance(added)));
+
+        session.save();
+        assertThat(session.getNode("/parent/child0").getProperty("prop").getString(), is("value"));
+        assertTrue(session.getNode("/parent/added").isSame(added));
+    }
+
+    @Test
+    public void shouldReleaseNodeInstancesOfTransientNodesSavedByItemSave() throws Exception {
+        Node parent = session.getRootNode().addNode("parent");
+        for (int i = 0; i != 10100; ++i) {
+            parent.addNode("child" + i);
+        }
+        Node target = session.getRootNode().addNode("target");
+        target.addMixin("mix:referenceable");
+        session.save();
+
+        // the new reference also changes the referenced node, outside of the saved branch ...
+        Node saved = session.getNode("/parent/child0");
+        saved.setProperty("ref", target);
+        // use more nodes than the session keeps ...
+        for (NodeIterator children = parent.getNodes(); children.hasNext();) {
+            children.nextNode();
+        }
+
+        parent.save();
+        assertThat(session.getNode("/parent/child0"), is(not(sameInstance(saved))));
+        assertThat(session.getNode("/parent/child0").getProperty("ref").getNode().isSame(target), is(true));
+    }
+
+    @Test
+    public void shouldReleaseNodeInstancesOfTransientNodesRefreshedWithoutKeepingChanges() throws Exception {
+        Node parent = session.getRootNode().addNode("parent");
+        for (int i = 0; i != 10100; ++i) {
+            parent.addNode("child" + i);
+        }
+        Node other = session.getRootNode().addNode("other");
+        session.save();
+
+        Node refreshed = session.getNode("/parent/child0");
+        refreshed.setProperty("prop", "value");
+        other.setProperty("prop", "value");
+        // use more nodes than the session keeps ...
+        for (NodeIterator children = parent.getNodes(); children.hasNext();) {
+            children.nextNode();
+        }
+
+        refreshed.refresh(false);
+        assertThat(session.getNode("/parent/child0"), is(not(sameInstance(refreshed))));
+        assertThat(session.getNode("/other"), is(sameInstance(other)));
+        assertTrue(session.hasPendingChanges());
+    }
+
     private List<Node> queryAndExpectResults( String queryString,
                                               int howMany ) throws RepositoryException {
         QueryManager queryManager = session.getWorkspace().getQueryManager();
@@ -30,6 +30,11 @@ import java.net.URL;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 import javax.jcr.ItemNotFoundException;
 import javax.jcr.Node;
 import javax.jcr.NodeIterator;
@@ -1203,6 +1208,80 @@ public class JcrVersioningTest extends SingleUseAbstractTest {
         session.save();
     }
 
+    @Test
+    public void shouldCheckinMultipleNodesAtOnce() throws Exception {
+        Node parent = session.getRootNode().addNode("parent");
+        String[] paths = new String[3];
+        for (int i = 0; i != paths.length; ++i) {
+            Node node = parent.addNode("node" + i);
+            node.addMixin(NodeType.MIX_VERSIONABLE);
+            node.setProperty("prop", "value" + i);
+            paths[i] = node.getPath();
+        }
+        session.save();
+
+        Version[] versions = ((org.modeshape.jcr.api.version.VersionManager)versionManager).checkin(paths);
+        assertEquals(paths.length, versions.length);
+        for (int i = 0; i != paths.length; ++i) {
+            assertFalse(versionManager.isCheckedOut(paths[i]));
+            assertEquals("1.0", versions[i].getName());
+            assertEquals(versionManager.getBaseVersion(paths[i]).getIdentifier(), versions[i].getIdentifier());
+            assertEquals("value" + i, versions[i].getFrozenNode().getProperty("prop").getString());
+        }
+
+        // Checking in nodes which are already checked in returns their base versions ...
+        Version[] again = ((org.modeshape.jcr.api.version.VersionManager)versionManager).checkin(paths);
+        for (int i = 0; i != paths.length; ++i) {
+            assertEquals(versions[i].getIdentifier(), again[i].getIdentifier());
+        }
+    }
+
+    @Test
+    public void shouldCheckinUnrelatedNodesConcurrently() throws Exception {
+        final int threadCount = 8;
+        final int checkinsPerThread = 5;
+        Node parent = session.getRootNode().addNode("parent");
+        for (int i = 0; i != threadCount; ++i) {
+            parent.addNode("node" + i).addMixin(NodeType.MIX_VERSIONABLE);
+        }
+        session.save();
+
+        ExecutorService executor = Executors.newFixedThreadPool(threadCount);
+        try {
+            List<Future<Void>> results = new ArrayList<Future<Void>>();
+            for (int i = 0; i != threadCount; ++i) {
+                final String path = "/parent/node" + i;
+                results.add(executor.submit(new Callable<Void>() {
+                    @Override
+                    public Void call() throws Exception {
+                        Session threadSession = repository.login();
+                        try {
+                            VersionManager threadVersionManager = threadSession.getWorkspace().getVersionManager();
+                            for (int j = 0; j != checkinsPerThread; ++j) {
+                                threadVersionManager.checkin(path);
+                                threadVersionManager.checkout(path);
+                            }
+                            return null;
+                        } finally {
+                            threadSession.logout();
+                        }
+                    }
+                }));
+            }
+            for (Future<Void> result : results) {
+                result.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        for (int i = 0; i != threadCount; ++i) {
+            VersionHistory history = versionManager.getVersionHistory("/parent/node" + i);
+            // the root version plus one version per check-in ...
+            assertEquals(checkinsPerThread + 1, history.getAllVersions().getSize());
+        }
+    }
+
     private List<String> allChildrenPaths( Node root ) throws Exception {
         List<String> paths = new ArrayList<String>();
         NodeIterator nodeIterator = root.getNodes();
@@ -27,17 +27,21 @@ import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 import java.io.ByteArrayInputStream;
 import java.io.InputStream;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
 import javax.jcr.ImportUUIDBehavior;
+import javax.jcr.ItemNotFoundException;
 import javax.jcr.NamespaceRegistry;
 import javax.jcr.Node;
 import javax.jcr.NodeIterator;
 import javax.jcr.PathNotFoundException;
+import javax.jcr.ReferentialIntegrityException;
 import javax.jcr.RepositoryException;
 import javax.jcr.Session;
 import javax.jcr.lock.LockException;
@@ -55,8 +59,12 @@ import org.modeshape.jcr.cache.NodeKey;
 import org.modeshape.jcr.cache.change.Change;
 import org.modeshape.jcr.cache.change.ChangeSet;
 import org.modeshape.jcr.cache.change.ChangeSetListener;
+import org.modeshape.jcr.cache.change.NodePurged;
+import org.modeshape.jcr.cache.change.NodeRemoved;
+import org.modeshape.jcr.cache.change.NodeSubtreeRemoved;
 import org.modeshape.jcr.cache.change.WorkspaceRemoved;
 import org.modeshape.jcr.security.SimplePrincipal;
+import org.modeshape.jcr.value.Path;
 
 /**
  * @author jverhaeg
@@ -277,6 +285,193 @@ public class JcrWorkspaceTest extends SingleUseAbstractTest {
         workspace.move("/a/b", "/b/b-copy");
     }
 
+    @Test
+    public void shouldRemoveSubtreeInBulk() throws Exception {
+        Node bulk = session.getRootNode().addNode("bulk");
+        for (int i = 0; i != 10; ++i) {
+            Node child = bulk.addNode("child" + i);
+            for (int j = 0; j != 10; ++j) {
+                child.addNode("grandChild" + j).setProperty("data", session.getValueFactory()
+                                                                           .createBinary(new ByteArrayInputStream(("data" + i)
+                                                                                                                          .getBytes())));
+            }
+        }
+        session.save();
+        String childId = session.getNode("/bulk/child5").getIdentifier();
+
+        final CountDownLatch subtreeRemovedLatch = new CountDownLatch(1);
+        final List<Change> removals = new ArrayList<>();
+        repository.changeBus().register(new ChangeSetListener() {
+            @Override
+            public void notify( ChangeSet changeSet ) {
+                for (Change change : changeSet) {
+                    if (change instanceof NodeRemoved) {
+                        removals.add(change);
+                        if (change instanceof NodeSubtreeRemoved) {
+                            subtreeRemovedLatch.countDown();
+                        }
+                    }
+                }
+            }
+        });
+
+        assertEquals(111L, workspace.removeSubtree("/bulk"));
+        assertNotFound("/bulk", session);
+        assertNotFound("/bulk/child5/grandChild5", session);
+        try {
+            session.getNodeByIdentifier(childId);
+            fail("Node " + childId + " should have been removed");
+        } catch (ItemNotFoundException e) {
+            // expected
+        }
+
+        assertTrue(subtreeRemovedLatch.await(10, TimeUnit.SECONDS));
+        assertEquals(1, removals.size());
+        NodeSubtreeRemoved removed = (NodeSubtreeRemoved)removals.get(0);
+        assertEquals("bulk", removed.getPath().getLastSegment().getName().getLocalName());
+        assertEquals(110L, removed.getDescendantCount());
+    }
+
+    @Test
+    public void shouldRemoveSubtreeInBulkAsynchronously() throws Exception {
+        Node bulk = session.getRootNode().addNode("bulk");
+        for (int i = 0; i != 50; ++i) {
+            bulk.addNode("child" + i).addNode("grandChild");
+        }
+        session.save();
+
+        Future<Long> result = workspace.removeSubtreeAsync("/bulk");
+        // the subtree is detached before the method returns ...
+        assertNotFound("/bulk", session);
+        assertEquals(101L, result.get(10, TimeUnit.SECONDS).longValue());
+        assertFalse(session.getRootNode().hasNode("bulk"));
+    }
+
+    @Test
+    public void shouldReleaseReferencesFromNodesRemovedInBulk() throws Exception {
+        Node target = session.getRootNode().addNode("target");
+        target.addMixin("mix:referenceable");
+        Node bulk = session.getRootNode().addNode("bulk");
+        Node referenced = bulk.addNode("referenced");
+        referenced.addMixin("mix:referenceable");
+        session.save();
+        bulk.addNode("referrer").setProperty("ref", referenced);
+        bulk.addNode("outgoing").setProperty("ref", target);
+        session.save();
+        assertEquals(1, target.getReferences().getSize());
+
+        assertEquals(4L, workspace.removeSubtree("/bulk"));
+        assertNotFound("/bulk", session);
+        assertEquals(0, session.getNode("/target").getReferences().getSize());
+        // the target should no longer be referenced, so it can be removed ...
+        session.getNode("/target").remove();
+        session.save();
+    }
+
+    @Test
+    public void shouldNotRemoveSubtreeInBulkIfReferencedFromOutside() throws Exception {
+        Node bulk = session.getRootNode().addNode("bulk");
+        Node referenced = bulk.addNode("child").addNode("referenced");
+        referenced.addMixin("mix:referenceable");
+        session.save();
+        session.getNode("/b").setProperty("ref", referenced);
+        session.save();
+
+        try {
+            workspace.removeSubtree("/bulk");
+            fail("Expected a referential integrity failure");
+        } catch (ReferentialIntegrityException e) {
+            // expected
+        }
+        assertNotNull(session.getNode("/bulk/child/referenced"));
+    }
+
+    @Test
+    public void shouldRecordEveryNodePurgedWhenRemovingSubtreeInBulk() throws Exception {
+        Node bulk = session.getRootNode().addNode("bulk");
+        for (int i = 0; i != 3; ++i) {
+            bulk.addNode("child" + i).addNode("grandChild");
+        }
+        session.save();
+        String grandChildId = session.getNode("/bulk/child1/grandChild").getIdentifier();
+
+        final CountDownLatch purgedLatch = new CountDownLatch(7);
+        final Map<String, Path> purgedPaths = new HashMap<>();
+        repository.changeBus().register(new ChangeSetListener() {
+            @Override
+            public void notify( ChangeSet changeSet ) {
+                for (Change change : changeSet) {
+                    if (change instanceof NodePurged) {
+                        NodePurged purged = (NodePurged)change;
+                        purgedPaths.put(purged.getKey().getIdentifier(), purged.getPath());
+                        purgedLatch.countDown();
+                    }
+                }
+            }
+        });
+
+        assertEquals(7L, workspace.removeSubtree("/bulk"));
+        assertTrue(purgedLatch.await(10, TimeUnit.SECONDS));
+        assertEquals(7, purgedPaths.size());
+        assertEquals(session.pathFactory().create("/bulk/child1/grandChild"), purgedPaths.get(grandChildId));
+    }
+
+    @Test
+    public void shouldNotRemoveSubtreeInBulkIfDescendantIsShared() throws Exception {
+        Node bulk = session.getRootNode().addNode("bulk");
+        bulk.addNode("child").addNode("shared").addMixin("mix:shareable");
+        session.save();
+        workspace.clone(workspaceName, "/bulk/child/shared", "/b/shared", false);
+        assertEquals(session.getNode("/bulk/child/shared").getIdentifier(), session.getNode("/b/shared").getIdentifier());
+
+        try {
+            workspace.removeSubtree("/bulk");
+            fail("Expected the removal of a subtree with a shared descendant to fail");
+        } catch (RepositoryException e) {
+            // expected
+        }
+        assertNotNull(session.getNode("/bulk/child/shared"));
+        assertNotNull(session.getNode("/b/shared"));
+    }
+
+    @Test
+    public void shouldNotRemoveSubtreeInBulkIfDescendantIsLockedByAnotherSession() throws Exception {
+        Node bulk = session.getRootNode().addNode("bulk");
+        bulk.addNode("child").addNode("locked").addMixin("mix:lockable");
+        session.save();
+
+        Session lockingSession = repository.login();
+        try {
+            lockingSession.getWorkspace().getLockManager().lock("/bulk/child/locked", false, false, Long.MAX_VALUE, null);
+            try {
+                workspace.removeSubtree("/bulk");
+                fail("Expected the removal of a subtree with a locked descendant to fail");
+            } catch (LockException e) {
+                // expected
+            }
+            assertNotNull(session.getNode("/bulk/child/locked"));
+            lockingSession.getWorkspace().getLockManager().unlock("/bulk/child/locked");
+        } finally {
+            lockingSession.logout();
+        }
+    }
+
+    @Test
+    public void shouldRemoveSubtreeInBulkIfDescendantIsLockedBySameSession() throws Exception {
+        Node bulk = session.getRootNode().addNode("bulk");
+        bulk.addNode("child").addNode("locked").addMixin("mix:lockable");
+        session.save();
+        session.getWorkspace().getLockManager().lock("/bulk/child/locked", false, true, Long.MAX_VALUE, null);
+
+        assertEquals(3L, workspace.removeSubtree("/bulk"));
+        assertNotFound("/bulk", session);
+    }
+
+    @Test( expected = RepositoryException.class )
+    public void shouldNotRemoveRootNodeInBulk() throws Exception {
+        workspace.removeSubtree("/");
+    }
+
     @Test
     @FixFor( "MODE-2009" )
     public void shouldRemoveAllNodesWhenRemovingWorkspace() throws Exception {
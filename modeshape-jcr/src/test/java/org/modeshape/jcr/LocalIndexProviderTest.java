@@ -38,6 +38,7 @@ import org.modeshape.common.FixFor;
 import org.modeshape.jcr.api.index.IndexManager;
 import org.modeshape.jcr.api.query.Query;
 import org.modeshape.jcr.query.engine.IndexPlanners;
+import org.modeshape.jcr.spi.index.provider.ManagedIndex;
 
 /**
  * This test verifies that the local index provider works when the indexes are updated <em>synchronous</em>. See
@@ -194,6 +195,33 @@ public class LocalIndexProviderTest extends AbstractIndexProviderTest {
         validateQuery().rowCount(1L).useIndex(IndexPlanners.NODE_BY_ID_INDEX_NAME).validate(query, query.execute());
     }
 
+    @Test
+    public void shouldRemoveDescendantsOfSubtreeRemovedInBulkFromIndex() throws Exception {
+        registerValueIndex("bulkNodes", "nt:unstructured", null, "*", "bulkMarker", PropertyType.STRING);
+
+        Node bulk = session().getRootNode().addNode("bulk");
+        bulk.setProperty("bulkMarker", "x");
+        for (int i = 0; i != 5; ++i) {
+            Node child = bulk.addNode("child" + i);
+            child.setProperty("bulkMarker", "x");
+            child.addNode("grandChild").setProperty("bulkMarker", "x");
+        }
+        session.save();
+
+        Query query = jcrSql2Query("SELECT * FROM [nt:unstructured] WHERE [bulkMarker] = 'x'");
+        validateQuery().rowCount(11L).useIndex("bulkNodes").validate(query, query.execute());
+        ManagedIndex index = repository.runningState().queryManager().getIndexManager().getProvider(providerName())
+                                       .getManagedIndex("bulkNodes", session.getWorkspace().getName());
+        assertEquals(11L, index.estimateTotalCount());
+
+        assertEquals(11L, session.getWorkspace().removeSubtree("/bulk"));
+
+        // the query would skip the removed nodes anyway, so check that the index no longer contains any of them ...
+        assertEquals(0L, index.estimateTotalCount());
+        query = jcrSql2Query("SELECT * FROM [nt:unstructured] WHERE [bulkMarker] = 'x'");
+        validateQuery().rowCount(0L).useIndex("bulkNodes").validate(query, query.execute());
+    }
+
     @FixFor( "MODE-2312" )
     @Test
     public void shouldUseImplicitPathIndex() throws Exception {
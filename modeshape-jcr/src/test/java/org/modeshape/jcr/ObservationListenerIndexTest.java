@@ -0,0 +1,159 @@
+/*
+ * ModeShape (http://www.modeshape.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.modeshape.jcr;
+
+import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertThat;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import javax.jcr.observation.Event;
+import org.junit.Before;
+import org.junit.Test;
+import org.modeshape.jcr.cache.NodeKey;
+import org.modeshape.jcr.cache.change.Change;
+import org.modeshape.jcr.cache.change.RecordingChanges;
+import org.modeshape.jcr.value.Name;
+import org.modeshape.jcr.value.Path;
+
+/**
+ * Unit test for {@link ObservationListenerIndex}.
+ */
+public class ObservationListenerIndexTest {
+
+    private static final String WORKSPACE = "default";
+    private static final String SYSTEM_WORKSPACE = "system";
+    private static final String SESSION_ID = "session1";
+    private static final int ALL_EVENTS = org.modeshape.jcr.api.observation.Event.ALL_EVENTS;
+
+    private ExecutionContext context;
+    private ObservationListenerIndex index;
+    private RecordingChanges changes;
+    private List<Change> recorded;
+
+    @Before
+    public void beforeEach() {
+        context = new ExecutionContext();
+        index = new ObservationListenerIndex();
+        changes = new RecordingChanges(SESSION_ID, "process", "repository", WORKSPACE, null);
+        nodeAdded("node1", "/a/b/c");
+        propertyAdded("node2", "/x");
+        nodeAdded("node3", "/a/d");
+        changes.freeze("user", null, context.getValueFactories().getDateFactory().create());
+        recorded = new ArrayList<>();
+        for (Change change : changes) {
+            recorded.add(change);
+        }
+    }
+
+    @Test
+    public void shouldOnlyMatchChangesAtOrBelowTheListenerPath() {
+        Object deep = register(WORKSPACE, false, ALL_EVENTS, "/a", true, null);
+        Object exact = register(WORKSPACE, false, ALL_EVENTS, "/a/b", false, null);
+        Object anywhere = register(WORKSPACE, false, ALL_EVENTS, null, true, null);
+        Object elsewhere = register(WORKSPACE, false, ALL_EVENTS, "/y", true, null);
+
+        assertMatches(deep, 0, 2);
+        assertMatches(exact, 0);
+        assertMatches(anywhere, 0, 1, 2);
+        assertMatches(elsewhere);
+    }
+
+    @Test
+    public void shouldOnlyMatchChangesOfTheListenedForEventTypesAndNodes() {
+        Object propertyListener = register(WORKSPACE, false, Event.PROPERTY_ADDED, null, true, null);
+        Object uuidListener = register(WORKSPACE, false, ALL_EVENTS, null, true, new String[] {"node3"});
+        Object noUuidListener = register(WORKSPACE, false, ALL_EVENTS, null, true, new String[0]);
+
+        assertMatches(propertyListener, 1);
+        assertMatches(uuidListener, 2);
+        assertMatches(noUuidListener);
+    }
+
+    @Test
+    public void shouldOnlyMatchChangesFromTheListenerWorkspaceAndOtherSessions() {
+        Object otherWorkspace = register("other", false, ALL_EVENTS, null, true, null);
+        Object systemWorkspace = register(SYSTEM_WORKSPACE, false, ALL_EVENTS, null, true, null);
+        // the listeners are registered by the session which made the changes
+        Object noLocal = register(WORKSPACE, true, ALL_EVENTS, null, true, null);
+
+        assertMatches(otherWorkspace);
+        assertMatches(systemWorkspace);
+        assertMatches(noLocal);
+    }
+
+    @Test
+    public void shouldReturnAllChangesForListenersWhichAreNotRegistered() {
+        Object listener = register(WORKSPACE, false, Event.NODE_REMOVED, null, true, null);
+        assertMatches(listener);
+
+        Object unregistered = new Object();
+        assertSame(changes, index.changesFor(unregistered, changes, null));
+    }
+
+    private Object register( String workspaceName,
+                             boolean noLocal,
+                             int eventTypes,
+                             String absPath,
+                             boolean isDeep,
+                             String[] uuids ) {
+        Object listener = new Object();
+        Path path = absPath != null ? path(absPath) : null;
+        index.register(new ObservationListenerIndex.Registration(listener, workspaceName, SYSTEM_WORKSPACE, SESSION_ID, noLocal,
+                                                                 eventTypes, path, isDeep,
+                                                                 uuids != null ? new HashSet<>(Arrays.asList(uuids)) : null,
+                                                                 null));
+        return listener;
+    }
+
+    private void assertMatches( Object listener,
+                                int... expectedChanges ) {
+        List<Change> expected = new ArrayList<>();
+        for (int i : expectedChanges) {
+            expected.add(recorded.get(i));
+        }
+        List<Change> actual = new ArrayList<>();
+        for (Change change : index.changesFor(listener, changes, null)) {
+            actual.add(change);
+        }
+        assertThat(actual, is(expected));
+    }
+
+    private void nodeAdded( String id,
+                            String path ) {
+        Path nodePath = path(path);
+        changes.nodeCreated(key(id), key("parent"), nodePath, JcrNtLexicon.UNSTRUCTURED, Collections.<Name>emptySet(),
+                            Collections.emptyMap());
+    }
+
+    private void propertyAdded( String id,
+                                String path ) {
+        changes.propertyAdded(key(id), JcrNtLexicon.UNSTRUCTURED, Collections.<Name>emptySet(), path(path),
+                              context.getPropertyFactory().create(context.getValueFactories().getNameFactory().create("prop"),
+                                                                  "value"));
+    }
+
+    private NodeKey key( String id ) {
+        return new NodeKey("source1works1-" + id);
+    }
+
+    private Path path( String path ) {
+        return context.getValueFactories().getPathFactory().create(path);
+    }
+}
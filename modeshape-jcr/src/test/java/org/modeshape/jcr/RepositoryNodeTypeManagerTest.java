@@ -17,11 +17,19 @@ package org.modeshape.jcr;
 
 import static org.hamcrest.core.Is.is;
 import static org.hamcrest.core.IsNull.notNullValue;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
 import java.util.concurrent.TimeUnit;
 import javax.jcr.Node;
@@ -108,6 +116,62 @@ public class RepositoryNodeTypeManagerTest {
         assertThat(def.getName(), is(JcrLexicon.PROPERTY_DEFINITION.getString(registry)));
     }
 
+    @Test
+    public void shouldCacheEffectiveNodeTypeForPrimaryTypeAndMixins() throws Exception {
+        NodeTypes nodeTypes = repoTypeManager.getNodeTypes();
+        Set<Name> mixins = Collections.singleton(JcrMixLexicon.VERSIONABLE);
+
+        EffectiveNodeType effectiveType = nodeTypes.getEffectiveNodeType(JcrNtLexicon.FOLDER, mixins);
+        assertSame(effectiveType, nodeTypes.getEffectiveNodeType(JcrNtLexicon.FOLDER, Arrays.asList(JcrMixLexicon.VERSIONABLE)));
+        assertNotSame(effectiveType, nodeTypes.getEffectiveNodeType(JcrNtLexicon.FOLDER, null));
+
+        // Types and supertypes of both the primary type and the mixin ...
+        assertTrue(effectiveType.isNodeType(JcrNtLexicon.FOLDER));
+        assertTrue(effectiveType.isNodeType(JcrNtLexicon.HIERARCHY_NODE));
+        assertTrue(effectiveType.isNodeType(JcrMixLexicon.VERSIONABLE));
+        assertTrue(effectiveType.isNodeType(JcrMixLexicon.REFERENCEABLE));
+        assertTrue(effectiveType.isNodeType(JcrNtLexicon.BASE));
+        assertFalse(effectiveType.isNodeType(JcrNtLexicon.FILE));
+        assertTrue(nodeTypes.isTypeOrSubtype(JcrNtLexicon.FOLDER, mixins, JcrMixLexicon.REFERENCEABLE));
+        assertFalse(nodeTypes.isTypeOrSubtype(JcrNtLexicon.FOLDER, null, JcrMixLexicon.REFERENCEABLE));
+
+        // Definitions from the primary type, the mixin and their supertypes ...
+        assertTrue(effectiveType.hasPropertyDefinitions(JcrLexicon.CREATED));
+        assertTrue(effectiveType.hasPropertyDefinitions(JcrLexicon.UUID));
+        assertTrue(effectiveType.hasPropertyDefinitions(JcrLexicon.BASE_VERSION));
+        assertTrue(effectiveType.hasChildNodeDefinitions(JcrNodeType.RESIDUAL_NAME));
+        assertFalse(effectiveType.hasPropertyDefinitions(JcrNodeType.RESIDUAL_NAME));
+        assertFalse(effectiveType.hasPropertyDefinitions(JcrLexicon.DATA));
+    }
+
+    @Test
+    public void shouldCacheEffectiveNodeTypeRegardlessOfMixinOrder() throws Exception {
+        NodeTypes nodeTypes = repoTypeManager.getNodeTypes();
+        List<Name> mixins = Arrays.asList(JcrMixLexicon.LAST_MODIFIED, JcrMixLexicon.CREATED);
+        List<Name> reversed = Arrays.asList(JcrMixLexicon.CREATED, JcrMixLexicon.LAST_MODIFIED);
+
+        EffectiveNodeType effectiveType = nodeTypes.getEffectiveNodeType(JcrNtLexicon.UNSTRUCTURED, mixins);
+        assertSame(effectiveType, nodeTypes.getEffectiveNodeType(JcrNtLexicon.UNSTRUCTURED, reversed));
+        assertSame(effectiveType, nodeTypes.getEffectiveNodeType(JcrNtLexicon.UNSTRUCTURED, new HashSet<Name>(reversed)));
+
+        // The mixins are held in the order in which they were registered, not in the order of the first caller ...
+        List<JcrNodeType> mixinTypes = effectiveType.getMixinTypes();
+        assertThat(mixinTypes.size(), is(2));
+        List<JcrNodeType> registered = new ArrayList<JcrNodeType>(nodeTypes.getMixinNodeTypes());
+        assertTrue(registered.indexOf(mixinTypes.get(0)) < registered.indexOf(mixinTypes.get(1)));
+    }
+
+    @Test
+    public void shouldNotCacheEffectiveNodeTypeWithoutPrimaryType() throws Exception {
+        NodeTypes nodeTypes = repoTypeManager.getNodeTypes();
+        Set<Name> mixins = Collections.singleton(JcrMixLexicon.VERSIONABLE);
+
+        EffectiveNodeType effectiveType = nodeTypes.getEffectiveNodeType(null, mixins);
+        assertNotSame(effectiveType, nodeTypes.getEffectiveNodeType(null, mixins));
+        assertTrue(effectiveType.isNodeType(JcrMixLexicon.VERSIONABLE));
+        assertFalse(effectiveType.isNodeType(JcrNtLexicon.FOLDER));
+    }
+
     @Test
     @FixFor( "MODE-1807" )
     public void shouldAllowOverridingChildDefinitionWithSubtypeOfOriginalDefinition() throws Exception {
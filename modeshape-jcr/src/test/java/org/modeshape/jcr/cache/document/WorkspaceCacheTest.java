@@ -15,14 +15,23 @@
  */
 package org.modeshape.jcr.cache.document;
 
+import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsNot.not;
+import static org.hamcrest.core.IsSame.sameInstance;
+import static org.junit.Assert.assertThat;
+import java.util.Collections;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import org.junit.Test;
 import org.modeshape.jcr.bus.RepositoryChangeBus;
 import org.modeshape.jcr.cache.CachedNode;
 import org.modeshape.jcr.cache.NodeCache;
 import org.modeshape.jcr.cache.NodeKey;
+import org.modeshape.jcr.cache.change.RecordingChanges;
+import org.modeshape.jcr.value.Name;
+import org.modeshape.jcr.value.Path;
 
 public class WorkspaceCacheTest extends AbstractNodeCacheTest {
 
@@ -46,4 +55,35 @@ public class WorkspaceCacheTest extends AbstractNodeCacheTest {
         super.shutdownCache(cache);
         executor.shutdown();
     }
+
+    @Test
+    public void shouldMemoizePathsUntilChangesMightAlterThem() {
+        WorkspaceCache workspaceCache = (WorkspaceCache)cache;
+        NodeKey key = new NodeKey("source1works1-childA");
+        Path path = workspaceCache.getNode(key).getPath(workspaceCache);
+        assertThat(path, is(path("/childA")));
+        assertThat(workspaceCache.getNode(key).getPath(workspaceCache), is(sameInstance(path)));
+        assertThat(workspaceCache.getNode(key).getDepth(workspaceCache), is(1));
+
+        // changing a property doesn't alter any paths ...
+        RecordingChanges changes = changes(key);
+        changes.propertyAdded(key, name("nt:unstructured"), Collections.<Name>emptySet(), path, property("prop", "value"));
+        workspaceCache.changed(changes);
+        assertThat(workspaceCache.getNode(key).getPath(workspaceCache), is(sameInstance(path)));
+
+        // but renaming a node might ...
+        changes = changes(key);
+        changes.nodeRenamed(key, path, segment("oldName"), name("nt:unstructured"), Collections.<Name>emptySet());
+        workspaceCache.changed(changes);
+        Path recomputed = workspaceCache.getNode(key).getPath(workspaceCache);
+        assertThat(recomputed, is(not(sameInstance(path))));
+        assertThat(recomputed, is(path));
+    }
+
+    private RecordingChanges changes( NodeKey changedNode ) {
+        RecordingChanges changes = new RecordingChanges("session", "process", "repo", "ws", "journal");
+        changes.setChangedNodes(Collections.singleton(changedNode));
+        changes.freeze("user", null, context.getValueFactories().getDateFactory().create());
+        return changes;
+    }
 }
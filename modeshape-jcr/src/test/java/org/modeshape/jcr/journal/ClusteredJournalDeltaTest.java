@@ -0,0 +1,97 @@
+/*
+ * ModeShape (http://www.modeshape.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.modeshape.jcr.journal;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.modeshape.common.util.FileUtil;
+import org.modeshape.jcr.clustering.ClusteringService;
+import org.modeshape.jcr.journal.LocalJournalTest.TestChangeSet;
+
+/**
+ * Unit test for the way a {@link ClusteredJournal} answers the delta requests of other cluster members, which doesn't require
+ * a running cluster.
+ */
+public class ClusteredJournalDeltaTest {
+
+    private static final long MAX_CLOCK_DELAY_MILLIS = TimeUnit.MINUTES.toMillis(10);
+
+    private LocalJournal localJournal;
+    private ClusteringService clusteringService;
+    private ClusteredJournal journal;
+
+    @Before
+    public void before() throws Exception {
+        FileUtil.delete("target/clustered_journal_delta");
+        localJournal = new LocalJournal("target/clustered_journal_delta");
+        localJournal.start();
+        clusteringService = mock(ClusteringService.class);
+        when(clusteringService.getMaxAllowedClockDelayMillis()).thenReturn(MAX_CLOCK_DELAY_MILLIS);
+        journal = new ClusteredJournal(localJournal, clusteringService);
+    }
+
+    @After
+    public void after() {
+        localJournal.shutdown();
+    }
+
+    @Test
+    public void shouldIncludeRecordsStampedBehindTheRequestorsLastChangeTimeWithinTheAllowedClockDelay() throws Exception {
+        long requestorLastChangeTime = System.currentTimeMillis();
+        // stamped by a member whose clock is behind, after the requestor's last change
+        JournalRecord skewed = new JournalRecord(TestChangeSet.create("j2", 1, requestorLastChangeTime - 
+                                                                                 TimeUnit.MINUTES.toMillis(1)));
+        JournalRecord newer = new JournalRecord(TestChangeSet.create("j2", 1, requestorLastChangeTime + 1));
+        JournalRecord tooOld = new JournalRecord(TestChangeSet.create("j2", 1, requestorLastChangeTime - 
+                                                                                 TimeUnit.HOURS.toMillis(1)));
+        localJournal.addRecords(skewed, newer, tooOld);
+
+        journal.consume(ClusteredJournal.DeltaMessage.request("requestor", requestorLastChangeTime));
+
+        ArgumentCaptor<ClusteredJournal.DeltaMessage> response = ArgumentCaptor.forClass(ClusteredJournal.DeltaMessage.class);
+        verify(clusteringService).sendMessage(response.capture());
+        List<JournalRecord> records = response.getValue().getRespondentRecords();
+        Set<Long> changeTimes = new HashSet<>();
+        for (JournalRecord record : records) {
+            changeTimes.add(record.getChangeTimeMillis());
+        }
+        assertEquals(2, records.size());
+        assertTrue(changeTimes.contains(skewed.getChangeTimeMillis()));
+        assertTrue(changeTimes.contains(newer.getChangeTimeMillis()));
+    }
+
+    @Test
+    public void shouldSendAllRecordsWhenTheRequestorHasNoChanges() throws Exception {
+        localJournal.addRecords(new JournalRecord(TestChangeSet.create("j2", 1)), new JournalRecord(TestChangeSet.create("j2", 2)));
+
+        journal.consume(ClusteredJournal.DeltaMessage.request("requestor", null));
+
+        ArgumentCaptor<ClusteredJournal.DeltaMessage> response = ArgumentCaptor.forClass(ClusteredJournal.DeltaMessage.class);
+        verify(clusteringService).sendMessage(response.capture());
+        assertEquals(2, response.getValue().getRespondentRecords().size());
+    }
+}
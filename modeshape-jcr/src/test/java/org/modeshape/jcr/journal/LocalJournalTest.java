@@ -26,6 +26,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.TimeUnit;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
@@ -154,6 +155,40 @@ public class LocalJournalTest {
         assertEquals(0, countChangedNodesSince(Long.MAX_VALUE));
     }
     
+    @Test
+    public void shouldSearchRecordsBasedOnChangeTimeRegardlessOfTheOrderInWhichTheyWereAdded() throws Exception {
+        // a record for an older change set added after all the others (e.g. received late from another process)
+        long lateChangeTime = timestamp1.getMilliseconds() - TimeUnit.HOURS.toMillis(1);
+        journal().addRecords(new JournalRecord(TestChangeSet.create("j4", 3, lateChangeTime)));
+
+        DateTime lateTimestamp = new ModeShapeDateTime(lateChangeTime);
+        assertEquals(9, journal().recordsNewerThan(lateTimestamp.toLocalDateTime().minusMinutes(1), true, false).size());
+        assertEquals(9, journal().recordsNewerThan(lateTimestamp.toLocalDateTime(), true, false).size());
+        assertEquals(8, journal().recordsNewerThan(lateTimestamp.toLocalDateTime(), false, false).size());
+        assertEquals(5, journal().recordsNewerThan(timestamp1.toLocalDateTime(), true, false).size());
+        assertEquals("j4", journal().recordsNewerThan(lateTimestamp.toLocalDateTime(), true, false).iterator().next().getJournalId());
+        assertEquals("j3", journal().recordsNewerThan(lateTimestamp.toLocalDateTime(), true, true).iterator().next().getJournalId());
+        assertEquals(17, countChangedNodesSince(lateChangeTime));
+        assertEquals(7, countChangedNodesSince(timestamp1.getMilliseconds()));
+    }
+
+    @Test
+    public void shouldKeepChangeTimeIndexAcrossRestartsAndRemovals() throws Exception {
+        journal().shutdown();
+        journal().start();
+        assertEquals(5, journal().recordsNewerThan(timestamp1.toLocalDateTime(), true, false).size());
+        assertEquals(7, countChangedNodesSince(timestamp1.getMilliseconds()));
+
+        Thread.sleep(1);
+        localJournal().removeRecordsOlderThan(System.currentTimeMillis());
+        assertEquals(0, journal().recordsNewerThan(timestamp1.toLocalDateTime().minusDays(1), true, false).size());
+        assertEquals(0, countChangedNodesSince(-1));
+
+        journal().notify(TestChangeSet.create("j4", 2));
+        assertEquals(1, journal().recordsNewerThan(timestamp1.toLocalDateTime(), true, false).size());
+        assertEquals(2, countChangedNodesSince(timestamp1.getMilliseconds()));
+    }
+
     private int countChangedNodesSince(long timestamp) {
         int count = 0;
         Iterator<NodeKey> iterator = journal().changedNodesSince(timestamp);
@@ -226,9 +261,10 @@ public class LocalJournalTest {
 
         private TestChangeSet( List<Change> changes,
                                String journalId,
-                               Set<NodeKey> changedNodes) {
+                               Set<NodeKey> changedNodes,
+                               long timestampMillis ) {
             this.changes = changes;
-            this.timestamp = new ModeShapeDateTime();
+            this.timestamp = new ModeShapeDateTime(timestampMillis);
             this.journalId = journalId;
             this.nodeChanges = changedNodes;
         }
@@ -313,9 +349,17 @@ public class LocalJournalTest {
             return uuid;
         }
 
-        @SuppressWarnings( "serial" )
         static ChangeSet create( String journalId,
                                  int changesCount ) throws InterruptedException {
+            // sleep 1 millisecond to make sure that successive calls won't have the same TS
+            Thread.sleep(1);
+            return create(journalId, changesCount, System.currentTimeMillis());
+        }
+
+        @SuppressWarnings( "serial" )
+        static ChangeSet create( String journalId,
+                                 int changesCount,
+                                 long timestampMillis ) {
             List<Change> changes = new ArrayList<Change>(changesCount);
             for (int i = 0; i < changesCount; i++) {
                 changes.add(new Change() {});
@@ -324,9 +368,7 @@ public class LocalJournalTest {
             for (int i = 0; i < changesCount; i++) {
                 nodeChanges.add(new NodeKey(UUID.randomUUID().toString()));
             }
-            // sleep 1 second to make sure that successive calls won't have the same TS
-            Thread.sleep(1);
-            return new TestChangeSet(changes, journalId, nodeChanges);
+            return new TestChangeSet(changes, journalId, nodeChanges, timestampMillis);
         }
     }
 }
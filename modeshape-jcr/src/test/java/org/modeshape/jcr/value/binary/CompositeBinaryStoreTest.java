@@ -15,7 +15,9 @@
  */
 package org.modeshape.jcr.value.binary;
 
+import static org.hamcrest.CoreMatchers.hasItem;
 import static org.hamcrest.CoreMatchers.hasItems;
+import static org.hamcrest.CoreMatchers.not;
 import static org.hamcrest.core.Is.is;
 import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
@@ -28,10 +30,12 @@ import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Random;
+import java.util.concurrent.TimeUnit;
 import org.junit.AfterClass;
 import org.junit.BeforeClass;
 import org.junit.Test;
@@ -187,6 +191,51 @@ public class CompositeBinaryStoreTest extends AbstractBinaryStoreTest {
         assertTrue(alternativeStore.hasBinary(v.getKey()));
     }
 
+    @Test
+    public void shouldFindValuesNoLongerInTheStoreTheyWereStoredIn() throws Exception {
+        byte[] content = randomContent();
+        BinaryValue v = store.storeValue(new ByteArrayInputStream(content), false);
+        assertEquals(defaultStore, store.findBinaryStoreContainingKey(v.getKey()));
+
+        // move the value behind the composite store's back ...
+        alternativeStore.storeValue(new ByteArrayInputStream(content), false);
+        defaultStore.markAsUnused(Collections.singleton(v.getKey()));
+        Thread.sleep(5);
+        defaultStore.removeValuesUnusedLongerThan(1, TimeUnit.MILLISECONDS);
+        assertFalse(defaultStore.hasBinary(v.getKey()));
+
+        assertArrayEquals(content, IoUtil.readBytes(store.getInputStream(v.getKey())));
+        assertEquals(alternativeStore, store.findBinaryStoreContainingKey(v.getKey()));
+        assertTrue(store.hasBinary(v.getKey()));
+    }
+
+    @Test
+    public void shouldChangeUsageInAllTheStoresContainingAValue() throws BinaryStoreException {
+        byte[] content = randomContent();
+        BinaryValue v = store.storeValue(new ByteArrayInputStream(content), alternativeHint, false);
+        defaultStore.storeValue(new ByteArrayInputStream(content), false);
+
+        store.markAsUnused(Collections.singleton(v.getKey()));
+        assertThat(defaultStore.getAllBinaryKeys(), not(hasItem(v.getKey())));
+        assertThat(alternativeStore.getAllBinaryKeys(), not(hasItem(v.getKey())));
+
+        store.markAsUsed(Collections.singleton(v.getKey()));
+        assertThat(defaultStore.getAllBinaryKeys(), hasItem(v.getKey()));
+        assertThat(alternativeStore.getAllBinaryKeys(), hasItem(v.getKey()));
+    }
+
+    @Test
+    public void shouldChangeUsageInTheStoreAValueWasMovedTo() throws BinaryStoreException {
+        BinaryValue v = store.storeValue(new ByteArrayInputStream(randomContent()), false);
+        BinaryKey movedKey = store.moveValue(v.getKey(), null, alternativeHint);
+        assertEquals(alternativeStore, store.findBinaryStoreContainingKey(movedKey));
+
+        store.markAsUnused(Collections.singleton(movedKey));
+        assertThat(alternativeStore.getAllBinaryKeys(), not(hasItem(movedKey)));
+        store.markAsUsed(Collections.singleton(movedKey));
+        assertThat(alternativeStore.getAllBinaryKeys(), hasItem(movedKey));
+    }
+
     @Test( expected = BinaryStoreException.class )
     public void shouldRaiseAnExceptionWhenMovingAKeyThatDoesntExist() throws BinaryStoreException {
         store.moveValue(new BinaryKey("this-doesnt-exist"), alternativeHint);
@@ -16,14 +16,20 @@
 package org.modeshape.jcr.value.binary;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
 import org.junit.AfterClass;
 import org.junit.BeforeClass;
 import org.junit.Test;
 import org.modeshape.common.FixFor;
 import org.modeshape.common.util.StringUtil;
 import org.modeshape.jcr.store.DataSourceConfig;
+import org.modeshape.jcr.value.BinaryKey;
 import org.modeshape.jcr.value.BinaryValue;
 
 /**
@@ -72,4 +78,27 @@ public class DatabaseBinaryStoreTest extends AbstractBinaryStoreTest {
         store.storeExtractedText(res, largeString);
         assertEquals(largeString.substring(0, Database.DEFAULT_MAX_EXTRACTED_TEXT_LENGTH), store.getExtractedText(res));
     }
+
+    @Test
+    public void shouldMarkAndRemoveMoreBinariesThanFitInOneBatch() throws Exception {
+        List<BinaryKey> keys = new ArrayList<>();
+        for (int i = 0; i != Database.BATCH_SIZE * 2 + 1; ++i) {
+            byte[] content = ("batched binary content " + i).getBytes();
+            keys.add(store.storeValue(new ByteArrayInputStream(content), false).getKey());
+        }
+        List<BinaryKey> usedKeys = keys.subList(0, Database.BATCH_SIZE + 1);
+        List<BinaryKey> unusedKeys = keys.subList(Database.BATCH_SIZE + 1, keys.size());
+
+        store.markAsUnused(keys);
+        store.markAsUsed(usedKeys);
+        Thread.sleep(100);
+        store.removeValuesUnusedLongerThan(1, TimeUnit.MILLISECONDS);
+
+        for (BinaryKey key : usedKeys) {
+            assertTrue("Used binary was removed: " + key, store.hasBinary(key));
+        }
+        for (BinaryKey key : unusedKeys) {
+            assertFalse("Unused binary was not removed: " + key, store.hasBinary(key));
+        }
+    }
 }
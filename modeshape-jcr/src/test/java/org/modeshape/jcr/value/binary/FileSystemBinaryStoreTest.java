@@ -16,7 +16,9 @@
 package org.modeshape.jcr.value.binary;
 
 import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsCollectionContaining.hasItem;
 import static org.hamcrest.core.IsInstanceOf.instanceOf;
+import static org.hamcrest.core.IsNot.not;
 import static org.hamcrest.core.IsNull.notNullValue;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
@@ -24,6 +26,7 @@ import static org.junit.Assert.assertThat;
 import java.io.BufferedInputStream;
 import java.io.BufferedOutputStream;
 import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.FileOutputStream;
 import java.io.IOException;
@@ -53,12 +56,18 @@ import org.junit.Before;
 import org.junit.Test;
 import org.modeshape.common.FixFor;
 import org.modeshape.common.statistic.Stopwatch;
+import org.modeshape.common.util.ChannelTransferable;
 import org.modeshape.common.util.FileUtil;
 import org.modeshape.common.util.IoUtil;
 import org.modeshape.common.util.SecureHash;
 import org.modeshape.common.util.SecureHash.Algorithm;
+import org.modeshape.common.util.SelfClosingInputStream;
+import org.modeshape.jcr.TextExtractors;
 import org.modeshape.jcr.api.Binary;
+import org.modeshape.jcr.api.text.TextExtractor;
+import org.modeshape.jcr.mimetype.MimeTypeDetector;
 import org.modeshape.jcr.value.BinaryKey;
+import org.modeshape.jcr.value.BinaryValue;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -211,6 +220,58 @@ public class FileSystemBinaryStoreTest extends AbstractBinaryStoreTest {
         assertThat(countTrashFiles(), is(0));
     }
 
+    @Test
+    public void shouldOnlyRemoveValuesUnusedLongerThanMinimumAge() throws Exception {
+        List<String> storedSha1s = new ArrayList<String>();
+        for (int i = 0; i != CONTENT.length; ++i) {
+            Binary binary = storeAndCheck(i);
+            if (binary instanceof StoredBinaryValue) storedSha1s.add(binary.getHexHash());
+        }
+        assertThat(storedSha1s.size() >= 3, is(true));
+        BinaryKey first = new BinaryKey(storedSha1s.get(0));
+        BinaryKey second = new BinaryKey(storedSha1s.get(1));
+        BinaryKey reused = new BinaryKey(storedSha1s.get(2));
+        store.markAsUnused(Arrays.asList(first, reused));
+
+        Thread.sleep(2100L); // Sleep more than the minimum age, since modified times may only be accurate to nearest second ...
+        store.markAsUsed(Collections.singleton(reused));
+        store.markAsUnused(Arrays.asList(second, reused));
+        assertThat(countTrashFiles(), is(3));
+
+        // Only the value which has been unused for more than the minimum age should be removed ...
+        store.removeValuesUnusedLongerThan(2, TimeUnit.SECONDS);
+        assertThat(countStoredFiles(), is(storedSha1s.size() - 1));
+        assertThat(countTrashFiles(), is(2));
+        assertThat(store.getAllBinaryKeys(), not(hasItem(first)));
+
+        // And the others should be removed by a later garbage collection ...
+        Thread.sleep(2100L);
+        store.removeValuesUnusedLongerThan(2, TimeUnit.SECONDS);
+        assertThat(countStoredFiles(), is(storedSha1s.size() - 3));
+        assertThat(countTrashFiles(), is(0));
+        assertThat(trash.listFiles().length, is(0));
+        // with only the marker of the completed index remaining in the "unused since" index ...
+        assertThat(collectFiles(new File(directory, FileSystemBinaryStore.UNUSED_INDEX_DIRECTORY_NAME)).size(), is(1));
+    }
+
+    @Test
+    public void shouldRemoveUnusedValuesMissingFromUnusedIndex() throws Exception {
+        Set<String> storedSha1s = new HashSet<String>();
+        for (int i = 0; i != CONTENT.length; ++i) {
+            Binary binary = storeAndCheck(i);
+            if (binary instanceof StoredBinaryValue) storedSha1s.add(binary.getHexHash());
+        }
+        store.markAsUnused(Collections.singleton(new BinaryKey(storedSha1s.iterator().next())));
+
+        // Simulate trash files created by a store which didn't have the "unused since" index ...
+        FileUtil.delete(new File(directory, FileSystemBinaryStore.UNUSED_INDEX_DIRECTORY_NAME));
+
+        Thread.sleep(1100L); // Sleep more than a second, since modified times may only be accurate to nearest second ...
+        store.removeValuesUnusedLongerThan(1, TimeUnit.SECONDS);
+        assertThat(countStoredFiles(), is(storedSha1s.size() - 1));
+        assertThat(countTrashFiles(), is(0));
+    }
+
     @Test
     public void shouldStoreLargeFile() throws Exception {
         print = true;
@@ -349,6 +410,91 @@ public class FileSystemBinaryStoreTest extends AbstractBinaryStoreTest {
         }
     }
 
+    @Test
+    public void shouldTransferRegionsOfStoredFile() throws Exception {
+        String content = CONTENT[2];
+        Binary storedValue = store.storeValue(new ByteArrayInputStream(content.getBytes()), false);
+        InputStream stream = storedValue.getStream();
+        assertThat(((SelfClosingInputStream)stream).wrappedStream(), is(instanceOf(ChannelTransferable.class)));
+        try {
+            ByteArrayOutputStream output = new ByteArrayOutputStream();
+            assertEquals(20L, IoUtil.write(stream, output, 6L, 20L));
+            assertEquals(content.substring(6, 26), new String(output.toByteArray()));
+
+            // Transfers don't move the stream, and can go backwards ...
+            output.reset();
+            assertEquals(5L, IoUtil.write(stream, output, 0L, 5L));
+            assertEquals("Lorem", new String(output.toByteArray()));
+            assertEquals((int)'L', stream.read());
+        } finally {
+            stream.close();
+        }
+    }
+
+    @Test
+    public void shouldDetectMimeTypeFromContentCapturedWhenStored() throws Exception {
+        final List<javax.jcr.Binary> detectedBinaries = new ArrayList<>();
+        store.setMimeTypeDetector(new MimeTypeDetector() {
+            @Override
+            public String mimeTypeOf( String name,
+                                      javax.jcr.Binary binaryValue ) {
+                detectedBinaries.add(binaryValue);
+                return "text/plain";
+            }
+        });
+        BinaryValue storedValue = store.storeValue(new ByteArrayInputStream(CONTENT[2].getBytes()), false);
+        assertThat(storedValue, is(instanceOf(StoredBinaryValue.class)));
+        assertEquals("text/plain", store.getMimeType(storedValue, "lorem.txt"));
+        assertEquals(1, detectedBinaries.size());
+        assertThat(detectedBinaries.get(0), is(instanceOf(InMemoryBinaryValue.class)));
+        assertEquals(CONTENT[2], IoUtil.read(detectedBinaries.get(0).getStream()));
+    }
+
+    @Test
+    public void shouldDetectMimeTypeOfContainerFormatsFromStoredContent() throws Exception {
+        store.setMimeTypeDetector(new MimeTypeDetector() {
+            @Override
+            public String mimeTypeOf( String name,
+                                      javax.jcr.Binary binaryValue ) {
+                // only the whole content is enough to refine the container format ...
+                return binaryValue instanceof InMemoryBinaryValue ? "application/zip" : "application/vnd.test+zip";
+            }
+        });
+        byte[] content = new byte[1 << 17];
+        new Random().nextBytes(content);
+        BinaryValue storedValue = store.storeValue(new ByteArrayInputStream(content), false);
+        assertEquals("application/vnd.test+zip", store.getMimeType(storedValue, "test.zip"));
+    }
+
+    @Test
+    public void shouldExtractTextFromContentCapturedWhenStored() throws Exception {
+        final List<String> readContent = Collections.synchronizedList(new ArrayList<String>());
+        TextExtractor extractor = new TextExtractor() {
+            @Override
+            public void extractFrom( Binary binary,
+                                     Output output,
+                                     Context context ) throws Exception {
+                InputStream stream = binary.getStream();
+                if (stream instanceof SelfClosingInputStream) {
+                    stream = ((SelfClosingInputStream)stream).wrappedStream();
+                }
+                assertThat(stream, is(instanceOf(ByteArrayInputStream.class)));
+                String text = IoUtil.read(stream);
+                readContent.add(text);
+                output.recordText(text);
+            }
+
+            @Override
+            public boolean supportsMimeType( String mimeType ) {
+                return true;
+            }
+        };
+        store.setTextExtractors(new TextExtractors(Executors.newSingleThreadExecutor(), Arrays.asList(extractor)));
+        BinaryValue storedValue = store.storeValue(new ByteArrayInputStream(CONTENT[3].getBytes()), false);
+        assertEquals(CONTENT[3], store.getText(storedValue));
+        assertEquals(Arrays.asList(CONTENT[3]), readContent);
+    }
+
     protected Binary storeAndCheck( int contentIndex ) throws Exception {
         return storeAndCheck(contentIndex, null);
     }
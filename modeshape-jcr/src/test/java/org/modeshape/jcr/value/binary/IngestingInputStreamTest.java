@@ -0,0 +1,97 @@
+/*
+ * ModeShape (http://www.modeshape.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.modeshape.jcr.value.binary;
+
+import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsSame.sameInstance;
+import static org.junit.Assert.assertThat;
+import java.io.ByteArrayInputStream;
+import java.util.Arrays;
+import java.util.Random;
+import org.junit.Test;
+import org.modeshape.common.util.IoUtil;
+import org.modeshape.common.util.SecureHash;
+import org.modeshape.common.util.SecureHash.Algorithm;
+
+public class IngestingInputStreamTest {
+
+    private static final int HEAD_SIZE = 1024;
+
+    private final Random random = new Random();
+
+    private byte[] content( int size ) {
+        byte[] content = new byte[size];
+        random.nextBytes(content);
+        return content;
+    }
+
+    private IngestingInputStream readFully( byte[] content ) throws Exception {
+        IngestingInputStream ingest = new IngestingInputStream(new ByteArrayInputStream(content), HEAD_SIZE);
+        IoUtil.readBytes(ingest); // closes the stream
+        return ingest;
+    }
+
+    @Test
+    public void shouldCaptureWholeContentSmallerThanHead() throws Exception {
+        byte[] content = content(HEAD_SIZE / 4 + 1);
+        IngestingInputStream ingest = readFully(content);
+        assertThat(ingest.getSize(), is((long)content.length));
+        assertThat(ingest.getHead(), is(content));
+        assertThat(ingest.isHeadComplete(), is(true));
+        assertThat(ingest.getHash(), is(SecureHash.getHash(Algorithm.SHA_1, content)));
+    }
+
+    @Test
+    public void shouldCaptureOnlyHeadOfContentLargerThanHead() throws Exception {
+        byte[] content = content(HEAD_SIZE * 3 + 7);
+        IngestingInputStream ingest = readFully(content);
+        assertThat(ingest.getSize(), is((long)content.length));
+        assertThat(ingest.getHead(), is(Arrays.copyOf(content, HEAD_SIZE)));
+        assertThat(ingest.isHeadComplete(), is(false));
+        assertThat(ingest.getHash(), is(SecureHash.getHash(Algorithm.SHA_1, content)));
+    }
+
+    @Test
+    public void shouldCaptureContentReadOneByteAtATime() throws Exception {
+        byte[] content = content(HEAD_SIZE + 1);
+        IngestingInputStream ingest = new IngestingInputStream(new ByteArrayInputStream(content), HEAD_SIZE);
+        while (ingest.read() != -1) {
+            // read the whole content
+        }
+        ingest.close();
+        assertThat(ingest.getSize(), is((long)content.length));
+        assertThat(ingest.getHead(), is(Arrays.copyOf(content, HEAD_SIZE)));
+        assertThat(ingest.getHash(), is(SecureHash.getHash(Algorithm.SHA_1, content)));
+    }
+
+    @Test
+    public void shouldNotCaptureAnythingWithoutHead() throws Exception {
+        byte[] content = content(10);
+        IngestingInputStream ingest = new IngestingInputStream(new ByteArrayInputStream(content), 0);
+        IoUtil.readBytes(ingest);
+        assertThat(ingest.getSize(), is(10L));
+        assertThat(ingest.getHead().length, is(0));
+        assertThat(ingest.getHash(), is(SecureHash.getHash(Algorithm.SHA_1, content)));
+    }
+
+    @Test
+    public void shouldNotWrapStreamWhichIsAlreadyBeingIngested() throws Exception {
+        TransientBinaryStore store = TransientBinaryStore.get();
+        IngestingInputStream ingest = store.ingest(new ByteArrayInputStream(content(10)));
+        assertThat(store.ingest(ingest), is(sameInstance(ingest)));
+        ingest.close();
+    }
+}
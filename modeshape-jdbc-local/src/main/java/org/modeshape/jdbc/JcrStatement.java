@@ -32,6 +32,7 @@ class JcrStatement implements Statement {
     private boolean closed;
     private SQLWarning warning;
     private int rowLimit = -1;
+    private int fetchSize = 0;
     private int fetchDirection = ResultSet.FETCH_FORWARD;
     private boolean poolable;
     private int moreResults = 0;
@@ -54,7 +55,7 @@ class JcrStatement implements Statement {
     /**
      * {@inheritDoc}
      * <p>
-     * This driver doesn't have a way to set the fetch size, so this method always returns 0.
+     * The default fetch size is 0, meaning the driver fetches all the rows of a result at once.
      * </p>
      * 
      * @see java.sql.Statement#getFetchSize()
@@ -62,13 +63,15 @@ class JcrStatement implements Statement {
     @Override
     public int getFetchSize() throws SQLException {
         notClosed();
-        return 0;
+        return fetchSize;
     }
 
     /**
      * {@inheritDoc}
      * <p>
-     * This driver doesn't have a way to set the fetch size, so this method is ignored and does nothing.
+     * The fetch size is passed to the {@link RepositoryDelegate} when executing queries. Delegates which access a remote
+     * repository use it as the number of rows fetched at a time, while the local delegate ignores it since its results are
+     * already produced lazily.
      * </p>
      * 
      * @see java.sql.Statement#setFetchSize(int)
@@ -76,6 +79,10 @@ class JcrStatement implements Statement {
     @Override
     public void setFetchSize( int rows ) throws SQLException {
         notClosed();
+        if (rows < 0) {
+            throw new SQLException(JdbcLocalI18n.argumentMayNotBeNegative.text("rows", rows));
+        }
+        fetchSize = rows;
     }
 
     @Override
@@ -296,7 +303,7 @@ class JcrStatement implements Statement {
             // Convert the supplied SQL into JCR-SQL2 ...
             String jcrSql2 = connection.nativeSQL(sql);
             // Create the query ...
-            final QueryResult jcrResults = getJcrRepositoryDelegate().execute(jcrSql2, this.sqlLanguage);
+            final QueryResult jcrResults = getJcrRepositoryDelegate().execute(jcrSql2, this.sqlLanguage, this.fetchSize);
             results = new JcrResultSet(this, jcrResults, null);
             moreResults = 1;
         } catch (RepositoryException e) {
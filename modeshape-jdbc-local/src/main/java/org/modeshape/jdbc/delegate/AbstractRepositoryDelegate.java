@@ -20,6 +20,7 @@ import java.sql.SQLException;
 import java.util.Properties;
 import java.util.Set;
 import javax.jcr.RepositoryException;
+import javax.jcr.query.QueryResult;
 import org.modeshape.common.logging.Logger;
 import org.modeshape.jdbc.DriverInfo;
 import org.modeshape.jdbc.JcrConnection;
@@ -75,6 +76,14 @@ public abstract class AbstractRepositoryDelegate implements RepositoryDelegate {
     public void closeStatement() {
     }
 
+    @Override
+    public QueryResult execute( String query,
+                                String language,
+                                int fetchSize ) throws RepositoryException {
+        // by default, the fetch size is only a hint which can be ignored
+        return execute(query, language);
+    }
+
     @SuppressWarnings( "unused" )
     @Override
     public void commit() throws RepositoryException {
@@ -30,9 +30,12 @@ import javax.jcr.query.Row;
 import javax.jcr.query.RowIterator;
 import org.modeshape.jcr.api.query.QueryResult;
 import org.modeshape.jdbc.JdbcJcrValueFactory;
+import org.modeshape.jdbc.rest.ModeShapeRestClient;
 
 /**
- * A simple implementation of the {@link QueryResult} interface.
+ * A simple implementation of the {@link QueryResult} interface. The rows are either all part of the REST response, or (when a
+ * page size is given) are fetched from the server one page at a time, as they are iterated over, so that only one page of rows
+ * is held in memory.
  * 
  * @author Horia Chiorean
  */
@@ -41,18 +44,67 @@ public final class HttpQueryResult implements QueryResult {
     protected final List<HttpRow> rows = new ArrayList<>();
     protected final Map<String, String> columnTypesByName = new LinkedHashMap<>();
 
+    private final ModeShapeRestClient restClient;
+    private final String query;
+    private final String language;
+    private final int pageSize;
+    private final boolean lastPage;
+
     protected HttpQueryResult( org.modeshape.jdbc.rest.QueryResult queryResult ) {
-        assert queryResult != null;
+        this(queryResult, null, null, null, 0);
+    }
 
-        if (!queryResult.isEmpty()) {
-            this.columnTypesByName.putAll(queryResult.getColumns());
+    /**
+     * Creates a new result which fetches its rows from the server in pages of the given size.
+     * 
+     * @param restClient the client used to run the query; may not be null
+     * @param query the query expression; may not be null
+     * @param language the language of the query; may not be null
+     * @param pageSize the maximum number of rows fetched at a time; must be positive
+     */
+    protected HttpQueryResult( ModeShapeRestClient restClient,
+                               String query,
+                               String language,
+                               int pageSize ) {
+        this(restClient.query(query, language, 0, pageSize), restClient, query, language, pageSize);
+    }
 
-            for (org.modeshape.jdbc.rest.QueryResult.Row queryRow : queryResult) {
-                rows.add(new HttpRow(queryRow));
-            }
+    private HttpQueryResult( org.modeshape.jdbc.rest.QueryResult firstPage,
+                             ModeShapeRestClient restClient,
+                             String query,
+                             String language,
+                             int pageSize ) {
+        assert firstPage != null;
+        this.restClient = restClient;
+        this.query = query;
+        this.language = language;
+        this.pageSize = pageSize;
+
+        if (!firstPage.isEmpty()) {
+            this.columnTypesByName.putAll(firstPage.getColumns());
+            addRows(firstPage, rows);
+        }
+        this.lastPage = isLastPage(rows);
+    }
+
+    private void addRows( org.modeshape.jdbc.rest.QueryResult queryResult,
+                          List<HttpRow> rows ) {
+        for (org.modeshape.jdbc.rest.QueryResult.Row queryRow : queryResult) {
+            rows.add(new HttpRow(queryRow));
         }
     }
 
+    private boolean isLastPage( List<HttpRow> page ) {
+        return pageSize <= 0 || page.size() < pageSize;
+    }
+
+    protected List<HttpRow> fetchPage( long offset ) {
+        assert restClient != null;
+        List<HttpRow> page = new ArrayList<>();
+        addRows(restClient.query(query, language, offset, pageSize), page);
+        return page;
+    }
+
     @Override
     public String getPlan() {
         throw new UnsupportedOperationException("Method getPlan() not supported");
@@ -101,17 +153,38 @@ public final class HttpQueryResult implements QueryResult {
     private class HttpRowIterator implements RowIterator {
 
         private static final int EMPTY_CURSOR = -1;
-        private int cursor = rows.isEmpty() ? EMPTY_CURSOR : 0;
+        private List<HttpRow> page = rows;
+        private long pageOffset = 0;
+        private boolean lastPage = HttpQueryResult.this.lastPage;
+        private long cursor = 0;
 
         protected HttpRowIterator() {
         }
 
+        /**
+         * Makes sure the current page contains the row at the cursor, fetching the following pages if needed.
+         * 
+         * @return true if there is a row at the cursor, or false if the cursor is past the last row
+         */
+        private boolean positionPage() {
+            while (cursor >= pageOffset + page.size()) {
+                if (lastPage) {
+                    return false;
+                }
+                long nextPageOffset = pageOffset + page.size();
+                page = fetchPage(nextPageOffset);
+                pageOffset = nextPageOffset;
+                lastPage = isLastPage(page);
+            }
+            return true;
+        }
+
         @Override
         public Row nextRow() {
-            if (cursor == -1 || cursor >= rows.size()) {
+            if (!positionPage()) {
                 throw new NoSuchElementException("No more rows to iterate over");
             }
-            return rows.get(cursor++);
+            return page.get((int)(cursor++ - pageOffset));
         }
 
         @Override
@@ -119,26 +192,30 @@ public final class HttpQueryResult implements QueryResult {
             if (skipNum < 0) {
                 throw new IllegalArgumentException("skipNum must be a positive value");
             }
-            int availableRowsCount = rows.size() - cursor;
-            if (skipNum > availableRowsCount) {
-                throw new NoSuchElementException("Skip would go past collection end");
+            long target = cursor + skipNum;
+            while (cursor < target) {
+                // only the pages which contain rows are needed to find out where the result ends ...
+                cursor = Math.min(target, pageOffset + page.size());
+                if (cursor < target && !positionPage()) {
+                    throw new NoSuchElementException("Skip would go past collection end");
+                }
             }
-            cursor += skipNum;
         }
 
         @Override
         public long getSize() {
-            return rows.size();
+            // the size is only known once the last page has been fetched
+            return lastPage ? pageOffset + page.size() : -1;
         }
 
         @Override
         public long getPosition() {
-            return cursor;
+            return rows.isEmpty() ? EMPTY_CURSOR : cursor;
         }
 
         @Override
         public boolean hasNext() {
-            return cursor != -1 && cursor < rows.size();
+            return positionPage();
         }
 
         @Override
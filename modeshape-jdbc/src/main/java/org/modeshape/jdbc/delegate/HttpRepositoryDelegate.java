@@ -95,6 +95,21 @@ public class HttpRepositoryDelegate extends AbstractRepositoryDelegate {
         }
     }
 
+    @Override
+    public QueryResult execute( String query,
+                                String language,
+                                int fetchSize ) throws RepositoryException {
+        if (fetchSize <= 0) {
+            return execute(query, language);
+        }
+        logger.trace("Executing query: {0} (fetching {1} rows at a time)", query, fetchSize);
+        try {
+            return new HttpQueryResult(this.restClient, query, language, fetchSize);
+        } catch (Exception e) {
+            throw new RepositoryException(e.getMessage(), e);
+        }
+    }
+
     @Override
     public String explain( String query,
                            String language ) throws RepositoryException {
@@ -32,6 +32,8 @@ public final class ModeShapeRestClient {
     private static final String ITEMS_METHOD = "items";
     private static final String QUERY_METHOD = "query";
     private static final String QUERY_PLAN_METHOD = "queryPlan";
+    private static final String OFFSET_PARAMETER = "offset";
+    private static final String LIMIT_PARAMETER = "limit";
 
     private final JSONRestClient jsonRestClient;
 
@@ -126,7 +128,29 @@ public final class ModeShapeRestClient {
      */
     public QueryResult query( String query,
                               String queryLanguage ) {
+        return query(query, queryLanguage, -1, -1);
+    }
+
+    /**
+     * Runs a query in the specified language against the repository from {@code repoUrl}, returning only a page of the rows.
+     * Since the query is executed again for each page, the pages are only consistent with each other as long as the repository
+     * content matched by the query doesn't change in between.
+     *
+     * @param query a {@code String}, never {@code null}
+     * @param queryLanguage the language of the query, never {@code null}
+     * @param offset the index of the first row which should be returned, or a negative value to start with the first row
+     * @param limit the maximum number of rows which should be returned, or a negative value to return all the rows
+     * @return a {@link QueryResult} instance, never {@code null}
+     * @see javax.jcr.query.Query
+     */
+    public QueryResult query( String query,
+                              String queryLanguage,
+                              long offset,
+                              long limit ) {
         String url = jsonRestClient.appendToURL(QUERY_METHOD);
+        if (offset >= 0 || limit >= 0) {
+            url = url + "?" + OFFSET_PARAMETER + "=" + offset + "&" + LIMIT_PARAMETER + "=" + limit;
+        }
         String contentType = contentTypeForQueryLanguage(queryLanguage);
         JSONRestClient.Response response = jsonRestClient.postStream(new ByteArrayInputStream(query.getBytes()), url, contentType);
         if (!response.isOK()) {
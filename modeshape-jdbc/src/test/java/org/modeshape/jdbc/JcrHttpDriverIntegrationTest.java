@@ -15,6 +15,7 @@
  */
 package org.modeshape.jdbc;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertTrue;
@@ -24,6 +25,8 @@ import java.sql.DriverManager;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Properties;
 import org.junit.After;
 import org.junit.Before;
@@ -176,6 +179,52 @@ public class JcrHttpDriverIntegrationTest {
         }
     }
 
+    @Test
+    public void shouldReturnSameResultsWhenFetchingRowsInPages() throws Exception {
+        Connection connection = connectToRemoteRepository();
+        String query = "SELECT [jcr:path] FROM [nt:base] WHERE ISDESCENDANTNODE('/jcr:system/jcr:nodeTypes') ORDER BY [jcr:path]";
+
+        List<String> allPaths = readPaths(connection, query, 0);
+        assertTrue(allPaths.size() > 10);
+        assertEquals(allPaths, readPaths(connection, query, 7));
+        assertEquals(allPaths, readPaths(connection, query, allPaths.size()));
+    }
+
+    @Test
+    public void shouldHonorLimitAndOffsetOfQueryWhenFetchingRowsInPages() throws Exception {
+        Connection connection = connectToRemoteRepository();
+        String query = "SELECT [jcr:path] FROM [nt:base] WHERE ISDESCENDANTNODE('/jcr:system/jcr:nodeTypes') ORDER BY [jcr:path]";
+        List<String> allPaths = readPaths(connection, query, 0);
+        assertTrue(allPaths.size() > 15);
+
+        List<String> limitedPaths = allPaths.subList(3, 13);
+        assertEquals(limitedPaths, readPaths(connection, query + " LIMIT 10 OFFSET 3", 0));
+        assertEquals(limitedPaths, readPaths(connection, query + " LIMIT 10 OFFSET 3", 4));
+        assertEquals(limitedPaths, readPaths(connection, query + " LIMIT 10 OFFSET 3", 10));
+    }
+
+    private List<String> readPaths( Connection connection,
+                                    String query,
+                                    int fetchSize ) throws SQLException {
+        List<String> paths = new ArrayList<>();
+        Statement statement = connection.createStatement();
+        try {
+            statement.setFetchSize(fetchSize);
+            ResultSet rs = statement.executeQuery(query);
+            try {
+                while (rs.next()) {
+                    paths.add(rs.getString(1));
+                }
+                assertTrue(rs.isAfterLast());
+            } finally {
+                rs.close();
+            }
+        } finally {
+            statement.close();
+        }
+        return paths;
+    }
+
     protected String getContextPathUrl() {
         // must match Cargo's configuration
         return "localhost:8090/modeshape";
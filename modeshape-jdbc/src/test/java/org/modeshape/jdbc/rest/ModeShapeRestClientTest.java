@@ -19,6 +19,7 @@ import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
 import java.util.Collection;
 import java.util.List;
 import java.util.Map;
@@ -92,6 +93,19 @@ public class ModeShapeRestClientTest {
         assertQueryResult(queryResult);
     }
 
+    @Test
+    public void shouldQueryRepositoryInPages() throws Exception {
+        String query = "SELECT node.[jcr:path] FROM [nt:base] AS node WHERE ISCHILDNODE(node, '/jcr:system') ORDER BY node.[jcr:path]";
+        List<QueryResult.Row> allRows = REST_CLIENT.query(query, Query.JCR_SQL2).getRows();
+        assertTrue(allRows.size() > 1);
+
+        List<QueryResult.Row> page = REST_CLIENT.query(query, Query.JCR_SQL2, 1, 1).getRows();
+        assertEquals(1, page.size());
+        assertEquals(allRows.get(1).getValue("jcr:path"), page.get(0).getValue("jcr:path"));
+
+        assertTrue(REST_CLIENT.query(query, Query.JCR_SQL2, allRows.size(), 1).isEmpty());
+    }
+
     private void assertQueryResult( QueryResult queryResult ) {
         Map<String, String> columns = queryResult.getColumns();
         String pathColumn = columns.get("jcr:path");
@@ -27,6 +27,7 @@ import java.util.Set;
 import org.modeshape.common.annotation.Immutable;
 import org.modeshape.common.text.ParsingException;
 import org.modeshape.common.text.Position;
+import org.modeshape.common.text.TokenStream.Token;
 import org.modeshape.common.util.CheckArg;
 import org.modeshape.jcr.api.JcrConstants;
 import org.modeshape.sequencer.ddl.dialect.derby.DerbyDdlParser;
@@ -236,6 +237,8 @@ public class DdlParsers {
 
         final List<ParsingResult> results = new ArrayList<DdlParsers.ParsingResult>(this.parsers.size());
         final DdlParserScorer scorer = new DdlParserScorer();
+        // tokenize the content only once for all of the parsers ...
+        final List<Token> contentTokens = StandardDdlParser.tokenize(ddl);
 
         for (final DdlParser parser : this.parsers) {
             final String parserId = parser.getId();
@@ -245,7 +248,7 @@ public class DdlParsers {
 
             try {
                 // score
-                final Object scorerOutput = parser.score(ddl, null, scorer);
+                final Object scorerOutput = score(parser, ddl, null, scorer, contentTokens);
                 score = scorer.getScore();
 
                 // create DDL root node
@@ -292,13 +295,14 @@ public class DdlParsers {
         CheckArg.isNotEmpty(ddl, "ddl");
         RuntimeException firstException = null;
 
-        // Go through each parser and score the DDL content
+        // Go through each parser and score the DDL content, tokenizing the content only once for all of the parsers
         final Map<DdlParser, Integer> scoreMap = new HashMap<DdlParser, Integer>(this.parsers.size());
         final DdlParserScorer scorer = new DdlParserScorer();
+        final List<Token> contentTokens = StandardDdlParser.tokenize(ddl);
 
         for (final DdlParser parser : this.parsers) {
             try {
-                parser.score(ddl, fileName, scorer);
+                score(parser, ddl, fileName, scorer, contentTokens);
                 scoreMap.put(parser, scorer.getScore());
             } catch (RuntimeException e) {
                 if (firstException == null) {
@@ -332,8 +336,12 @@ public class DdlParsers {
                 // create DDL root node
                 astRoot = createDdlStatementsContainer(parser.getId());
 
-                // parse
-                parser.parse(ddl, astRoot, null);
+                // parse, re-using the tokens of the content if possible
+                Object tokens = null;
+                if (parser instanceof StandardDdlParser) {
+                    tokens = ((StandardDdlParser)parser).createTokenStream(ddl, false, contentTokens);
+                }
+                parser.parse(ddl, astRoot, tokens);
                 return astRoot; // successfully parsed
             } catch (final RuntimeException e) {
                 if (astRoot != null) {
@@ -353,6 +361,17 @@ public class DdlParsers {
         throw firstException;
     }
 
+    private Object score( final DdlParser parser,
+                          final String ddl,
+                          final String fileName,
+                          final DdlParserScorer scorer,
+                          final List<Token> contentTokens ) {
+        if (parser instanceof StandardDdlParser) {
+            return ((StandardDdlParser)parser).score(ddl, fileName, scorer, contentTokens);
+        }
+        return parser.score(ddl, fileName, scorer);
+    }
+
     /**
      * Represents a parsing result of one parser parsing one DDL input.
      */
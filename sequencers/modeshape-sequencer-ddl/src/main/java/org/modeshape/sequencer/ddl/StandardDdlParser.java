@@ -115,6 +115,7 @@ import org.modeshape.common.logging.Logger;
 import org.modeshape.common.text.ParsingException;
 import org.modeshape.common.text.Position;
 import org.modeshape.common.text.TokenStream;
+import org.modeshape.common.text.TokenStream.Token;
 import org.modeshape.common.util.CheckArg;
 import org.modeshape.sequencer.ddl.DdlTokenStream.DdlTokenizer;
 import org.modeshape.sequencer.ddl.datatype.DataType;
@@ -202,6 +203,25 @@ public class StandardDdlParser implements DdlParser, DdlConstants, DdlConstants.
     public Object score( String ddl,
                          String fileName,
                          DdlParserScorer scorer ) throws ParsingException {
+        return score(ddl, fileName, scorer, null);
+    }
+
+    /**
+     * Determine this parser's score for the given DDL string, re-using the tokens that were already produced for the same DDL.
+     * 
+     * @param ddl the input string to parse; may not be null
+     * @param fileName the name of the DDL content, which may be used to improve the score; may be null if not known
+     * @param scorer the scorer that should be used to record the score; may not be null
+     * @param contentTokens the tokens of the DDL content, including comments (see {@link #tokenize(String)}); may be null if the
+     *        content should be tokenized by this method
+     * @return an object that will be passed to the {@link #parse(String, AstNode,Object)} method
+     * @throws ParsingException if there is an error parsing the supplied DDL content
+     * @see #score(String, String, DdlParserScorer)
+     */
+    public Object score( String ddl,
+                         String fileName,
+                         DdlParserScorer scorer,
+                         List<Token> contentTokens ) throws ParsingException {
         CheckArg.isNotNull(ddl, "ddl");
         CheckArg.isNotNull(scorer, "scorer");
 
@@ -212,10 +232,7 @@ public class StandardDdlParser implements DdlParser, DdlConstants, DdlConstants.
 
         // Create the state of this parser ...
         problems.clear();
-        boolean includeComments = true;
-        DdlTokenStream tokens = new DdlTokenStream(ddl, DdlTokenStream.ddlTokenizer(includeComments), false);
-        initializeTokenStream(tokens);
-        tokens.start();
+        DdlTokenStream tokens = createTokenStream(ddl, true, contentTokens);
 
         testPrint("\n== >> StandardDdlParser.parse() PARSING STARTED: ");
 
@@ -275,10 +292,7 @@ public class StandardDdlParser implements DdlParser, DdlConstants, DdlConstants.
             tokens.rewind();
         } else {
             // Need to create the token stream ...
-            boolean includeComments = false;
-            tokens = new DdlTokenStream(ddl, DdlTokenStream.ddlTokenizer(includeComments), false);
-            initializeTokenStream(tokens);
-            tokens.start();
+            tokens = createTokenStream(ddl, false, null);
         }
 
         testPrint("\n== >> StandardDdlParser.parse() PARSING STARTED: ");
@@ -322,6 +336,50 @@ public class StandardDdlParser implements DdlParser, DdlConstants, DdlConstants.
         }
     }
 
+    /**
+     * Tokenize the supplied DDL content, including its comments, so that the resulting tokens can be shared by all of the
+     * parsers {@link #score(String, String, DdlParserScorer, List) scoring} the same content. The tokens do not depend upon the
+     * key words and statement start phrases of any particular dialect.
+     * 
+     * @param ddl the DDL content; may not be null
+     * @return the tokens of the content; never null
+     * @throws ParsingException if an error occurs during tokenization of the content
+     */
+    public static List<Token> tokenize( String ddl ) throws ParsingException {
+        return new DdlTokenStream(ddl, DdlTokenStream.ddlTokenizer(true), false).tokenize();
+    }
+
+    /**
+     * Create and start the stream of tokens used by this parser for the supplied DDL content.
+     * 
+     * @param ddl the DDL content; may not be null
+     * @param includeComments true if comments should be included in the stream, or false otherwise
+     * @param contentTokens the already {@link #tokenize(String) tokenized} content, including comments; may be null if the
+     *        content should be tokenized
+     * @return the started token stream; never null
+     */
+    public DdlTokenStream createTokenStream( String ddl,
+                                             boolean includeComments,
+                                             List<Token> contentTokens ) {
+        DdlTokenStream tokens = new DdlTokenStream(ddl, DdlTokenStream.ddlTokenizer(includeComments), false);
+        initializeTokenStream(tokens);
+        if (contentTokens == null) {
+            tokens.start();
+        } else if (includeComments) {
+            tokens.start(contentTokens);
+        } else {
+            // the tokenizer simply doesn't produce comment tokens if comments are excluded ...
+            List<Token> tokensWithoutComments = new ArrayList<Token>(contentTokens.size());
+            for (Token token : contentTokens) {
+                if ((token.type() & DdlTokenizer.COMMENT) == 0) {
+                    tokensWithoutComments.add(token);
+                }
+            }
+            tokens.start(tokensWithoutComments);
+        }
+        return tokens;
+    }
+
     /**
      * Method called by {@link #score(String, String, DdlParserScorer)} and {@link #parse(String, AstNode, Object)} to initialize
      * the {@link DdlTokenStream token stream}, giving subclasses a chance to {@link DdlTokenStream#registeredKeyWords register
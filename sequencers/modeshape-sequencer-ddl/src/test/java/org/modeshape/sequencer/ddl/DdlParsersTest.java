@@ -155,6 +155,21 @@ public class DdlParsersTest extends DdlParserTestHelper {
         assertThat(unknownNodes.size(), is(1));
     }
 
+    @Test
+    public void shouldParseWithSharedTokensLikeSingleParser() {
+        printTest("shouldParseWithSharedTokensLikeSingleParser()");
+        String content = getFileContent(DDL_TEST_FILE_PATH + "GFM_Physical.ddl");
+
+        rootNode = parsers.parse(content, null);
+        AstNode singleParserRootNode = parsers.parseUsing(content, OracleDdlParser.ID);
+
+        assertThat(rootNode.getChildCount(), is(singleParserRootNode.getChildCount()));
+        for (int i = 0; i != rootNode.getChildCount(); ++i) {
+            assertThat(rootNode.getChild(i).getName(), is(singleParserRootNode.getChild(i).getName()));
+            assertThat(rootNode.getChild(i).getMixins(), is(singleParserRootNode.getChild(i).getMixins()));
+        }
+    }
+
     @Test( expected = ParsingException.class )
     public void shouldErrorWhenInvalidParserId() {
         final String content = getFileContent(DDL_TEST_FILE_PATH + "dialect/oracle/oracle_test_statements_3.ddl");
@@ -16,14 +16,15 @@
 
 package org.modeshape.sequencer.zip;
 
-import java.io.ByteArrayOutputStream;
+import java.io.FilterInputStream;
 import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipInputStream;
 import javax.jcr.Binary;
 import javax.jcr.NamespaceRegistry;
 import javax.jcr.Node;
-import javax.jcr.PathNotFoundException;
 import javax.jcr.Property;
 import javax.jcr.RepositoryException;
 import org.modeshape.common.util.CheckArg;
@@ -60,8 +61,11 @@ public class ZipSequencer extends Sequencer {
         try (ZipInputStream zipInputStream = new ZipInputStream(binaryValue.getStream())){
             ZipEntry entry = zipInputStream.getNextEntry();
             outputNode = createTopLevelNode(outputNode);
+            // the folder nodes that were already found or created, keyed by their path within the archive
+            Map<String, Node> folderNodes = new HashMap<>();
+            folderNodes.put("", outputNode);
             while (entry != null) {
-                entry = sequenceZipEntry(outputNode, context, zipInputStream, entry);
+                entry = sequenceZipEntry(folderNodes, context, zipInputStream, entry);
             }
             return true;
         }
@@ -76,11 +80,11 @@ public class ZipSequencer extends Sequencer {
         return outputNode;
     }
 
-    private ZipEntry sequenceZipEntry( Node outputNode,
+    private ZipEntry sequenceZipEntry( Map<String, Node> folderNodes,
                                        Context context,
                                        ZipInputStream zipInputStream,
                                        ZipEntry entry ) throws RepositoryException, IOException {
-        Node zipEntryNode = createZipEntryPath(outputNode, entry);
+        Node zipEntryNode = createZipEntryPath(folderNodes, entry);
 
         if (!entry.isDirectory()) {
             addFileContent(zipInputStream, entry, context, zipEntryNode);
@@ -96,9 +100,9 @@ public class ZipSequencer extends Sequencer {
         // on session pre-save the appropriate properties should be set automatically
         contentNode.addMixin(JcrConstants.MIX_LAST_MODIFIED);
 
-        // set the content bytes
-        byte[] contentBytes = readContent(zipInputStream);
-        org.modeshape.jcr.api.Binary contentBinary = context.valueFactory().createBinary(contentBytes);
+        // stream the content of the entry into the binary store, without closing the archive stream
+        org.modeshape.jcr.api.Binary contentBinary = context.valueFactory().createBinary(new EntryInputStream(zipInputStream),
+                                                                                          null);
         contentNode.setProperty(JcrConstants.JCR_DATA, contentBinary);
 
         // Figure out the mime type ...
@@ -109,48 +113,58 @@ public class ZipSequencer extends Sequencer {
     }
 
     /**
-     * Reads the content from the {@link ZipInputStream}, making sure it doesn't close the stream.
+     * Creates (if necessary) the path from the top-level node to the {@link ZipEntry zip entry}, based on the name of the zip
+     * entry, which should contain its absolute path. Folder nodes are looked up only once per archive.
      * 
-     * @param zipInputStream the input stream
-     * @return the content
-     * @throws IOException if there is a problem reading the stream
-     */
-    private byte[] readContent( ZipInputStream zipInputStream ) throws IOException {
-        int bufferLength = 1024;
-        byte[] buffer = new byte[bufferLength];
-        int n;
-        ByteArrayOutputStream baout = new ByteArrayOutputStream();
-        while ((n = zipInputStream.read(buffer, 0, bufferLength)) > -1) {
-            baout.write(buffer, 0, n);
-        }
-        return baout.toByteArray();
-    }
-
-    /**
-     * Creates (if necessary) the path from the {@link Node parentNode} to the {@link ZipEntry zip entry}, based on the name of
-     * the zip entry, which should contain its absolute path.
-     * 
-     * @param parentNode the parent node under which the node for the ZIP entry should be created
+     * @param folderNodes the folder nodes which were already found or created, keyed by their path within the archive
      * @param entry the ZIP file entry
      * @return the newly created node
      * @throws RepositoryException if there is a problem writing the content to the repository session
      */
-    private Node createZipEntryPath( Node parentNode,
+    private Node createZipEntryPath( Map<String, Node> folderNodes,
                                      ZipEntry entry ) throws RepositoryException {
-        Node zipEntryNode = parentNode;
         String entryName = entry.getName();
-        String[] segments = entryName.split("/");
-        for (int i = 0; i < segments.length; i++) {
-            String segmentName = segments[i];
-            try {
-                zipEntryNode = zipEntryNode.getNode(segmentName);
-            } catch (PathNotFoundException e) {
-                // the path does not exist yet - create it
-                boolean isLastSegment = (i == segments.length - 1);
-                String segmentPrimaryType = isLastSegment ? (entry.isDirectory() ? JcrConstants.NT_FOLDER : JcrConstants.NT_FILE) : JcrConstants.NT_FOLDER;
-                zipEntryNode = zipEntryNode.addNode(segmentName, segmentPrimaryType);
-            }
+        if (entryName.endsWith("/")) {
+            entryName = entryName.substring(0, entryName.length() - 1);
+        }
+        if (entry.isDirectory()) {
+            return folderNode(folderNodes, entryName);
+        }
+        int lastSeparator = entryName.lastIndexOf('/');
+        Node parentNode = lastSeparator == -1 ? folderNodes.get("") : folderNode(folderNodes,
+                                                                                 entryName.substring(0, lastSeparator));
+        String name = entryName.substring(lastSeparator + 1);
+        return parentNode.hasNode(name) ? parentNode.getNode(name) : parentNode.addNode(name, JcrConstants.NT_FILE);
+    }
+
+    private Node folderNode( Map<String, Node> folderNodes,
+                             String folderPath ) throws RepositoryException {
+        Node folderNode = folderNodes.get(folderPath);
+        if (folderNode != null) {
+            return folderNode;
+        }
+        // the folder was not seen yet, so find or create its parent first
+        int lastSeparator = folderPath.lastIndexOf('/');
+        Node parentNode = lastSeparator == -1 ? folderNodes.get("") : folderNode(folderNodes,
+                                                                                 folderPath.substring(0, lastSeparator));
+        String name = folderPath.substring(lastSeparator + 1);
+        folderNode = parentNode.hasNode(name) ? parentNode.getNode(name) : parentNode.addNode(name, JcrConstants.NT_FOLDER);
+        folderNodes.put(folderPath, folderNode);
+        return folderNode;
+    }
+
+    /**
+     * A stream over the content of the current {@link ZipEntry}, which leaves the underlying {@link ZipInputStream} open when
+     * closed so that the next entries can still be read.
+     */
+    private static final class EntryInputStream extends FilterInputStream {
+        protected EntryInputStream( ZipInputStream zipInputStream ) {
+            super(zipInputStream);
+        }
+
+        @Override
+        public void close() {
+            // don't close the archive stream
         }
-        return zipEntryNode;
     }
 }
@@ -18,14 +18,20 @@ package org.modeshape.sequencer.zip;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.EOFException;
 import java.io.IOException;
+import java.util.Arrays;
 import java.util.Map;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
 import javax.jcr.Binary;
 import javax.jcr.Node;
 import javax.jcr.RepositoryException;
 import org.junit.Test;
 import org.modeshape.common.util.IoUtil;
+import org.modeshape.common.util.StringUtil;
 import org.modeshape.jcr.api.JcrConstants;
 import org.modeshape.jcr.api.observation.Event;
 import org.modeshape.jcr.sequencer.AbstractSequencerTest;
@@ -98,6 +104,38 @@ public class ZipSequencerTest extends AbstractSequencerTest {
         assertNode(path + "/testFolder/testInnerFolder/MODE-960-fix2.patch/jcr:content", JcrConstants.NT_RESOURCE);
     }
 
+    @Test
+    public void shouldSequenceZipWithLargeEntriesAndSharedFolders() throws Exception {
+        String largeContent = StringUtil.createString('x', 1024 * 1024);
+        ByteArrayOutputStream archive = new ByteArrayOutputStream();
+        try (ZipOutputStream zipOutputStream = new ZipOutputStream(archive)) {
+            for (String name : Arrays.asList("docs/", "docs/large.txt", "docs/nested/first.txt", "docs/nested/second.txt")) {
+                zipOutputStream.putNextEntry(new ZipEntry(name));
+                if (!name.endsWith("/")) {
+                    zipOutputStream.write((name.endsWith("large.txt") ? largeContent : name).getBytes());
+                }
+                zipOutputStream.closeEntry();
+            }
+        }
+        Node parent = rootNode.addNode("generated.zip");
+        Node content = parent.addNode(JcrConstants.JCR_CONTENT);
+        content.setProperty(JcrConstants.JCR_DATA,
+                            session.getValueFactory().createBinary(new ByteArrayInputStream(archive.toByteArray())));
+        session.save();
+
+        Node outputZip = getOutputNode(rootNode, "zip/generated.zip");
+        assertNotNull(outputZip);
+        assertEquals(1, outputZip.getNodes().getSize());
+        Node folder = outputZip.getNode("docs");
+        assertEquals(JcrConstants.NT_FOLDER, folder.getPrimaryNodeType().getName());
+        assertEquals(2, folder.getNodes().getSize());
+        assertFile(folder, "large.txt", largeContent);
+        Node nestedFolder = folder.getNode("nested");
+        assertEquals(2, nestedFolder.getNodes().getSize());
+        assertFile(nestedFolder, "first.txt", "docs/nested/first.txt");
+        assertFile(nestedFolder, "second.txt", "docs/nested/second.txt");
+    }
+
     @Test
     public void shouldFailIfZipCorrupted() throws Throwable {
         String filename = "corrupt.zip";
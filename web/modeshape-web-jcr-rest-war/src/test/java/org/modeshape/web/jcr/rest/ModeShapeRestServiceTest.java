@@ -115,6 +115,10 @@ public class ModeShapeRestServiceTest extends AbstractRestTest {
         return RestHelper.urlFrom(REPOSITORY_NAME + "/" + RestHelper.RESTORE_METHOD_NAME);
     }
 
+    protected String batchUrl() {
+        return RestHelper.urlFrom(REPOSITORY_NAME + "/default/" + RestHelper.BATCH_METHOD_NAME);
+    }
+
 
     @Test
     public void shouldNotServeContentToUnauthorizedUser() throws Exception {
@@ -343,6 +347,41 @@ public class ModeShapeRestServiceTest extends AbstractRestTest {
         assertEquals("testValue", response.contentAsString());
     }
 
+    @Test
+    public void shouldRetrieveRangeOfBinaryPropertyValue() throws Exception {
+        doPost("put/node_with_binary_property.json", itemsUrl(TEST_NODE)).isCreated();
+        String url = binaryUrl(TEST_NODE, "testProperty");
+        Response response = doGet(url).isOk();
+        assertEquals("bytes", response.getHeader("Accept-Ranges"));
+
+        response = doGet(url, "Range", "bytes=4-").isPartialContent();
+        assertEquals("Value", response.contentAsString());
+        assertEquals("bytes 4-8/9", response.getHeader("Content-Range"));
+
+        response = doGet(url, "Range", "bytes=-5").isPartialContent();
+        assertEquals("Value", response.contentAsString());
+
+        assertEquals(416, doGet(url, "Range", "bytes=100-").getStatusCode());
+
+        response = doGet(url, "Range", "bytes=0-1,6-").isPartialContent();
+        assertTrue(response.getHeader("Content-Type").startsWith("multipart/byteranges"));
+        String multipart = response.contentAsString();
+        assertTrue(multipart.contains("Content-Range: bytes 0-1/9\r\n\r\nte"));
+        assertTrue(multipart.contains("Content-Range: bytes 6-8/9\r\n\r\nlue"));
+    }
+
+    @Test
+    public void shouldNotRetrieveUnmodifiedBinaryPropertyValue() throws Exception {
+        doPost("put/node_with_binary_property.json", itemsUrl(TEST_NODE)).isCreated();
+        String url = binaryUrl(TEST_NODE, "testProperty");
+        String etag = doGet(url).isOk().getHeader("ETag");
+        assertNotNull(etag);
+        assertEquals(0, doGet(url, "If-None-Match", etag).isNotModified().contentAsBytes().length);
+
+        doPut(new ByteArrayInputStream("otherValue".getBytes()), url).isOk();
+        assertEquals("otherValue", doGet(url, "If-None-Match", etag).isOk().contentAsString());
+    }
+
     @Test
     public void shouldRetrieveBinaryPropertyValueWithMimeTypeAndContentDisposition() throws Exception {
         doPost("put/node_with_binary_property.json", itemsUrl(TEST_NODE)).isCreated();
@@ -476,6 +515,22 @@ public class ModeShapeRestServiceTest extends AbstractRestTest {
         doDelete("delete/multiple_nodes_delete.json", itemsUrl()).isOk();
     }
 
+    @Test
+    public void shouldPerformBatchOfOperations() throws Exception {
+        doPost((String)null, itemsUrl(TEST_NODE)).isCreated();
+        doPost("post/batch_request.json", batchUrl()).isOk().isJSONArrayLikeFile("post/batch_response.json");
+        doGet(itemsUrl(TEST_NODE, "child", "subChild")).isOk();
+        assertEquals("updatedValue", doGet(itemsUrl(TEST_NODE, "child")).isOk().json().getString("testProperty"));
+        doGet(itemsUrl(TEST_NODE, "otherChild")).isNotFound();
+    }
+
+    @Test
+    public void shouldNotApplyAnyOperationOfInvalidBatch() throws Exception {
+        doPost((String)null, itemsUrl(TEST_NODE)).isCreated();
+        doPost("post/batch_invalid_request.json", batchUrl()).isBadRequest();
+        doGet(itemsUrl(TEST_NODE, "child")).isNotFound();
+    }
+
     private String binaryUrl( String... additionalPathSegments ) {
         return RestHelper.urlFrom(REPOSITORY_NAME + "/default/" + RestHelper.BINARY_METHOD_NAME, additionalPathSegments);
     }
@@ -642,17 +697,24 @@ public class ModeShapeRestServiceTest extends AbstractRestTest {
 
     @Test
     @FixFor( "MODE-2056" )
-    public void shouldCloseActiveSessions() throws Exception {
-        // execute 3 requests
+    public void shouldReuseSessionsAcrossRequests() throws Exception {
         doPost("post/node_multiple_children_request.json", itemsUrl(TEST_NODE)).isCreated();
-        doPut("post/node_multiple_children_request.json", itemsUrl(TEST_NODE)).isOk();
-        doGet(itemsUrl(TEST_NODE));
+        int activeSessionsCount = activeSessionsCount();
+
+        // the requests are made one after the other by the same user, so they should all reuse the same pooled session ...
+        for (int i = 0; i != 20; ++i) {
+            doPut("post/node_multiple_children_request.json", itemsUrl(TEST_NODE)).isOk();
+            doGet(itemsUrl(TEST_NODE)).isOk();
+        }
+        assertEquals("The sessions are not reused between requests", activeSessionsCount, activeSessionsCount());
+        // and the pool never keeps more than 128 idle sessions, whichever requests have been made before ...
+        assertTrue("Too many sessions are kept by the pool", activeSessionsCount <= 128);
+    }
 
+    private int activeSessionsCount() throws Exception {
         JSONObject repositories = doGet("/").isOk().json();
         JSONObject repository = repositories.getJSONArray("repositories").getJSONObject(0);
-        int activeSessionsCount = repository.getInt("activeSessionsCount");
-
-        assertEquals("There are active sessions in the repository", 0, activeSessionsCount);
+        return repository.getInt("activeSessionsCount");
     }
 
     @Test
@@ -18,7 +18,6 @@ package org.modeshape.web.jcr.rest;
 
 import java.io.File;
 import java.io.InputStream;
-import javax.jcr.Binary;
 import javax.jcr.Property;
 import javax.jcr.PropertyType;
 import javax.jcr.RepositoryException;
@@ -37,6 +36,7 @@ import javax.ws.rs.Produces;
 import javax.ws.rs.QueryParam;
 import javax.ws.rs.core.Context;
 import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Request;
 import javax.ws.rs.core.Response;
 import javax.ws.rs.core.UriInfo;
 import org.codehaus.jettison.json.JSONException;
@@ -97,6 +97,12 @@ import org.modeshape.web.jcr.rest.model.RestWorkspaces;
  * <td>POST, PUT, DELETE</td>
  * </tr>
  * <tr>
+ * <td>/resources/{repositoryName}/{workspaceName}/batch</td>
+ * <td>performs a mix of item creations, updates and deletions with a single save. The body of the request is expected to be a
+ * valid JSON array of operations</td>
+ * <td>POST</td>
+ * </tr>
+ * <tr>
  * <tr>
  * <td>/resources/{repositoryName}/{workspaceName}/nodes/{id}</td>
  * <td>accesses/updates/deletes the with the given identifier. For POST and PUT, the body of the request is expected to be valid
@@ -273,17 +279,19 @@ public final class ModeShapeRestService {
 
     /**
      * Retrieves the binary content of the binary property at the given path, allowing 2 extra (optional) parameters: the
-     * mime-type and the content-disposition of the binary value.
+     * mime-type and the content-disposition of the binary value. The response supports conditional requests (via the SHA-1
+     * based ETag and, where available, the last modified date of the binary) and requests for a single range of bytes.
      *
      * @param request a non-null {@link HttpServletRequest} request
+     * @param jaxrsRequest a non-null {@link Request} request, used to evaluate the request preconditions
      * @param repositoryName a non-null {@link String} representing the name of a repository.
      * @param workspaceName a non-null {@link String} representing the name of a workspace.
      * @param path a non-null {@link String} representing the absolute path to a binary property.
      * @param mimeType an optional {@link String} representing the "already-known" mime-type of the binary. Can be {@code null}
      * @param contentDisposition an optional {@link String} representing the client-preferred content disposition of the respose.
      *        Can be {@code null}
-     * @return the binary stream of the requested binary property or NOT_FOUND if either the property isn't found or it isn't a
-     *         binary
+     * @return the binary stream (or the requested range of it) of the requested binary property, NOT_MODIFIED if the client's
+     *         copy is still current, or NOT_FOUND if either the property isn't found or it isn't a binary
      * @throws RepositoryException if any JCR related operation fails, including the case when the path to the property isn't
      *         valid.
      */
@@ -291,6 +299,7 @@ public final class ModeShapeRestService {
     @Path( "{repositoryName}/{workspaceName}/" + RestHelper.BINARY_METHOD_NAME + "{path:.+}" )
     @Produces( {MediaType.TEXT_HTML, MediaType.TEXT_PLAIN, MediaType.APPLICATION_JSON} )
     public Response getBinary( @Context HttpServletRequest request,
+                               @Context Request jaxrsRequest,
                                @PathParam( "repositoryName" ) String repositoryName,
                                @PathParam( "workspaceName" ) String workspaceName,
                                @PathParam( "path" ) String path,
@@ -301,7 +310,6 @@ public final class ModeShapeRestService {
             return Response.status(Response.Status.NOT_FOUND)
                            .entity(new RestException("The property " + binaryProperty.getPath() + " is not a binary")).build();
         }
-        Binary binary = binaryProperty.getBinary();
         if (StringUtil.isBlank(mimeType)) {
             mimeType = binaryHandler.getDefaultMimeType(binaryProperty);
         }
@@ -309,7 +317,7 @@ public final class ModeShapeRestService {
             contentDisposition = binaryHandler.getDefaultContentDisposition(binaryProperty);
         }
 
-        return Response.ok(binary.getStream(), mimeType).header("Content-Disposition", contentDisposition).build();
+        return binaryHandler.createBinaryResponse(request, jaxrsRequest, binaryProperty, mimeType, contentDisposition);
     }
 
     /**
@@ -573,6 +581,39 @@ public final class ModeShapeRestService {
         return itemHandler.updateItems(request, rawRepositoryName, rawWorkspaceName, requestContent);
     }
 
+    /**
+     * Performs a batch of item creations, updates and deletions via a single session and a single save, using the body of the
+     * request, which is expected to be a valid JSON array. The operations are applied in order, and each of them must be an
+     * object of the form:
+     * <ul>
+     * <li>{ "op" : "add", "path" : "node_path", "body" : { node_body } }</li>
+     * <li>{ "op" : "update", "path" : "item_path", "body" : { item_body } }</li>
+     * <li>{ "op" : "delete", "path" : "item_path" }</li>
+     * </ul>
+     * where each body is expected to be a JSON object which has the same format as the one used when creating or updating a
+     * single item. If any of the operations fails, none of the changes are saved.
+     * @param request the servlet request; may not be null or unauthenticated
+     * @param rawRepositoryName the URL-encoded repository name
+     * @param rawWorkspaceName the URL-encoded workspace name
+     * @param requestContent the JSON-encoded array of operations
+     * @return a {@code non-null} {@link Response} instance which either contains the added and updated items or an error code.
+     * @throws JSONException if there is an error reading the request body as a valid JSON array.
+     * @throws RepositoryException if any other error occurs
+     * @see ModeShapeRestService#postItems(javax.servlet.http.HttpServletRequest, String, String, String)
+     * @see ModeShapeRestService#putItems(javax.servlet.http.HttpServletRequest, String, String, String)
+     * @see ModeShapeRestService#deleteItems(javax.servlet.http.HttpServletRequest, String, String, String)
+     */
+    @POST
+    @Consumes( MediaType.APPLICATION_JSON )
+    @Path( "{repositoryName}/{workspaceName}/" + RestHelper.BATCH_METHOD_NAME )
+    @Produces( {MediaType.APPLICATION_JSON, MediaType.TEXT_PLAIN, MediaType.TEXT_HTML} )
+    public Response postBatch( @Context HttpServletRequest request,
+                               @PathParam( "repositoryName" ) String rawRepositoryName,
+                               @PathParam( "workspaceName" ) String rawWorkspaceName,
+                               String requestContent ) throws RepositoryException, JSONException {
+        return itemHandler.batch(request, rawRepositoryName, rawWorkspaceName, requestContent);
+    }
+
     /**
      * Creates or updates a binary property in the repository, at the given path. The binary content is expected to be written
      * directly to the request body.
@@ -20,6 +20,7 @@ import static org.modeshape.web.jcr.rest.RestHelper.ITEMS_METHOD_NAME;
 import static org.modeshape.web.jcr.rest.RestHelper.URL_ENCODER;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 import javax.jcr.Item;
 import javax.jcr.Node;
 import javax.jcr.NodeIterator;
@@ -64,11 +65,42 @@ public abstract class AbstractHandler {
      */
     protected static final String EMPTY_WORKSPACE_NAME = "<default>";
 
+    /**
+     * The maximum number of idle sessions kept by the {@link #SESSION_POOL} for each repository, workspace and principal.
+     */
+    private static final int MAX_IDLE_SESSIONS_PER_PRINCIPAL = 16;
+
+    /**
+     * The maximum number of idle sessions kept by the {@link #SESSION_POOL} overall.
+     */
+    private static final int MAX_IDLE_SESSIONS = 128;
+
+    /**
+     * The time after which the {@link #SESSION_POOL} logs out a session which hasn't been used.
+     */
+    private static final long IDLE_SESSION_TIMEOUT_MILLIS = TimeUnit.MINUTES.toMillis(5);
+
+    /**
+     * The pool from which the sessions used by requests are borrowed, so that each request does not have to log in and out.
+     */
+    private static final SessionPool SESSION_POOL = new SessionPool(MAX_IDLE_SESSIONS_PER_PRINCIPAL, MAX_IDLE_SESSIONS,
+                                                                    IDLE_SESSION_TIMEOUT_MILLIS);
+
+    static {
+        // the pooled sessions must not outlive the repositories ...
+        RepositoryManager.addShutdownListener(new Runnable() {
+            @Override
+            public void run() {
+                SESSION_POOL.drain();
+            }
+        });
+    }
+
     /**
      * The holder of the active session. Since we're dealing with a service which operates on a request-response basis and
-     * after each request the active session is closed, we don't need multiple active sessions (e.g. for each WS and repository)
+     * after each request the active session is released, we don't need multiple active sessions (e.g. for each WS and repository)
      */
-    private static final ThreadLocal<Session> ACTIVE_SESSION = new ThreadLocal<Session>();
+    private static final ThreadLocal<SessionPool.PooledSession> ACTIVE_SESSION = new ThreadLocal<SessionPool.PooledSession>();
 
     private static final Logger LOGGER = WebLogger.getLogger(AbstractHandler.class);
 
@@ -88,25 +120,23 @@ public abstract class AbstractHandler {
                                   String rawWorkspaceName ) throws RepositoryException {
         assert request != null;
         if (ACTIVE_SESSION.get() == null) {
-            Session session = RepositoryManager.getSession(request, repositoryNameFor(rawRepositoryName), workspaceNameFor(
-                    rawWorkspaceName));
-            ACTIVE_SESSION.set(session);
+            ACTIVE_SESSION.set(SESSION_POOL.borrow(request, repositoryNameFor(rawRepositoryName),
+                                                   workspaceNameFor(rawWorkspaceName)));
         }
-        return ACTIVE_SESSION.get();
+        return ACTIVE_SESSION.get().session();
     }
 
     /**
-     * Cleans up any resources related to {@link AbstractHandler#ACTIVE_SESSION}
+     * Releases the {@link AbstractHandler#ACTIVE_SESSION} back to the pool, discarding any of its unsaved changes.
      */
     public static void cleanupActiveSession() {
-        Session session = AbstractHandler.ACTIVE_SESSION.get();
+        SessionPool.PooledSession session = AbstractHandler.ACTIVE_SESSION.get();
         if (session != null) {
             try {
                 AbstractHandler.ACTIVE_SESSION.remove();
-                session.logout();
-                LOGGER.debug("Logged out REST service session");
+                SESSION_POOL.release(session);
             } catch (Exception e) {
-                LOGGER.warn(e, "Error while trying to logout REST service session");
+                LOGGER.warn(e, "Error while trying to release REST service session");
             }
         }
     }
@@ -18,8 +18,11 @@ package org.modeshape.web.jcr.rest.handler;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
 import java.util.ArrayList;
+import java.util.Date;
 import java.util.List;
+import java.util.UUID;
 import javax.jcr.Binary;
 import javax.jcr.Node;
 import javax.jcr.PathNotFoundException;
@@ -27,9 +30,15 @@ import javax.jcr.Property;
 import javax.jcr.RepositoryException;
 import javax.jcr.Session;
 import javax.servlet.http.HttpServletRequest;
+import javax.ws.rs.core.EntityTag;
+import javax.ws.rs.core.HttpHeaders;
 import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Request;
 import javax.ws.rs.core.Response;
+import javax.ws.rs.core.StreamingOutput;
+import org.modeshape.common.util.ByteRange;
 import org.modeshape.common.util.CheckArg;
+import org.modeshape.common.util.IoUtil;
 import org.modeshape.common.util.StringUtil;
 import org.modeshape.jcr.api.JcrConstants;
 import org.modeshape.web.jcr.rest.model.RestItem;
@@ -48,6 +57,16 @@ public final class RestBinaryHandler extends AbstractHandler {
     public static final String DEFAULT_CONTENT_DISPOSITION_PREFIX = "attachment;filename=";
     private static final String DEFAULT_MIME_TYPE = MediaType.APPLICATION_OCTET_STREAM;
 
+    private static final String JCR_LAST_MODIFIED = "jcr:lastModified";
+    private static final String BYTES_UNIT = "bytes";
+    private static final String RANGE_HEADER = "Range";
+    private static final String IF_RANGE_HEADER = "If-Range";
+    private static final String ACCEPT_RANGES_HEADER = "Accept-Ranges";
+    private static final String CONTENT_RANGE_HEADER = "Content-Range";
+    private static final String CONTENT_DISPOSITION_HEADER = "Content-Disposition";
+    private static final int REQUESTED_RANGE_NOT_SATISFIABLE = 416;
+    private static final String BYTERANGES_BOUNDARY = UUID.randomUUID().toString();
+
     /**
      * Returns a binary {@link Property} for the given repository, workspace and path.
      *
@@ -101,6 +120,188 @@ public final class RestBinaryHandler extends AbstractHandler {
         }
     }
 
+    /**
+     * Creates the response which serves the content of a binary property. The response carries a strong ETag (the SHA-1 of the
+     * content) and, when the property's node or its parent is {@code mix:lastModified}, a Last-Modified date, so that conditional
+     * requests ({@code If-None-Match} and {@code If-Modified-Since}) can be answered with NOT_MODIFIED without reading the
+     * content. A single {@code Range} of bytes is served as PARTIAL_CONTENT, reading only the requested part of the content,
+     * while several ranges are served as a {@code multipart/byteranges} PARTIAL_CONTENT with one part per range.
+     *
+     * @param request a non-null {@link HttpServletRequest} request
+     * @param jaxrsRequest a non-null {@link Request}, used to evaluate the request preconditions
+     * @param binaryProperty a non-null {@link Property} of type BINARY
+     * @param mimeType a non-null {@link String} representing the mime-type of the response
+     * @param contentDisposition a non-null {@link String} representing the content disposition of the response
+     * @return a {@link Response} instance, never {@code null}
+     * @throws RepositoryException if any JCR related operation involving the binary property fail.
+     */
+    public Response createBinaryResponse( HttpServletRequest request,
+                                          Request jaxrsRequest,
+                                          Property binaryProperty,
+                                          String mimeType,
+                                          String contentDisposition ) throws RepositoryException {
+        final Binary binary = binaryProperty.getBinary();
+        final long size = binary.getSize();
+        EntityTag entityTag = entityTag(binary);
+        Date lastModified = lastModified(binaryProperty);
+
+        Response.ResponseBuilder builder = evaluatePreconditions(jaxrsRequest, lastModified, entityTag);
+        if (builder != null) {
+            // the client already has the content ...
+            binary.dispose();
+            return builder.build();
+        }
+
+        List<ByteRange> ranges = requestedRanges(request, size, entityTag, lastModified);
+        if (ranges == null) {
+            builder = Response.ok().type(mimeType).header(HttpHeaders.CONTENT_LENGTH, size);
+        } else if (ranges.isEmpty()) {
+            binary.dispose();
+            return Response.status(REQUESTED_RANGE_NOT_SATISFIABLE).header(CONTENT_RANGE_HEADER, BYTES_UNIT + " */" + size)
+                           .build();
+        } else if (ranges.size() == 1) {
+            ByteRange range = ranges.get(0);
+            builder = Response.status(Response.Status.PARTIAL_CONTENT).type(mimeType)
+                              .header(CONTENT_RANGE_HEADER, range.toContentRange(size))
+                              .header(HttpHeaders.CONTENT_LENGTH, range.getLength());
+        } else {
+            builder = Response.status(Response.Status.PARTIAL_CONTENT)
+                              .type("multipart/byteranges; boundary=" + BYTERANGES_BOUNDARY);
+        }
+
+        builder.entity(binaryContent(binary, ranges, mimeType, size)).header(CONTENT_DISPOSITION_HEADER, contentDisposition)
+               .header(ACCEPT_RANGES_HEADER, BYTES_UNIT);
+        if (entityTag != null) {
+            builder.tag(entityTag);
+        }
+        if (lastModified != null) {
+            builder.lastModified(lastModified);
+        }
+        return builder.build();
+    }
+
+    private Response.ResponseBuilder evaluatePreconditions( Request jaxrsRequest,
+                                                            Date lastModified,
+                                                            EntityTag entityTag ) {
+        if (entityTag != null && lastModified != null) {
+            return jaxrsRequest.evaluatePreconditions(lastModified, entityTag);
+        } else if (entityTag != null) {
+            return jaxrsRequest.evaluatePreconditions(entityTag);
+        } else if (lastModified != null) {
+            return jaxrsRequest.evaluatePreconditions(lastModified);
+        }
+        return null;
+    }
+
+    private EntityTag entityTag( Binary binary ) {
+        if (!(binary instanceof org.modeshape.jcr.api.Binary)) {
+            return null;
+        }
+        String hash = ((org.modeshape.jcr.api.Binary)binary).getHexHash();
+        return StringUtil.isBlank(hash) ? null : new EntityTag(hash);
+    }
+
+    private Date lastModified( Property binaryProperty ) throws RepositoryException {
+        Node node = binaryProperty.getParent();
+        for (int i = 0; i < 2 && node != null; i++) {
+            if (node.hasProperty(JCR_LAST_MODIFIED)) {
+                // HTTP dates have a resolution of seconds ...
+                long time = node.getProperty(JCR_LAST_MODIFIED).getDate().getTimeInMillis();
+                return new Date(time - time % 1000);
+            }
+            node = node.getDepth() > 0 ? node.getParent() : null;
+        }
+        return null;
+    }
+
+    /**
+     * Determines the byte ranges which should be served for the given request.
+     *
+     * @return {@code null} if the whole content should be served, an empty list if none of the requested ranges can be
+     *         satisfied, or the ranges to serve
+     * @see ByteRange#parse(String, long)
+     */
+    private List<ByteRange> requestedRanges( HttpServletRequest request,
+                                             long size,
+                                             EntityTag entityTag,
+                                             Date lastModified ) {
+        String rangeHeader = request.getHeader(RANGE_HEADER);
+        if (StringUtil.isBlank(rangeHeader)) {
+            return null;
+        }
+        String ifRange = request.getHeader(IF_RANGE_HEADER);
+        if (!StringUtil.isBlank(ifRange) && !ifRangeMatches(ifRange.trim(), entityTag, lastModified, request)) {
+            // the client's copy is stale, so it needs the whole content ...
+            return null;
+        }
+        return ByteRange.parse(rangeHeader, size);
+    }
+
+    private boolean ifRangeMatches( String ifRange,
+                                    EntityTag entityTag,
+                                    Date lastModified,
+                                    HttpServletRequest request ) {
+        if (ifRange.startsWith("\"") || ifRange.startsWith("W/")) {
+            // only strong validators may be used with If-Range ...
+            return entityTag != null && ifRange.equals(entityTag.toString());
+        }
+        if (lastModified == null) {
+            return false;
+        }
+        try {
+            return lastModified.getTime() == request.getDateHeader(IF_RANGE_HEADER);
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    private StreamingOutput binaryContent( final Binary binary,
+                                           final List<ByteRange> ranges,
+                                           final String mimeType,
+                                           final long size ) {
+        return new StreamingOutput() {
+            @Override
+            public void write( OutputStream output ) throws IOException {
+                try {
+                    if (ranges == null) {
+                        writeRange(binary, output, 0, size);
+                    } else if (ranges.size() == 1) {
+                        writeRange(binary, output, ranges.get(0).getStart(), ranges.get(0).getLength());
+                    } else {
+                        for (ByteRange range : ranges) {
+                            StringBuilder partHeader = new StringBuilder();
+                            partHeader.append("\r\n--").append(BYTERANGES_BOUNDARY).append("\r\n");
+                            partHeader.append("Content-Type: ").append(mimeType).append("\r\n");
+                            partHeader.append(CONTENT_RANGE_HEADER).append(": ").append(range.toContentRange(size))
+                                      .append("\r\n\r\n");
+                            output.write(partHeader.toString().getBytes("ISO-8859-1"));
+                            writeRange(binary, output, range.getStart(), range.getLength());
+                        }
+                        output.write(("\r\n--" + BYTERANGES_BOUNDARY + "--\r\n").getBytes("ISO-8859-1"));
+                    }
+                } catch (RepositoryException e) {
+                    throw new IOException(e);
+                } finally {
+                    binary.dispose();
+                }
+            }
+        };
+    }
+
+    private void writeRange( Binary binary,
+                             OutputStream output,
+                             long offset,
+                             long length ) throws IOException, RepositoryException {
+        // each range uses its own stream: the streams of some stores (e.g. the file system store) transfer the requested
+        // region directly, while others skip the content before the offset ...
+        InputStream stream = binary.getStream();
+        try {
+            IoUtil.write(stream, output, offset, length);
+        } finally {
+            stream.close();
+        }
+    }
+
     /**
      * Updates the {@link Property property} at the given path with the content from the given {@link InputStream}.
      *
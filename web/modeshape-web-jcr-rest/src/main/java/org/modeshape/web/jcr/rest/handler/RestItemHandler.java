@@ -44,6 +44,13 @@ import org.modeshape.web.jcr.rest.model.RestItem;
  */
 public final class RestItemHandler extends ItemHandler {
 
+    private static final String BATCH_OPERATION = "op";
+    private static final String BATCH_PATH = "path";
+    private static final String BATCH_BODY = "body";
+    private static final String ADD_OPERATION = "add";
+    private static final String UPDATE_OPERATION = "update";
+    private static final String DELETE_OPERATION = "delete";
+
     /**
      * Retrieves the JCR {@link Item} at the given path, returning its rest representation.
      *
@@ -256,6 +263,77 @@ public final class RestItemHandler extends ItemHandler {
         return Response.ok().build();
     }
 
+    /**
+     * Performs a batch of item creations, updates and deletions, in the order in which they appear in the request, using a single
+     * {@link Session} and a single save. If any of the operations fails for whatever reason, the entire batch fails.
+     * <p>
+     * The body of the request is expected to be a JSON array of operations, each of the form
+     * {@code { "op" : "add|update|delete", "path" : "item_path", "body" : { item_body } }}, where the body (which is ignored for
+     * deletions) has the same format as the one used when creating or updating a single item.
+     * </p>
+     *
+     * @param request the servlet request; may not be null or unauthenticated
+     * @param repositoryName the URL-encoded repository name
+     * @param workspaceName the URL-encoded workspace name
+     * @param requestContent the JSON-encoded array of operations
+     * @return a {@code non-null} {@link Response} which contains the added and updated items, in the order of the operations,
+     *         or an error code if any of the operations is not valid
+     * @throws JSONException if the body of the request is not a valid JSON array of operations
+     * @throws RepositoryException if any of the JCR operations fail
+     */
+    public Response batch( HttpServletRequest request,
+                           String repositoryName,
+                           String workspaceName,
+                           String requestContent ) throws JSONException, RepositoryException {
+        JSONArray requestArray = stringToJSONArray(requestContent);
+        if (requestArray.length() == 0) {
+            return Response.ok().build();
+        }
+
+        // validate all the operations before changing anything ...
+        List<JSONObject> operations = new ArrayList<>(requestArray.length());
+        for (int i = 0; i < requestArray.length(); i++) {
+            JSONObject operation = requestArray.getJSONObject(i);
+            String op = operation.optString(BATCH_OPERATION);
+            if (!ADD_OPERATION.equals(op) && !UPDATE_OPERATION.equals(op) && !DELETE_OPERATION.equals(op)) {
+                return exceptionResponse("Invalid batch operation '" + op + "' at index " + i);
+            }
+            if (StringUtil.isBlank(operation.optString(BATCH_PATH))) {
+                return exceptionResponse("Missing path for the batch operation at index " + i);
+            }
+            operations.add(operation);
+        }
+
+        Session session = getSession(request, repositoryName, workspaceName);
+        List<RestItem> result = new ArrayList<RestItem>();
+        // versionable nodes are checked out as they're updated, but only checked in once the whole batch has been saved ...
+        VersionableChanges changes = new VersionableChanges(session);
+        try {
+            for (JSONObject operation : operations) {
+                String op = operation.getString(BATCH_OPERATION);
+                String path = absPath(operation.getString(BATCH_PATH));
+                JSONObject body = operation.has(BATCH_BODY) ? operation.getJSONObject(BATCH_BODY) : new JSONObject();
+                if (ADD_OPERATION.equals(op)) {
+                    Node parentNode = (Node)session.getItem(parentPath(path));
+                    Node newNode = addNode(parentNode, newNodeName(path), body);
+                    result.add(createRestItem(request, 0, session, newNode));
+                } else if (UPDATE_OPERATION.equals(op)) {
+                    Item item = session.getItem(path);
+                    item = item instanceof Node ? updateNode((Node)item, body, changes) : updateItem(item, body);
+                    result.add(createRestItem(request, 0, session, item));
+                } else {
+                    doDelete(path, session);
+                }
+            }
+            session.save();
+            changes.checkin();
+        } catch (RepositoryException | JSONException | RuntimeException e) {
+            changes.abort();
+            throw e;
+        }
+        return createOkResponse(result);
+    }
+
     private List<RestItem> updateMultipleNodes( HttpServletRequest request,
                                                 Session session,
                                                 TreeMap<String, JSONObject> nodesByPath )
@@ -37,6 +37,7 @@ import javax.jcr.query.RowIterator;
 import javax.servlet.http.HttpServletRequest;
 import javax.ws.rs.core.UriInfo;
 import org.modeshape.common.util.StringUtil;
+import org.modeshape.jcr.api.query.qom.Limit;
 import org.modeshape.web.jcr.rest.RestHelper;
 import org.modeshape.web.jcr.rest.model.RestQueryPlanResult;
 import org.modeshape.web.jcr.rest.model.RestQueryResult;
@@ -83,9 +84,28 @@ public final class RestQueryHandler extends AbstractHandler {
         assert statement != null;
 
         Session session = getSession(request, repositoryName, workspaceName);
-        Query query = createQuery(language, statement, session);
+        org.modeshape.jcr.api.query.Query query = createQuery(language, statement, session);
         bindExtraVariables(uriInfo, session.getValueFactory(), query);
 
+        long rowsToSkip = offset;
+        long rowLimit = limit;
+        Limit statementLimits = query.getLimits();
+        if (statementLimits != null) {
+            // let the query engine apply the requested page within the statement's own LIMIT and OFFSET, so that it doesn't
+            // produce rows which are never returned (clients such as the JDBC driver fetch large results one page at a time) ...
+            long pageOffset = Math.max(offset, 0L);
+            int statementRowLimit = statementLimits.getRowLimit();
+            long remainingRows = statementRowLimit == Integer.MAX_VALUE ? Long.MAX_VALUE : Math.max(statementRowLimit - pageOffset, 0L);
+            rowLimit = limit >= 0 ? Math.min(limit, remainingRows) : remainingRows;
+            if (pageOffset > 0) {
+                query.setOffset(statementLimits.getOffset() + pageOffset);
+            }
+            if (rowLimit != Long.MAX_VALUE) {
+                query.setLimit(rowLimit);
+            }
+            rowsToSkip = 0L;
+        }
+
         QueryResult result = query.execute();
         RestQueryResult restQueryResult = new RestQueryResult();
 
@@ -94,7 +114,7 @@ public final class RestQueryHandler extends AbstractHandler {
 
         String baseUrl = RestHelper.repositoryUrl(request);
 
-        setRows(offset, limit, session, result, restQueryResult, columnNames, baseUrl);
+        setRows(rowsToSkip, rowLimit, session, result, restQueryResult, columnNames, baseUrl);
 
         return restQueryResult;
     }
@@ -147,7 +167,11 @@ public final class RestQueryHandler extends AbstractHandler {
                           String baseUrl ) throws RepositoryException {
         RowIterator resultRows = result.getRows();
         if (offset > 0) {
-            resultRows.skip(offset);
+            // skip over the rows one by one, since an offset past the end of the results is not an error ...
+            while (offset > 0 && resultRows.hasNext()) {
+                resultRows.nextRow();
+                offset--;
+            }
         }
         if (limit < 0) {
             limit = Long.MAX_VALUE;
@@ -0,0 +1,237 @@
+/*
+ * ModeShape (http://www.modeshape.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.modeshape.web.jcr.rest.handler;
+
+import java.security.Principal;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.BlockingDeque;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.jcr.RepositoryException;
+import javax.jcr.Session;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletRequestWrapper;
+import org.modeshape.common.annotation.ThreadSafe;
+import org.modeshape.jcr.api.Logger;
+import org.modeshape.web.jcr.RepositoryManager;
+import org.modeshape.web.jcr.WebLogger;
+
+/**
+ * A pool of JCR sessions used by the REST service, so that each request does not have to log in and out of the repository.
+ * Sessions are pooled by repository, workspace and principal (anonymous requests sharing the same sessions). At most
+ * {@code maxIdleSessionsPerPrincipal} idle sessions are kept for each of them and at most {@code maxIdleSessions} overall; any
+ * other released session is logged out. Sessions which have been idle for longer than {@code idleTimeoutMillis} are logged out
+ * too, which is checked whenever sessions are borrowed or released, so an idle pool holds on to its sessions until it's used
+ * again or {@link #drain() drained}.
+ * <p>
+ * Sessions for authenticated principals are created with {@link org.modeshape.jcr.api.ServletCredentials} which wrap a
+ * {@link HttpServletRequestWrapper}, and each time such a session is borrowed the wrapper is pointed at the current request. That
+ * way roles are always checked against the request being served, rather than against the (already recycled) request for which
+ * the session was created.
+ * </p>
+ * <p>
+ * Any changes which have not been saved are discarded when a session is released, so that they are never seen by another request.
+ * </p>
+ */
+@ThreadSafe
+final class SessionPool {
+
+    private static final Logger LOGGER = WebLogger.getLogger(SessionPool.class);
+
+    /**
+     * The minimum time between two checks for sessions which have been idle for too long, which otherwise would be done (by
+     * iterating over all the idle sessions) every time a session is borrowed or released.
+     */
+    private static final long EXPIRY_CHECK_INTERVAL_MILLIS = 1000L;
+
+    private final int maxIdleSessionsPerPrincipal;
+    private final int maxIdleSessions;
+    private final long idleTimeoutMillis;
+    private final ConcurrentMap<List<String>, BlockingDeque<PooledSession>> idleSessions = new ConcurrentHashMap<>();
+    private final AtomicInteger idleSessionCount = new AtomicInteger();
+    private final AtomicLong nextExpiryCheck = new AtomicLong();
+
+    SessionPool( int maxIdleSessionsPerPrincipal,
+                 int maxIdleSessions,
+                 long idleTimeoutMillis ) {
+        assert maxIdleSessionsPerPrincipal > 0;
+        assert maxIdleSessions >= maxIdleSessionsPerPrincipal;
+        assert idleTimeoutMillis > 0;
+        this.maxIdleSessionsPerPrincipal = maxIdleSessionsPerPrincipal;
+        this.maxIdleSessions = maxIdleSessions;
+        this.idleTimeoutMillis = idleTimeoutMillis;
+    }
+
+    /**
+     * Returns a session for the given workspace in the named repository, for the principal of the given request. An idle pooled
+     * session is returned if there is one, otherwise a new session is created.
+     *
+     * @param request the servlet request; may be null for anonymous sessions
+     * @param repositoryName the name of the repository; may not be null
+     * @param workspaceName the name of the workspace; may not be null
+     * @return the session, which must be {@link #release(PooledSession) released} once the request has been served; never null
+     * @throws RepositoryException if a new session cannot be created
+     */
+    PooledSession borrow( HttpServletRequest request,
+                          String repositoryName,
+                          String workspaceName ) throws RepositoryException {
+        Principal principal = request != null ? request.getUserPrincipal() : null;
+        List<String> key = Arrays.asList(repositoryName, workspaceName, principal != null ? principal.getName() : null);
+        logoutExpiredSessionsPeriodically();
+        BlockingDeque<PooledSession> idle = idleSessions.get(key);
+        if (idle != null) {
+            // use the most recently released sessions first ...
+            long now = System.currentTimeMillis();
+            for (PooledSession pooled = idle.pollFirst(); pooled != null; pooled = idle.pollFirst()) {
+                idleSessionCount.decrementAndGet();
+                if (isExpired(pooled, now)) {
+                    logout(pooled);
+                } else if (pooled.session().isLive()) {
+                    pooled.bindTo(request);
+                    return pooled;
+                }
+            }
+        }
+        if (principal == null) {
+            return new PooledSession(key, RepositoryManager.getSession(request, repositoryName, workspaceName), null);
+        }
+        HttpServletRequestWrapper requestWrapper = new HttpServletRequestWrapper(request);
+        Session session = RepositoryManager.getSession(requestWrapper, repositoryName, workspaceName);
+        return new PooledSession(key, session, requestWrapper);
+    }
+
+    /**
+     * Returns the given session to the pool, discarding any of its unsaved changes. The session is logged out if it is no longer
+     * usable or if there are already enough idle sessions, either for its principal or overall.
+     *
+     * @param pooled the session previously {@link #borrow borrowed}; may not be null
+     */
+    void release( PooledSession pooled ) {
+        Session session = pooled.session();
+        if (!session.isLive()) {
+            return;
+        }
+        try {
+            session.refresh(false);
+            if (idleSessionCount.incrementAndGet() <= maxIdleSessions) {
+                BlockingDeque<PooledSession> idle = idleSessions.get(pooled.key);
+                if (idle == null) {
+                    idle = new LinkedBlockingDeque<>(maxIdleSessionsPerPrincipal);
+                    BlockingDeque<PooledSession> existing = idleSessions.putIfAbsent(pooled.key, idle);
+                    if (existing != null) idle = existing;
+                }
+                pooled.idleSince = System.currentTimeMillis();
+                if (idle.offerFirst(pooled)) {
+                    logoutExpiredSessionsPeriodically();
+                    return;
+                }
+            }
+            idleSessionCount.decrementAndGet();
+        } catch (RepositoryException e) {
+            LOGGER.debug(e, "Cannot return REST service session to the pool");
+        }
+        logout(pooled);
+    }
+
+    /**
+     * Logs out all of the idle sessions. The pool can still be used afterwards, in which case new sessions are created.
+     *
+     * @return the number of sessions which have been logged out
+     */
+    int drain() {
+        int count = 0;
+        for (BlockingDeque<PooledSession> idle : idleSessions.values()) {
+            for (PooledSession pooled = idle.pollFirst(); pooled != null; pooled = idle.pollFirst()) {
+                idleSessionCount.decrementAndGet();
+                logout(pooled);
+                ++count;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Returns the number of idle sessions which are currently kept by this pool.
+     *
+     * @return the number of idle sessions
+     */
+    int idleSessionCount() {
+        return idleSessionCount.get();
+    }
+
+    private void logoutExpiredSessionsPeriodically() {
+        long now = System.currentTimeMillis();
+        long due = nextExpiryCheck.get();
+        // Only one thread does the check ...
+        if (now < due || !nextExpiryCheck.compareAndSet(due, now + EXPIRY_CHECK_INTERVAL_MILLIS)) {
+            return;
+        }
+        for (BlockingDeque<PooledSession> idle : idleSessions.values()) {
+            // the least recently released sessions are at the end of each deque ...
+            for (PooledSession pooled = idle.peekLast(); pooled != null && isExpired(pooled, now); pooled = idle.peekLast()) {
+                if (idle.removeLastOccurrence(pooled)) {
+                    idleSessionCount.decrementAndGet();
+                    logout(pooled);
+                }
+            }
+        }
+    }
+
+    private boolean isExpired( PooledSession pooled,
+                               long now ) {
+        return now - pooled.idleSince > idleTimeoutMillis;
+    }
+
+    private void logout( PooledSession pooled ) {
+        if (pooled.session().isLive()) {
+            pooled.session().logout();
+            LOGGER.debug("Logged out REST service session");
+        }
+    }
+
+    /**
+     * A pooled session, together with the pool key and the request wrapper used for its credentials.
+     */
+    static final class PooledSession {
+        private final List<String> key;
+        private final Session session;
+        private final HttpServletRequestWrapper requestWrapper;
+        private volatile long idleSince;
+
+        PooledSession( List<String> key,
+                       Session session,
+                       HttpServletRequestWrapper requestWrapper ) {
+            this.key = key;
+            this.session = session;
+            this.requestWrapper = requestWrapper;
+        }
+
+        Session session() {
+            return session;
+        }
+
+        void bindTo( HttpServletRequest request ) {
+            if (requestWrapper != null) {
+                requestWrapper.setRequest(request);
+            }
+        }
+    }
+}
@@ -0,0 +1,189 @@
+/*
+ * ModeShape (http://www.modeshape.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.modeshape.web.jcr.rest.model;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Map;
+import org.codehaus.jettison.json.JSONException;
+import org.codehaus.jettison.json.JSONObject;
+import org.modeshape.common.annotation.NotThreadSafe;
+
+/**
+ * A cursor-style generator which writes JSON directly to a {@link Writer}, as the objects and arrays are being started and
+ * ended, so that large structures do not have to be built in memory (e.g. as {@link JSONObject} instances) before being
+ * written. Names and values are quoted and escaped in the same way as Jettison does it.
+ * <p>
+ * Unlike {@link org.codehaus.jettison.json.JSONWriter}, this generator does not limit the nesting depth.
+ * </p>
+ */
+@NotThreadSafe
+public final class JSONGenerator {
+
+    private final Writer writer;
+    /**
+     * For each of the currently opened objects or arrays (indexed by depth), whether an element has already been written.
+     */
+    private final BitSet hasElements = new BitSet();
+    private int depth;
+    private boolean afterName;
+
+    /**
+     * Creates a new generator.
+     *
+     * @param writer a {@code non-null} {@link Writer} to which the JSON is written; it is not flushed nor closed by the
+     *        generator.
+     */
+    public JSONGenerator( Writer writer ) {
+        this.writer = writer;
+    }
+
+    /**
+     * Starts a new JSON object.
+     *
+     * @return this generator
+     * @throws IOException if the object cannot be written
+     */
+    public JSONGenerator beginObject() throws IOException {
+        return begin('{');
+    }
+
+    /**
+     * Ends the current JSON object.
+     *
+     * @return this generator
+     * @throws IOException if the object cannot be written
+     */
+    public JSONGenerator endObject() throws IOException {
+        return end('}');
+    }
+
+    /**
+     * Starts a new JSON array.
+     *
+     * @return this generator
+     * @throws IOException if the array cannot be written
+     */
+    public JSONGenerator beginArray() throws IOException {
+        return begin('[');
+    }
+
+    /**
+     * Ends the current JSON array.
+     *
+     * @return this generator
+     * @throws IOException if the array cannot be written
+     */
+    public JSONGenerator endArray() throws IOException {
+        return end(']');
+    }
+
+    /**
+     * Writes the name of the next field of the current JSON object; it must be followed by a value, an object or an array.
+     *
+     * @param name a {@code non-null} string
+     * @return this generator
+     * @throws IOException if the name cannot be written
+     */
+    public JSONGenerator name( String name ) throws IOException {
+        separate();
+        writer.write(JSONObject.quote(name));
+        writer.write(':');
+        afterName = true;
+        return this;
+    }
+
+    /**
+     * Writes a value, which can be {@code null}, a {@link String}, a {@link Number}, a {@link Boolean}, a {@link JSONAble} (which
+     * is streamed if it is {@link JSONStreamable}), a {@link Map} (written as an object) or a {@link Collection} (written as an
+     * array). Any other value is written as a string.
+     *
+     * @param value the value; may be {@code null}
+     * @return this generator
+     * @throws JSONException if a {@link JSONAble} value cannot be converted to JSON
+     * @throws IOException if the value cannot be written
+     */
+    public JSONGenerator value( Object value ) throws JSONException, IOException {
+        if (value instanceof JSONStreamable) {
+            ((JSONStreamable)value).writeJSON(this);
+        } else if (value instanceof JSONAble) {
+            beforeValue();
+            ((JSONAble)value).toJSON().write(writer);
+        } else if (value instanceof Map) {
+            beginObject();
+            for (Map.Entry<?, ?> entry : ((Map<?, ?>)value).entrySet()) {
+                name(String.valueOf(entry.getKey())).value(entry.getValue());
+            }
+            endObject();
+        } else if (value instanceof Collection) {
+            beginArray();
+            for (Object element : (Collection<?>)value) {
+                value(element);
+            }
+            endArray();
+        } else if (value == null) {
+            write("null");
+        } else if (value instanceof Number) {
+            write(JSONObject.numberToString((Number)value));
+        } else if (value instanceof Boolean) {
+            write(value.toString());
+        } else {
+            write(JSONObject.quote(value.toString()));
+        }
+        return this;
+    }
+
+    private JSONGenerator begin( char c ) throws IOException {
+        beforeValue();
+        writer.write(c);
+        hasElements.clear(++depth);
+        return this;
+    }
+
+    private JSONGenerator end( char c ) throws IOException {
+        assert depth > 0 && !afterName;
+        --depth;
+        writer.write(c);
+        return this;
+    }
+
+    private void write( String value ) throws IOException {
+        beforeValue();
+        writer.write(value);
+    }
+
+    private void beforeValue() throws IOException {
+        if (afterName) {
+            afterName = false;
+        } else {
+            separate();
+        }
+    }
+
+    private void separate() throws IOException {
+        if (depth == 0) {
+            return;
+        }
+        if (hasElements.get(depth)) {
+            writer.write(',');
+        } else {
+            hasElements.set(depth);
+        }
+    }
+}
@@ -0,0 +1,35 @@
+/*
+ * ModeShape (http://www.modeshape.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.modeshape.web.jcr.rest.model;
+
+import java.io.IOException;
+import org.codehaus.jettison.json.JSONException;
+
+/**
+ * A {@link JSONAble} which can also write its JSON representation incrementally, via a {@link JSONGenerator}. The written
+ * JSON should be equivalent to the one returned by {@link #toJSON()}.
+ */
+public interface JSONStreamable extends JSONAble {
+    /**
+     * Writes the JSON representation of this object, as a single value.
+     * 
+     * @param generator a {@code non-null} {@link JSONGenerator}
+     * @throws JSONException if any nested object cannot be converted to JSON
+     * @throws IOException if the JSON cannot be written
+     */
+    public void writeJSON( JSONGenerator generator ) throws JSONException, IOException;
+}
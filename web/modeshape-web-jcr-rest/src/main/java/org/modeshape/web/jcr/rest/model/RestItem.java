@@ -16,12 +16,16 @@
 
 package org.modeshape.web.jcr.rest.model;
 
+import java.io.IOException;
+import java.util.Map;
+import org.codehaus.jettison.json.JSONException;
+
 /**
  * A REST representation of a {@link javax.jcr.Item}
  *
  * @author Horia Chiorean (hchiorea@redhat.com)
  */
-public abstract class RestItem implements JSONAble {
+public abstract class RestItem implements JSONStreamable {
 
     protected final String url;
     protected final String parentUrl;
@@ -34,4 +38,38 @@ public abstract class RestItem implements JSONAble {
         this.url = url;
         this.parentUrl = parentUrl;
     }
+
+    /**
+     * Adds a field of the JSON object of this item in the same way as {@link org.codehaus.jettison.json.JSONObject#put} does it,
+     * so that the streamed JSON is the same as the one returned by {@link #toJSON()}: a field which is added again keeps its
+     * position but takes the new value, and a {@code null} value removes the field.
+     *
+     * @param fields a {@code non-null} map of the fields, which preserves their order
+     * @param name a {@code non-null} string, the name of the field
+     * @param value the value of the field; may be {@code null}
+     */
+    protected static void putField( Map<String, Object> fields,
+                                    String name,
+                                    Object value ) {
+        if (value == null) {
+            fields.remove(name);
+        } else {
+            fields.put(name, value);
+        }
+    }
+
+    /**
+     * Writes the fields collected with {@link #putField(Map, String, Object)} into the current JSON object.
+     *
+     * @param generator a {@code non-null} {@link JSONGenerator}
+     * @param fields a {@code non-null} map of the fields
+     * @throws JSONException if a value cannot be converted to JSON
+     * @throws IOException if the fields cannot be written
+     */
+    protected static void writeFields( JSONGenerator generator,
+                                       Map<String, Object> fields ) throws JSONException, IOException {
+        for (Map.Entry<String, Object> field : fields.entrySet()) {
+            generator.name(field.getKey()).value(field.getValue());
+        }
+    }
 }
@@ -16,7 +16,9 @@
 
 package org.modeshape.web.jcr.rest.model;
 
+import java.io.IOException;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -117,6 +119,35 @@ public final class RestNode extends RestItem {
         return node;
     }
 
+    @Override
+    public void writeJSON( JSONGenerator generator ) throws JSONException, IOException {
+        // the custom and JCR properties may share names, so collect the fields as toJSON() does, and only stream the children ...
+        Map<String, Object> fields = new LinkedHashMap<String, Object>();
+
+        // do these first so that they appear first in the JSON ...
+        putField(fields, SELF_FIELD_NAME, url);
+        putField(fields, UP_FIELD_NAME, parentUrl);
+        putField(fields, ID_FIELD_NAME, id);
+
+        for (Map.Entry<String, String> customProperty : customProperties.entrySet()) {
+            if (isReservedField(customProperty.getKey())) continue; // skip
+            putField(fields, customProperty.getKey(), customProperty.getValue());
+        }
+        for (RestProperty restProperty : jcrProperties) {
+            if (isReservedField(restProperty.name)) continue; // skip
+            if (restProperty.isMultiValue()) {
+                putField(fields, restProperty.name, restProperty.getValues());
+            } else if (restProperty.getValue() != null) {
+                putField(fields, restProperty.name, restProperty.getValue());
+            }
+        }
+
+        generator.beginObject();
+        writeFields(generator, fields);
+        writeChildren(generator);
+        generator.endObject();
+    }
+
     private boolean isReservedField( String fieldName ) {
         return RESERVED_FIELD_NAMES.contains(fieldName);
     }
@@ -144,6 +175,18 @@ public final class RestNode extends RestItem {
         }
     }
 
+    private void writeChildren( JSONGenerator generator ) throws JSONException, IOException {
+        // children are streamed one by one, so large child lists are never held as JSON objects ...
+        if (!children.isEmpty()) {
+            generator.name(CHILDREN_FIELD_NAME).beginObject();
+            for (RestNode child : children) {
+                generator.name(child.name);
+                child.writeJSON(generator);
+            }
+            generator.endObject();
+        }
+    }
+
     private void addCustomProperties( JSONObject node ) throws JSONException {
         // custom properties
         for (String customPropertyName : customProperties.keySet()) {
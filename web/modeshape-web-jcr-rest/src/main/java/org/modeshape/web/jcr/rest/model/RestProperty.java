@@ -16,8 +16,11 @@
 
 package org.modeshape.web.jcr.rest.model;
 
+import java.io.IOException;
 import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import org.codehaus.jettison.json.JSONException;
 import org.codehaus.jettison.json.JSONObject;
 
@@ -74,4 +77,20 @@ public final class RestProperty extends RestItem {
         object.put("up", parentUrl);
         return object;
     }
+
+    @Override
+    public void writeJSON( JSONGenerator generator ) throws JSONException, IOException {
+        // the property's name may be the same as the name of another field, so collect the fields as toJSON() does ...
+        Map<String, Object> fields = new LinkedHashMap<String, Object>();
+        if (isMultiValue()) {
+            putField(fields, "values", values);
+        } else {
+            putField(fields, name, getValue());
+        }
+        putField(fields, "self", url);
+        putField(fields, "up", parentUrl);
+        generator.beginObject();
+        writeFields(generator, fields);
+        generator.endObject();
+    }
 }
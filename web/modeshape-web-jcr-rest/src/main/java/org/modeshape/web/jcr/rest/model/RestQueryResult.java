@@ -16,6 +16,7 @@
 
 package org.modeshape.web.jcr.rest.model;
 
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.LinkedHashMap;
 import java.util.List;
@@ -30,7 +31,7 @@ import org.modeshape.common.util.StringUtil;
  * 
  * @author Horia Chiorean (hchiorea@redhat.com)
  */
-public final class RestQueryResult implements JSONAble {
+public final class RestQueryResult implements JSONStreamable {
     private final Map<String, String> columns;
     private final List<RestRow> rows;
 
@@ -84,7 +85,24 @@ public final class RestQueryResult implements JSONAble {
         return result;
     }
 
-    public class RestRow implements JSONAble {
+    @Override
+    public void writeJSON( JSONGenerator generator ) throws JSONException, IOException {
+        generator.beginObject();
+        if (!columns.isEmpty()) {
+            generator.name("columns").value(columns);
+        }
+        if (!rows.isEmpty()) {
+            // rows are streamed one by one, so large results are never held as JSON objects ...
+            generator.name("rows").beginArray();
+            for (RestRow row : rows) {
+                row.writeJSON(generator);
+            }
+            generator.endArray();
+        }
+        generator.endObject();
+    }
+
+    public class RestRow implements JSONStreamable {
         private final Map<String, String> values;
 
         public RestRow() {
@@ -102,5 +120,10 @@ public final class RestQueryResult implements JSONAble {
         public JSONObject toJSON() {
             return new JSONObject(values);
         }
+
+        @Override
+        public void writeJSON( JSONGenerator generator ) throws JSONException, IOException {
+            generator.value(values);
+        }
     }
 }
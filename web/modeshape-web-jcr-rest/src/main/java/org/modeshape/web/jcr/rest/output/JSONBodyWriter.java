@@ -16,12 +16,14 @@
 
 package org.modeshape.web.jcr.rest.output;
 
-import java.io.BufferedOutputStream;
+import java.io.BufferedWriter;
+import java.io.IOException;
 import java.io.OutputStream;
-import java.io.PrintStream;
-import java.io.UnsupportedEncodingException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
 import java.lang.annotation.Annotation;
 import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
 import java.util.Collection;
 import javax.ws.rs.Produces;
 import javax.ws.rs.WebApplicationException;
@@ -29,15 +31,21 @@ import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.MultivaluedMap;
 import javax.ws.rs.ext.MessageBodyWriter;
 import javax.ws.rs.ext.Provider;
-import org.codehaus.jettison.json.JSONArray;
 import org.codehaus.jettison.json.JSONException;
 import org.jboss.resteasy.spi.WriterException;
 import org.jboss.resteasy.util.Types;
 import org.modeshape.web.jcr.rest.model.JSONAble;
+import org.modeshape.web.jcr.rest.model.JSONGenerator;
+import org.modeshape.web.jcr.rest.model.JSONStreamable;
 
 /**
  * Implementation of {@link MessageBodyWriter} which writes a {@link JSONAble} or a {@link Collection Collection<JSONAble>} instances to
  * a response, producing {@link MediaType#APPLICATION_JSON}.
+ * <p>
+ * The JSON is streamed to the response via a {@link JSONGenerator}, so that {@link JSONStreamable} objects (e.g. nodes with many
+ * children or large query results) are never converted in their entirety to JSON objects or strings. As a consequence, the
+ * size of the response is not known in advance.
+ * </p>
  *
  * @author Horia Chiorean (hchiorea@redhat.com)
  */
@@ -46,22 +54,13 @@ import org.modeshape.web.jcr.rest.model.JSONAble;
 public class JSONBodyWriter implements MessageBodyWriter<Object> {
 
     @Override
-    @SuppressWarnings( "unchecked" )
     public long getSize( Object object,
                          Class<?> type,
                          Type genericType,
                          Annotation[] annotations,
                          MediaType mediaType ) {
-        try {
-            if (isJSONAble(type)) {
-                return getString((JSONAble)object).getBytes().length;
-            } else if (isJSONAbleCollection(type, genericType)) {
-                return getString((Collection<JSONAble>)object).getBytes().length;
-            }
-            return 0;
-        } catch (JSONException e) {
-            throw new WriterException(e);
-        }
+        // the content is streamed, so the size isn't known in advance ...
+        return -1;
     }
 
     @Override
@@ -94,47 +93,38 @@ public class JSONBodyWriter implements MessageBodyWriter<Object> {
                          MediaType mediaType,
                          MultivaluedMap<String, Object> httpHeaders,
                          OutputStream entityStream ) throws WebApplicationException {
-        String content;
+        boolean isJSONAble = isJSONAble(type);
+        if (!isJSONAble && !isJSONAbleCollection(type, genericType)) {
+            return;
+        }
+        String contentTypeHeader = mediaType.toString() + ";charset=utf-8";
+        httpHeaders.putSingle("Content-Type", contentTypeHeader);
+
         try {
-            if (isJSONAble(type)) {
-                content = getString((JSONAble)object);
-            } else if (isJSONAbleCollection(type, genericType)) {
-                content = getString((Collection<JSONAble>)object);
+            Writer writer = new BufferedWriter(new OutputStreamWriter(entityStream, StandardCharsets.UTF_8));
+            if (isJSONAble) {
+                write((JSONAble)object, writer);
             } else {
-                return;
+                write((Collection<JSONAble>)object, writer);
             }
-        } catch (JSONException e) {
+            writer.flush();
+        } catch (JSONException | IOException e) {
             throw new WriterException(e);
         }
-
-        try {
-            PrintStream ps = new PrintStream(new BufferedOutputStream(entityStream), true, "UTF-8");
-            String contentTypeHeader = mediaType.toString() + ";charset=utf-8";
-            httpHeaders.putSingle("Content-Type", contentTypeHeader);
-            ps.print(content);
-        } catch (UnsupportedEncodingException e) {
-            throw new RuntimeException(e);
-        }
-    }
-
-    protected String getString( JSONAble jsonAble ) throws JSONException {
-        return jsonAble.toJSON().toString();
-    }
-
-    @SuppressWarnings( "unused" )
-    protected String getString( JSONArray array ) throws JSONException {
-        return array.toString();
     }
 
-    private String getString( Collection<JSONAble> collection ) throws JSONException {
-        return getString(toArray(collection));
+    protected void write( JSONAble jsonAble,
+                          Writer writer ) throws JSONException, IOException {
+        new JSONGenerator(writer).value(jsonAble);
     }
 
-    private JSONArray toArray( Collection<JSONAble> collection ) throws JSONException {
-        JSONArray array = new JSONArray();
+    protected void write( Collection<JSONAble> collection,
+                          Writer writer ) throws JSONException, IOException {
+        JSONGenerator generator = new JSONGenerator(writer);
+        generator.beginArray();
         for (JSONAble jsonAble : collection) {
-            array.put(jsonAble.toJSON());
+            generator.value(jsonAble);
         }
-        return array;
+        generator.endArray();
     }
 }
@@ -16,6 +16,9 @@
 
 package org.modeshape.web.jcr.rest.output;
 
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Collection;
 import javax.ws.rs.Produces;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.ext.Provider;
@@ -36,6 +39,17 @@ public class TextBodyWriter extends JSONBodyWriter {
     private static final int TEXT_INDENT_FACTOR = 2;
 
     @Override
+    protected void write( JSONAble jsonAble,
+                          Writer writer ) throws JSONException, IOException {
+        writer.write(getString(jsonAble));
+    }
+
+    @Override
+    protected void write( Collection<JSONAble> collection,
+                          Writer writer ) throws JSONException, IOException {
+        writer.write(getString(toArray(collection)));
+    }
+
     protected String getString( JSONAble jsonAble ) throws JSONException {
         if (jsonAble instanceof Stringable) {
             return ((Stringable)jsonAble).asString();
@@ -43,8 +57,15 @@ public class TextBodyWriter extends JSONBodyWriter {
         return jsonAble.toJSON().toString(TEXT_INDENT_FACTOR);
     }
 
-    @Override
     protected String getString( JSONArray array ) throws JSONException {
         return array.toString(2);
     }
+
+    private JSONArray toArray( Collection<JSONAble> collection ) throws JSONException {
+        JSONArray array = new JSONArray();
+        for (JSONAble jsonAble : collection) {
+            array.put(jsonAble.toJSON());
+        }
+        return array;
+    }
 }
@@ -0,0 +1,147 @@
+/*
+ * ModeShape (http://www.modeshape.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.modeshape.web.jcr.rest.handler;
+
+import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import java.util.Collections;
+import javax.jcr.Node;
+import javax.jcr.Session;
+import javax.servlet.ServletContext;
+import javax.servlet.ServletContextEvent;
+import javax.servlet.http.HttpServletRequest;
+import javax.ws.rs.NotFoundException;
+import org.codehaus.jettison.json.JSONArray;
+import org.codehaus.jettison.json.JSONObject;
+import org.junit.AfterClass;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.modeshape.jcr.api.RepositoryFactory;
+import org.modeshape.web.jcr.ModeShapeJcrDeployer;
+import org.modeshape.web.jcr.RepositoryManager;
+
+public class RestItemHandlerTest {
+
+    private static final String REPOSITORY = "Test Repository";
+    private static final String WORKSPACE = "default";
+
+    private static ModeShapeJcrDeployer deployer;
+    private static ServletContextEvent contextEvent;
+
+    private HttpServletRequest request;
+    private RestItemHandler handler;
+
+    @BeforeClass
+    public static void beforeAll() throws Exception {
+        ServletContext context = mock(ServletContext.class);
+        when(context.getInitParameterNames()).thenReturn(Collections.enumeration(Collections.singletonList(RepositoryFactory.URL)));
+        when(context.getInitParameter(RepositoryFactory.URL)).thenReturn("file:src/test/resources/repo-config.json");
+        contextEvent = new ServletContextEvent(context);
+        deployer = new ModeShapeJcrDeployer();
+        deployer.contextInitialized(contextEvent);
+
+        Session session = RepositoryManager.getSession(null, REPOSITORY, WORKSPACE);
+        try {
+            Node doc = session.getRootNode().addNode("batchTest").addNode("doc");
+            doc.addMixin("mix:versionable");
+            doc.setProperty("title", "original");
+            session.save();
+            session.getWorkspace().getVersionManager().checkin(doc.getPath());
+        } finally {
+            session.logout();
+        }
+    }
+
+    @AfterClass
+    public static void afterAll() throws Exception {
+        deployer.contextDestroyed(contextEvent);
+    }
+
+    @Before
+    public void beforeEach() throws Exception {
+        request = mock(HttpServletRequest.class);
+        // the servlet API exposes the request URL as a string buffer ...
+        // CHECKSTYLE IGNORE check FOR NEXT 1 LINES
+        when(request.getRequestURL()).thenReturn(new StringBuffer("http://localhost/modeshape/Test%20Repository/default/items"));
+        handler = new RestItemHandler();
+    }
+
+    @Test
+    public void shouldLeaveRepositoryUnchangedWhenBatchWithVersionableUpdateFails() throws Exception {
+        JSONArray operations = new JSONArray();
+        operations.put(operation("add", "/batchTest/added", new JSONObject().put("title", "added")));
+        operations.put(operation("update", "/batchTest/doc", new JSONObject().put("title", "changed")));
+        operations.put(operation("delete", "/batchTest/missing", null));
+        try {
+            handler.batch(request, REPOSITORY, WORKSPACE, operations.toString());
+            fail("The batch should have failed to delete a missing node");
+        } catch (NotFoundException e) {
+            // expected
+        } finally {
+            AbstractHandler.cleanupActiveSession();
+        }
+
+        Session session = RepositoryManager.getSession(null, REPOSITORY, WORKSPACE);
+        try {
+            Node doc = session.getNode("/batchTest/doc");
+            assertThat(doc.getProperty("title").getString(), is("original"));
+            assertThat(session.getWorkspace().getVersionManager().isCheckedOut(doc.getPath()), is(false));
+            assertThat(session.nodeExists("/batchTest/added"), is(false));
+        } finally {
+            session.logout();
+        }
+    }
+
+    @Test
+    public void shouldUpdateAndCheckinVersionableNodeOnceBatchIsSaved() throws Exception {
+        JSONArray operations = new JSONArray();
+        operations.put(operation("update", "/batchTest/doc", new JSONObject().put("title", "updated")));
+        operations.put(operation("add", "/batchTest/other", new JSONObject()));
+        try {
+            handler.batch(request, REPOSITORY, WORKSPACE, operations.toString());
+        } finally {
+            AbstractHandler.cleanupActiveSession();
+        }
+
+        Session session = RepositoryManager.getSession(null, REPOSITORY, WORKSPACE);
+        try {
+            Node doc = session.getNode("/batchTest/doc");
+            assertThat(doc.getProperty("title").getString(), is("updated"));
+            assertThat(session.getWorkspace().getVersionManager().isCheckedOut(doc.getPath()), is(false));
+            assertThat(session.nodeExists("/batchTest/other"), is(true));
+
+            // restore the original state for the other tests ...
+            session.getWorkspace().getVersionManager().checkout(doc.getPath());
+            doc.setProperty("title", "original");
+            session.getNode("/batchTest/other").remove();
+            session.save();
+            session.getWorkspace().getVersionManager().checkin(doc.getPath());
+        } finally {
+            session.logout();
+        }
+    }
+
+    private static JSONObject operation( String op,
+                                         String path,
+                                         JSONObject body ) throws Exception {
+        JSONObject operation = new JSONObject().put("op", op).put("path", path);
+        return body != null ? operation.put("body", body) : operation;
+    }
+}
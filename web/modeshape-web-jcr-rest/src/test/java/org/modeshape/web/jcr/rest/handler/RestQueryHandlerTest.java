@@ -0,0 +1,144 @@
+/*
+ * ModeShape (http://www.modeshape.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.modeshape.web.jcr.rest.handler;
+
+import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import javax.jcr.Node;
+import javax.jcr.Session;
+import javax.jcr.query.Query;
+import javax.servlet.ServletContext;
+import javax.servlet.ServletContextEvent;
+import javax.servlet.http.HttpServletRequest;
+import org.codehaus.jettison.json.JSONArray;
+import org.codehaus.jettison.json.JSONObject;
+import org.junit.AfterClass;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.modeshape.jcr.api.RepositoryFactory;
+import org.modeshape.web.jcr.ModeShapeJcrDeployer;
+import org.modeshape.web.jcr.RepositoryManager;
+import org.modeshape.web.jcr.rest.model.RestQueryResult;
+
+public class RestQueryHandlerTest {
+
+    private static final String REPOSITORY = "Test Repository";
+    private static final String WORKSPACE = "default";
+    private static final String LIMITED_QUERY = "SELECT [idx] FROM [nt:unstructured] WHERE ISCHILDNODE('/queryTest') "
+                                                + "ORDER BY [idx] LIMIT 5 OFFSET 2";
+
+    private static ModeShapeJcrDeployer deployer;
+    private static ServletContextEvent contextEvent;
+
+    private HttpServletRequest request;
+    private RestQueryHandler handler;
+
+    @BeforeClass
+    public static void beforeAll() throws Exception {
+        ServletContext context = mock(ServletContext.class);
+        when(context.getInitParameterNames()).thenReturn(Collections.enumeration(Collections.singletonList(RepositoryFactory.URL)));
+        when(context.getInitParameter(RepositoryFactory.URL)).thenReturn("file:src/test/resources/repo-config.json");
+        contextEvent = new ServletContextEvent(context);
+        deployer = new ModeShapeJcrDeployer();
+        deployer.contextInitialized(contextEvent);
+
+        Session session = RepositoryManager.getSession(null, REPOSITORY, WORKSPACE);
+        try {
+            Node parent = session.getRootNode().addNode("queryTest");
+            for (int i = 0; i != 10; ++i) {
+                parent.addNode("node" + i).setProperty("idx", i);
+            }
+            session.save();
+        } finally {
+            session.logout();
+        }
+    }
+
+    @AfterClass
+    public static void afterAll() throws Exception {
+        deployer.contextDestroyed(contextEvent);
+    }
+
+    @Before
+    public void beforeEach() throws Exception {
+        request = mock(HttpServletRequest.class);
+        // the servlet API exposes the request URL as a string buffer ...
+        // CHECKSTYLE IGNORE check FOR NEXT 1 LINES
+        when(request.getRequestURL()).thenReturn(new StringBuffer("http://localhost/modeshape/Test%20Repository/default/query"));
+        handler = new RestQueryHandler();
+    }
+
+    @Test
+    public void shouldPageThroughRowsWithinLimitAndOffsetOfStatement() throws Exception {
+        assertThat(idxValues(0, 2), is(idxList(2, 3)));
+        assertThat(idxValues(2, 2), is(idxList(4, 5)));
+        assertThat(idxValues(4, 2), is(idxList(6)));
+        assertThat(idxValues(6, 2), is(idxList()));
+    }
+
+    @Test
+    public void shouldReturnAllRowsWithinLimitAndOffsetOfStatementWithoutPage() throws Exception {
+        assertThat(idxValues(-1, -1), is(idxList(2, 3, 4, 5, 6)));
+        assertThat(idxValues(3, -1), is(idxList(5, 6)));
+        assertThat(idxValues(-1, 10), is(idxList(2, 3, 4, 5, 6)));
+    }
+
+    @Test
+    public void shouldPageThroughRowsOfStatementWithoutLimit() throws Exception {
+        String statement = "SELECT [idx] FROM [nt:unstructured] WHERE ISCHILDNODE('/queryTest') ORDER BY [idx]";
+        assertThat(idxValues(statement, 8, 5), is(idxList(8, 9)));
+        assertThat(idxValues(statement, 0, 3), is(idxList(0, 1, 2)));
+    }
+
+    private List<Long> idxValues( long offset,
+                                  long limit ) throws Exception {
+        return idxValues(LIMITED_QUERY, offset, limit);
+    }
+
+    private List<Long> idxValues( String statement,
+                                  long offset,
+                                  long limit ) throws Exception {
+        RestQueryResult result;
+        try {
+            result = handler.executeQuery(request, REPOSITORY, WORKSPACE, Query.JCR_SQL2, statement, offset, limit, null);
+        } finally {
+            AbstractHandler.cleanupActiveSession();
+        }
+        JSONObject json = result.toJSON();
+        List<Long> values = new ArrayList<>();
+        if (json.has("rows")) {
+            JSONArray rows = json.getJSONArray("rows");
+            for (int i = 0; i != rows.length(); ++i) {
+                values.add(rows.getJSONObject(i).getLong("idx"));
+            }
+        }
+        return values;
+    }
+
+    private static List<Long> idxList( long... values ) {
+        List<Long> list = new ArrayList<>();
+        for (long value : values) {
+            list.add(value);
+        }
+        return list;
+    }
+}
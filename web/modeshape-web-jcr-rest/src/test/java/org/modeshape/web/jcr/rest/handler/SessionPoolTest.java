@@ -0,0 +1,144 @@
+/*
+ * ModeShape (http://www.modeshape.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.modeshape.web.jcr.rest.handler;
+
+import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsSame.sameInstance;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import java.security.Principal;
+import java.util.Arrays;
+import java.util.List;
+import javax.jcr.Session;
+import javax.servlet.http.HttpServletRequest;
+import org.junit.Before;
+import org.junit.Test;
+import org.modeshape.web.jcr.rest.handler.SessionPool.PooledSession;
+
+public class SessionPoolTest {
+
+    private static final String REPOSITORY = "repo";
+    private static final String WORKSPACE = "default";
+    private static final long IDLE_TIMEOUT_MILLIS = 100L;
+
+    private SessionPool pool;
+
+    @Before
+    public void beforeEach() {
+        pool = new SessionPool(2, 3, IDLE_TIMEOUT_MILLIS);
+    }
+
+    private HttpServletRequest request( String user ) {
+        HttpServletRequest request = mock(HttpServletRequest.class);
+        Principal principal = mock(Principal.class);
+        when(principal.getName()).thenReturn(user);
+        when(request.getUserPrincipal()).thenReturn(principal);
+        return request;
+    }
+
+    private PooledSession pooledSession( String user ) {
+        Session session = mock(Session.class);
+        when(session.isLive()).thenReturn(true);
+        List<String> key = Arrays.asList(REPOSITORY, WORKSPACE, user);
+        return new PooledSession(key, session, null);
+    }
+
+    @Test
+    public void shouldReuseReleasedSession() throws Exception {
+        PooledSession pooled = pooledSession("alice");
+        pool.release(pooled);
+        assertThat(pool.idleSessionCount(), is(1));
+        verify(pooled.session()).refresh(false);
+
+        assertThat(pool.borrow(request("alice"), REPOSITORY, WORKSPACE), is(sameInstance(pooled)));
+        assertThat(pool.idleSessionCount(), is(0));
+        verify(pooled.session(), never()).logout();
+    }
+
+    @Test
+    public void shouldLogoutReleasedSessionsBeyondLimitPerPrincipal() throws Exception {
+        PooledSession first = pooledSession("alice");
+        PooledSession second = pooledSession("alice");
+        PooledSession third = pooledSession("alice");
+        pool.release(first);
+        pool.release(second);
+        pool.release(third);
+
+        assertThat(pool.idleSessionCount(), is(2));
+        verify(first.session(), never()).logout();
+        verify(second.session(), never()).logout();
+        verify(third.session()).logout();
+    }
+
+    @Test
+    public void shouldLogoutReleasedSessionsBeyondOverallLimit() throws Exception {
+        PooledSession alice1 = pooledSession("alice");
+        PooledSession alice2 = pooledSession("alice");
+        PooledSession bob1 = pooledSession("bob");
+        PooledSession bob2 = pooledSession("bob");
+        pool.release(alice1);
+        pool.release(alice2);
+        pool.release(bob1);
+        pool.release(bob2);
+
+        assertThat(pool.idleSessionCount(), is(3));
+        verify(bob1.session(), never()).logout();
+        verify(bob2.session()).logout();
+    }
+
+    @Test
+    public void shouldLogoutExpiredSessionsOfOtherPrincipals() throws Exception {
+        PooledSession bob = pooledSession("bob");
+        pool.release(bob);
+        // expired sessions are only looked for once per second ...
+        Thread.sleep(1100L);
+
+        PooledSession alice = pooledSession("alice");
+        pool.release(alice);
+        verify(bob.session()).logout();
+        verify(alice.session(), never()).logout();
+        assertThat(pool.idleSessionCount(), is(1));
+    }
+
+    @Test
+    public void shouldNotPoolSessionWhichIsNoLongerLive() throws Exception {
+        PooledSession pooled = pooledSession("alice");
+        when(pooled.session().isLive()).thenReturn(false);
+        pool.release(pooled);
+        assertThat(pool.idleSessionCount(), is(0));
+    }
+
+    @Test
+    public void shouldLogoutAllIdleSessionsWhenDrained() throws Exception {
+        PooledSession alice = pooledSession("alice");
+        PooledSession bob = pooledSession("bob");
+        pool.release(alice);
+        pool.release(bob);
+
+        assertThat(pool.drain(), is(2));
+        assertThat(pool.idleSessionCount(), is(0));
+        verify(alice.session()).logout();
+        verify(bob.session()).logout();
+
+        // the pool can still be used ...
+        PooledSession another = pooledSession("alice");
+        pool.release(another);
+        assertThat(pool.borrow(request("alice"), REPOSITORY, WORKSPACE), is(sameInstance(another)));
+    }
+}
@@ -0,0 +1,132 @@
+/*
+ * ModeShape (http://www.modeshape.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.modeshape.web.jcr.rest.model;
+
+import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.assertThat;
+import java.io.StringWriter;
+import java.util.Arrays;
+import java.util.Collections;
+import org.junit.Test;
+
+public class JSONGeneratorTest {
+
+    private static final String BASE_URL = "http://localhost:8080/modeshape-rest/repo/default/items";
+
+    private void assertStreamedAsBuilt( JSONStreamable streamable ) throws Exception {
+        StringWriter writer = new StringWriter();
+        new JSONGenerator(writer).value(streamable);
+        assertThat(writer.toString(), is(streamable.toJSON().toString()));
+    }
+
+    private RestProperty singleValuedProperty( String parentUrl,
+                                               String name,
+                                               String value ) {
+        return new RestProperty(name, parentUrl + "/" + name, parentUrl, Collections.singletonList(value), false);
+    }
+
+    private RestProperty multiValuedProperty( String parentUrl,
+                                              String name,
+                                              String... values ) {
+        return new RestProperty(name, parentUrl + "/" + name, parentUrl, Arrays.asList(values), true);
+    }
+
+    private RestNode node( String parentUrl,
+                           String name,
+                           int depth ) {
+        String url = parentUrl + "/" + name;
+        RestNode node = new RestNode(name, "id-" + name, url, parentUrl);
+        node.addJcrProperty(singleValuedProperty(url, "jcr:primaryType", "nt:unstructured"));
+        node.addJcrProperty(multiValuedProperty(url, "jcr:mixinTypes", "mix:referenceable", "mix:versionable"));
+        node.addJcrProperty(singleValuedProperty(url, "text", "a \"quoted\" value\nwith / and \\ and é"));
+        node.addJcrProperty(multiValuedProperty(url, "empty"));
+        node.addJcrProperty(new RestProperty("missing", url + "/missing", url, null, false));
+        if (depth > 0) {
+            for (int i = 1; i <= 3; ++i) {
+                node.addChild(node(url, "child" + i, depth - 1));
+            }
+        }
+        return node;
+    }
+
+    @Test
+    public void shouldStreamSingleValuedPropertyAsBuilt() throws Exception {
+        assertStreamedAsBuilt(singleValuedProperty(BASE_URL, "prop", "value"));
+    }
+
+    @Test
+    public void shouldStreamMultiValuedPropertyAsBuilt() throws Exception {
+        assertStreamedAsBuilt(multiValuedProperty(BASE_URL, "prop", "value1", "value2", "value3"));
+        assertStreamedAsBuilt(multiValuedProperty(BASE_URL, "prop"));
+    }
+
+    @Test
+    public void shouldStreamPropertyNamedAsAnotherFieldAsBuilt() throws Exception {
+        assertStreamedAsBuilt(singleValuedProperty(BASE_URL, "up", "value"));
+        assertStreamedAsBuilt(singleValuedProperty(BASE_URL, "self", "value"));
+    }
+
+    @Test
+    public void shouldStreamDeepNodeAsBuilt() throws Exception {
+        assertStreamedAsBuilt(node(BASE_URL, "root", 4));
+    }
+
+    @Test
+    public void shouldStreamNodeWithoutIdAsBuilt() throws Exception {
+        assertStreamedAsBuilt(new RestNode("node", null, BASE_URL + "/node", BASE_URL));
+    }
+
+    @Test
+    public void shouldStreamNodeWithCustomPropertiesShadowedByJcrPropertiesAsBuilt() throws Exception {
+        RestNode node = node(BASE_URL, "node", 1);
+        node.addCustomProperty("a:custom", "custom value");
+        node.addCustomProperty("text", "shadowed by the JCR property");
+        node.addCustomProperty("missing", "not shadowed by the JCR property without a value");
+        node.addCustomProperty("self", "ignored");
+        node.addCustomProperty("z:custom", "another custom value");
+        assertStreamedAsBuilt(node);
+    }
+
+    @Test
+    public void shouldStreamQueryResultAsBuilt() throws Exception {
+        RestQueryResult result = new RestQueryResult();
+        assertStreamedAsBuilt(result);
+
+        result.addColumn("jcr:path", "STRING");
+        result.addColumn("jcr:score", "DOUBLE");
+        assertStreamedAsBuilt(result);
+
+        for (int i = 0; i != 5; ++i) {
+            RestQueryResult.RestRow row = result.new RestRow();
+            row.addValue("jcr:path", "/node" + i);
+            row.addValue("jcr:score", i % 2 == 0 ? String.valueOf(i * 0.5) : null);
+            result.addRow(row);
+        }
+        assertStreamedAsBuilt(result);
+    }
+
+    @Test
+    public void shouldSeparateValuesOfNestedArraysAndObjects() throws Exception {
+        StringWriter writer = new StringWriter();
+        JSONGenerator generator = new JSONGenerator(writer);
+        generator.beginArray();
+        generator.beginObject().name("a").value(1).name("b").beginArray().value("x").value(null).endArray().endObject();
+        generator.beginObject().endObject();
+        generator.value(true);
+        generator.endArray();
+        assertThat(writer.toString(), is("[{\"a\":1,\"b\":[\"x\",null]},{},true]"));
+    }
+}
@@ -67,6 +67,18 @@ public interface ContentMapper {
      */
     long getResourceLength( Node node ) throws RepositoryException, IOException;
 
+    /**
+     * @param node the node to check; may not be null
+     * @return the hexadecimal SHA-1 hash of the file content for the node, used as a strong entity tag for conditional and
+     *         byte-range requests; null if the node maps to a WebDAV folder or if the hash is not known, in which case no entity
+     *         tag is sent for the resource. This default implementation always returns null.
+     * @throws RepositoryException if the node cannot be accessed
+     * @throws IOException if the content of the node cannot be accessed
+     */
+    default String getResourceHash( Node node ) throws RepositoryException, IOException {
+        return null;
+    }
+
     /**
      * @param node the node to check; may not be null
      * @return the date at which the file was last modified; null if node is a folder
@@ -342,40 +342,92 @@ public class ModeShapeWebdavStore implements IWebdavStore {
             }
 
             Node node = nodeFor(transaction, resolved);
+            return storedObjectFor(node);
+        } catch (PathNotFoundException pnfe) {
+            return null;
+        } catch (IOException ioe) {
+            throw new WebdavException(ioe);
+        } catch (RepositoryException re) {
+            throw translate(re);
+        }
+    }
 
-            if (isFolder(node)) {
-                ob.setFolder(true);
-                Date createDate = null;
-                if (node.hasProperty(CREATED_PROP_NAME)) {
-                    createDate = node.getProperty(CREATED_PROP_NAME).getDate().getTime();
-                } else {
-                    createDate = new Date();
-                }
-                ob.setCreationDate(createDate);
-                ob.setLastModified(new Date());
-                ob.setResourceLength(0);
-            } else if (isFile(node)) {
-                ob.setFolder(false);
-                Date createDate = null;
-                if (node.hasProperty(CREATED_PROP_NAME)) {
-                    createDate = node.getProperty(CREATED_PROP_NAME).getDate().getTime();
-                } else {
-                    createDate = new Date();
+    @Override
+    public Map<String, StoredObject> getChildren( ITransaction transaction,
+                                                  String folderUri ) {
+        try {
+            logger.trace("WebDAV getChildren(txn,\"" + folderUri + "\")");
+            ResolvedRequest resolved = resolveRequest(folderUri);
+            Map<String, StoredObject> children = new LinkedHashMap<String, StoredObject>();
+            if (resolved.getPath() == null) {
+                // It does not resolve to the path of a node, so the children are repositories, workspaces or the root node ...
+                String[] names = childrenFor(transaction, resolved);
+                if (names != null) {
+                    String parentUri = folderUri.endsWith("/") ? folderUri : folderUri + "/";
+                    for (String name : names) {
+                        StoredObject child = getStoredObject(transaction, parentUri + name);
+                        if (child != null) {
+                            children.put(name, child);
+                        }
+                    }
                 }
-                ob.setCreationDate(createDate);
-                ob.setLastModified(contentMapper.getLastModified(node));
-                ob.setResourceLength(contentMapper.getResourceLength(node));
-            } else {
-                ob.setNullResource(true);
+                return children;
             }
 
-        } catch (PathNotFoundException pnfe) {
-            return null;
+            Node node = nodeFor(transaction, resolved); // throws exception if not found
+            if (!isFolder(node)) {
+                return null; // no children
+            }
+
+            // Use the child nodes directly, rather than resolving each child's path from the root ...
+            for (NodeIterator iter = node.getNodes(); iter.hasNext();) {
+                Node child = iter.nextNode();
+                String name = child.getIndex() == 1 ? child.getName() : child.getName() + "[" + child.getIndex() + "]";
+                if (name.startsWith("._")) {
+                    // OS-X uses these hidden files ...
+                    continue;
+                }
+                StoredObject childObject = storedObjectFor(child);
+                childObject.setCustomProperties(customPropertiesFor(child));
+                children.put(name, childObject);
+            }
+            logger.trace("WebDAV -> children: " + children.keySet());
+            return children;
         } catch (IOException ioe) {
             throw new WebdavException(ioe);
         } catch (RepositoryException re) {
             throw translate(re);
         }
+    }
+
+    private StoredObject storedObjectFor( Node node ) throws RepositoryException, IOException {
+        StoredObject ob = new StoredObject();
+        if (isFolder(node)) {
+            ob.setFolder(true);
+            Date createDate = null;
+            if (node.hasProperty(CREATED_PROP_NAME)) {
+                createDate = node.getProperty(CREATED_PROP_NAME).getDate().getTime();
+            } else {
+                createDate = new Date();
+            }
+            ob.setCreationDate(createDate);
+            ob.setLastModified(new Date());
+            ob.setResourceLength(0);
+        } else if (isFile(node)) {
+            ob.setFolder(false);
+            Date createDate = null;
+            if (node.hasProperty(CREATED_PROP_NAME)) {
+                createDate = node.getProperty(CREATED_PROP_NAME).getDate().getTime();
+            } else {
+                createDate = new Date();
+            }
+            ob.setCreationDate(createDate);
+            ob.setLastModified(contentMapper.getLastModified(node));
+            ob.setResourceLength(contentMapper.getResourceLength(node));
+            ob.setContentHash(contentMapper.getResourceHash(node));
+        } else {
+            ob.setNullResource(true);
+        }
         return ob;
     }
 
@@ -565,23 +617,27 @@ public class ModeShapeWebdavStore implements IWebdavStore {
                 return Collections.emptyMap();
             }
             Node node = nodeFor(transaction, resolvedRequest);
-            Map<String, Object> response = new LinkedHashMap<String, Object>();
-
-            PropertyIterator propertyIterator = node.getProperties();
-            while (propertyIterator.hasNext()) {
-                Property property = propertyIterator.nextProperty();
-                if (property.isMultiple()) {
-                    logger().debug(WebdavI18n.warnMultiValuedProperty.text(property.getPath()));
-                    continue;
-                }
-                response.put(property.getName(), property.getString());
-            }
-            return response;
+            return customPropertiesFor(node);
         } catch (RepositoryException e) {
             throw translate(e);
         }
     }
 
+    private Map<String, Object> customPropertiesFor( Node node ) throws RepositoryException {
+        Map<String, Object> response = new LinkedHashMap<String, Object>();
+
+        PropertyIterator propertyIterator = node.getProperties();
+        while (propertyIterator.hasNext()) {
+            Property property = propertyIterator.nextProperty();
+            if (property.isMultiple()) {
+                logger().debug(WebdavI18n.warnMultiValuedProperty.text(property.getPath()));
+                continue;
+            }
+            response.put(property.getName(), property.getString());
+        }
+        return response;
+    }
+
     @Override
     public Map<String, String> getCustomNamespaces( ITransaction transaction,
                                                     String resourceUri ) {
@@ -34,6 +34,8 @@ import org.mockito.Mock;
 import static org.mockito.Mockito.when;
 import org.mockito.MockitoAnnotations;
 import org.modeshape.common.util.IoUtil;
+import org.modeshape.common.util.SecureHash;
+import org.modeshape.jcr.api.Binary;
 import org.modeshape.jcr.api.RepositoryFactory;
 import org.modeshape.web.jcr.ModeShapeJcrDeployer;
 import org.modeshape.web.jcr.RepositoryManager;
@@ -205,6 +207,25 @@ public class ModeShapeWebdavStoreTest {
         assertThat(webdavContent, is(TEST_STRING));
     }
 
+    @Test
+    public void shouldExposeContentHashOfFile() throws Exception {
+        final String TEST_STRING = "This is my miraculous test string!";
+
+        Node fileNode = testRoot.addNode("newFile", "nt:file");
+        Node contentNode = fileNode.addNode("jcr:content", "mode:resource");
+        contentNode.setProperty("jcr:data", TEST_STRING);
+        contentNode.setProperty("jcr:mimeType", "text/plain");
+        contentNode.setProperty("jcr:encoding", "UTF-8");
+        contentNode.setProperty("jcr:lastModified", Calendar.getInstance());
+        session.save();
+
+        when(request.getPathInfo()).thenReturn(TEST_ROOT_PATH + "/newFile");
+        StoredObject ob = store.getStoredObject(tx, TEST_ROOT_PATH + "/newFile");
+        Binary binary = (Binary)contentNode.getProperty("jcr:data").getBinary();
+        assertThat(ob.getContentHash(), is(binary.getHexHash()));
+        assertThat(ob.getContentHash(), is(SecureHash.sha1(TEST_STRING)));
+    }
+
     @Test
     public void shouldRemoveFile() throws Exception {
         final String TEST_STRING = "This is my miraculous test string!";
@@ -19,9 +19,11 @@ import java.util.Collections;
 import java.util.Enumeration;
 import java.util.HashMap;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
 import java.util.ServiceLoader;
 import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
 import javax.jcr.Repository;
 import javax.jcr.RepositoryException;
 import javax.jcr.Session;
@@ -42,6 +44,7 @@ public class RepositoryManager {
 
     private static final Logger LOGGER = WebLogger.getLogger(RepositoryManager.class);
     private static final Map<String, Object> factoryParams = new HashMap<String, Object>();
+    private static final List<Runnable> shutdownListeners = new CopyOnWriteArrayList<Runnable>();
 
     private static RepositoriesContainer repositoriesContainer;
 
@@ -149,7 +152,25 @@ public class RepositoryManager {
         }
     }
 
+    /**
+     * Registers a listener which is run every time the repository manager is shut down, before the repositories are, so that
+     * (for example) sessions which are kept between requests can be logged out.
+     *
+     * @param listener a {@code non-null} {@link Runnable}
+     */
+    public static void addShutdownListener( Runnable listener ) {
+        CheckArg.isNotNull(listener, "listener");
+        shutdownListeners.add(listener);
+    }
+
     static void shutdown() {
+        for (Runnable listener : shutdownListeners) {
+            try {
+                listener.run();
+            } catch (RuntimeException e) {
+                LOGGER.error(e, WebJcrI18n.shutdownListenerFailed.text());
+            }
+        }
         repositoriesContainer.shutdown();
     }
 }
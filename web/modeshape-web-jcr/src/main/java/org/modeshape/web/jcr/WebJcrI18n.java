@@ -30,6 +30,7 @@ public class WebJcrI18n {
     public static I18n cannotInitializeRepository;
     public static I18n repositoryNotFound;
     public static I18n cannotLoadRepositoryNames;
+    public static I18n shutdownListenerFailed;
 
     private WebJcrI18n() {
     }
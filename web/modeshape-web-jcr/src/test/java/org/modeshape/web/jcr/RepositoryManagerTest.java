@@ -26,6 +26,7 @@ import java.util.Enumeration;
 import java.util.List;
 import java.util.Set;
 import java.util.Vector;
+import java.util.concurrent.atomic.AtomicInteger;
 import javax.jcr.Session;
 import javax.servlet.ServletContext;
 import org.junit.Before;
@@ -75,4 +76,20 @@ public class RepositoryManagerTest {
 
         RepositoryManager.shutdown();
     }
+
+    @Test
+    public void shouldRunShutdownListenersWhenShuttingDown() throws Exception {
+        RepositoryManager.initialize(context);
+        final AtomicInteger runs = new AtomicInteger();
+        RepositoryManager.addShutdownListener(new Runnable() {
+            @Override
+            public void run() {
+                runs.incrementAndGet();
+            }
+        });
+        assertThat(runs.get(), is(0));
+
+        RepositoryManager.shutdown();
+        assertThat(runs.get(), is(1));
+    }
 }
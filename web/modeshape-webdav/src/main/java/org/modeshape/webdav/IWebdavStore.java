@@ -19,6 +19,7 @@ package org.modeshape.webdav;
 
 import java.io.InputStream;
 import java.security.Principal;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import org.modeshape.webdav.exceptions.WebdavException;
@@ -131,6 +132,36 @@ public interface IWebdavStore {
     String[] getChildrenNames( ITransaction transaction,
                                String folderUri );
 
+    /**
+     * Gets the {@link StoredObject stored objects} for all of the children of the folder specified by <code>folderUri</code>.
+     * This is used when listing folders (e.g., PROPFIND with a depth of 1). This default implementation resolves each of the
+     * {@link #getChildrenNames(ITransaction, String) children} with {@link #getStoredObject(ITransaction, String)}, so stores
+     * which can load all the children at once should override it. Stores may also populate the
+     * {@link StoredObject#getCustomProperties() custom properties} of each child, so that they don't have to be read separately.
+     * 
+     * @param transaction indicates that the method is within the scope of a WebDAV transaction
+     * @param folderUri URI of the folder
+     * @return the stored objects keyed by the children's names, in the order of the children; or <code>null</code> if the uri
+     *         points to a file
+     * @throws WebdavException if something goes wrong on the store level
+     */
+    default Map<String, StoredObject> getChildren( ITransaction transaction,
+                                                   String folderUri ) {
+        String[] names = getChildrenNames(transaction, folderUri);
+        if (names == null) {
+            return null;
+        }
+        String parentUri = folderUri.endsWith("/") ? folderUri : folderUri + "/";
+        Map<String, StoredObject> children = new LinkedHashMap<String, StoredObject>();
+        for (String name : names) {
+            StoredObject child = getStoredObject(transaction, parentUri + name);
+            if (child != null) {
+                children.put(name, child);
+            }
+        }
+        return children;
+    }
+
     /**
      * Gets the length of the content resource specified by <code>resourceUri</code>.
      * 
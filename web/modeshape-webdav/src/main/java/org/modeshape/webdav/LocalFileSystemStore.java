@@ -15,7 +15,6 @@
  */
 package org.modeshape.webdav;
 
-import java.io.BufferedInputStream;
 import java.io.BufferedOutputStream;
 import java.io.File;
 import java.io.FileInputStream;
@@ -29,6 +28,7 @@ import java.util.Collections;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import org.modeshape.common.i18n.TextI18n;
@@ -198,7 +198,8 @@ public class LocalFileSystemStore implements IWebdavStore {
 
         InputStream in;
         try {
-            in = new BufferedInputStream(new FileInputStream(file));
+            // Unbuffered, so that GET can transfer the content directly from the file ...
+            in = new FileInputStream(file);
         } catch (IOException e) {
             LOG.error(new TextI18n("LocalFileSystemStore.getResourceContent(" + uri + ") failed"));
             throw new WebdavException(e);
@@ -218,17 +219,31 @@ public class LocalFileSystemStore implements IWebdavStore {
     public StoredObject getStoredObject( ITransaction transaction,
                                          String uri ) {
 
-        StoredObject so = null;
-
         File file = new File(root, uri);
-        if (file.exists()) {
-            so = new StoredObject();
-            so.setFolder(file.isDirectory());
-            so.setLastModified(new Date(file.lastModified()));
-            so.setCreationDate(new Date(file.lastModified()));
-            so.setResourceLength(getResourceLength(transaction, uri));
+        return file.exists() ? storedObjectFor(file) : null;
+    }
+
+    @Override
+    public Map<String, StoredObject> getChildren( ITransaction transaction,
+                                                  String folderUri ) {
+        LOG.trace("LocalFileSystemStore.getChildren(" + folderUri + ")");
+        File file = new File(root, folderUri);
+        if (!file.isDirectory()) {
+            return null;
+        }
+        Map<String, StoredObject> children = new LinkedHashMap<String, StoredObject>();
+        for (File child : file.listFiles()) {
+            children.put(child.getName(), storedObjectFor(child));
         }
+        return children;
+    }
 
+    private StoredObject storedObjectFor( File file ) {
+        StoredObject so = new StoredObject();
+        so.setFolder(file.isDirectory());
+        so.setLastModified(new Date(file.lastModified()));
+        so.setCreationDate(new Date(file.lastModified()));
+        so.setResourceLength(file.length());
         return so;
     }
 
@@ -17,6 +17,7 @@
 package org.modeshape.webdav;
 
 import java.util.Date;
+import java.util.Map;
 
 public class StoredObject {
 
@@ -25,6 +26,8 @@ public class StoredObject {
     private Date creationDate;
     private long contentLength;
     private String mimeType;
+    private String contentHash;
+    private Map<String, Object> customProperties;
 
     private boolean isNullRessource;
 
@@ -131,6 +134,8 @@ public class StoredObject {
         // this.content = null;
         this.contentLength = 0;
         this.mimeType = null;
+        this.contentHash = null;
+        this.customProperties = null;
     }
 
     /**
@@ -152,4 +157,42 @@ public class StoredObject {
         this.mimeType = mimeType;
     }
 
+    /**
+     * Retrieve the hash of the resource content, if the store knows it. When available, the hash is used as a strong entity tag
+     * so that clients can make conditional and byte-range requests that remain valid for as long as the content is unchanged.
+     * 
+     * @return the hexadecimal hash of the content (e.g., the SHA-1), or null if the store does not know the hash
+     */
+    public String getContentHash() {
+        return contentHash;
+    }
+
+    /**
+     * Set the hash of the resource content.
+     * 
+     * @param contentHash the hexadecimal hash of the content; may be null if not known
+     */
+    public void setContentHash( String contentHash ) {
+        this.contentHash = contentHash;
+    }
+
+    /**
+     * Retrieve the custom properties of the object, if the store loaded them along with the object.
+     * 
+     * @return the map of (property name, property value) pairs, or null if the properties were not loaded and must be obtained via
+     *         {@link IWebdavStore#getCustomProperties(ITransaction, String)}
+     */
+    public Map<String, Object> getCustomProperties() {
+        return customProperties;
+    }
+
+    /**
+     * Set the custom properties of the object.
+     * 
+     * @param customProperties the map of (property name, property value) pairs; may be null if not loaded
+     */
+    public void setCustomProperties( Map<String, Object> customProperties ) {
+        this.customProperties = customProperties;
+    }
+
 }
@@ -42,17 +42,17 @@ public class LockedObject {
     /**
      * Describing the timeout of a locked object (ms)
      */
-    protected long expiresAt;
+    protected volatile long expiresAt;
 
     /**
      * owner of the lock. shared locks can have multiple owners. is null if no owner is present
      */
-    protected String[] owner = null;
+    protected volatile String[] owner = null;
 
     /**
      * children of that lock
      */
-    protected LockedObject[] children = null;
+    protected volatile LockedObject[] children = null;
 
     protected LockedObject parent = null;
 
@@ -85,7 +85,7 @@ public class LockedObject {
             resourceLocks.tempLocks.put(path, this);
             resourceLocks.tempLocksByID.put(id, this);
         }
-        resourceLocks.cleanupCounter++;
+        resourceLocks.cleanupCounter.incrementAndGet();
     }
 
     /**
@@ -96,12 +96,13 @@ public class LockedObject {
      */
     public boolean addLockedObjectOwner( String owner ) {
 
+        String[] newLockObjectOwner = null;
         if (this.owner == null) {
-            this.owner = new String[1];
+            newLockObjectOwner = new String[1];
         } else {
 
             int size = this.owner.length;
-            String[] newLockObjectOwner = new String[size + 1];
+            newLockObjectOwner = new String[size + 1];
 
             // check if the owner is already here (that should actually not
             // happen)
@@ -112,10 +113,11 @@ public class LockedObject {
             }
 
             System.arraycopy(this.owner, 0, newLockObjectOwner, 0, size);
-            this.owner = newLockObjectOwner;
         }
 
-        this.owner[this.owner.length - 1] = owner;
+        // only publish the new owners once they're complete, since they're read without locking
+        newLockObjectOwner[newLockObjectOwner.length - 1] = owner;
+        this.owner = newLockObjectOwner;
         return true;
     }
 
@@ -160,7 +162,7 @@ public class LockedObject {
      * 
      * @param newChild new child
      */
-    public void addChild( LockedObject newChild ) {
+    public synchronized void addChild( LockedObject newChild ) {
         if (children == null) {
             children = new LockedObject[0];
         }
@@ -172,30 +174,43 @@ public class LockedObject {
     }
 
     /**
-     * deletes this Lock object. assumes that it has no children and no owners (does not check this itself)
+     * removes a child lock from this lock. Children of the same lock can be added and removed concurrently (by operations on
+     * different paths), so this is synchronized.
+     * 
+     * @param child the child
      */
-    public void removeLockedObject() {
-        if (this != resourceLocks.root && !this.getPath().equals("/")) {
-
-            int size = parent.children.length;
-            for (int i = 0; i < size; i++) {
-                if (parent.children[i].equals(this)) {
-                    LockedObject[] newChildren = new LockedObject[size - 1];
-                    for (int i2 = 0; i2 < (size - 1); i2++) {
-                        if (i2 < i) {
-                            newChildren[i2] = parent.children[i2];
-                        } else {
-                            newChildren[i2] = parent.children[i2 + 1];
-                        }
-                    }
-                    if (newChildren.length != 0) {
-                        parent.children = newChildren;
+    protected synchronized void removeChild( LockedObject child ) {
+        if (children == null) {
+            return;
+        }
+        int size = children.length;
+        for (int i = 0; i < size; i++) {
+            if (children[i].equals(child)) {
+                LockedObject[] newChildren = new LockedObject[size - 1];
+                for (int i2 = 0; i2 < (size - 1); i2++) {
+                    if (i2 < i) {
+                        newChildren[i2] = children[i2];
                     } else {
-                        parent.children = null;
+                        newChildren[i2] = children[i2 + 1];
                     }
-                    break;
                 }
+                if (newChildren.length != 0) {
+                    children = newChildren;
+                } else {
+                    children = null;
+                }
+                break;
             }
+        }
+    }
+
+    /**
+     * deletes this Lock object. assumes that it has no children and no owners (does not check this itself)
+     */
+    public void removeLockedObject() {
+        if (this != resourceLocks.root && !this.getPath().equals("/")) {
+
+            parent.removeChild(this);
 
             // removing from hashtable
             resourceLocks.locksByID.remove(getID());
@@ -212,25 +227,7 @@ public class LockedObject {
         if (this != resourceLocks.tempRoot) {
             // removing from tree
             if (parent != null && parent.children != null) {
-                int size = parent.children.length;
-                for (int i = 0; i < size; i++) {
-                    if (parent.children[i].equals(this)) {
-                        LockedObject[] newChildren = new LockedObject[size - 1];
-                        for (int i2 = 0; i2 < (size - 1); i2++) {
-                            if (i2 < i) {
-                                newChildren[i2] = parent.children[i2];
-                            } else {
-                                newChildren[i2] = parent.children[i2 + 1];
-                            }
-                        }
-                        if (newChildren.length != 0) {
-                            parent.children = newChildren;
-                        } else {
-                            parent.children = null;
-                        }
-                        break;
-                    }
-                }
+                parent.removeChild(this);
 
                 // removing from hashtable
                 resourceLocks.tempLocksByID.remove(getID());
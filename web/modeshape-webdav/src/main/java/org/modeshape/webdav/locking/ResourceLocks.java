@@ -16,8 +16,13 @@
 
 package org.modeshape.webdav.locking;
 
-import java.util.Enumeration;
-import java.util.Hashtable;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
 import org.modeshape.common.logging.Logger;
 import org.modeshape.webdav.ITransaction;
 import org.modeshape.webdav.exceptions.LockFailedException;
@@ -25,6 +30,12 @@ import org.modeshape.webdav.exceptions.LockFailedException;
 /**
  * simple locking management for concurrent data access, NOT the webdav locking. ( could that be used instead? ) IT IS ACTUALLY
  * USED FOR DOLOCK
+ * <p>
+ * Rather than serializing all operations on a single monitor, each operation on a path holds a lock striped by that path in
+ * exclusive mode, and the stripes of all of the path's ancestors in shared mode. Since a lock's validity only depends upon the
+ * locks of the path's ancestors and descendants (and every operation on a descendant holds the path's stripe in shared mode),
+ * operations on unrelated paths (e.g., different files in the same folder) proceed concurrently.
+ * </p>
  * 
  * @author re
  */
@@ -32,32 +43,43 @@ public class ResourceLocks implements IResourceLocks {
 
     private static Logger LOG = Logger.getLogger(ResourceLocks.class);
 
+    /**
+     * the number of path stripes; must be a power of 2
+     */
+    private static final int STRIPE_COUNT = 64;
+
+    /**
+     * the minimum time between two checks for timed-out locks, which otherwise would be done (by iterating over all the locks)
+     * every time a lock is released
+     */
+    private static final long TIMEOUT_CHECK_INTERVAL_MILLIS = 1000L;
+
     /**
      * after creating this much LockedObjects, a cleanup deletes unused LockedObjects
      */
     private final int cleanupLimit = 100000;
 
-    protected int cleanupCounter = 0;
+    protected final AtomicInteger cleanupCounter = new AtomicInteger();
 
     /**
      * keys: path value: LockedObject from that path
      */
-    protected Hashtable<String, LockedObject> locks = new Hashtable<String, LockedObject>();
+    protected final Map<String, LockedObject> locks = new ConcurrentHashMap<String, LockedObject>();
 
     /**
      * keys: id value: LockedObject from that id
      */
-    protected Hashtable<String, LockedObject> locksByID = new Hashtable<String, LockedObject>();
+    protected final Map<String, LockedObject> locksByID = new ConcurrentHashMap<String, LockedObject>();
 
     /**
      * keys: path value: Temporary LockedObject from that path
      */
-    protected Hashtable<String, LockedObject> tempLocks = new Hashtable<String, LockedObject>();
+    protected final Map<String, LockedObject> tempLocks = new ConcurrentHashMap<String, LockedObject>();
 
     /**
      * keys: id value: Temporary LockedObject from that id
      */
-    protected Hashtable<String, LockedObject> tempLocksByID = new Hashtable<String, LockedObject>();
+    protected final Map<String, LockedObject> tempLocksByID = new ConcurrentHashMap<String, LockedObject>();
 
     // REMEMBER TO REMOVE UNUSED LOCKS FROM THE HASHTABLE AS WELL
 
@@ -67,131 +89,157 @@ public class ResourceLocks implements IResourceLocks {
 
     private boolean temporary = true;
 
+    /**
+     * the locks guarding the paths; see {@link #lockPath(String)}
+     */
+    private final ReadWriteLock[] stripes = new ReadWriteLock[STRIPE_COUNT];
+
+    /**
+     * held in shared mode by every operation on a path, and in exclusive mode when cleaning up the whole tree
+     */
+    private final ReadWriteLock treeLock = new ReentrantReadWriteLock();
+
+    private final AtomicLong nextTimeoutCheck = new AtomicLong();
+    private final AtomicLong nextTempTimeoutCheck = new AtomicLong();
+
     public ResourceLocks() {
+        for (int i = 0; i != STRIPE_COUNT; ++i) {
+            stripes[i] = new ReentrantReadWriteLock();
+        }
         root = new LockedObject(this, "/", true);
         tempRoot = new LockedObject(this, "/", false);
     }
 
     @Override
-    public synchronized boolean lock( ITransaction transaction,
-                                      String path,
-                                      String owner,
-                                      boolean exclusive,
-                                      int depth,
-                                      int timeout,
-                                      boolean temporary ) throws LockFailedException {
-
-        LockedObject lo = null;
-
-        if (temporary) {
-            lo = generateTempLockedObjects(path);
-            lo.type = "read";
-        } else {
-            lo = generateLockedObjects(path);
-            lo.type = "write";
-        }
+    public boolean lock( ITransaction transaction,
+                         String path,
+                         String owner,
+                         boolean exclusive,
+                         int depth,
+                         int timeout,
+                         boolean temporary ) throws LockFailedException {
+
+        Lock[] pathLocks = lockPath(path);
+        try {
+            LockedObject lo = null;
+
+            if (temporary) {
+                lo = generateTempLockedObjects(path);
+                lo.type = "read";
+            } else {
+                lo = generateLockedObjects(path);
+                lo.type = "write";
+            }
 
-        if (lo.checkLocks(exclusive, depth)) {
-
-            lo.exclusive = exclusive;
-            lo.lockDepth = depth;
-            lo.expiresAt = System.currentTimeMillis() + (timeout * 1000);
-            if (lo.parent != null) {
-                lo.parent.expiresAt = lo.expiresAt;
-                if (lo.parent.equals(root)) {
-                    LockedObject rootLo = getLockedObjectByPath(transaction, root.getPath());
-                    rootLo.expiresAt = lo.expiresAt;
-                } else if (lo.parent.equals(tempRoot)) {
-                    LockedObject tempRootLo = getTempLockedObjectByPath(transaction, tempRoot.getPath());
-                    tempRootLo.expiresAt = lo.expiresAt;
+            if (lo.checkLocks(exclusive, depth)) {
+
+                lo.exclusive = exclusive;
+                lo.lockDepth = depth;
+                lo.expiresAt = System.currentTimeMillis() + (timeout * 1000);
+                if (lo.parent != null) {
+                    lo.parent.expiresAt = lo.expiresAt;
+                    if (lo.parent.equals(root)) {
+                        LockedObject rootLo = getLockedObjectByPath(transaction, root.getPath());
+                        rootLo.expiresAt = lo.expiresAt;
+                    } else if (lo.parent.equals(tempRoot)) {
+                        LockedObject tempRootLo = getTempLockedObjectByPath(transaction, tempRoot.getPath());
+                        tempRootLo.expiresAt = lo.expiresAt;
+                    }
                 }
+                if (lo.addLockedObjectOwner(owner)) {
+                    return true;
+                }
+                LOG.trace("Couldn't set owner \"" + owner + "\" to resource at '" + path + "'");
+                return false;
             }
-            if (lo.addLockedObjectOwner(owner)) {
-                return true;
-            }
-            LOG.trace("Couldn't set owner \"" + owner + "\" to resource at '" + path + "'");
+            // can not lock
+            LOG.trace("Lock resource at " + path + " failed because" + "\na parent or child resource is currently locked");
             return false;
+        } finally {
+            unlockPath(pathLocks);
         }
-        // can not lock
-        LOG.trace("Lock resource at " + path + " failed because" + "\na parent or child resource is currently locked");
-        return false;
     }
 
     @Override
-    public synchronized boolean unlock( ITransaction transaction,
-                                        String id,
-                                        String owner ) {
-
-        if (locksByID.containsKey(id)) {
-            String path = locksByID.get(id).getPath();
-            if (locks.containsKey(path)) {
+    public boolean unlock( ITransaction transaction,
+                           String id,
+                           String owner ) {
+
+        LockedObject lockedById = locksByID.get(id);
+        if (lockedById != null) {
+            String path = lockedById.getPath();
+            Lock[] pathLocks = lockPath(path);
+            try {
                 LockedObject lo = locks.get(path);
-                lo.removeLockedObjectOwner(owner);
+                if (lo != null) {
+                    lo.removeLockedObjectOwner(owner);
 
-                if (lo.children == null && lo.owner == null) {
-                    lo.removeLockedObject();
-                }
+                    if (lo.children == null && lo.owner == null) {
+                        lo.removeLockedObject();
+                    }
 
-            } else {
-                // there is no lock at that path. someone tried to unlock it
-                // anyway. could point to a problem
-                LOG.trace("org.modeshape.web.webdav.locking.ResourceLocks.unlock(): no lock for path " + path);
-                return false;
+                } else {
+                    // there is no lock at that path. someone tried to unlock it
+                    // anyway. could point to a problem
+                    LOG.trace("org.modeshape.web.webdav.locking.ResourceLocks.unlock(): no lock for path " + path);
+                    return false;
+                }
+            } finally {
+                unlockPath(pathLocks);
             }
 
-            if (cleanupCounter > cleanupLimit) {
-                cleanupCounter = 0;
-                cleanLockedObjects(root, !temporary);
-            }
+            cleanupIfNeeded(root, !temporary);
         }
-        checkTimeouts(transaction, !temporary);
+        checkTimeoutsPeriodically(transaction, !temporary);
 
         return true;
 
     }
 
     @Override
-    public synchronized void unlockTemporaryLockedObjects( ITransaction transaction,
-                                                           String path,
-                                                           String owner ) {
-        if (tempLocks.containsKey(path)) {
+    public void unlockTemporaryLockedObjects( ITransaction transaction,
+                                              String path,
+                                              String owner ) {
+        Lock[] pathLocks = lockPath(path);
+        try {
             LockedObject lo = tempLocks.get(path);
-            lo.removeLockedObjectOwner(owner);
+            if (lo != null) {
+                lo.removeLockedObjectOwner(owner);
 
-        } else {
-            // there is no lock at that path. someone tried to unlock it
-            // anyway. could point to a problem
-            LOG.trace("org.modeshape.web.webdav.locking.ResourceLocks.unlock(): no lock for path " + path);
+            } else {
+                // there is no lock at that path. someone tried to unlock it
+                // anyway. could point to a problem
+                LOG.trace("org.modeshape.web.webdav.locking.ResourceLocks.unlock(): no lock for path " + path);
+            }
+        } finally {
+            unlockPath(pathLocks);
         }
 
-        if (cleanupCounter > cleanupLimit) {
-            cleanupCounter = 0;
-            cleanLockedObjects(tempRoot, temporary);
-        }
+        cleanupIfNeeded(tempRoot, temporary);
 
-        checkTimeouts(transaction, temporary);
+        checkTimeoutsPeriodically(transaction, temporary);
 
     }
 
     @Override
     public void checkTimeouts( ITransaction transaction,
                                boolean temporary ) {
-        if (!temporary) {
-            Enumeration<LockedObject> lockedObjects = locks.elements();
-            while (lockedObjects.hasMoreElements()) {
-                LockedObject currentLockedObject = lockedObjects.nextElement();
-
-                if (currentLockedObject.expiresAt < System.currentTimeMillis()) {
-                    currentLockedObject.removeLockedObject();
-                }
-            }
-        } else {
-            Enumeration<LockedObject> lockedObjects = tempLocks.elements();
-            while (lockedObjects.hasMoreElements()) {
-                LockedObject currentLockedObject = lockedObjects.nextElement();
-
-                if (currentLockedObject.expiresAt < System.currentTimeMillis()) {
-                    currentLockedObject.removeTempLockedObject();
+        Map<String, LockedObject> lockedObjects = temporary ? tempLocks : locks;
+        for (LockedObject currentLockedObject : lockedObjects.values()) {
+            if (currentLockedObject.expiresAt < System.currentTimeMillis()) {
+                Lock[] pathLocks = lockPath(currentLockedObject.getPath());
+                try {
+                    // Make sure it wasn't refreshed or removed since we looked at it ...
+                    if (currentLockedObject.expiresAt < System.currentTimeMillis()
+                        && lockedObjects.get(currentLockedObject.getPath()) == currentLockedObject) {
+                        if (temporary) {
+                            currentLockedObject.removeTempLockedObject();
+                        } else {
+                            currentLockedObject.removeLockedObject();
+                        }
+                    }
+                } finally {
+                    unlockPath(pathLocks);
                 }
             }
         }
@@ -219,37 +267,104 @@ public class ResourceLocks implements IResourceLocks {
     @Override
     public LockedObject getLockedObjectByID( ITransaction transaction,
                                              String id ) {
-        if (locksByID.containsKey(id)) {
-            return locksByID.get(id);
-        }
-        return null;
+        return locksByID.get(id);
     }
 
     @Override
     public LockedObject getLockedObjectByPath( ITransaction transaction,
                                                String path ) {
-        if (locks.containsKey(path)) {
-            return this.locks.get(path);
-        }
-        return null;
+        return locks.get(path);
     }
 
     @Override
     public LockedObject getTempLockedObjectByID( ITransaction transaction,
                                                  String id ) {
-        if (tempLocksByID.containsKey(id)) {
-            return tempLocksByID.get(id);
-        }
-        return null;
+        return tempLocksByID.get(id);
     }
 
     @Override
     public LockedObject getTempLockedObjectByPath( ITransaction transaction,
                                                    String path ) {
-        if (tempLocks.containsKey(path)) {
-            return this.tempLocks.get(path);
+        return tempLocks.get(path);
+    }
+
+    /**
+     * Acquire the locks needed to operate on the LockedObjects at the given path: the stripe of the path in exclusive mode, and
+     * the stripes of all of its ancestors in shared mode. The stripes are always acquired in the same order, so that concurrent
+     * operations can't deadlock.
+     * 
+     * @param path the path
+     * @return the acquired locks, which must be released with {@link #unlockPath(Lock[])}
+     */
+    private Lock[] lockPath( String path ) {
+        boolean[] shared = new boolean[STRIPE_COUNT];
+        boolean[] exclusive = new boolean[STRIPE_COUNT];
+        int count = 1;
+        exclusive[stripeFor(path)] = true;
+        for (String ancestor = getParentPath(path); ancestor != null; ancestor = getParentPath(ancestor)) {
+            int stripe = stripeFor(ancestor);
+            if (!exclusive[stripe] && !shared[stripe]) {
+                shared[stripe] = true;
+                ++count;
+            }
+            if ("/".equals(ancestor)) {
+                break;
+            }
+        }
+        Lock[] acquired = new Lock[count + 1];
+        int index = 0;
+        acquired[index] = treeLock.readLock();
+        acquired[index++].lock();
+        for (int stripe = 0; stripe != STRIPE_COUNT; ++stripe) {
+            if (exclusive[stripe]) {
+                acquired[index] = stripes[stripe].writeLock();
+            } else if (shared[stripe]) {
+                acquired[index] = stripes[stripe].readLock();
+            } else {
+                continue;
+            }
+            acquired[index++].lock();
+        }
+        return acquired;
+    }
+
+    private void unlockPath( Lock[] acquired ) {
+        for (int i = acquired.length - 1; i >= 0; --i) {
+            acquired[i].unlock();
+        }
+    }
+
+    private static int stripeFor( String path ) {
+        int hash = path.hashCode();
+        hash ^= (hash >>> 16);
+        return hash & (STRIPE_COUNT - 1);
+    }
+
+    private void cleanupIfNeeded( LockedObject lo,
+                                  boolean temporary ) {
+        if (cleanupCounter.get() > cleanupLimit) {
+            // Cleaning walks and modifies the whole tree, so no other operation may be in progress ...
+            treeLock.writeLock().lock();
+            try {
+                if (cleanupCounter.get() > cleanupLimit) {
+                    cleanupCounter.set(0);
+                    cleanLockedObjects(lo, temporary);
+                }
+            } finally {
+                treeLock.writeLock().unlock();
+            }
+        }
+    }
+
+    private void checkTimeoutsPeriodically( ITransaction transaction,
+                                            boolean temporary ) {
+        AtomicLong nextCheck = temporary ? nextTempTimeoutCheck : nextTimeoutCheck;
+        long now = System.currentTimeMillis();
+        long due = nextCheck.get();
+        // Only one thread does the check ...
+        if (now >= due && nextCheck.compareAndSet(due, now + TIMEOUT_CHECK_INTERVAL_MILLIS)) {
+            checkTimeouts(transaction, temporary);
         }
-        return null;
     }
 
     /**
@@ -260,18 +375,7 @@ public class ResourceLocks implements IResourceLocks {
      * @return the LockedObject for path.
      */
     private LockedObject generateLockedObjects( String path ) {
-        if (!locks.containsKey(path)) {
-            LockedObject returnObject = new LockedObject(this, path, !temporary);
-            String parentPath = getParentPath(path);
-            if (parentPath != null) {
-                LockedObject parentLockedObject = generateLockedObjects(parentPath);
-                parentLockedObject.addChild(returnObject);
-                returnObject.parent = parentLockedObject;
-            }
-            return returnObject;
-        }
-        // there is already a LockedObject on the specified path
-        return this.locks.get(path);
+        return generateLockedObjects(path, locks, !temporary);
     }
 
     /**
@@ -282,18 +386,31 @@ public class ResourceLocks implements IResourceLocks {
      * @return the LockedObject for path.
      */
     private LockedObject generateTempLockedObjects( String path ) {
-        if (!tempLocks.containsKey(path)) {
-            LockedObject returnObject = new LockedObject(this, path, temporary);
-            String parentPath = getParentPath(path);
-            if (parentPath != null) {
-                LockedObject parentLockedObject = generateTempLockedObjects(parentPath);
-                parentLockedObject.addChild(returnObject);
-                returnObject.parent = parentLockedObject;
-            }
+        return generateLockedObjects(path, tempLocks, temporary);
+    }
+
+    private LockedObject generateLockedObjects( String path,
+                                                Map<String, LockedObject> lockedObjects,
+                                                boolean temporaryObjects ) {
+        LockedObject returnObject = lockedObjects.get(path);
+        if (returnObject != null) {
+            // there is already a LockedObject on the specified path
             return returnObject;
         }
-        // there is already a LockedObject on the specified path
-        return this.tempLocks.get(path);
+        String parentPath = getParentPath(path);
+        LockedObject parentLockedObject = parentPath != null ? generateLockedObjects(parentPath, lockedObjects, temporaryObjects) : null;
+        // Operations on other children of the parent may be creating the same object, so check again while holding the parent ...
+        synchronized (parentLockedObject != null ? parentLockedObject : lockedObjects) {
+            returnObject = lockedObjects.get(path);
+            if (returnObject == null) {
+                returnObject = new LockedObject(this, path, temporaryObjects);
+                if (parentLockedObject != null) {
+                    parentLockedObject.addChild(returnObject);
+                    returnObject.parent = parentLockedObject;
+                }
+            }
+        }
+        return returnObject;
     }
 
     /**
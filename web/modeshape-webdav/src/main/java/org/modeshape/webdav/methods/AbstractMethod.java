@@ -257,6 +257,11 @@ public abstract class AbstractMethod implements IMethodExecutor {
      */
     protected String getETag( StoredObject so ) {
 
+        if (so != null && so.isResource() && so.getContentHash() != null) {
+            // The hash identifies the exact bytes, so it can be used as a strong validator ...
+            return "\"" + so.getContentHash() + "\"";
+        }
+
         String resourceLength = "";
         String lastModified = "";
 
@@ -20,10 +20,13 @@ import java.io.InputStream;
 import java.io.OutputStream;
 import java.text.DateFormat;
 import java.util.Arrays;
+import java.util.List;
 import java.util.Locale;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 import org.modeshape.common.i18n.TextI18n;
+import org.modeshape.common.util.ByteRange;
+import org.modeshape.common.util.IoUtil;
 import org.modeshape.webdav.IMimeTyper;
 import org.modeshape.webdav.ITransaction;
 import org.modeshape.webdav.IWebdavStore;
@@ -63,12 +66,8 @@ public class DoGet extends DoHead {
             OutputStream out = resp.getOutputStream();
             InputStream in = store.getResourceContent(transaction, path);
             try {
-                int read = -1;
-                byte[] copyBuffer = new byte[BUF_SIZE];
-
-                while ((read = in.read(copyBuffer, 0, copyBuffer.length)) != -1) {
-                    out.write(copyBuffer, 0, read);
-                }
+                // Streams backed by files are transferred directly from the file's channel ...
+                IoUtil.write(in, out, 0L, Long.MAX_VALUE);
             } finally {
                 // flushing causes a IOE if a file is opened on the webserver
                 // client disconnected before server finished sending response
@@ -89,6 +88,61 @@ public class DoGet extends DoHead {
         }
     }
 
+    @Override
+    protected void doBody( ITransaction transaction,
+                           HttpServletResponse resp,
+                           String path,
+                           List<ByteRange> ranges,
+                           String mimeType,
+                           long resourceLength ) {
+        try {
+            OutputStream out = resp.getOutputStream();
+            try {
+                if (ranges.size() == 1) {
+                    writeRange(transaction, path, ranges.get(0), out);
+                } else {
+                    for (ByteRange range : ranges) {
+                        StringBuilder partHeader = new StringBuilder();
+                        partHeader.append("\r\n--").append(BYTERANGES_BOUNDARY).append("\r\n");
+                        if (mimeType != null) {
+                            partHeader.append("Content-Type: ").append(mimeType).append("\r\n");
+                        }
+                        partHeader.append("Content-Range: ").append(range.toContentRange(resourceLength)).append("\r\n\r\n");
+                        out.write(partHeader.toString().getBytes("ISO-8859-1"));
+                        writeRange(transaction, path, range, out);
+                    }
+                    out.write(("\r\n--" + BYTERANGES_BOUNDARY + "--\r\n").getBytes("ISO-8859-1"));
+                }
+            } finally {
+                try {
+                    out.flush();
+                    out.close();
+                } catch (Exception e) {
+                    logger.warn(e, new TextI18n("Flushing OutputStream causes Exception!"));
+                }
+            }
+        } catch (Exception e) {
+            logger.trace(e.toString());
+        }
+    }
+
+    private void writeRange( ITransaction transaction,
+                             String path,
+                             ByteRange range,
+                             OutputStream out ) throws IOException {
+        // Each range uses its own stream, so that ranges can be written with stores whose streams can't be repositioned ...
+        InputStream in = store.getResourceContent(transaction, path);
+        try {
+            IoUtil.write(in, out, range.getStart(), range.getLength());
+        } finally {
+            try {
+                in.close();
+            } catch (Exception e) {
+                logger.warn(e, new TextI18n("Closing InputStream causes Exception!"));
+            }
+        }
+    }
+
     @Override
     protected void folderBody( ITransaction transaction,
                                String path,
@@ -16,8 +16,11 @@
 package org.modeshape.webdav.methods;
 
 import java.io.IOException;
+import java.util.List;
+import java.util.UUID;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
+import org.modeshape.common.util.ByteRange;
 import org.modeshape.webdav.IMimeTyper;
 import org.modeshape.webdav.ITransaction;
 import org.modeshape.webdav.IWebdavStore;
@@ -31,6 +34,11 @@ import org.modeshape.webdav.locking.ResourceLocks;
 
 public class DoHead extends AbstractMethod {
 
+    /**
+     * The boundary separating the parts of "multipart/byteranges" responses.
+     */
+    protected static final String BYTERANGES_BOUNDARY = UUID.randomUUID().toString();
+
     protected final String dftIndexFile;
     protected final IWebdavStore store;
     protected final String insteadOf404;
@@ -91,12 +99,10 @@ public class DoHead extends AbstractMethod {
 
             if (resourceLocks.lock(transaction, path, tempLockOwner, false, 0, TEMP_TIMEOUT, TEMPORARY)) {
                 try {
-                    String eTagMatch = req.getHeader("If-None-Match");
-                    if (eTagMatch != null) {
-                        if (eTagMatch.equals(getETag(so))) {
-                            resp.setStatus(WebdavStatus.SC_NOT_MODIFIED);
-                            return;
-                        }
+                    if (isNotModified(req, so)) {
+                        addETag(resp, so);
+                        resp.setStatus(WebdavStatus.SC_NOT_MODIFIED);
+                        return;
                     }
 
                     if (so.isResource()) {
@@ -109,35 +115,48 @@ public class DoHead extends AbstractMethod {
                             long lastModified = so.getLastModified().getTime();
                             resp.setDateHeader("last-modified", lastModified);
 
-                            String eTag = getETag(so);
-                            resp.addHeader("ETag", eTag);
+                            addETag(resp, so);
 
                             long resourceLength = so.getResourceLength();
-
-                            if (contentLength == 1) {
-                                if (resourceLength > 0) {
-                                    if (resourceLength <= Integer.MAX_VALUE) {
-                                        resp.setContentLength((int)resourceLength);
-                                    } else {
-                                        resp.setHeader("content-length", "" + resourceLength);
-                                        // is "content-length" the right header?
-                                        // is long a valid format?
-                                    }
-                                }
-                            }
+                            resp.setHeader("Accept-Ranges", "bytes");
 
                             String mimeType = mimeTyper.getMimeType(transaction, path);
-                            if (mimeType != null) {
-                                resp.setContentType(mimeType);
-                            } else {
+                            if (mimeType == null) {
                                 int lastSlash = path.replace('\\', '/').lastIndexOf('/');
                                 int lastDot = path.indexOf(".", lastSlash);
                                 if (lastDot == -1) {
-                                    resp.setContentType("text/html");
+                                    mimeType = "text/html";
                                 }
                             }
 
-                            doBody(transaction, resp, path);
+                            List<ByteRange> ranges = getRequestedRanges(req, so);
+                            if (ranges == null) {
+                                if (contentLength == 1) {
+                                    if (resourceLength > 0) {
+                                        setContentLength(resp, resourceLength);
+                                    }
+                                }
+                                if (mimeType != null) {
+                                    resp.setContentType(mimeType);
+                                }
+                                doBody(transaction, resp, path);
+                            } else if (ranges.isEmpty()) {
+                                resp.setHeader("Content-Range", "bytes */" + resourceLength);
+                                resp.sendError(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+                            } else {
+                                resp.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+                                if (ranges.size() == 1) {
+                                    ByteRange range = ranges.get(0);
+                                    resp.setHeader("Content-Range", range.toContentRange(resourceLength));
+                                    setContentLength(resp, range.getLength());
+                                    if (mimeType != null) {
+                                        resp.setContentType(mimeType);
+                                    }
+                                } else {
+                                    resp.setContentType("multipart/byteranges; boundary=" + BYTERANGES_BOUNDARY);
+                                }
+                                doBody(transaction, resp, path, ranges, mimeType, resourceLength);
+                            }
                         }
                     } else {
                         folderBody(transaction, path, resp, req);
@@ -164,6 +183,126 @@ public class DoHead extends AbstractMethod {
 
     }
 
+    /**
+     * Determine whether the client's cached copy of the object is still current, based upon the {@code If-None-Match} and (when
+     * that header is absent) {@code If-Modified-Since} request headers. {@code If-None-Match} uses the weak comparison, so it is
+     * also satisfied by the weak entity tag sent for objects whose content hash is not known.
+     * 
+     * @param req the request; may not be null
+     * @param so the stored object; may not be null
+     * @return true if a "304 Not Modified" response should be returned, or false otherwise
+     */
+    protected boolean isNotModified( HttpServletRequest req,
+                                     StoredObject so ) {
+        String ifNoneMatch = req.getHeader("If-None-Match");
+        if (ifNoneMatch != null) {
+            return matchesETag(ifNoneMatch, getETag(so), false);
+        }
+        long ifModifiedSince = getDateHeader(req, "If-Modified-Since");
+        if (ifModifiedSince == -1 || so.getLastModified() == null) {
+            return false;
+        }
+        // HTTP dates only have second precision ...
+        return so.getLastModified().getTime() / 1000 <= ifModifiedSince / 1000;
+    }
+
+    /**
+     * Determine the byte ranges requested by the client via the {@code Range} header, honoring any {@code If-Range} header.
+     * 
+     * @param req the request; may not be null
+     * @param so the stored object for a resource; may not be null
+     * @return the satisfiable ranges; null if the full content is to be returned, or an empty list if the requested ranges cannot
+     *         be satisfied
+     * @see ByteRange#parse(String, long)
+     */
+    protected List<ByteRange> getRequestedRanges( HttpServletRequest req,
+                                                  StoredObject so ) {
+        String rangeHeader = req.getHeader("Range");
+        if (rangeHeader == null || so.getResourceLength() <= 0 || !"GET".equalsIgnoreCase(req.getMethod())) {
+            // The Range header only applies to GET requests ...
+            return null;
+        }
+        String ifRange = req.getHeader("If-Range");
+        if (ifRange != null) {
+            ifRange = ifRange.trim();
+            if (ifRange.startsWith("\"") || ifRange.startsWith("W/")) {
+                // Only a strong entity tag can validate a partial response ...
+                if (!matchesETag(ifRange, getContentETag(so), true)) {
+                    return null;
+                }
+            } else {
+                long date = getDateHeader(req, "If-Range");
+                if (date == -1 || so.getLastModified() == null || so.getLastModified().getTime() / 1000 != date / 1000) {
+                    return null;
+                }
+            }
+        }
+        return ByteRange.parse(rangeHeader, so.getResourceLength());
+    }
+
+    /**
+     * Get the strong entity tag of the content of the object, which is required to validate an {@code If-Range} header and is
+     * only known when the store supplies the hash of the content.
+     * 
+     * @param so the stored object; may not be null
+     * @return the strong entity tag, or null if the store doesn't know the hash of the content
+     */
+    protected String getContentETag( StoredObject so ) {
+        return so.isResource() && so.getContentHash() != null ? getETag(so) : null;
+    }
+
+    private void addETag( HttpServletResponse resp,
+                          StoredObject so ) {
+        resp.addHeader("ETag", getETag(so));
+    }
+
+    private static boolean matchesETag( String headerValue,
+                                        String eTag,
+                                        boolean strong ) {
+        if (headerValue.trim().equals("*")) {
+            return true;
+        }
+        if (eTag == null) {
+            return false;
+        }
+        if (strong && eTag.startsWith("W/")) {
+            return false;
+        }
+        String opaqueTag = eTag.startsWith("W/") ? eTag.substring(2) : eTag;
+        for (String candidate : headerValue.split(",")) {
+            candidate = candidate.trim();
+            if (candidate.startsWith("W/")) {
+                if (strong) {
+                    continue;
+                }
+                candidate = candidate.substring(2);
+            }
+            if (candidate.equals(opaqueTag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static long getDateHeader( HttpServletRequest req,
+                                       String name ) {
+        try {
+            return req.getDateHeader(name);
+        } catch (IllegalArgumentException e) {
+            // Unparseable dates are to be ignored ...
+            return -1;
+        }
+    }
+
+    private static void setContentLength( HttpServletResponse resp,
+                                          long length ) {
+        if (length <= Integer.MAX_VALUE) {
+            resp.setContentLength((int)length);
+        } else {
+            resp.setHeader("content-length", "" + length);
+        }
+    }
+
     @SuppressWarnings( "unused" )
     protected void folderBody( ITransaction transaction,
                                String path,
@@ -178,4 +317,25 @@ public class DoHead extends AbstractMethod {
                            String path ) throws IOException {
         // no body for HEAD
     }
+
+    /**
+     * Write the given ranges of the resource's content to the response. The status and headers have already been set.
+     * 
+     * @param transaction the transaction; may not be null
+     * @param resp the response; may not be null
+     * @param path the path of the resource; may not be null
+     * @param ranges the ranges that are to be written; never empty
+     * @param mimeType the MIME type of the resource, used for each part of a multi-range response; may be null
+     * @param resourceLength the total length of the resource
+     * @throws IOException if there is a problem writing the response
+     */
+    @SuppressWarnings( "unused" )
+    protected void doBody( ITransaction transaction,
+                           HttpServletResponse resp,
+                           String path,
+                           List<ByteRange> ranges,
+                           String mimeType,
+                           long resourceLength ) throws IOException {
+        // no body for HEAD
+    }
 }
@@ -155,12 +155,14 @@ public class DoPropfind extends AbstractMethod {
                                     req,
                                     generatedXML,
                                     path,
+                                    so,
                                     propertyFindType,
                                     properties,
                                     mimeTyper.getMimeType(transaction, path));
                 } else {
                     recursiveParseProperties(transaction,
                                              path,
+                                             so,
                                              req,
                                              generatedXML,
                                              propertyFindType,
@@ -195,6 +197,7 @@ public class DoPropfind extends AbstractMethod {
      * 
      * @param transaction
      * @param currentPath the current path
+     * @param so the stored object at the current path
      * @param req HttpServletRequest
      * @param generatedXML
      * @param propertyFindType
@@ -205,6 +208,7 @@ public class DoPropfind extends AbstractMethod {
      */
     private void recursiveParseProperties( ITransaction transaction,
                                            String currentPath,
+                                           StoredObject so,
                                            HttpServletRequest req,
                                            XMLWriter generatedXML,
                                            int propertyFindType,
@@ -212,22 +216,25 @@ public class DoPropfind extends AbstractMethod {
                                            int depth,
                                            String mimeType ) throws WebdavException {
 
-        parseProperties(transaction, req, generatedXML, currentPath, propertyFindType, properties, mimeType);
+        parseProperties(transaction, req, generatedXML, currentPath, so, propertyFindType, properties, mimeType);
 
-        if (depth > 0) {
-            // no need to get name if depth is already zero
-            String[] names = store.getChildrenNames(transaction, currentPath);
-            names = names == null ? new String[] {} : names;
+        if (depth > 0 && so != null && so.isFolder()) {
+            // no need to get the children if depth is already zero, and load them all at once rather than one by one
+            Map<String, StoredObject> children = store.getChildren(transaction, currentPath);
+            if (children == null) {
+                return;
+            }
             String newPath = null;
 
-            for (String name : names) {
+            for (Map.Entry<String, StoredObject> child : children.entrySet()) {
                 newPath = currentPath;
                 if (!(newPath.endsWith("/"))) {
                     newPath += "/";
                 }
-                newPath += name;
+                newPath += child.getKey();
                 recursiveParseProperties(transaction,
                                          newPath,
+                                         child.getValue(),
                                          req,
                                          generatedXML,
                                          propertyFindType,
@@ -245,6 +252,7 @@ public class DoPropfind extends AbstractMethod {
      * @param req The servlet request
      * @param generatedXML XML response to the Propfind request
      * @param path Path of the current resource
+     * @param so the stored object of the current resource
      * @param type Propfind type
      * @param propertiesVector If the propfind type is find properties by name, then this Vector contains those properties
      * @param mimeType
@@ -254,11 +262,11 @@ public class DoPropfind extends AbstractMethod {
                                   HttpServletRequest req,
                                   XMLWriter generatedXML,
                                   String path,
+                                  StoredObject so,
                                   int type,
                                   Vector<String> propertiesVector,
                                   String mimeType ) throws WebdavException {
 
-        StoredObject so = store.getStoredObject(transaction, path);
         if (so == null) return;
 
         boolean isFolder = so.isFolder();
@@ -308,7 +316,7 @@ public class DoPropfind extends AbstractMethod {
                 generatedXML.writeElement("DAV::propstat", XMLWriter.OPENING);
 
                 generatedXML.writeElement("DAV::prop", XMLWriter.OPENING);
-                writeCustomProperties(transaction, generatedXML, path, true, propertiesVector);
+                writeCustomProperties(transaction, generatedXML, path, so, true, propertiesVector);
 
                 generatedXML.writeProperty("DAV::creationdate", creationdate);
                 generatedXML.writeElement("DAV::displayname", XMLWriter.OPENING);
@@ -345,7 +353,7 @@ public class DoPropfind extends AbstractMethod {
                 generatedXML.writeElement("DAV::propstat", XMLWriter.OPENING);
                 generatedXML.writeElement("DAV::prop", XMLWriter.OPENING);
 
-                writeCustomProperties(transaction, generatedXML, path, false, propertiesVector);
+                writeCustomProperties(transaction, generatedXML, path, so, false, propertiesVector);
                 generatedXML.writeElement("DAV::creationdate", XMLWriter.NO_CONTENT);
                 generatedXML.writeElement("DAV::displayname", XMLWriter.NO_CONTENT);
                 if (!isFolder) {
@@ -376,7 +384,7 @@ public class DoPropfind extends AbstractMethod {
                 generatedXML.writeElement("DAV::propstat", XMLWriter.OPENING);
                 generatedXML.writeElement("DAV::prop", XMLWriter.OPENING);
 
-                writeCustomProperties(transaction, generatedXML, path, true, propertiesVector);
+                writeCustomProperties(transaction, generatedXML, path, so, true, propertiesVector);
 
                 Enumeration<String> properties = propertiesVector.elements();
 
@@ -477,8 +485,6 @@ public class DoPropfind extends AbstractMethod {
         }
 
         generatedXML.writeElement("DAV::response", XMLWriter.CLOSING);
-
-        so = null;
     }
 
     private void writeSupportedLockElements( ITransaction transaction,
@@ -609,9 +615,14 @@ public class DoPropfind extends AbstractMethod {
     private void writeCustomProperties( ITransaction transaction,
                                         XMLWriter generatedXML,
                                         String path,
+                                        StoredObject so,
                                         boolean includeValue,
                                         Vector<String> propertiesFilter ) {
-        Map<String, Object> customProperties = store.getCustomProperties(transaction, path);
+        Map<String, Object> customProperties = so.getCustomProperties();
+        if (customProperties == null) {
+            // the store didn't load them with the object ...
+            customProperties = store.getCustomProperties(transaction, path);
+        }
         if (customProperties.isEmpty()) {
             return;
         }
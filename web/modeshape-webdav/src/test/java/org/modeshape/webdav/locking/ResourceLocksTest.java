@@ -0,0 +1,222 @@
+/*
+ * ModeShape (http://www.modeshape.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.modeshape.webdav.locking;
+
+import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsNull.notNullValue;
+import static org.hamcrest.core.IsNull.nullValue;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Mockito.mock;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.modeshape.webdav.ITransaction;
+
+public class ResourceLocksTest {
+
+    private static final int INFINITY = 3;
+    private static final int TIMEOUT = 60;
+    private static final int THREADS = 8;
+
+    private ResourceLocks locks;
+    private ITransaction transaction;
+    private ExecutorService executor;
+
+    @Before
+    public void beforeEach() {
+        locks = new ResourceLocks();
+        transaction = mock(ITransaction.class);
+        executor = Executors.newFixedThreadPool(THREADS);
+    }
+
+    @After
+    public void afterEach() throws Exception {
+        executor.shutdownNow();
+        executor.awaitTermination(10, TimeUnit.SECONDS);
+    }
+
+    @Test
+    public void shouldNotLockChildOfExclusivelyLockedFolder() throws Exception {
+        assertThat(locks.exclusiveLock(transaction, "/folder", "owner1", INFINITY, TIMEOUT), is(true));
+        assertThat(locks.exclusiveLock(transaction, "/folder/file", "owner2", 0, TIMEOUT), is(false));
+        assertThat(locks.sharedLock(transaction, "/folder/file", "owner2", 0, TIMEOUT), is(false));
+    }
+
+    @Test
+    public void shouldNotLockFolderWithExclusivelyLockedChild() throws Exception {
+        assertThat(locks.exclusiveLock(transaction, "/folder/file", "owner1", 0, TIMEOUT), is(true));
+        assertThat(locks.exclusiveLock(transaction, "/folder", "owner2", INFINITY, TIMEOUT), is(false));
+        assertThat(locks.sharedLock(transaction, "/folder", "owner2", INFINITY, TIMEOUT), is(false));
+        // a lock without depth doesn't care about the children ...
+        assertThat(locks.exclusiveLock(transaction, "/folder", "owner2", 0, TIMEOUT), is(true));
+    }
+
+    @Test
+    public void shouldShareLocksOfFolderAndChild() throws Exception {
+        assertThat(locks.sharedLock(transaction, "/folder", "owner1", INFINITY, TIMEOUT), is(true));
+        assertThat(locks.sharedLock(transaction, "/folder/file", "owner2", 0, TIMEOUT), is(true));
+        assertThat(locks.sharedLock(transaction, "/folder/file", "owner3", 0, TIMEOUT), is(true));
+        assertThat(locks.exclusiveLock(transaction, "/folder/file", "owner4", 0, TIMEOUT), is(false));
+        assertThat(locks.exclusiveLock(transaction, "/folder", "owner4", INFINITY, TIMEOUT), is(false));
+    }
+
+    @Test
+    public void shouldLockSiblingsIndependently() throws Exception {
+        assertThat(locks.exclusiveLock(transaction, "/folder/file1", "owner1", 0, TIMEOUT), is(true));
+        assertThat(locks.exclusiveLock(transaction, "/folder/file2", "owner2", 0, TIMEOUT), is(true));
+        assertThat(locks.exclusiveLock(transaction, "/other", "owner3", INFINITY, TIMEOUT), is(true));
+    }
+
+    @Test
+    public void shouldReleaseLockOnUnlock() throws Exception {
+        assertThat(locks.exclusiveLock(transaction, "/folder/file", "owner1", 0, TIMEOUT), is(true));
+        LockedObject lo = locks.getLockedObjectByPath(transaction, "/folder/file");
+        assertThat(lo, is(notNullValue()));
+        assertThat(locks.getLockedObjectByID(transaction, lo.getID()), is(lo));
+
+        assertThat(locks.unlock(transaction, lo.getID(), "owner1"), is(true));
+        assertThat(locks.getLockedObjectByPath(transaction, "/folder/file"), is(nullValue()));
+        assertThat(locks.exclusiveLock(transaction, "/folder", "owner2", INFINITY, TIMEOUT), is(true));
+    }
+
+    @Test
+    public void shouldReleaseTemporaryLockOnUnlock() throws Exception {
+        assertThat(locks.lock(transaction, "/folder/file", "owner1", true, 0, TIMEOUT, true), is(true));
+        assertThat(locks.lock(transaction, "/folder/file", "owner2", true, 0, TIMEOUT, true), is(false));
+        // temporary locks don't interfere with real locks ...
+        assertThat(locks.exclusiveLock(transaction, "/folder/file", "owner2", 0, TIMEOUT), is(true));
+
+        locks.unlockTemporaryLockedObjects(transaction, "/folder/file", "owner1");
+        assertThat(locks.lock(transaction, "/folder/file", "owner2", true, 0, TIMEOUT, true), is(true));
+    }
+
+    @Test
+    public void shouldRemoveExpiredLocks() throws Exception {
+        assertThat(locks.exclusiveLock(transaction, "/folder/expiring", "owner1", 0, 0), is(true));
+        assertThat(locks.exclusiveLock(transaction, "/folder/lasting", "owner1", 0, TIMEOUT), is(true));
+        Thread.sleep(10);
+
+        locks.checkTimeouts(transaction, false);
+        assertThat(locks.getLockedObjectByPath(transaction, "/folder/expiring"), is(nullValue()));
+        assertThat(locks.getLockedObjectByPath(transaction, "/folder/lasting"), is(notNullValue()));
+        assertThat(locks.exclusiveLock(transaction, "/folder/expiring", "owner2", 0, TIMEOUT), is(true));
+        assertThat(locks.exclusiveLock(transaction, "/folder/lasting", "owner2", 0, TIMEOUT), is(false));
+    }
+
+    @Test
+    public void shouldGrantExclusiveLockOfPathToOnlyOneOfConcurrentOwners() throws Exception {
+        for (int attempt = 0; attempt != 20; ++attempt) {
+            final String path = "/folder" + attempt + "/file";
+            List<Boolean> results = concurrently(new LockTask() {
+                @Override
+                public boolean lock( int thread ) throws Exception {
+                    return locks.exclusiveLock(transaction, path, "owner" + thread, 0, TIMEOUT);
+                }
+            });
+            int granted = 0;
+            for (Boolean result : results) {
+                if (result) {
+                    ++granted;
+                }
+            }
+            assertThat(granted, is(1));
+        }
+    }
+
+    @Test
+    public void shouldNotGrantConcurrentLocksOfFolderAndChild() throws Exception {
+        for (int attempt = 0; attempt != 20; ++attempt) {
+            final String folder = "/folder" + attempt;
+            List<Boolean> results = concurrently(new LockTask() {
+                @Override
+                public boolean lock( int thread ) throws Exception {
+                    // half of the threads lock the folder, and the other half lock its children ...
+                    String path = thread % 2 == 0 ? folder : folder + "/file" + thread;
+                    return locks.exclusiveLock(transaction, path, "owner" + thread, INFINITY, TIMEOUT);
+                }
+            });
+            boolean folderLocked = false;
+            int childrenLocked = 0;
+            for (int thread = 0; thread != THREADS; ++thread) {
+                if (results.get(thread)) {
+                    if (thread % 2 == 0) {
+                        assertThat(folderLocked, is(false));
+                        folderLocked = true;
+                    } else {
+                        ++childrenLocked;
+                    }
+                }
+            }
+            // either the folder or all of the children are locked ...
+            assertThat(folderLocked || childrenLocked == THREADS / 2, is(true));
+            assertThat(folderLocked && childrenLocked > 0, is(false));
+        }
+    }
+
+    @Test
+    public void shouldGrantConcurrentTemporaryLocksOfSiblings() throws Exception {
+        List<Boolean> results = concurrently(new LockTask() {
+            @Override
+            public boolean lock( int thread ) throws Exception {
+                String path = "/folder/file" + thread;
+                String owner = "owner" + thread;
+                for (int i = 0; i != 1000; ++i) {
+                    if (!locks.lock(transaction, path, owner, false, 0, TIMEOUT, true)) {
+                        return false;
+                    }
+                    locks.unlockTemporaryLockedObjects(transaction, path, owner);
+                }
+                return true;
+            }
+        });
+        for (Boolean result : results) {
+            assertThat(result, is(true));
+        }
+    }
+
+    private interface LockTask {
+        boolean lock( int thread ) throws Exception;
+    }
+
+    private List<Boolean> concurrently( final LockTask task ) throws Exception {
+        final CountDownLatch start = new CountDownLatch(1);
+        List<Future<Boolean>> futures = new ArrayList<Future<Boolean>>();
+        for (int thread = 0; thread != THREADS; ++thread) {
+            final int index = thread;
+            futures.add(executor.submit(new Callable<Boolean>() {
+                @Override
+                public Boolean call() throws Exception {
+                    start.await();
+                    return task.lock(index);
+                }
+            }));
+        }
+        start.countDown();
+        List<Boolean> results = new ArrayList<Boolean>();
+        for (Future<Boolean> future : futures) {
+            results.add(future.get(30, TimeUnit.SECONDS));
+        }
+        return results;
+    }
+}
@@ -0,0 +1,120 @@
+/*
+ * ModeShape (http://www.modeshape.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.modeshape.webdav.methods;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import java.util.Date;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import org.junit.Before;
+import org.junit.Test;
+import org.modeshape.webdav.IMimeTyper;
+import org.modeshape.webdav.ITransaction;
+import org.modeshape.webdav.IWebdavStore;
+import org.modeshape.webdav.StoredObject;
+import org.modeshape.webdav.WebdavStatus;
+import org.modeshape.webdav.locking.ResourceLocks;
+
+public class DoHeadTest {
+
+    private static final String PATH = "/file.txt";
+    private static final String HASH = "0123456789abcdef0123456789abcdef01234567";
+
+    private IWebdavStore store;
+    private ITransaction transaction;
+    private HttpServletRequest request;
+    private HttpServletResponse response;
+    private StoredObject file;
+    private DoHead doHead;
+
+    @Before
+    public void beforeEach() {
+        store = mock(IWebdavStore.class);
+        transaction = mock(ITransaction.class);
+        request = mock(HttpServletRequest.class);
+        response = mock(HttpServletResponse.class);
+        file = new StoredObject();
+        file.setFolder(false);
+        file.setLastModified(new Date());
+        file.setResourceLength(10);
+        when(request.getPathInfo()).thenReturn(PATH);
+        when(request.getMethod()).thenReturn("HEAD");
+        when(store.getStoredObject(transaction, PATH)).thenReturn(file);
+        doHead = new DoHead(store, null, null, new ResourceLocks(), mock(IMimeTyper.class), 1);
+    }
+
+    @Test
+    public void shouldSendStrongETagOfContentWithKnownHash() throws Exception {
+        file.setContentHash(HASH);
+        doHead.execute(transaction, request, response);
+        verify(response).addHeader("ETag", "\"" + HASH + "\"");
+    }
+
+    @Test
+    public void shouldSendWeakETagOfContentWithUnknownHash() throws Exception {
+        doHead.execute(transaction, request, response);
+        verify(response).addHeader("ETag", weakETag());
+    }
+
+    @Test
+    public void shouldAnswerNotModifiedWhenETagMatches() throws Exception {
+        file.setContentHash(HASH);
+        when(request.getHeader("If-None-Match")).thenReturn("\"other\", \"" + HASH + "\"");
+        doHead.execute(transaction, request, response);
+        verify(response).setStatus(WebdavStatus.SC_NOT_MODIFIED);
+    }
+
+    @Test
+    public void shouldAnswerNotModifiedWhenWeakETagMatchesContentWithUnknownHash() throws Exception {
+        when(request.getHeader("If-None-Match")).thenReturn(weakETag());
+        doHead.execute(transaction, request, response);
+        verify(response).setStatus(WebdavStatus.SC_NOT_MODIFIED);
+        verify(response).addHeader("ETag", weakETag());
+    }
+
+    @Test
+    public void shouldNotAnswerNotModifiedWhenWeakETagIsStale() throws Exception {
+        when(request.getHeader("If-None-Match")).thenReturn("W/\"10-0\"");
+        doHead.execute(transaction, request, response);
+        verify(response, never()).setStatus(WebdavStatus.SC_NOT_MODIFIED);
+    }
+
+    @Test
+    public void shouldHonorIfRangeWithStrongETagOfContent() throws Exception {
+        file.setContentHash(HASH);
+        when(request.getMethod()).thenReturn("GET");
+        when(request.getHeader("Range")).thenReturn("bytes=0-4");
+        when(request.getHeader("If-Range")).thenReturn("\"" + HASH + "\"");
+        doHead.execute(transaction, request, response);
+        verify(response).setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+    }
+
+    @Test
+    public void shouldIgnoreRangeWhenIfRangeHasWeakETag() throws Exception {
+        when(request.getMethod()).thenReturn("GET");
+        when(request.getHeader("Range")).thenReturn("bytes=0-4");
+        when(request.getHeader("If-Range")).thenReturn(weakETag());
+        doHead.execute(transaction, request, response);
+        verify(response, never()).setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+    }
+
+    private String weakETag() {
+        return "W/\"" + file.getResourceLength() + "-" + file.getLastModified().getTime() + "\"";
+    }
+}
@@ -0,0 +1,132 @@
+/*
+ * ModeShape (http://www.modeshape.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.modeshape.webdav.methods;
+
+import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.StringContains.containsString;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.util.Collections;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import org.junit.Before;
+import org.junit.Test;
+import org.modeshape.webdav.IMimeTyper;
+import org.modeshape.webdav.ITransaction;
+import org.modeshape.webdav.IWebdavStore;
+import org.modeshape.webdav.StoredObject;
+import org.modeshape.webdav.WebdavStatus;
+import org.modeshape.webdav.locking.ResourceLocks;
+
+public class DoPropfindTest {
+
+    private IWebdavStore store;
+    private ITransaction transaction;
+    private HttpServletRequest request;
+    private HttpServletResponse response;
+    private StringWriter output;
+    private DoPropfind doPropfind;
+
+    @Before
+    public void beforeEach() throws Exception {
+        store = mock(IWebdavStore.class);
+        transaction = mock(ITransaction.class);
+        request = mock(HttpServletRequest.class);
+        response = mock(HttpServletResponse.class);
+        output = new StringWriter();
+        when(request.getPathInfo()).thenReturn("/folder");
+        when(request.getContextPath()).thenReturn("/webdav");
+        when(request.getServletPath()).thenReturn("");
+        when(request.getHeader("Depth")).thenReturn("1");
+        when(response.getWriter()).thenReturn(new PrintWriter(output));
+        when(store.getStoredObject(transaction, "/folder")).thenReturn(storedObject(true));
+        when(store.getCustomNamespaces(transaction, "/folder")).thenReturn(Collections.<String, String>emptyMap());
+        doPropfind = new DoPropfind(store, new ResourceLocks(), mock(IMimeTyper.class));
+    }
+
+    private StoredObject storedObject( boolean folder ) {
+        StoredObject so = new StoredObject();
+        so.setFolder(folder);
+        so.setLastModified(new Date());
+        so.setCreationDate(new Date());
+        so.setResourceLength(folder ? 0 : 10);
+        return so;
+    }
+
+    @Test
+    public void shouldListChildrenLoadedAllAtOnce() throws Exception {
+        Map<String, StoredObject> children = new LinkedHashMap<String, StoredObject>();
+        children.put("file.txt", storedObject(false));
+        children.put("subfolder", storedObject(true));
+        when(store.getChildren(transaction, "/folder")).thenReturn(children);
+
+        doPropfind.execute(transaction, request, response);
+
+        verify(response).setStatus(WebdavStatus.SC_MULTI_STATUS);
+        assertThat(output.toString(), containsString("/webdav/folder/</D:href>"));
+        assertThat(output.toString(), containsString("/webdav/folder/file.txt</D:href>"));
+        assertThat(output.toString(), containsString("/webdav/folder/subfolder/</D:href>"));
+        // the children are not resolved one by one ...
+        verify(store, never()).getChildrenNames(transaction, "/folder");
+        verify(store, never()).getStoredObject(transaction, "/folder/file.txt");
+    }
+
+    @Test
+    public void shouldListChildrenResolvedByDefault() throws Exception {
+        store = mock(ChildrenResolvingStore.class);
+        when(store.getStoredObject(transaction, "/folder")).thenReturn(storedObject(true));
+        when(store.getCustomNamespaces(transaction, "/folder")).thenReturn(Collections.<String, String>emptyMap());
+        when(store.getChildren(transaction, "/folder")).thenCallRealMethod();
+        doPropfind = new DoPropfind(store, new ResourceLocks(), mock(IMimeTyper.class));
+        when(store.getChildrenNames(transaction, "/folder")).thenReturn(new String[] {"file.txt", "removed.txt"});
+        when(store.getStoredObject(transaction, "/folder/file.txt")).thenReturn(storedObject(false));
+
+        doPropfind.execute(transaction, request, response);
+
+        verify(response).setStatus(WebdavStatus.SC_MULTI_STATUS);
+        assertThat(output.toString(), containsString("/webdav/folder/file.txt</D:href>"));
+        // children which disappear while listing are skipped ...
+        assertThat(output.toString().contains("removed.txt"), is(false));
+        verify(store).getStoredObject(transaction, "/folder/removed.txt");
+    }
+
+    @Test
+    public void shouldNotLoadChildrenWithoutDepth() throws Exception {
+        when(request.getHeader("Depth")).thenReturn("0");
+
+        doPropfind.execute(transaction, request, response);
+
+        verify(response).setStatus(WebdavStatus.SC_MULTI_STATUS);
+        verify(store, never()).getChildren(eq(transaction), anyString());
+    }
+
+    /**
+     * A store which relies on the default {@link IWebdavStore#getChildren(ITransaction, String)}, which can't be called on an
+     * interface mock.
+     */
+    protected static abstract class ChildrenResolvingStore implements IWebdavStore {
+    }
+}